@@ -0,0 +1,40 @@
+package com.aristoco.benchmark;
+
+import com.aristoco.core.event.ApplicationEvent;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/25
+ * @description 基准测试用的事件子类
+ **/
+@EqualsAndHashCode(callSuper = true)
+@Data
+@NoArgsConstructor
+@ToString(callSuper = true)
+public class BenchmarkEvent extends ApplicationEvent {
+
+    /**
+     * 玩家id
+     */
+    private long playerId;
+
+    /**
+     * 等级
+     */
+    private int level;
+
+    /**
+     * 名字
+     */
+    private String name;
+
+    public BenchmarkEvent(long playerId, int level, String name) {
+        this.playerId = playerId;
+        this.level = level;
+        this.name = name;
+    }
+}
@@ -0,0 +1,29 @@
+package com.aristoco.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/25
+ * @description 基准测试入口
+ * <p> 默认带上gc分析,结果中的gc.alloc.rate.norm即每个事件分配的字节数
+ * <p> 其他参数和jmh的命令行一致,例如只跑条件相关的：java -jar benchmarks.jar EventPipelineBenchmark -p condition=NONE,MVEL
+ **/
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        OptionsBuilder optionsBuilder = new OptionsBuilder();
+        optionsBuilder.parent(commandLineOptions);
+        if (commandLineOptions.getIncludes().isEmpty()) {
+            optionsBuilder.include("com\\.aristoco\\.benchmark\\..*");
+        }
+        optionsBuilder.addProfiler(GCProfiler.class);
+        new Runner(optionsBuilder.build()).run();
+    }
+}
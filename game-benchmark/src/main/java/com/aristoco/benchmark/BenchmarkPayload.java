@@ -0,0 +1,31 @@
+package com.aristoco.benchmark;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/25
+ * @description 基准测试用的payload,字段和{@link BenchmarkEvent}一致
+ **/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BenchmarkPayload {
+
+    /**
+     * 玩家id
+     */
+    private long playerId;
+
+    /**
+     * 等级
+     */
+    private int level;
+
+    /**
+     * 名字
+     */
+    private String name;
+}
@@ -0,0 +1,86 @@
+package com.aristoco.benchmark;
+
+import com.aristoco.core.event.ApplicationEvent;
+import com.aristoco.core.event.BatchApplicationEvent;
+import com.aristoco.core.event.PayloadApplicationEvent;
+import com.aristoco.core.event.codec.ApplicationEventClassTable;
+import com.aristoco.core.event.codec.ApplicationEventMessageCodec;
+import io.vertx.core.buffer.Buffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/25
+ * @description 集群投递时事件二进制编码器的编解码
+ * <p> 单机的eventbus不会经过编解码,集群节点之间的投递开销在这里衡量
+ **/
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventCodecBenchmark {
+
+    /**
+     * 批量事件的数量
+     */
+    private static final int BATCH_SIZE = 32;
+
+    /**
+     * 事件类型 EVENT:事件子类 PAYLOAD:payload事件 BATCH:批量事件
+     */
+    @Param({"EVENT", "PAYLOAD", "BATCH"})
+    public String eventType;
+
+    private final ApplicationEventMessageCodec codec = new ApplicationEventMessageCodec();
+
+    private ApplicationEvent event;
+
+    private Buffer encoded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        //集群中由订阅时注册,这里直接注册
+        ApplicationEventClassTable.register(BenchmarkEvent.class);
+        ApplicationEventClassTable.register(PayloadApplicationEvent.class);
+        ApplicationEventClassTable.register(BenchmarkPayload.class);
+        event = switch (eventType) {
+            case "PAYLOAD" -> new PayloadApplicationEvent<>(new BenchmarkPayload(10001L, 10, "player"));
+            case "BATCH" -> {
+                List<ApplicationEvent> events = new ArrayList<>(BATCH_SIZE);
+                for (int i = 0; i < BATCH_SIZE; i++) {
+                    events.add(new BenchmarkEvent(10001L + i, 10, "player"));
+                }
+                yield new BatchApplicationEvent(events);
+            }
+            default -> new BenchmarkEvent(10001L, 10, "player");
+        };
+        encoded = Buffer.buffer();
+        codec.encodeToWire(encoded, event);
+    }
+
+    @Benchmark
+    public Buffer encode() {
+        Buffer buffer = Buffer.buffer();
+        codec.encodeToWire(buffer, event);
+        return buffer;
+    }
+
+    @Benchmark
+    public ApplicationEvent decode() {
+        return codec.decodeFromWire(0, encoded);
+    }
+
+    /**
+     * 本地非本地监听投递时的复制
+     */
+    @Benchmark
+    public ApplicationEvent transform() {
+        return codec.transform(event);
+    }
+}
@@ -0,0 +1,135 @@
+package com.aristoco.benchmark;
+
+import com.aristoco.core.bean.definition.EventListenerBeanClassDefinition;
+import com.aristoco.core.event.ApplicationEvent;
+import com.aristoco.core.event.invoker.EventListenerArgumentResolver;
+import com.aristoco.core.event.invoker.EventListenerInvoker;
+import com.aristoco.core.event.invoker.EventListenerInvokerFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/25
+ * @description 注解监听方法的调用方式对比
+ * <p> direct:直接调用 generated:启动时生成的执行器 reflect:Method.invoke(生成执行器之前的方式)
+ * <p> 分别衡量有返回值和没有返回值(void)的监听方法,void方法的执行器需要单独生成返回null的分支
+ **/
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventListenerInvokerBenchmark {
+
+    private final BenchmarkEventListener listener = new BenchmarkEventListener();
+
+    private final ApplicationEvent event = new BenchmarkEvent(10001L, 10, "player");
+
+    private EventListenerInvoker generatedInvoker;
+
+    private Method method;
+
+    private EventListenerArgumentResolver[] resolvers;
+
+    private EventListenerInvoker voidGeneratedInvoker;
+
+    private Method voidMethod;
+
+    private EventListenerArgumentResolver[] voidResolvers;
+
+    @Setup(Level.Trial)
+    public void setup() throws NoSuchMethodException {
+        method = BenchmarkEventListener.class.getMethod("onEvent", BenchmarkEvent.class);
+        EventListenerBeanClassDefinition beanClassDefinition = createDefinition(method);
+        generatedInvoker = EventListenerInvokerFactory.create(beanClassDefinition, BenchmarkEvent.class, listener);
+        resolvers = EventListenerInvokerFactory.getArgumentResolvers(beanClassDefinition, BenchmarkEvent.class);
+
+        voidMethod = BenchmarkEventListener.class.getMethod("onVoidEvent", BenchmarkEvent.class);
+        EventListenerBeanClassDefinition voidBeanClassDefinition = createDefinition(voidMethod);
+        voidGeneratedInvoker = EventListenerInvokerFactory.create(voidBeanClassDefinition, BenchmarkEvent.class,
+                listener);
+        voidResolvers = EventListenerInvokerFactory.getArgumentResolvers(voidBeanClassDefinition,
+                BenchmarkEvent.class);
+    }
+
+    @Benchmark
+    public Object direct() {
+        return listener.onEvent((BenchmarkEvent) event);
+    }
+
+    @Benchmark
+    public Object generated() throws Throwable {
+        return generatedInvoker.invoke(event);
+    }
+
+    @Benchmark
+    public Object reflect() throws Throwable {
+        Object[] args = new Object[resolvers.length];
+        for (int i = 0; i < resolvers.length; i++) {
+            args[i] = resolvers[i].resolve(event);
+        }
+        return method.invoke(listener, args);
+    }
+
+    @Benchmark
+    public Object directVoid() {
+        listener.onVoidEvent((BenchmarkEvent) event);
+        return null;
+    }
+
+    @Benchmark
+    public Object generatedVoid() throws Throwable {
+        return voidGeneratedInvoker.invoke(event);
+    }
+
+    @Benchmark
+    public Object reflectVoid() throws Throwable {
+        Object[] args = new Object[voidResolvers.length];
+        for (int i = 0; i < voidResolvers.length; i++) {
+            args[i] = voidResolvers[i].resolve(event);
+        }
+        return voidMethod.invoke(listener, args);
+    }
+
+    /**
+     * 创建监听方法的类定义
+     *
+     * @param listenerMethod 监听方法
+     * @return 类定义
+     */
+    private static EventListenerBeanClassDefinition createDefinition(Method listenerMethod) {
+        EventListenerBeanClassDefinition.ParameterBeanClassDefinition parameterDefinition =
+                new EventListenerBeanClassDefinition.ParameterBeanClassDefinition();
+        parameterDefinition.setParameterClass(BenchmarkEvent.class);
+        parameterDefinition.setParameterName("event");
+        EventListenerBeanClassDefinition beanClassDefinition = new EventListenerBeanClassDefinition();
+        beanClassDefinition.setClazz(BenchmarkEventListener.class);
+        beanClassDefinition.setMethod(listenerMethod);
+        beanClassDefinition.setParameterBeanClassDefinitions(List.of(parameterDefinition));
+        return beanClassDefinition;
+    }
+
+    /**
+     * 基准测试用的注解监听
+     */
+    public static class BenchmarkEventListener {
+
+        /**
+         * 执行次数,void监听的副作用,避免调用被优化掉
+         */
+        private long count;
+
+        public Object onEvent(BenchmarkEvent event) {
+            return event.getLevel();
+        }
+
+        public void onVoidEvent(BenchmarkEvent event) {
+            count += event.getLevel();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.aristoco.benchmark;
+
+import com.aristoco.core.GameApplicationContext;
+import com.aristoco.core.config.ApplicationEventExecutorConfig;
+import com.aristoco.core.event.ApplicationEvent;
+import com.aristoco.core.event.ApplicationListener;
+import com.aristoco.core.event.EventBusApplicationEventMulticaster;
+import com.aristoco.core.event.PayloadApplicationEvent;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/25
+ * @description 事件发布到监听执行完成的完整链路
+ * <p> 通过{@link EventBusApplicationEventMulticaster#multicastEventWithCompletion}发布,等待所有监听执行完成
+ * <p> 参数组合：投递方式、共享/独立监听、事件子类/payload事件、条件(无/编译/mvel)、是否使用线程池
+ * <p> roundTrip为单个事件的往返,SampleTime模式输出延迟分位数;pipelined一次发布多个事件再等待,衡量吞吐
+ **/
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventPipelineBenchmark {
+
+    /**
+     * 一次发布的事件数
+     */
+    private static final int PIPELINE_SIZE = 64;
+
+    /**
+     * 每种监听注册的监听器数量
+     */
+    private static final int LISTENER_COUNT = 2;
+
+    /**
+     * 投递方式
+     * <p> LOCAL:本地监听,使用本地编码器直接传递事件对象
+     * <p> CODEC:非本地监听,经过事件二进制编码器复制事件(集群的编解码见{@link EventCodecBenchmark})
+     */
+    @Param({"LOCAL", "CODEC"})
+    public String delivery;
+
+    /**
+     * 是否独立监听,独立监听每个监听器一个消费者
+     */
+    @Param({"false", "true"})
+    public boolean alone;
+
+    /**
+     * 事件类型 EVENT:事件子类 PAYLOAD:payload事件
+     */
+    @Param({"EVENT", "PAYLOAD"})
+    public String eventType;
+
+    /**
+     * 条件 NONE:没有条件 COMPILED:编译为java判断 MVEL:mvel执行
+     */
+    @Param({"NONE", "COMPILED", "MVEL"})
+    public String condition;
+
+    /**
+     * 是否在事件线程池中执行
+     */
+    @Param({"false", "true"})
+    public boolean executor;
+
+    private Vertx vertx;
+
+    private EventBusApplicationEventMulticaster multicaster;
+
+    private ApplicationEvent event;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        vertx = Vertx.vertx();
+        GameApplicationContext context = new GameApplicationContext();
+        context.setVertx(vertx);
+        ApplicationEventExecutorConfig config = new ApplicationEventExecutorConfig();
+        ApplicationEventExecutorConfig.ExecutorConfig executorConfig = config.getExecutor();
+        executorConfig.setEnable(executor);
+        executorConfig.setOrder(false);
+        executorConfig.setPoolSize(4);
+        multicaster = new EventBusApplicationEventMulticaster(context, vertx, vertx.eventBus(), config);
+        multicaster.init();
+
+        boolean payload = "PAYLOAD".equals(eventType);
+        String conditionStr = getCondition(payload);
+        for (int i = 0; i < LISTENER_COUNT; i++) {
+            if (payload) {
+                multicaster.addApplicationListener(BenchmarkPayload.class,
+                        new BenchmarkListener<PayloadApplicationEvent<BenchmarkPayload>>(conditionStr));
+            } else {
+                multicaster.addApplicationListener(BenchmarkEvent.class,
+                        new BenchmarkListener<BenchmarkEvent>(conditionStr));
+            }
+        }
+        event = payload ? new PayloadApplicationEvent<>(new BenchmarkPayload(10001L, 10, "player")) :
+                new BenchmarkEvent(10001L, 10, "player");
+        //等待消费者注册完成
+        await(multicaster.whenConsumersRegistered());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        vertx.close().toCompletionStage().toCompletableFuture().join();
+    }
+
+    /**
+     * 单个事件发布并等待执行完成
+     */
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+    public void roundTrip() {
+        await(multicaster.multicastEventWithCompletion(event));
+    }
+
+    /**
+     * 连续发布多个事件再等待全部执行完成
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OperationsPerInvocation(PIPELINE_SIZE)
+    public void pipelined() {
+        List<Future<Void>> futures = new ArrayList<>(PIPELINE_SIZE);
+        for (int i = 0; i < PIPELINE_SIZE; i++) {
+            futures.add(multicaster.multicastEventWithCompletion(event));
+        }
+        await(Future.all(futures));
+    }
+
+    /**
+     * 获取监听条件,条件都成立,只衡量判断的开销
+     *
+     * @param payload 是否payload事件
+     * @return 条件表达式,没有条件为空字符串
+     */
+    private String getCondition(boolean payload) {
+        String level = payload ? "event.payload.level" : "event.level";
+        return switch (condition) {
+            case "COMPILED" -> level + " > 0";
+            //算术不支持编译,使用mvel执行
+            case "MVEL" -> level + " + 1 > 0";
+            default -> "";
+        };
+    }
+
+    /**
+     * 等待执行完成
+     *
+     * @param future 执行结果
+     */
+    private static void await(Future<?> future) {
+        future.toCompletionStage().toCompletableFuture().join();
+    }
+
+    /**
+     * 基准测试用的监听器,只计数
+     */
+    public class BenchmarkListener<E extends ApplicationEvent> implements ApplicationListener<E> {
+
+        /**
+         * 监听条件
+         */
+        private final String conditionExpression;
+
+        /**
+         * 执行次数
+         */
+        private long count;
+
+        public BenchmarkListener(String conditionExpression) {
+            this.conditionExpression = conditionExpression;
+        }
+
+        @Override
+        public void onApplicationEvent(E event) {
+            count++;
+        }
+
+        @Override
+        public boolean isAlone() {
+            return alone;
+        }
+
+        @Override
+        public boolean isLocal() {
+            return "LOCAL".equals(delivery);
+        }
+
+        @Override
+        public String condition() {
+            return conditionExpression;
+        }
+    }
+}
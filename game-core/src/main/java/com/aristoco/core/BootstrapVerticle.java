@@ -195,6 +195,13 @@ public final class BootstrapVerticle extends BaseVerticle {
             deploymentOptions.setConfig(config);
         }
         config.put(EVENT_SOURCE_FLAG, verticleClassDefinition.getEventSource().getName());
+        //部署配置的预热开关优先于注解,通过部署配置传给各个实例
+        Boolean eagerWarmup = verticleBaseConfig.getEagerWarmup();
+        if (eagerWarmup != null) {
+            config.put(EAGER_WARMUP_FLAG, eagerWarmup);
+        } else {
+            config.remove(EAGER_WARMUP_FLAG);
+        }
         return vertx.deployVerticle(deployVerticleFactory.getVerticle(verticleClassDefinition), deploymentOptions)
                 .compose(deploymentId -> {
                     VerticleInfo verticleInfo = new VerticleInfo();
@@ -2,6 +2,7 @@ package com.aristoco.core;
 
 import cn.hutool.core.annotation.AnnotationUtil;
 import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.date.StopWatch;
 import cn.hutool.core.io.resource.ResourceUtil;
 import cn.hutool.core.util.ArrayUtil;
 import cn.hutool.core.util.StrUtil;
@@ -12,18 +13,16 @@ import com.aristoco.core.config.CustomConfigStoreOptions;
 import com.aristoco.core.config.VerticleBaseConfig;
 import com.aristoco.core.constant.GameApplicationConstants;
 import com.aristoco.core.event.ApplicationEventMulticaster;
-import com.aristoco.core.event.ApplicationListener;
 import com.aristoco.core.event.EventBusApplicationEventMulticaster;
-import com.aristoco.core.event.PayloadApplicationEvent;
-import com.aristoco.core.event.annotation.EventListener;
 import com.aristoco.core.exception.*;
 import com.aristoco.core.guice.GuiceVerticleFactory;
 import com.aristoco.core.jackson.GameJacksonConfig;
 import com.aristoco.core.jackson.JsonArrayDeserializer;
 import com.aristoco.core.jackson.JsonObjectDeserializer;
-import com.aristoco.core.utils.MvelUtils;
-import com.aristoco.core.utils.ReflectionUtils;
-import com.aristoco.core.utils.StringUtils;
+import com.aristoco.core.scan.ApplicationClassIndex;
+import com.aristoco.core.scan.ApplicationClassInfo;
+import com.aristoco.core.scan.ApplicationDefinitionTable;
+import com.aristoco.core.utils.ForkJoinUtils;
 import com.aristoco.core.utils.TimeUtils;
 import com.aristoco.core.vertx.VerticleDeployFailedHandle;
 import com.aristoco.core.vertx.VertxAfterStopHandle;
@@ -37,8 +36,8 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
 import com.google.inject.Module;
-import com.google.inject.Provider;
-import io.github.classgraph.*;
+import io.github.classgraph.ClassGraph;
+import io.github.classgraph.ScanResult;
 import io.vertx.config.ConfigRetriever;
 import io.vertx.config.ConfigRetrieverOptions;
 import io.vertx.config.ConfigStoreOptions;
@@ -47,26 +46,25 @@ import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.json.jackson.DatabindCodec;
 import io.vertx.core.json.jackson.VertxModule;
-import jakarta.annotation.PostConstruct;
-import lombok.Cleanup;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.yaml.snakeyaml.Yaml;
 
 import java.io.File;
-import java.io.Serializable;
-import java.lang.reflect.*;
+import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.stream.IntStream;
 
 import static com.aristoco.core.constant.GameApplicationConstants.BASE_SCAN_PACKAGE_PATH;
-import static com.aristoco.core.utils.ClassUtils.isPrimitiveOrString;
 
 /**
  * @author chenguowei
@@ -207,11 +205,19 @@ public class GameApplication extends Launcher {
         //定义当前jackson的模式
         configureJson();
 
-        //扫描当前应用所需的类信息
-        @Cleanup ScanResult scanResult = scanApplicationClassInfos();
+        //记录上下文初始化各阶段的耗时
+        StopWatch stopWatch = StopWatch.create("应用上下文初始化");
+
+        //加载当前应用所需的类信息,优先使用编译期生成的类索引
+        stopWatch.start("加载类信息");
+        ApplicationClassIndex classIndex = loadApplicationClassIndex();
+        stopWatch.stop();
 
         //初始化上下文信息
-        ClassInfoList verticleClassInfoList = initGameApplicationContext(scanResult);
+        int parallelism = getInitParallelism();
+        List<ApplicationClassInfo> verticleClassInfoList = initGameApplicationContext(classIndex, parallelism, stopWatch);
+        log.info("应用上下文初始化完成,Verticle数量：{},并行数：{},总耗时：{} ms\n{}", verticleClassInfoList.size(),
+                parallelism, stopWatch.getTotalTimeMillis(), stopWatch.prettyPrint(TimeUnit.MILLISECONDS));
 
         //todo 配置添加是否要部署Verticle，否则是用于高可用的
 
@@ -225,85 +231,165 @@ public class GameApplication extends Launcher {
 
     /**
      * 初始化上下文信息
+     * <p> 类索引只分类一次,每个Verticle使用自己范围内的视图注册到上下文
+     * <p> 分类、每个Verticle视图的准备和注册到上下文在fork-join线程池中并行处理,上下文按Verticle顺序在主线程创建
      *
-     * @param scanResult 类扫描结果
-     * @param scanResult
+     * @param classIndex  类索引
+     * @param parallelism 并行数
+     * @param stopWatch   记录各阶段耗时
      * @return 返回所有的Verticle类信息
      */
-    @SuppressWarnings("unchecked")
-    private ClassInfoList initGameApplicationContext(ScanResult scanResult) {
+    private List<ApplicationClassInfo> initGameApplicationContext(ApplicationClassIndex classIndex, int parallelism,
+                                                                  StopWatch stopWatch) {
         //找到当前启动目录下的所有Verticle
-        ClassInfoList verticleClassInfoList = scanResult.getClassesWithAnnotation(DeployVerticle.class.getName());
-        verticleClassInfoList.forEach(classInfo -> {
-            //判断是否是引导类
-            boolean isBootstrapVerticle = isBootstrapVerticleClassInfo(classInfo);
-
-            Class<? extends BaseVerticle> verticleClass = (Class<? extends BaseVerticle>) classInfo.loadClass();
-            DeployVerticle deployVerticle = AnnotationUtil.getSynthesizedAnnotation(verticleClass, DeployVerticle.class);
-            //获取Verticle特有的guice模块
-            Class<Module>[] extraGuiceModule = deployVerticle.extraGuiceModule();
-            registerGuiceModule(extraGuiceModule);
-
-            //初始化上下文对象
-            GameApplicationContext gameApplicationContext;
-            if (isBootstrapVerticle) {
-                gameApplicationContext = GameApplicationContextFactory.getBootstrapApplicationContext();
-            } else {
-                gameApplicationContext = GameApplicationContextFactory.createGameApplicationContext(verticleClass);
+        List<ApplicationClassInfo> verticleClassInfoList = classIndex.getClassesWithAnnotation(DeployVerticle.class);
+        //获取每个Verticle对应的类过滤器
+        List<Predicate<ApplicationClassInfo>> verticleClassInfoFilters = verticleClassInfoList.stream()
+                .map(this::getVerticleClassInfoFilter)
+                .toList();
+
+        ForkJoinPool pool = parallelism > 1 ?
+                ForkJoinUtils.createPool(parallelism, "game-context-init", startClass.getClassLoader()) : null;
+        try {
+            //所有Verticle共用一次分类的结果,不在任何Verticle范围内的类不处理
+            stopWatch.start("分类应用类");
+            ApplicationDefinitionTable definitionTable = ApplicationDefinitionTable.classify(classIndex,
+                    classInfo -> verticleClassInfoFilters.stream()
+                            .anyMatch(packageFilter -> packageFilter.test(classInfo)), pool);
+            stopWatch.stop();
+
+            //准备每个Verticle范围内的视图
+            stopWatch.start("准备Verticle视图");
+            List<ApplicationDefinitionTable> verticleDefinitionTables = ForkJoinUtils.invokeAll(pool,
+                    verticleClassInfoFilters, definitionTable::filter);
+            stopWatch.stop();
+
+            //按Verticle顺序创建上下文,引导上下文的复制依赖创建的顺序
+            stopWatch.start("创建Verticle上下文");
+            List<GameApplicationContext> gameApplicationContexts = new ArrayList<>(verticleClassInfoList.size());
+            for (int i = 0; i < verticleClassInfoList.size(); i++) {
+                gameApplicationContexts.add(createGameApplicationContext(verticleClassInfoList.get(i),
+                        verticleDefinitionTables.get(i)));
             }
-            //添加额外的guice模块
-            if (!extraModules.isEmpty()) {
-                gameApplicationContext.getExtraGuiceModule().addAll(extraModules);
+            stopWatch.stop();
+
+            //每个上下文只注册自己的定义,互不影响,并行注册
+            stopWatch.start("注册Verticle上下文");
+            ForkJoinUtils.invokeAll(pool, IntStream.range(0, verticleClassInfoList.size()).boxed().toList(), i -> {
+                GameApplicationContext gameApplicationContext = gameApplicationContexts.get(i);
+                if (gameApplicationContext != null) {
+                    handleDependencyManagementClass(gameApplicationContext, verticleDefinitionTables.get(i));
+                }
+                return gameApplicationContext;
+            });
+            stopWatch.stop();
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
             }
+        }
+        return verticleClassInfoList;
+    }
 
-            //获取对应的类过滤器
-            ClassInfoList.ClassInfoFilter packageFilter;
-            if (!isBootstrapVerticle) {
-                //先白名单在黑名单过滤
-                Set<String> excludeClassNameSet = Arrays.stream(deployVerticle.excludeClasses())
-                        .map(Class::getName)
-                        .collect(Collectors.toSet());
-                Set<String> excludePackageNameSet = Arrays.stream(deployVerticle.excludePackageName())
-                        .collect(Collectors.toSet());
-                Set<String> includePackageNameSet = Arrays.stream(deployVerticle.includePackageName())
-                        .collect(Collectors.toSet());
-                Set<String> includeClassNameSet = Arrays.stream(deployVerticle.includePackageClasses())
-                        .map(Class::getName)
-                        .collect(Collectors.toSet());
-                //添加当前Verticle路径
-                includePackageNameSet.add(classInfo.getPackageInfo().getName());
-                //先排除一下黑名单
-                includeClassNameSet.removeAll(excludeClassNameSet);
-                includePackageNameSet.removeAll(excludePackageNameSet);
-                packageFilter = getClassInfoFilter(classInfo.getName(), includeClassNameSet, excludeClassNameSet,
-                        includePackageNameSet, excludePackageNameSet);
-            } else {
-                //bootstrap单独去加载一些框架配置
-                packageFilter = getBootstrapClassInfoFilter();
-            }
+    /**
+     * 创建Verticle的上下文
+     * <p> 其他上下文创建时会复制引导上下文,引导上下文在创建时直接注册,其他的返回后并行注册
+     *
+     * @param classInfo       Verticle类信息
+     * @param definitionTable 当前Verticle范围内的定义表
+     * @return 需要注册的上下文,引导上下文已经注册返回null
+     */
+    @SuppressWarnings("unchecked")
+    private GameApplicationContext createGameApplicationContext(ApplicationClassInfo classInfo,
+                                                                ApplicationDefinitionTable definitionTable) {
+        //判断是否是引导类
+        boolean isBootstrapVerticle = isBootstrapVerticleClassInfo(classInfo);
+
+        Class<? extends BaseVerticle> verticleClass = (Class<? extends BaseVerticle>) classInfo.loadClass();
+        DeployVerticle deployVerticle = AnnotationUtil.getSynthesizedAnnotation(verticleClass, DeployVerticle.class);
+        //获取Verticle特有的guice模块
+        Class<Module>[] extraGuiceModule = deployVerticle.extraGuiceModule();
+        registerGuiceModule(extraGuiceModule);
+
+        //初始化上下文对象
+        GameApplicationContext gameApplicationContext;
+        if (isBootstrapVerticle) {
+            gameApplicationContext = GameApplicationContextFactory.getBootstrapApplicationContext();
+        } else {
+            gameApplicationContext = GameApplicationContextFactory.createGameApplicationContext(verticleClass);
+            //引导verticle不预热,多绑定中的verticle都是单例
+            gameApplicationContext.setEagerWarmup(deployVerticle.eagerWarmup());
+        }
+        //添加额外的guice模块
+        if (!extraModules.isEmpty()) {
+            gameApplicationContext.getExtraGuiceModule().addAll(extraModules);
+        }
+        if (!isBootstrapVerticle) {
+            return gameApplicationContext;
+        }
 
-            //处理需要依赖管理的类
-            handleDependencyManagementClass(gameApplicationContext, scanResult, packageFilter);
+        //处理需要依赖管理的类
+        handleDependencyManagementClass(gameApplicationContext, definitionTable);
+        return null;
+    }
 
-        });
-        return verticleClassInfoList;
+    /**
+     * 获取启动时准备Verticle上下文的并行数
+     *
+     * @return 并行数
+     */
+    private int getInitParallelism() {
+        VertxGameApplication vertxGameApplication = AnnotationUtil.getAnnotation(startClass, VertxGameApplication.class);
+        int parallelism = vertxGameApplication.initParallelism();
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * 获取Verticle对应的类过滤器
+     *
+     * @param classInfo Verticle类信息
+     * @return 类过滤器
+     */
+    private Predicate<ApplicationClassInfo> getVerticleClassInfoFilter(ApplicationClassInfo classInfo) {
+        if (isBootstrapVerticleClassInfo(classInfo)) {
+            //bootstrap单独去加载一些框架配置
+            return getBootstrapClassInfoFilter();
+        }
+        DeployVerticle deployVerticle = AnnotationUtil.getSynthesizedAnnotation(classInfo.loadClass(), DeployVerticle.class);
+        //先白名单在黑名单过滤
+        Set<String> excludeClassNameSet = Arrays.stream(deployVerticle.excludeClasses())
+                .map(Class::getName)
+                .collect(Collectors.toSet());
+        Set<String> excludePackageNameSet = Arrays.stream(deployVerticle.excludePackageName())
+                .collect(Collectors.toSet());
+        Set<String> includePackageNameSet = Arrays.stream(deployVerticle.includePackageName())
+                .collect(Collectors.toSet());
+        Set<String> includeClassNameSet = Arrays.stream(deployVerticle.includePackageClasses())
+                .map(Class::getName)
+                .collect(Collectors.toSet());
+        //添加当前Verticle路径
+        includePackageNameSet.add(classInfo.getPackageName());
+        //先排除一下黑名单
+        includeClassNameSet.removeAll(excludeClassNameSet);
+        includePackageNameSet.removeAll(excludePackageNameSet);
+        return getClassInfoFilter(classInfo.getName(), includeClassNameSet, excludeClassNameSet,
+                includePackageNameSet, excludePackageNameSet);
     }
 
     /**
      * 获取Bootstrap类过滤器
      * @return 类过滤器
      */
-    private ClassInfoList.ClassInfoFilter getBootstrapClassInfoFilter() {
+    private Predicate<ApplicationClassInfo> getBootstrapClassInfoFilter() {
         return classInfo -> {
             //1、框架包全放过
-            String checkPackageName = classInfo.getPackageInfo().getName();
+            String checkPackageName = classInfo.getPackageName();
             boolean isInclude = checkPackageName.startsWith(BASE_SCAN_PACKAGE_PATH);
             if (isInclude) {
                 return true;
             }
             //2、Verticle部署配置
-            ClassInfo superclassInfo = classInfo.getSuperclass();
-            if (superclassInfo != null && VerticleBaseConfig.class.getName().equals(superclassInfo.getName())) {
+            if (VerticleBaseConfig.class.getName().equals(classInfo.getSuperclassName())) {
                 return true;
             }
             //...其他框架需要的配置
@@ -317,7 +403,7 @@ public class GameApplication extends Launcher {
      * @param classInfo
      * @return
      */
-    private boolean isBootstrapVerticleClassInfo(ClassInfo classInfo) {
+    private boolean isBootstrapVerticleClassInfo(ApplicationClassInfo classInfo) {
         return classInfo.getName().equals(BootstrapVerticle.class.getName());
     }
 
@@ -325,33 +411,29 @@ public class GameApplication extends Launcher {
      * 处理需要依赖管理的类
      *
      * @param gameApplicationContext 当前Verticle上下文
-     * @param scanResult             类扫描结果
-     * @param packageFilter          包过滤器
+     * @param definitionTable        当前Verticle范围内的定义表
      */
-    private void handleDependencyManagementClass(GameApplicationContext gameApplicationContext, ScanResult scanResult, ClassInfoList.ClassInfoFilter packageFilter) {
+    private void handleDependencyManagementClass(GameApplicationContext gameApplicationContext, ApplicationDefinitionTable definitionTable) {
         //处理固定要注入的类
-        handleFixedInjectClass(gameApplicationContext, scanResult, packageFilter);
+        handleFixedInjectClass(gameApplicationContext, definitionTable);
 
         //处理配置类的注入
-        handleConfigurationInjectClass(gameApplicationContext, scanResult, packageFilter);
+        handleConfigurationInjectClass(gameApplicationContext, definitionTable);
 
         //处理属性配置值注入
-        handleFiledConfigInjectValue(gameApplicationContext, scanResult, packageFilter);
+        handleFiledConfigInjectValue(gameApplicationContext, definitionTable);
 
         //处理初始化注解执行方法
-        handlePostConstructMethod(gameApplicationContext, scanResult, packageFilter);
+        handlePostConstructMethod(gameApplicationContext, definitionTable);
 
         //处理配置绑定类的注入
-        handleConfigBindClassInject(gameApplicationContext, scanResult, packageFilter);
+        handleConfigBindClassInject(gameApplicationContext, definitionTable);
 
         //处理事件多播器
-        handleEventMulticaster(gameApplicationContext, scanResult, packageFilter);
-
-        //处理事件监听注解
-        handleEventListenerAnnotation(gameApplicationContext, scanResult, packageFilter);
+        handleEventMulticaster(gameApplicationContext, definitionTable);
 
-        //处理事件监听接口
-        handleApplicationListenerInterface(gameApplicationContext, scanResult, packageFilter);
+        //处理事件监听注解和事件监听接口
+        handleEventListener(gameApplicationContext, definitionTable);
     }
 
     /**
@@ -365,17 +447,17 @@ public class GameApplication extends Launcher {
      * @param excludePackageNameSet 排除的路径集合
      * @return 返回类过滤器
      */
-    private ClassInfoList.ClassInfoFilter getClassInfoFilter(String verticleClassName, Set<String> includeClassNameSet,
+    private Predicate<ApplicationClassInfo> getClassInfoFilter(String verticleClassName, Set<String> includeClassNameSet,
                                                              Set<String> excludeClassNameSet,
                                                              Set<String> includePackageNameSet,
                                                              Set<String> excludePackageNameSet) {
         return classInfo -> {
             //排除非当前Verticle的类
-            if (classInfo.hasAnnotation(DeployVerticle.class.getName())
+            if (classInfo.hasAnnotation(DeployVerticle.class)
                     && !classInfo.getName().equals(verticleClassName)) {
                 return false;
             }
-            String checkPackageName = classInfo.getPackageInfo().getName();
+            String checkPackageName = classInfo.getPackageName();
             String checkClassName = classInfo.getName();
             boolean isInclude = checkPackageName.startsWith(BASE_SCAN_PACKAGE_PATH);
             if (!isInclude && includePackageNameSet != null && !includePackageNameSet.isEmpty()) {
@@ -405,173 +487,27 @@ public class GameApplication extends Launcher {
             return isInclude;
         };
     }
-
-    /**
-     * 处理事件监听接口
-     *
-     * @param gameApplicationContext 当前Verticle上下文
-     * @param scanResult             类扫描结果
-     * @param classInfoFilter        类过滤器
-     */
-    private void handleApplicationListenerInterface(GameApplicationContext gameApplicationContext, ScanResult scanResult,
-                                                    ClassInfoList.ClassInfoFilter classInfoFilter) {
-        scanResult.getClassesImplementing(ApplicationListener.class.getName())
-                .filter(classInfoFilter)
-                .filter(classInfo -> classInfo.hasAnnotation(Component.class.getName()))
-                .filter(classInfo -> !classInfo.isAbstract())
-                .filter(classInfo -> !classInfo.isInterface())
-                .forEach(classInfo -> {
-                    Class<?> clazz = classInfo.loadClass();
-                    Component component = AnnotationUtil.getSynthesizedAnnotation(clazz, Component.class);
-                    String beanName = component.value();
-                    if (StringUtils.isBlank(beanName)) {
-                        beanName = null;
-                    }
-                    //获取当前事件监听方法的参数名
-                    MethodInfo methodInfo = classInfo.getMethodInfo("onApplicationEvent").get(0);
-                    String parameterName = methodInfo.getParameterInfo()[0].getName();
-
-                    //处理监听的类
-                    for (Type genericInterface : clazz.getGenericInterfaces()) {
-                        if (genericInterface instanceof ParameterizedType pt) {
-                            if (!pt.getRawType().equals(ApplicationListener.class)) {
-                                continue;
-                            }
-                            //监听器只会携带一个泛型，必定是要带泛型
-                            ParameterizedType p = (ParameterizedType) pt.getActualTypeArguments()[0];
-                            Class<?> eventClass;
-                            Type rawType = p.getRawType();
-                            if (rawType.getTypeName().equals(PayloadApplicationEvent.class.getName())) {
-                                eventClass = (Class<?>) p.getActualTypeArguments()[0];
-                            } else {
-                                eventClass = (Class<?>) rawType;
-                            }
-
-                            EventListenerBeanClassDefinition beanClassDefinition = new EventListenerBeanClassDefinition();
-
-                            beanClassDefinition.setListenerClasses(Set.of(eventClass));
-                            beanClassDefinition.setPayloadEvent(true);
-                            beanClassDefinition.setParameterName(parameterName);
-
-                            beanClassDefinition.setClazz(clazz);
-                            beanClassDefinition.setBeanName(beanName);
-
-                            gameApplicationContext.getEventListeners().add(beanClassDefinition);
-                            break;
-                        }
-                    }
-                });
-    }
-
     /**
-     * 处理事件监听注解
+     * 处理事件监听器,注解监听的在前,接口监听的在后
      *
      * @param gameApplicationContext 当前Verticle上下文
-     * @param scanResult             类扫描结果
-     * @param classInfoFilter        类过滤器
+     * @param definitionTable        当前Verticle范围内的定义表
      */
-    private void handleEventListenerAnnotation(GameApplicationContext gameApplicationContext, ScanResult scanResult,
-                                               ClassInfoList.ClassInfoFilter classInfoFilter) {
-        scanResult.getClassesWithMethodAnnotation(EventListener.class.getName())
-                .filter(classInfoFilter)
-                .filter(classInfo -> !classInfo.isAbstract())
-                .filter(classInfo -> !classInfo.isInterface())
-                .filter(classInfo -> classInfo.hasAnnotation(Component.class.getName()))
-                .forEach(classInfo -> {
-                    Class<?> clazz = classInfo.loadClass();
-                    Component component = AnnotationUtil.getSynthesizedAnnotation(clazz, Component.class);
-                    classInfo.getMethodInfo()
-                            .filter(methodInfo -> methodInfo.hasAnnotation(EventListener.class.getName()))
-                            .forEach(methodInfo -> {
-                                Method method = methodInfo.loadClassAndGetMethod();
-                                //获取参数列表信息
-                                Parameter[] parameters = method.getParameters();
-                                //记录参数的位置
-                                List<EventListenerBeanClassDefinition.ParameterBeanClassDefinition>
-                                        parameterBeanClassDefinitions = Stream.of(parameters)
-                                        .map(parameter -> {
-                                            EventListenerBeanClassDefinition.ParameterBeanClassDefinition
-                                                    parameterBeanClassDefinition =
-                                                    new EventListenerBeanClassDefinition.ParameterBeanClassDefinition();
-                                            Class<?> type = parameter.getType();
-                                            String parameterName = parameter.getName();
-                                            parameterBeanClassDefinition.setParameterClass(type);
-                                            parameterBeanClassDefinition.setParameterName(parameterName);
-                                            //判断是否是被payloadEvent包裹
-                                            if (PayloadApplicationEvent.class.isAssignableFrom(type)) {
-                                                Type genericType = parameter.getParameterizedType();
-                                                if (genericType instanceof ParameterizedType pt) {
-                                                    Type actualTypeArgument = pt.getActualTypeArguments()[0];
-                                                    Class<?> typeClass = (Class<?>) actualTypeArgument;
-                                                    parameterBeanClassDefinition.setParameterClass(typeClass);
-                                                    parameterBeanClassDefinition.setPayloadEvent(true);
-                                                }
-                                            }
-                                            return parameterBeanClassDefinition;
-                                        })
-                                        .collect(Collectors.toList());
-                                //获取注解信息
-                                EventListener eventListener = method.getAnnotation(EventListener.class);
-                                String condition = eventListener.condition();
-                                Class<?>[] eventSources = eventListener.eventSources();
-                                Set<String> eventSourceSet = Stream.of(eventSources)
-                                        .map(Class::getName)
-                                        .collect(Collectors.toSet());
-                                Class<?>[] listenerClasses = eventListener.value();
-                                if (listenerClasses.length == 0) {
-                                    listenerClasses = parameterBeanClassDefinitions.stream()
-                                            .map(EventListenerBeanClassDefinition.ParameterBeanClassDefinition::getParameterClass)
-                                            .toArray(Class<?>[]::new);
-                                }
-                                if (listenerClasses.length == 0) {
-                                    log.warn("当前事件监听方法：{},没有监听任何事件", methodInfo.getName());
-                                    return;
-                                }
-
-                                //记录事件监听器的类定义信息
-                                EventListenerBeanClassDefinition beanClassDefinition = new EventListenerBeanClassDefinition();
-
-                                beanClassDefinition.setListenerClasses(Stream.of(listenerClasses)
-                                        .collect(Collectors.toSet()));
-                                beanClassDefinition.setParameterBeanClassDefinitions(parameterBeanClassDefinitions);
-                                beanClassDefinition.setAlone(eventListener.alone());
-                                beanClassDefinition.setLocal(eventListener.local());
-                                beanClassDefinition.setCondition(condition);
-                                beanClassDefinition.setEventSources(eventSourceSet);
-
-                                beanClassDefinition.setClazz(clazz);
-                                beanClassDefinition.setBeanName(component.value());
-
-                                ReflectionUtils.makeAccessible(method);
-                                beanClassDefinition.setMethod(method);
-
-                                gameApplicationContext.getEventListeners().add(beanClassDefinition);
-                            });
-                });
+    private void handleEventListener(GameApplicationContext gameApplicationContext, ApplicationDefinitionTable definitionTable) {
+        definitionTable.getEventListeners()
+                .forEach(eventListener -> gameApplicationContext.getEventListeners().add(eventListener.definition()));
     }
 
     /**
      * 查找事件多播器的注入
      *
      * @param gameApplicationContext 当前Verticle上下文
-     * @param scanResult             类扫描结果
-     * @param classInfoFilter        类过滤器
+     * @param definitionTable        当前Verticle范围内的定义表
      */
     @SuppressWarnings("unchecked")
-    private void handleEventMulticaster(GameApplicationContext gameApplicationContext, ScanResult scanResult,
-                                        ClassInfoList.ClassInfoFilter classInfoFilter) {
+    private void handleEventMulticaster(GameApplicationContext gameApplicationContext, ApplicationDefinitionTable definitionTable) {
         //判断是否注入自定义事件多播器,框架自己的
-        ClassInfoList eventMultiCasterL = scanResult.getClassesImplementing(ApplicationEventMulticaster.class.getName())
-                .filter(classInfoFilter)
-                .filter(classInfo -> !classInfo.isAbstract())
-                .filter(classInfo -> !classInfo.isInterface())
-                .filter(classInfo -> classInfo.hasAnnotation(Component.class.getName()))
-                .filter(classInfo -> {
-                    Class<?> clazz = classInfo.loadClass();
-                    Component component = AnnotationUtil.getSynthesizedAnnotation(clazz, Component.class);
-                    //判段是否注入的自定义的事件多播器
-                    return GameApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME.equals(component.value());
-                });
+        List<ApplicationClassInfo> eventMultiCasterL = definitionTable.getEventMulticasters();
         ApplicationEventMulticasterClassDefinition eventMulticasterDefinition = gameApplicationContext.getApplicationEventMulticasterDefinition();
         eventMulticasterDefinition.setBeanName(GameApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME);
         if (eventMultiCasterL.isEmpty()) {
@@ -651,355 +587,136 @@ public class GameApplication extends Launcher {
                     System.exit(0);
                 });
     }
-
     /**
      * 处理配置绑定类的注入
      *
      * @param gameApplicationContext 当前Verticle上下文
-     * @param scanResult             类扫描结果
-     * @param classInfoFilter        类过滤器
+     * @param definitionTable        当前Verticle范围内的定义表
      */
-    private void handleConfigBindClassInject(GameApplicationContext gameApplicationContext, ScanResult scanResult,
-                                             ClassInfoList.ClassInfoFilter classInfoFilter) {
-        //查询所有的配置绑定类,在配置读取完成后赋值,便于使用
-        scanResult.getClassesWithAnnotation(ConfigurationProperties.class.getName())
-                .filter(classInfoFilter)
-                .filter(classInfo -> !classInfo.isAbstract() && classInfo.hasAnnotation(Component.class.getName()))
-                .forEach(classInfo -> {
-                    Class<?> clazz = classInfo.loadClass();
-                    Component component = AnnotationUtil.getSynthesizedAnnotation(clazz, Component.class);
-                    String configurationName = StrUtil.isBlank(component.value()) ? null : component.value();
-                    ConfigurationProperties configurationProperties = AnnotationUtil.getAnnotationAlias(clazz, ConfigurationProperties.class);
-                    //配置前缀,用于查找对应配置
-                    String prefix = configurationProperties.value();
-                    if (StrUtil.isBlank(prefix)) {
-                        throw new ConfigurationNotBindPrefixException(classInfo.getName());
-                    }
-                    Map<String, BeanClassDefinition> configPropertityClassMap = gameApplicationContext.getConfigPropertityClassMap();
-                    if (configPropertityClassMap.containsKey(prefix)) {
-                        BeanClassDefinition beanClassDefinition = configPropertityClassMap.get(prefix);
-                        throw new ConfigurationPrefixRepeatException(prefix, clazz.getName(),
-                                beanClassDefinition.getClazz().getName());
-                    }
-                    BeanClassDefinition beanClassDefinition = new BeanClassDefinition();
-                    beanClassDefinition.setBeanName(configurationName);
-                    beanClassDefinition.setClazz(clazz);
-                    beanClassDefinition.setSingleton(true);
-                    configPropertityClassMap.put(prefix, beanClassDefinition);
-                });
+    private void handleConfigBindClassInject(GameApplicationContext gameApplicationContext, ApplicationDefinitionTable definitionTable) {
+        //所有的配置绑定类,在配置读取完成后赋值,便于使用
+        definitionTable.getConfigProperties().forEach(configProperties -> {
+            //配置前缀,用于查找对应配置
+            String prefix = configProperties.prefix();
+            if (StrUtil.isBlank(prefix)) {
+                throw new ConfigurationNotBindPrefixException(configProperties.classInfo().getName());
+            }
+            BeanClassDefinition beanClassDefinition = configProperties.definition();
+            Map<String, BeanClassDefinition> configPropertityClassMap = gameApplicationContext.getConfigPropertityClassMap();
+            if (configPropertityClassMap.containsKey(prefix)) {
+                BeanClassDefinition repeatClassDefinition = configPropertityClassMap.get(prefix);
+                throw new ConfigurationPrefixRepeatException(prefix, beanClassDefinition.getClazz().getName(),
+                        repeatClassDefinition.getClazz().getName());
+            }
+            configPropertityClassMap.put(prefix, beanClassDefinition);
+        });
     }
 
     /**
      * 处理属性配置值注入
      *
      * @param gameApplicationContext 当前Verticle上下文
-     * @param scanResult             类扫描结果
-     * @param classInfoFilter        类过滤器
+     * @param definitionTable        当前Verticle范围内的定义表
      */
-    private void handleFiledConfigInjectValue(GameApplicationContext gameApplicationContext, ScanResult scanResult,
-                                              ClassInfoList.ClassInfoFilter classInfoFilter) {
-        //查询所有的配置注入注解
-        scanResult.getClassesWithFieldAnnotation(Value.class.getName())
-                .filter(classInfoFilter)
-                .filter(classInfo -> !classInfo.isAbstract())
-                .filter(classInfo -> classInfo.hasAnnotation(Component.class.getName()))
-                .forEach(classInfo -> {
-                    Class<?> clazz = classInfo.loadClass();
-                    classInfo.getFieldInfo()
-                            .filter(fieldInfo -> fieldInfo.hasAnnotation(Value.class.getName()))
-                            .forEach(fieldInfo -> {
-                                AnnotationInfo annotationInfo = fieldInfo.getAnnotationInfo(Value.class.getName());
-                                String eval = (String) annotationInfo.getParameterValues().getValue("value");
-                                TypeSignature typeDescriptor = fieldInfo.getTypeDescriptor();
-                                Class<?> fieldType;
-                                if (typeDescriptor instanceof ClassRefTypeSignature classRefTypeSignature) {
-                                    fieldType = classRefTypeSignature.loadClass();
-                                } else {
-                                    //基础类型
-                                    BaseTypeSignature baseTypeSignature = (BaseTypeSignature) typeDescriptor;
-                                    fieldType = baseTypeSignature.getType();
-                                }
-                                if (!isPrimitiveOrString(fieldType)) {
-                                    //复杂的属性绑定使用配置绑定类
-                                    log.warn("字段配置值注入-复杂属性注入请使用配置绑定类,当前类型：{} ,字段名：{} 已跳过",
-                                            fieldType.getName(), fieldInfo.getName());
-                                    return;
-                                }
-                                //获取filed
-                                Field field = fieldInfo.loadClassAndGetField();
-
-                                //处理表达式
-                                Serializable expression = MvelUtils.compileExpression(eval);
-
-                                ValueConfigBindBeanClassDefinition beanClassDefinition = new ValueConfigBindBeanClassDefinition();
-                                beanClassDefinition.setClazz(clazz);
-                                beanClassDefinition.setFiledClass(fieldType);
-
-                                ReflectionUtils.makeAccessible(field);
-                                beanClassDefinition.setField(field);
-                                beanClassDefinition.setExpression(expression);
-
-                                gameApplicationContext.getConfigBindKeyMap()
-                                        .computeIfAbsent(clazz, k -> new ArrayList<>())
-                                        .add(beanClassDefinition);
-                            });
-                });
+    private void handleFiledConfigInjectValue(GameApplicationContext gameApplicationContext, ApplicationDefinitionTable definitionTable) {
+        definitionTable.getValueFields().forEach(valueFields -> valueFields.definitions()
+                .forEach(beanClassDefinition -> gameApplicationContext.getConfigBindKeyMap()
+                        .computeIfAbsent(valueFields.clazz(), k -> new ArrayList<>())
+                        .add(beanClassDefinition)));
     }
 
     /**
      * 处理初始化注解执行方法
      *
      * @param gameApplicationContext 当前Verticle上下文
-     * @param scanResult             类扫描结果
-     * @param classInfoFilter        类过滤器
+     * @param definitionTable        当前Verticle范围内的定义表
      */
-    private void handlePostConstructMethod(GameApplicationContext gameApplicationContext, ScanResult scanResult,
-                                           ClassInfoList.ClassInfoFilter classInfoFilter) {
-        //查询所有的配置注入注解
-        scanResult.getClassesWithMethodAnnotation(PostConstruct.class.getName())
-                .filter(classInfoFilter)
-                .filter(classInfo -> !classInfo.isAbstract())
-                .filter(classInfo -> classInfo.hasAnnotation(Component.class.getName()))
-                .forEach(classInfo -> {
-                    Class<?> clazz = classInfo.loadClass();
-                    classInfo.getMethodInfo()
-                            .filter(methodInfo -> methodInfo.hasAnnotation(PostConstruct.class.getName()))
-                            //初始化方法必须是无参方法
-                            .filter(methodInfo -> methodInfo.getParameterInfo().length == 0)
-                            .forEach(methodInfo -> {
-                                Method method = methodInfo.loadClassAndGetMethod();
-
-                                BeanClassDefinition beanClassDefinition = new BeanClassDefinition();
-                                beanClassDefinition.setClazz(clazz);
-
-                                ReflectionUtils.makeAccessible(method);
-                                beanClassDefinition.setMethod(method);
-
-                                gameApplicationContext.getPostConstructMethodMap()
-                                        .computeIfAbsent(clazz, k -> new ArrayList<>())
-                                        .add(beanClassDefinition);
-                            });
-                });
+    private void handlePostConstructMethod(GameApplicationContext gameApplicationContext, ApplicationDefinitionTable definitionTable) {
+        definitionTable.getPostConstructMethods().forEach(postConstructMethods -> postConstructMethods.definitions()
+                .forEach(beanClassDefinition -> gameApplicationContext.getPostConstructMethodMap()
+                        .computeIfAbsent(postConstructMethods.clazz(), k -> new ArrayList<>())
+                        .add(beanClassDefinition)));
     }
 
     /**
      * 处理配置类注入
      *
      * @param gameApplicationContext 当前Verticle上下文
-     * @param scanResult             类扫描结果
-     * @param classInfoFilter        类过滤器
-     */
-    private void handleConfigurationInjectClass(GameApplicationContext gameApplicationContext, ScanResult scanResult,
-                                                ClassInfoList.ClassInfoFilter classInfoFilter) {
-        //查找所有的配置类,在所有非动态依赖加载完成后加载配置类中的动态依赖
-        scanResult.getClassesWithAnnotation(Configuration.class.getName())
-                .filter(classInfoFilter)
-                .filter(classInfo -> !classInfo.isAbstract())
-                .forEach(classInfo -> {
-                    Class<?> configurationClass = classInfo.loadClass();
-                    Configuration configuration = configurationClass.getAnnotation(Configuration.class);
-                    List<ConfigurationBeanClassDefinition> beanClassDefinitions = classInfo.getDeclaredMethodInfo()
-                            //必须要是public的无参方法
-                            .filter(methodInfo -> methodInfo.isPublic()
-                                    && methodInfo.hasAnnotation(Bean.class.getName())
-                                    && methodInfo.getParameterInfo().length == 0)
-                            .stream()
-                            .map(methodInfo -> {
-                                Method method = methodInfo.loadClassAndGetMethod();
-                                Bean bean = AnnotationUtil.getSynthesizedAnnotation(method, Bean.class);
-                                String name = bean.name();
-                                if (StrUtil.isNotBlank(bean.value())) {
-                                    name = bean.value();
-                                }
-                                if (StrUtil.isBlank(name)) {
-                                    name = null;
-                                }
-                                //获取返回值类型
-                                ClassRefTypeSignature resultType = (ClassRefTypeSignature) methodInfo
-                                        .getTypeDescriptor().getResultType();
-                                Class<?> resultClass = resultType.loadClass();
-                                //判断是否有原型类注解
-                                boolean isSingleton = methodInfo.hasAnnotation(Prototype.class.getName());
-                                ConfigurationBeanClassDefinition beanClassDefinition = new ConfigurationBeanClassDefinition();
-                                beanClassDefinition.setConfigurationClass(configurationClass);
-                                beanClassDefinition.setConfigurationBeanName(configuration.value());
-                                beanClassDefinition.setBeanName(name);
-                                beanClassDefinition.setSingleton(isSingleton);
-                                beanClassDefinition.setClazz(resultClass);
-
-                                ReflectionUtils.makeAccessible(method);
-                                beanClassDefinition.setMethod(method);
-
-                                //判断这个类有没有父类或者接口
-                                ClassInfo resultClassInfo = getClassInfoByClass(scanResult, classInfoFilter, resultClass);
-                                if (resultClassInfo != null) {
-                                    boolean hasPrimary = methodInfo.hasAnnotation(Primary.class.getName());
-                                    beanClassDefinition.setPrimary(hasPrimary);
-                                    //处理继承关系
-                                    handleExtendClassInfo(gameApplicationContext, resultClassInfo, name, beanClassDefinition);
-                                    //处理接口关系
-                                    String finalName = StringUtils.isBlank(name) ?
-                                            StringUtils.toLowerCaseCamel(resultClassInfo.getSimpleName()) : name;
-                                    resultClassInfo.getInterfaces()
-                                            .forEach(interfaceClassInfo ->
-                                                    checkInterfaceRepeatName(gameApplicationContext, interfaceClassInfo,
-                                                            resultClass, finalName).put(finalName, beanClassDefinition));
-                                }
-                                return beanClassDefinition;
-                            })
-                            .toList();
-                    gameApplicationContext.getConfigurationClassMap()
-                            .put(configurationClass, beanClassDefinitions);
-                });
-    }
-
-    /**
-     * 根据类获取扫描的类信息
-     *
-     * @param scanResult      扫描结果
-     * @param classInfoFilter 类过滤器
-     * @param clazz           指定的类信息
-     * @return
+     * @param definitionTable        当前Verticle范围内的定义表
      */
-    private ClassInfo getClassInfoByClass(ScanResult scanResult, ClassInfoList.ClassInfoFilter classInfoFilter, Class<?> clazz) {
-        ClassInfoList classInfos = scanResult.getAllClasses()
-                .filter(classInfoFilter)
-                .filter(resultClassInfo -> !resultClassInfo.isAbstract())
-                .filter(resultClassInfo -> !resultClassInfo.isInterface())
-                .filter(resultClassInfo -> resultClassInfo.getName().equals(clazz.getName()));
-        if (classInfos.isEmpty()) {
-            //没有扫描到的类不做处理[需要使用的类一定会被扫描到]
-            return null;
-        }
-        return classInfos.get(0);
+    private void handleConfigurationInjectClass(GameApplicationContext gameApplicationContext, ApplicationDefinitionTable definitionTable) {
+        //所有的配置类,在所有非动态依赖加载完成后加载配置类中的动态依赖
+        definitionTable.getConfigurations().forEach(configuration -> {
+            configuration.beanMethods().forEach(beanMethod -> {
+                //返回的类不在范围内的不处理父类和接口
+                if (beanMethod.resultClassInfo() == null) {
+                    return;
+                }
+                ConfigurationBeanClassDefinition beanClassDefinition = beanMethod.definition();
+                String registerName = beanMethod.registerName();
+                //处理继承关系
+                handleExtendClass(gameApplicationContext, beanMethod.superclasses(), registerName, beanClassDefinition);
+                //处理接口关系
+                beanMethod.interfaces()
+                        .forEach(interfaceClass -> checkInterfaceRepeatName(gameApplicationContext, interfaceClass,
+                                beanClassDefinition.getClazz(), registerName).put(registerName, beanClassDefinition));
+            });
+            gameApplicationContext.getConfigurationClassMap()
+                    .put(configuration.configurationClass(), configuration.getBeanClassDefinitions());
+        });
     }
 
     /**
      * 处理固定注入的类
      *
      * @param gameApplicationContext 当前Verticle上下文
-     * @param scanResult             类扫描结果
-     * @param classInfoFilter        类过滤
+     * @param definitionTable        当前Verticle范围内的定义表
      */
-    @SuppressWarnings("unchecked")
-    private void handleFixedInjectClass(GameApplicationContext gameApplicationContext, ScanResult scanResult,
-                                        ClassInfoList.ClassInfoFilter classInfoFilter) {
-        //找到所有需要进行依赖加载的类,默认都是单例的，只有@Bean注解配合@Prototype才会是非单例
-        scanResult.getClassesWithAnnotation(Component.class.getName())
-                .filter(classInfoFilter)
-                .filter(classInfo -> !classInfo.isAnnotation() && !classInfo.isInterface()
-                        && !classInfo.isAbstract() && !classInfo.isEnum()
-                        && !classInfo.hasAnnotation(ConfigurationProperties.class.getName()))
-                //直接全部注入，方便直接按实例注入
-                .forEach(classInfo -> {
-                    Class<?> clazz = classInfo.loadClass();
-                    Component component = AnnotationUtil.getSynthesizedAnnotation(clazz, Component.class);
-                    String beanName = component.value();
-                    if (StrUtil.isBlank(beanName)) {
-                        beanName = null;
-                    }
-                    boolean isSingleton = !classInfo.hasAnnotation(Prototype.class.getName());
-                    BeanClassDefinition beanClassDefinition = new BeanClassDefinition();
-                    beanClassDefinition.setClazz(clazz);
-                    beanClassDefinition.setBeanName(beanName);
-                    beanClassDefinition.setSingleton(isSingleton);
-                    gameApplicationContext.getClassSet().add(beanClassDefinition);
+    private void handleFixedInjectClass(GameApplicationContext gameApplicationContext, ApplicationDefinitionTable definitionTable) {
+        //所有需要进行依赖加载的类,默认都是单例的，只有@Bean注解配合@Prototype才会是非单例
+        //直接全部注入，方便直接按实例注入
+        definitionTable.getComponents().forEach(component -> {
+            gameApplicationContext.getClassSet().add(component.definition());
+            //处理继承相关
+            handleExtendClass(gameApplicationContext, component.superclasses(), component.registerName(),
+                    component.definition());
+        });
 
-                    //处理继承相关
-                    boolean hasPrimary = classInfo.hasAnnotation(Primary.class.getName());
-                    beanClassDefinition.setPrimary(hasPrimary);
-                    handleExtendClassInfo(gameApplicationContext, classInfo, beanName, beanClassDefinition);
-                });
+        //接口和对应的实现类,便于通过接口直接注入所有的实现类和使用别名注入指定实现类
+        definitionTable.getInterfaceImplementations().forEach(implementation -> {
+            BeanClassDefinition beanClassDefinition = implementation.definition();
+            String componentName = beanClassDefinition.getBeanName();
+            checkInterfaceRepeatName(gameApplicationContext, implementation.interfaceClass(),
+                    beanClassDefinition.getClazz(), componentName).put(componentName, beanClassDefinition);
+        });
 
-        //获取所有的接口信息,判断对应的实现类是否进行依赖注入了，便于通过接口直接注入所有的实现类
-        //和使用别名注入指定实现类
-        //k:接口类型 v:实现类列表
-        ClassInfoList allInterfaces = scanResult.getAllInterfaces()
-                .filter(classInfoFilter)
-                .filter(classInfo -> !classInfo.getName().equals(Provider.class.getName()));
-        for (ClassInfo anInterface : allInterfaces) {
-            ClassInfoList implementing = scanResult.getClassesImplementing(anInterface.getName())
-                    .filter(classInfoFilter);
-            for (ClassInfo classInfo : implementing) {
-                boolean isSingleton = !classInfo.hasAnnotation(Prototype.class.getName());
-                boolean b = classInfo.hasAnnotation(Component.class.getName());
-                if (!b) {
-                    continue;
-                }
-                Class<?> clazz = classInfo.loadClass();
-                Component component = AnnotationUtil.getSynthesizedAnnotation(clazz, Component.class);
-                String componentName = component.value();
-                if (StrUtil.isBlank(componentName)) {
-                    //没有名字就使用类名(首字母小写的驼峰格式)
-                    componentName = StringUtils.toLowerCaseCamel(classInfo.getSimpleName());
-                }
-                Map<String, BeanClassDefinition> componetNameClassMap = checkInterfaceRepeatName(gameApplicationContext, anInterface, clazz, componentName);
-                BeanClassDefinition beanClassDefinition = new BeanClassDefinition();
-                beanClassDefinition.setClazz(clazz);
-                beanClassDefinition.setBeanName(componentName);
-                beanClassDefinition.setSingleton(isSingleton);
-                componetNameClassMap.put(componentName, beanClassDefinition);
+        //guice provider定义的依赖注入
+        definitionTable.getProviders().forEach(provider -> {
+            Class<?> clazz = provider.providedClass();
+            Map<Class<?>, ProviderClassDefinition> providerClassMap = gameApplicationContext.getProviderClassMap();
+            if (providerClassMap.containsKey(clazz)) {
+                ProviderClassDefinition providerClassDefinition = providerClassMap.get(clazz);
+                throw new GuiceProviderRepeatException(clazz.getName(), provider.definition().getClazz().getName(),
+                        providerClassDefinition.getClazz().getName());
             }
-        }
-
-        //查找guice provider定义的依赖注入
-        scanResult.getClassesImplementing(Provider.class.getName())
-                .filter(classInfoFilter)
-                .filter(classInfo -> !classInfo.isAbstract()
-                        && classInfo.hasAnnotation(Component.class.getName()))
-                .forEach(classInfo -> {
-                    //加载类获取泛型
-                    Class<? extends Provider<?>> providerClass = (Class<? extends Provider<?>>) classInfo.loadClass();
-                    for (Type genericInterface : providerClass.getGenericInterfaces()) {
-                        if (genericInterface instanceof ParameterizedType pt) {
-                            if (!pt.getRawType().equals(Provider.class)) {
-                                continue;
-                            }
-                            //Provider只会有一个泛型
-                            Type actualTypeArgument = pt.getActualTypeArguments()[0];
-                            if (actualTypeArgument instanceof Class<?> clazz) {
-                                if (isPrimitiveOrString(clazz)) {
-                                    log.warn("检查到有基础类型的provider,不会自动注入。请到module中指定使用！！！");
-                                    continue;
-                                }
-                                Map<Class<?>, ProviderClassDefinition> providerClassMap =
-                                        gameApplicationContext.getProviderClassMap();
-                                if (providerClassMap.containsKey(clazz)) {
-                                    ProviderClassDefinition providerClassDefinition = providerClassMap.get(clazz);
-                                    throw new GuiceProviderRepeatException(clazz.getName(), providerClass.getName(),
-                                            providerClassDefinition.getClazz().getName());
-                                }
-                                Component component = AnnotationUtil.getSynthesizedAnnotation(providerClass, Component.class);
-                                String beanName = component.value();
-                                if (StrUtil.isBlank(beanName)) {
-                                    beanName = null;
-                                }
-                                boolean isSingleton = !classInfo.hasAnnotation(Prototype.class.getName());
-                                ProviderClassDefinition providerClassDefinition = new ProviderClassDefinition();
-                                providerClassDefinition.setBeanName(beanName);
-                                providerClassDefinition.setClazz(providerClass);
-                                providerClassDefinition.setSingleton(isSingleton);
-                                providerClassMap.put(clazz, providerClassDefinition);
-                            }
-                        }
-                    }
-                });
+            providerClassMap.put(clazz, provider.definition());
+        });
     }
 
     /**
      * 检查接口名是否重复
      *
      * @param gameApplicationContext 当前Verticle上下文
-     * @param interfaceClassInfo     接口定义信息
+     * @param interfaceClass         接口
      * @param clazz                  实现类
      * @param beanNme                实现类名
      * @return
      */
     private Map<String, BeanClassDefinition> checkInterfaceRepeatName(GameApplicationContext gameApplicationContext,
-                                                                      ClassInfo interfaceClassInfo,
+                                                                      Class<?> interfaceClass,
                                                                       Class<?> clazz, String beanNme) {
         Map<String, BeanClassDefinition> componetNameClassMap = gameApplicationContext.getInterfaceClassMap()
-                .computeIfAbsent(interfaceClassInfo.loadClass(), k -> new HashMap<>());
+                .computeIfAbsent(interfaceClass, k -> new HashMap<>());
         if (componetNameClassMap.containsKey(beanNme)) {
             BeanClassDefinition beanClassDefinition = componetNameClassMap.get(beanNme);
             throw new ComponentNameRepeatException(beanNme, clazz.getName(),
@@ -1012,20 +729,15 @@ public class GameApplication extends Launcher {
      * 处理继承类相关信息
      *
      * @param gameApplicationContext 当前Verticle上下文
-     * @param classInfo              需要处理的类信息
-     * @param beanName               类名
+     * @param superclasses           所有父类
+     * @param beanName               注册使用的名字
      * @param beanClassDefinition    类定义
      */
-    private void handleExtendClassInfo(GameApplicationContext gameApplicationContext, ClassInfo classInfo, String beanName, BeanClassDefinition beanClassDefinition) {
+    private void handleExtendClass(GameApplicationContext gameApplicationContext, List<Class<?>> superclasses,
+                                   String beanName, BeanClassDefinition beanClassDefinition) {
         Map<Class<?>, Map<String, BeanClassDefinition>> extendClassMap = gameApplicationContext.getExtendClassMap();
-        String finalBeanName = StringUtils.isBlank(beanName) ?
-                StringUtils.toLowerCaseCamel(classInfo.getSimpleName()) : beanName;
-        classInfo.getSuperclasses()
-                .forEach(superClassInfo -> {
-                    Class<?> superClass = superClassInfo.loadClass();
-                    extendClassMap.computeIfAbsent(superClass, k -> new HashMap<>())
-                            .put(finalBeanName, beanClassDefinition);
-                });
+        superclasses.forEach(superClass -> extendClassMap.computeIfAbsent(superClass, k -> new HashMap<>())
+                .put(beanName, beanClassDefinition));
     }
 
     /**
@@ -1034,13 +746,13 @@ public class GameApplication extends Launcher {
      * @param verticleClassInfoList vertilce的类信息
      */
     @SuppressWarnings("unchecked")
-    private void handleDeployVerticle(ClassInfoList verticleClassInfoList) {
+    private void handleDeployVerticle(List<ApplicationClassInfo> verticleClassInfoList) {
         //扫描所有要部署的verticle,并且优先级分组。
-        verticleClassInfoList
+        verticleClassInfoList.stream()
                 //排除掉引导的verticle
                 .filter(classInfo -> !isBootstrapVerticleClassInfo(classInfo))
                 .forEach(classInfo -> {
-                    boolean isSingleton = !classInfo.hasAnnotation(Prototype.class.getName());
+                    boolean isSingleton = !classInfo.hasAnnotation(Prototype.class);
                     Class<? extends BaseVerticle> clazz = (Class<? extends BaseVerticle>) classInfo.loadClass();
                     DeployVerticle deployVerticle = clazz.getAnnotation(DeployVerticle.class);
                     int order = deployVerticle.order();
@@ -1058,11 +770,13 @@ public class GameApplication extends Launcher {
     }
 
     /**
-     * 扫描应用的类信息
+     * 加载应用的类信息
+     * <p> 优先使用编译期生成的类索引,索引中没有启动类的(启动类所在模块没有运行类索引处理器)使用类扫描
+     * <p> 索引中没有类的额外扫描路径、扫描类和框架路径(所在模块没有运行类索引处理器),单独扫描后合并到索引中
      *
-     * @return
+     * @return 类索引
      */
-    private ScanResult scanApplicationClassInfos() {
+    private ApplicationClassIndex loadApplicationClassIndex() {
         //获取启动类注解
         VertxGameApplication vertxGameApplication = AnnotationUtil.getAnnotation(startClass, VertxGameApplication.class);
         Class<?>[] exclude = vertxGameApplication.excludeClasses();
@@ -1080,7 +794,144 @@ public class GameApplication extends Launcher {
         Class<Module>[] extraGuiceModules = vertxGameApplication.extraGuiceModule();
         registerGuiceModule(extraGuiceModules);
 
+        ClassLoader classLoader = startClass.getClassLoader();
+        ApplicationClassIndex classIndex = ApplicationClassIndex.load(classLoader);
+        if (classIndex != null && classIndex.getClassInfo(startClass.getName()) != null) {
+            classIndex = scanUncoveredClassInfos(classIndex, classLoader, excludeClass, excludePackageName,
+                    scanBasePackages, scanBasePackageClassesName);
+            //和扫描相同的白名单和黑名单
+            Set<String> includePackageNameSet = new HashSet<>(Arrays.asList(scanBasePackages));
+            includePackageNameSet.add(startClass.getPackageName());
+            includePackageNameSet.add(BASE_SCAN_PACKAGE_PATH);
+            classIndex = classIndex.filter(getScanClassInfoFilter(includePackageNameSet,
+                    new HashSet<>(Arrays.asList(scanBasePackageClassesName)),
+                    new HashSet<>(Arrays.asList(excludePackageName)), new HashSet<>(Arrays.asList(excludeClass))));
+            log.info("使用编译期类索引加载应用类信息,类数量：{}", classIndex.size());
+            return classIndex;
+        }
+
+        log.info("没有找到启动类的编译期类索引,使用类扫描加载应用类信息");
+        try (ScanResult scanResult = scanApplicationClassInfos(excludeClass, excludePackageName, scanBasePackages,
+                scanBasePackageClassesName)) {
+            return ApplicationClassIndex.of(scanResult, classLoader);
+        }
+    }
+
+    /**
+     * 扫描编译期类索引中没有覆盖的路径和类,合并到索引中
+     *
+     * @param classIndex                 编译期类索引
+     * @param classLoader                类加载器
+     * @param excludeClass               排除的类
+     * @param excludePackageName         排除的路径
+     * @param scanBasePackages           额外扫描的路径
+     * @param scanBasePackageClassesName 额外扫描的类
+     * @return 合并后的类索引,都已经覆盖的返回原索引
+     */
+    private ApplicationClassIndex scanUncoveredClassInfos(ApplicationClassIndex classIndex, ClassLoader classLoader,
+                                                          String[] excludeClass, String[] excludePackageName,
+                                                          String[] scanBasePackages,
+                                                          String[] scanBasePackageClassesName) {
+        List<String> checkPackages = new ArrayList<>(Arrays.asList(scanBasePackages));
+        checkPackages.add(BASE_SCAN_PACKAGE_PATH);
+        String[] uncoveredPackages = checkPackages.stream()
+                .distinct()
+                .filter(packageName -> !classIndex.containsPackage(packageName))
+                .toArray(String[]::new);
+        String[] uncoveredClasses = Arrays.stream(scanBasePackageClassesName)
+                .filter(className -> classIndex.getClassInfo(className) == null)
+                .toArray(String[]::new);
+        if (uncoveredPackages.length == 0 && uncoveredClasses.length == 0) {
+            return classIndex;
+        }
+        log.warn("编译期类索引中没有以下扫描路径或扫描类,使用类扫描补充,路径：{},类：{}",
+                Arrays.toString(uncoveredPackages), Arrays.toString(uncoveredClasses));
+        try (ScanResult scanResult = scanClassInfos(excludeClass, excludePackageName, uncoveredPackages,
+                uncoveredClasses)) {
+            return classIndex.merge(ApplicationClassIndex.of(scanResult, classLoader));
+        }
+    }
+
+    /**
+     * 获取类索引的过滤器,和类扫描的规则一致
+     * <p> 黑名单优先,包含子包
+     *
+     * @param includePackageNameSet 包含的路径集合
+     * @param includeClassNameSet   包含的类名集合
+     * @param excludePackageNameSet 排除的路径集合
+     * @param excludeClassNameSet   排除的类名集合
+     * @return 类过滤器
+     */
+    private Predicate<ApplicationClassInfo> getScanClassInfoFilter(Set<String> includePackageNameSet,
+                                                                   Set<String> includeClassNameSet,
+                                                                   Set<String> excludePackageNameSet,
+                                                                   Set<String> excludeClassNameSet) {
+        return classInfo -> {
+            String checkPackageName = classInfo.getPackageName();
+            String checkClassName = classInfo.getName();
+            if (excludeClassNameSet.contains(checkClassName)) {
+                return false;
+            }
+            for (String excludePackageName : excludePackageNameSet) {
+                if (isSubPackage(checkPackageName, excludePackageName)) {
+                    return false;
+                }
+            }
+            if (includeClassNameSet.contains(checkClassName)) {
+                return true;
+            }
+            for (String includePackageName : includePackageNameSet) {
+                if (isSubPackage(checkPackageName, includePackageName)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    /**
+     * 判断是否是指定的包或者它的子包
+     *
+     * @param packageName       检查的包名
+     * @param parentPackageName 指定的包名,空的是根路径
+     * @return true:是
+     */
+    private boolean isSubPackage(String packageName, String parentPackageName) {
+        return parentPackageName.isEmpty() || packageName.equals(parentPackageName)
+                || packageName.startsWith(parentPackageName + ".");
+    }
+
+    /**
+     * 扫描应用的类信息
+     * <p> 没有编译期类索引时使用
+     *
+     * @param excludeClass               排除的类
+     * @param excludePackageName         排除的路径
+     * @param scanBasePackages           额外扫描的路径
+     * @param scanBasePackageClassesName 额外扫描的类
+     * @return 类扫描结果
+     */
+    private ScanResult scanApplicationClassInfos(String[] excludeClass, String[] excludePackageName,
+                                                 String[] scanBasePackages, String[] scanBasePackageClassesName) {
+        List<String> packages = new ArrayList<>(Arrays.asList(scanBasePackages));
+        packages.add(startClass.getPackageName());
+        //固定扫描框架的包
+        packages.add(BASE_SCAN_PACKAGE_PATH);
+        return scanClassInfos(excludeClass, excludePackageName, packages.toArray(String[]::new),
+                scanBasePackageClassesName);
+    }
 
+    /**
+     * 扫描指定路径和类的类信息
+     *
+     * @param excludeClass       排除的类
+     * @param excludePackageName 排除的路径
+     * @param packages           扫描的路径
+     * @param classNames         扫描的类
+     * @return 类扫描结果
+     */
+    private ScanResult scanClassInfos(String[] excludeClass, String[] excludePackageName, String[] packages,
+                                      String[] classNames) {
         //扫描需要的类
         return new ClassGraph()
                 //允许所有信息
@@ -1089,11 +940,8 @@ public class GameApplication extends Launcher {
                 .blacklistClasses(excludeClass)
                 .blacklistPackages(excludePackageName)
                 //白名单
-                .whitelistPackages(startClass.getPackageName())
-                .whitelistPackages(scanBasePackages)
-                //固定扫描框架的包
-                .whitelistPackages(BASE_SCAN_PACKAGE_PATH)
-                .whitelistClasses(scanBasePackageClassesName)
+                .whitelistPackages(packages)
+                .whitelistClasses(classNames)
                 .scan();
     }
 
@@ -5,6 +5,7 @@ import cn.hutool.core.date.StopWatch;
 import cn.hutool.core.lang.Assert;
 import com.aristoco.core.bean.definition.*;
 import com.aristoco.core.event.*;
+import com.aristoco.core.event.schedule.ScheduledEventHandle;
 import com.aristoco.core.exception.BeanNotFoundException;
 import com.aristoco.core.exception.GameApplicationContextRefreshException;
 import com.aristoco.core.utils.ApplicationEventUtils;
@@ -16,9 +17,13 @@ import com.google.inject.Binding;
 import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.Module;
+import com.google.inject.Scopes;
 import com.google.inject.name.Names;
 import io.vertx.codegen.annotations.Nullable;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -43,6 +48,12 @@ public class GameApplicationContext implements ApplicationEventPublisher, Applic
      */
     public static final String APPLICATION_EVENT_MULTICASTER_BEAN_NAME = "applicationEventMulticaster";
 
+    /**
+     * 已经预热过的共享父注入器,同一次部署的实例只预热一次
+     */
+    private static final Set<Injector> WARMED_PARENT_INJECTORS =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
     /**
      * 启动时间
      */
@@ -74,6 +85,13 @@ public class GameApplicationContext implements ApplicationEventPublisher, Applic
     @Setter
     private Vertx vertx;
 
+    /**
+     * 保存verticle的vertx上下文,事件多播器的定时器和暂存任务在这里执行,verticle卸载时一起关闭
+     */
+    @Getter
+    @Setter
+    private Context vertxContext;
+
     /**
      * 保存当前的依赖管理器
      */
@@ -81,6 +99,13 @@ public class GameApplicationContext implements ApplicationEventPublisher, Applic
     @Setter
     private Injector injector;
 
+    /**
+     * 是否在启服逻辑前预热
+     */
+    @Getter
+    @Setter
+    private boolean eagerWarmup = false;
+
     /**
      * 保存当前所有的类
      */
@@ -176,6 +201,115 @@ public class GameApplicationContext implements ApplicationEventPublisher, Applic
      */
     @Override
     public void publishEvent(Object event, boolean direct) {
+        ApplicationEvent applicationEvent = toApplicationEvent(event);
+
+        if (this.earlyApplicationEvents != null) {
+            this.earlyApplicationEvents.add(applicationEvent);
+        } else {
+            // 发送事件
+            getApplicationEventMulticaster().multicastEvent(applicationEvent, direct);
+        }
+    }
+
+    /**
+     * 发布事件,接收方队列已满时等待有空位后再发布
+     *
+     * @param event  事件
+     * @param direct 是否点对点【点对点模式将会只有一个消费者接收到】
+     * @return 发布结果,完成时事件已经发出
+     */
+    @Override
+    public Future<Void> publishEventWhenWritable(Object event, boolean direct) {
+        ApplicationEvent applicationEvent = toApplicationEvent(event);
+
+        if (this.earlyApplicationEvents != null) {
+            this.earlyApplicationEvents.add(applicationEvent);
+            return Future.succeededFuture();
+        }
+        return getApplicationEventMulticaster().multicastEventWhenWritable(applicationEvent, direct);
+    }
+
+    /**
+     * 发布事件,当前vertx中所有监听器执行完成时返回的Future完成
+     * <p> 上下文还未初始化完成的事件会延迟发布,直接返回成功
+     *
+     * @param event 事件
+     * @return 当前vertx中监听器的执行结果
+     */
+    @Override
+    public Future<Void> publishEventWithCompletion(Object event) {
+        ApplicationEvent applicationEvent = toApplicationEvent(event);
+
+        if (this.earlyApplicationEvents != null) {
+            this.earlyApplicationEvents.add(applicationEvent);
+            return Future.succeededFuture();
+        }
+        return getApplicationEventMulticaster().multicastEventWithCompletion(applicationEvent);
+    }
+
+    /**
+     * 延迟发布事件
+     * <p> 到期时在多播器所在的事件循环上下文中发布,多播器还未初始化的直接失败
+     *
+     * @param event       事件
+     * @param direct      是否点对点【点对点模式将会只有一个消费者接收到】
+     * @param delayMillis 延迟时间(毫秒)
+     * @return 取消句柄
+     */
+    @Override
+    public ScheduledEventHandle publishEventDelayed(Object event, boolean direct, long delayMillis) {
+        ApplicationEvent applicationEvent = toApplicationEvent(event);
+        return getApplicationEventMulticaster().multicastEventDelayed(applicationEvent, direct, delayMillis);
+    }
+
+    /**
+     * 请求事件,由一个监听器执行并回复监听的返回值
+     * <p> 上下文还未初始化完成时监听器还没有注册,直接返回失败
+     *
+     * @param event        事件
+     * @param responseType 回复的类型
+     * @param options      发送配置,超时时间和消息头使用该配置,为null使用默认配置
+     * @return 回复,监听没有返回值的为null
+     */
+    @Override
+    public <R> Future<R> publishRequest(Object event, Class<R> responseType, DeliveryOptions options) {
+        Assert.notNull(responseType, "Response type must not be null");
+        ApplicationEvent applicationEvent = toApplicationEvent(event);
+
+        if (this.earlyApplicationEvents != null) {
+            return Future.failedFuture(new IllegalStateException("上下文还未初始化完成,不能请求事件：" +
+                    applicationEvent));
+        }
+        return getApplicationEventMulticaster().multicastRequest(applicationEvent, responseType, options);
+    }
+
+    /**
+     * 批量发布事件,同类型的事件会合并为一条消息发送
+     *
+     * @param events 事件列表
+     * @param direct 是否点对点【点对点模式将会只有一个消费者接收到】
+     */
+    @Override
+    public void publishEvents(Collection<?> events, boolean direct) {
+        Assert.notNull(events, "Events must not be null");
+        List<ApplicationEvent> applicationEvents = new ArrayList<>(events.size());
+        events.forEach(event -> applicationEvents.add(toApplicationEvent(event)));
+
+        if (this.earlyApplicationEvents != null) {
+            this.earlyApplicationEvents.addAll(applicationEvents);
+        } else {
+            // 发送事件
+            getApplicationEventMulticaster().multicastEvents(applicationEvents, direct);
+        }
+    }
+
+    /**
+     * 转换为事件并设置事件源
+     *
+     * @param event 事件
+     * @return 事件
+     */
+    private ApplicationEvent toApplicationEvent(Object event) {
         Assert.notNull(event, "Event must not be null");
 
         // Decorate event as an ApplicationEvent if necessary
@@ -190,13 +324,7 @@ public class GameApplicationContext implements ApplicationEventPublisher, Applic
         if (StringUtils.isBlank(applicationEvent.getSource())) {
             applicationEvent.setSource(ApplicationEventUtils.getCurrentEventSource());
         }
-
-        if (this.earlyApplicationEvents != null) {
-            this.earlyApplicationEvents.add(applicationEvent);
-        } else {
-            // 发送事件
-            getApplicationEventMulticaster().multicastEvent(applicationEvent, direct);
-        }
+        return applicationEvent;
     }
 
     /**
@@ -334,6 +462,42 @@ public class GameApplicationContext implements ApplicationEventPublisher, Applic
         return binding.getProvider().get();
     }
 
+    /**
+     * 实例化所有单例
+     * <p> 和guice的{@link com.google.inject.Stage#PRODUCTION}一样预先创建单例,同时完成配置值注入和初始化方法
+     * <p> 需要在verticle的上下文中执行,有单例依赖创建时的vertx上下文
+     * <p> 同一次部署的实例共用的父注入器只在第一个预热成功的实例中预热
+     *
+     * @return 预热的单例数量
+     */
+    public int warmupSingletons() {
+        //父注入器的先创建,已经预热过的父注入器跳过
+        Deque<Injector> injectors = new ArrayDeque<>();
+        List<Injector> parents = new ArrayList<>();
+        injectors.push(getInjector());
+        for (Injector parent = getInjector().getParent(); parent != null && WARMED_PARENT_INJECTORS.add(parent);
+             parent = parent.getParent()) {
+            injectors.push(parent);
+            parents.add(parent);
+        }
+        int count = 0;
+        try {
+            for (Injector current : injectors) {
+                for (Binding<?> binding : current.getBindings().values()) {
+                    if (Scopes.isSingleton(binding)) {
+                        binding.getProvider().get();
+                        count++;
+                    }
+                }
+            }
+        } catch (Throwable e) {
+            //预热失败的父注入器不算预热过,后面的实例重新预热
+            parents.forEach(WARMED_PARENT_INJECTORS::remove);
+            throw e;
+        }
+        return count;
+    }
+
     /**
      * 开始记录服务启动时间
      */
@@ -368,14 +532,17 @@ public class GameApplicationContext implements ApplicationEventPublisher, Applic
         GameApplicationContext context = new GameApplicationContext();
         //保存一下初始化结果
         context.setInit(isInit());
+        context.setEagerWarmup(isEagerWarmup());
 
         //复制beanDefinition
         context.getClassSet().addAll(getClassSet());
-        context.getInterfaceClassMap().putAll(getInterfaceClassMap());
-        context.getExtendClassMap().putAll(getExtendClassMap());
+        //注册时会往内层的集合中添加,内层的集合也要复制,保证各上下文之间互不影响
+        getInterfaceClassMap().forEach((clazz, map) -> context.getInterfaceClassMap().put(clazz, new HashMap<>(map)));
+        getExtendClassMap().forEach((clazz, map) -> context.getExtendClassMap().put(clazz, new HashMap<>(map)));
         context.getProviderClassMap().putAll(getProviderClassMap());
-        context.getConfigBindKeyMap().putAll(getConfigBindKeyMap());
-        context.getPostConstructMethodMap().putAll(getPostConstructMethodMap());
+        getConfigBindKeyMap().forEach((clazz, list) -> context.getConfigBindKeyMap().put(clazz, new ArrayList<>(list)));
+        getPostConstructMethodMap().forEach((clazz, list) -> context.getPostConstructMethodMap()
+                .put(clazz, new ArrayList<>(list)));
         context.getConfigurationClassMap().putAll(getConfigurationClassMap());
         context.getConfigPropertityClassMap().putAll(getConfigPropertityClassMap());
         context.getExtraGuiceModule().addAll(getExtraGuiceModule());
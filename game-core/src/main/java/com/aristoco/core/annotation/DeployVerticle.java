@@ -42,6 +42,20 @@ public @interface DeployVerticle {
      */
     Class<?> eventSource() default CommonEventSource.class;
 
+    /**
+     * 是否开启共享注入器
+     * 开启后同一次部署的多个实例共用一个父注入器,父注入器中绑定vertx、配置绑定类和{@link Shared}组件,
+     * 每个实例只创建子注入器绑定剩余的组件,额外的guice模块也在子注入器中加载
+     */
+    boolean sharedInjector() default false;
+
+    /**
+     * 是否预热
+     * 开启后在异步启服逻辑前实例化所有单例并执行{@link com.aristoco.core.vertx.verticle.BaseVerticle#warmup()},
+     * 预热完成后才算部署完成,部署配置{@link com.aristoco.core.config.VerticleBaseConfig#getEagerWarmup()}优先
+     */
+    boolean eagerWarmup() default false;
+
     /**
      * 需要加载的guice模块
      */
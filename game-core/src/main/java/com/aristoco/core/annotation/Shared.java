@@ -0,0 +1,18 @@
+package com.aristoco.core.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/28
+ * @description 共享组件注解
+ * <p> 开启了共享注入器{@link DeployVerticle#sharedInjector()}的verticle,同一次部署的所有实例共用一个组件实例
+ * <p> 组件需要是线程安全无状态的,只能依赖vertx、配置绑定类和其他共享组件
+ * <p> 依赖了只在子注入器中绑定的组件时,创建父注入器失败
+ * <p> 未开启共享注入器的verticle中和普通组件一样
+ **/
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Shared {
+}
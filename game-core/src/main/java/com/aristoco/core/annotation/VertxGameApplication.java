@@ -40,4 +40,10 @@ public @interface VertxGameApplication {
      * 注:如果通过启动类已经加载，则不会加载当前的，需要有无参构造函数，如需有参在启动类注入
      */
     Class<Module>[] extraGuiceModule() default {};
+
+    /**
+     * 启动时准备Verticle上下文的并行数
+     * 注:小于等于0使用cpu核数,1为在主线程串行处理
+     */
+    int initParallelism() default 0;
 }
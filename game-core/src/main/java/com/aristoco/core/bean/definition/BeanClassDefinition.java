@@ -33,6 +33,11 @@ public class BeanClassDefinition {
      */
     private boolean isPrimary;
 
+    /**
+     * 是否是共享的,开启共享注入器时绑定在父注入器中
+     */
+    private boolean isShared;
+
     /**
      * 当前要访问的方法
      */
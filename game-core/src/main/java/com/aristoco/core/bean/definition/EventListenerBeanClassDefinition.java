@@ -4,6 +4,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -20,6 +21,12 @@ public class EventListenerBeanClassDefinition extends BeanClassDefinition {
      */
     private Set<Class<?>> listenerClasses;
 
+    /**
+     * 监听的事件类在扫描范围内的子类型,用于按类型层级分发
+     * k:监听的事件类 v:可以实例化的子类型
+     */
+    private Map<Class<?>, Set<Class<?>>> listenerSubClasses = Map.of();
+
     /**
      * 当前方法参数的类定义，也维护参数索引顺序
      */
@@ -40,6 +47,11 @@ public class EventListenerBeanClassDefinition extends BeanClassDefinition {
      */
     private boolean payloadEvent = false;
 
+    /**
+     * 是否批量事件监听,参数都是List
+     */
+    private boolean batch = false;
+
     /**
      * 事件监听接口实现类的事件参数名
      */
@@ -76,5 +88,10 @@ public class EventListenerBeanClassDefinition extends BeanClassDefinition {
          */
         private boolean payloadEvent = false;
 
+        /**
+         * 是否是批量事件参数(List),参数类型为List的元素类型
+         */
+        private boolean batch = false;
+
     }
 }
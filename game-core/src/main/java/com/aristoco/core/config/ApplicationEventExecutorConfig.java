@@ -2,11 +2,17 @@ package com.aristoco.core.config;
 
 import com.aristoco.core.annotation.Component;
 import com.aristoco.core.annotation.ConfigurationProperties;
+import com.aristoco.core.event.codec.ApplicationEventMessageCodec;
+import com.aristoco.core.event.executor.EventOverflowPolicy;
+import com.aristoco.core.event.executor.EventPriority;
+import com.aristoco.core.event.metrics.EventMetricsType;
 import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.tracing.TracingPolicy;
 import lombok.Data;
 
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -28,6 +34,173 @@ public class ApplicationEventExecutorConfig {
      */
     private EventBusOptions eventOptions = new EventBusOptions();
 
+    /**
+     * 批量发布事件的配置
+     */
+    private BatchConfig batch = new BatchConfig();
+
+    /**
+     * 事件指标配置
+     */
+    private MetricsConfig metrics = new MetricsConfig();
+
+    /**
+     * 延迟发布事件的配置
+     */
+    private ScheduleConfig schedule = new ScheduleConfig();
+
+    /**
+     * 事件日志配置
+     */
+    private JournalConfig journal = new JournalConfig();
+
+    /**
+     * 事件监听失败的默认重试配置
+     */
+    private RetryConfig retry = new RetryConfig();
+
+    /**
+     * 死信配置
+     */
+    private DeadLetterConfig deadLetter = new DeadLetterConfig();
+
+    /**
+     * 事件监听失败的默认重试配置
+     * <p> 监听器上有{@link com.aristoco.core.event.annotation.EventRetry}的使用注解的配置
+     */
+    @Data
+    public static class RetryConfig {
+
+        /**
+         * 最多重试次数,为0时不重试
+         */
+        private int maxRetries = 0;
+
+        /**
+         * 第一次重试的等待时间(毫秒)
+         */
+        private long delay = 100L;
+
+        /**
+         * 每次重试等待时间的倍数
+         */
+        private double multiplier = 2.0;
+
+        /**
+         * 最长等待时间(毫秒)
+         */
+        private long maxDelay = 10000L;
+    }
+
+    /**
+     * 死信配置
+     * <p> 重试后仍然失败的事件保存在内存的环形缓冲中,配置了文件的同时追加到文件
+     * @see com.aristoco.core.event.retry.EventDeadLetterQueue
+     */
+    @Data
+    public static class DeadLetterConfig {
+
+        /**
+         * 是否启用,未启用时失败的事件只记录日志
+         */
+        private boolean enable = true;
+
+        /**
+         * 内存中保存的死信数量
+         */
+        private int capacity = 1024;
+
+        /**
+         * 死信文件,为空时不写文件
+         */
+        private String file;
+    }
+
+    /**
+     * 事件日志配置
+     * <p> 启用后标注了{@link com.aristoco.core.event.annotation.JournaledEvent}的事件发布时追加到本地磁盘的日志中
+     * @see com.aristoco.core.event.journal.EventJournal
+     */
+    @Data
+    public static class JournalConfig {
+
+        /**
+         * 是否启用
+         */
+        private boolean enable = false;
+
+        /**
+         * 日志目录,同一个目录在进程中只打开一次
+         */
+        private String directory = "journal";
+
+        /**
+         * 每段的大小(字节)
+         */
+        private int segmentSize = 64 * 1024 * 1024;
+
+        /**
+         * 刷盘间隔(毫秒),间隔内的追加一起刷盘
+         */
+        private long flushInterval = 10L;
+    }
+
+    /**
+     * 延迟发布事件的配置
+     * <p> 每个verticle的事件循环上下文一个分层时间轮,延迟事件只在tick时检查,不再每个事件一个定时器
+     * @see com.aristoco.core.event.schedule.EventTimingWheel
+     */
+    @Data
+    public static class ScheduleConfig {
+
+        /**
+         * 每个tick的时长(毫秒),也是延迟发布的精度
+         */
+        private long tickDuration = 10L;
+
+        /**
+         * 时间轮每层的槽数,会调整为2的幂
+         */
+        private int wheelSize = 512;
+    }
+
+    /**
+     * 事件指标配置
+     * <p> 启用后记录每个监听器的等待、解码、条件判断、执行时间以及次数
+     * @see com.aristoco.core.event.metrics.EventMetricsFactory
+     */
+    @Data
+    public static class MetricsConfig {
+
+        /**
+         * 是否启用
+         */
+        private boolean enable = false;
+
+        /**
+         * 内置实现类型,通过SPI提供了实现时此项无效
+         */
+        private EventMetricsType type = EventMetricsType.MEMORY;
+    }
+
+    /**
+     * 批量发布事件的配置
+     * <p> 批量发布时同类型、同事件源、同路由key的事件合并为一条消息,达到数量或者时间阈值时发送
+     */
+    @Data
+    public static class BatchConfig {
+
+        /**
+         * 单条消息最多合并的事件数,达到后立即发送
+         */
+        private int maxSize = 256;
+
+        /**
+         * 最多等待合并的时间(毫秒),小于等于0时不等待,只合并同一次批量发布的事件
+         */
+        private long maxDelay = 0L;
+    }
+
     /**
      * 事件的eventbus发送消息的配置
      */
@@ -36,8 +209,10 @@ public class ApplicationEventExecutorConfig {
 
         /**
          * 设置新的编码器
+         * <p> 默认使用事件二进制编码器,自定义的编码器需要自行注册到eventbus上,并且编解码的类型都是ApplicationEvent
+         * @see ApplicationEventMessageCodec
          */
-        private String codecName;
+        private String codecName = ApplicationEventMessageCodec.CODEC_NAME;
 
         /**
          * 添加统一的headler
@@ -49,6 +224,13 @@ public class ApplicationEventExecutorConfig {
          */
         private boolean localOnly;
 
+        /**
+         * 本地监听器是否复制事件后再投递
+         * <p> 默认不复制,本地监听器直接拿到发布的事件对象,需要单个事件类复制时使用注解
+         * @see com.aristoco.core.event.annotation.CopyOnDeliver
+         */
+        private boolean copyOnLocalDeliver;
+
         /**
          * 跟踪策略
          */
@@ -100,5 +282,112 @@ public class ApplicationEventExecutorConfig {
          * 单个任务最大执行时间单位
          */
         private TimeUnit maxExecuteTimeUnit = TimeUnit.SECONDS;
+
+        /**
+         * 是否使用虚拟线程执行,每次监听执行使用独立的虚拟线程
+         * 注：为true时poolSize和maxExecuteTime无效,order为true时所有事件在同一个分片中顺序执行
+         * 运行环境不支持虚拟线程时退回到按需创建的平台线程
+         */
+        private boolean virtualThread = false;
+
+        /**
+         * 虚拟线程模式下同时执行的最大数量,小于等于0不限制
+         */
+        private int maxConcurrency = 0;
+
+        /**
+         * 按key分片执行的配置
+         */
+        private StripedConfig striped = new StripedConfig();
+
+        /**
+         * 待执行队列的配置
+         */
+        private QueueConfig queue = new QueueConfig();
+
+        /**
+         * 优先级队列的配置
+         */
+        private PriorityConfig priority = new PriorityConfig();
+    }
+
+    /**
+     * 优先级队列的配置
+     * <p> 启用后没有路由key的事件按优先级进入不同的队列,按权重轮流交给线程池执行,需要同时启用线程池
+     * <p> order为true时每个verticle只有一个执行者,否则同名线程池共用,执行者数量为poolSize(虚拟线程为maxConcurrency)
+     * <p> 虚拟线程不限制并发时事件立即执行,优先级不生效
+     * @see com.aristoco.core.event.annotation.PriorityEvent
+     * @see com.aristoco.core.event.executor.PriorityEventExecutor
+     */
+    @Data
+    public static class PriorityConfig {
+
+        /**
+         * 是否启用
+         */
+        private boolean enable = false;
+
+        /**
+         * 单个优先级队列的最大排队事件数,超过后拒绝
+         */
+        private int queueSize = 1024;
+
+        /**
+         * 各优先级的权重,没有配置的为1
+         */
+        private Map<EventPriority, Integer> weights = new EnumMap<>(Map.of(
+                EventPriority.HIGH, 8,
+                EventPriority.NORMAL, 4,
+                EventPriority.LOW, 1));
+    }
+
+    /**
+     * 待执行队列的配置
+     * <p> 启用后每个监听地址(独立监听为每个监听器)有一个有界的待执行队列,需要同时启用线程池
+     * @see com.aristoco.core.event.executor.EventPendingQueue
+     */
+    @Data
+    public static class QueueConfig {
+
+        /**
+         * 是否启用
+         */
+        private boolean enable = false;
+
+        /**
+         * 队列容量
+         */
+        private int capacity = 10000;
+
+        /**
+         * 队列满时的处理策略
+         */
+        private EventOverflowPolicy overflowPolicy = EventOverflowPolicy.REJECT;
+    }
+
+    /**
+     * 按key分片执行的配置
+     * <p> 启用后同一个路由key的事件按顺序执行,不同key的事件在线程池中并行执行,order配置对有key的事件无效
+     * <p> 没有路由key的事件仍然按照order配置执行
+     * @see com.aristoco.core.event.RoutingKeyAware
+     * @see com.aristoco.core.event.annotation.EventKey
+     */
+    @Data
+    public static class StripedConfig {
+
+        /**
+         * 是否启用分片,需要同时启用线程池
+         */
+        private boolean enable = false;
+
+        /**
+         * 分片数量
+         */
+        private int stripes = 16;
+
+        /**
+         * 单个分片的最大排队事件数,超过后丢弃并打印日志
+         */
+        private int queueSize = 1024;
     }
 }
@@ -1,5 +1,6 @@
 package com.aristoco.core.config;
 
+import com.aristoco.core.annotation.DeployVerticle;
 import io.vertx.core.DeploymentOptions;
 import lombok.Data;
 
@@ -21,4 +22,9 @@ public class VerticleBaseConfig {
      */
     private DeploymentOptions deploymentOptions = new DeploymentOptions();
 
+    /**
+     * 是否预热,没有配置的使用{@link DeployVerticle#eagerWarmup()}
+     */
+    private Boolean eagerWarmup;
+
 }
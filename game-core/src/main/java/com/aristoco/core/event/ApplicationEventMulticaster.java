@@ -1,5 +1,10 @@
 package com.aristoco.core.event;
 
+import com.aristoco.core.event.schedule.ScheduledEventHandle;
+import io.vertx.core.Future;
+import io.vertx.core.eventbus.DeliveryOptions;
+
+import java.util.Collection;
 import java.util.function.Predicate;
 
 /**
@@ -20,6 +25,16 @@ public interface ApplicationEventMulticaster {
     }
 
 
+    /**
+     * 添加事件监听器,指定监听的类型,用于无法从泛型中获取监听类型的监听器(例如lambda)
+     * @param listenerClass 监听的类型,payload事件为payload的类型
+     * @param listener the listener to add
+     * @see #addApplicationListener(ApplicationListener)
+     */
+    default void addApplicationListener(Class<?> listenerClass, ApplicationListener<?> listener){
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * 移除事件监听器
      * @param listener the listener to remove
@@ -62,4 +77,56 @@ public interface ApplicationEventMulticaster {
      * @param direct 是否点对点【点对点模式将会只有一个消费者接收到】
      */
     void multicastEvent(ApplicationEvent event,boolean direct);
+
+    /**
+     * 事件多播,接收方队列已满时等待有空位后再多播
+     * @param event 事件
+     * @param direct 是否点对点【点对点模式将会只有一个消费者接收到】
+     * @return 多播结果,完成时事件已经发出
+     */
+    default Future<Void> multicastEventWhenWritable(ApplicationEvent event, boolean direct){
+        multicastEvent(event, direct);
+        return Future.succeededFuture();
+    }
+
+    /**
+     * 事件多播,当前vertx中所有监听器执行完成时返回的Future完成
+     * @param event 事件
+     * @return 当前vertx中监听器的执行结果
+     */
+    default Future<Void> multicastEventWithCompletion(ApplicationEvent event){
+        multicastEvent(event, false);
+        return Future.succeededFuture();
+    }
+
+    /**
+     * 延迟事件多播
+     * @param event 事件
+     * @param direct 是否点对点【点对点模式将会只有一个消费者接收到】
+     * @param delayMillis 延迟时间(毫秒)
+     * @return 取消句柄
+     */
+    default ScheduledEventHandle multicastEventDelayed(ApplicationEvent event, boolean direct, long delayMillis){
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * 请求事件,由一个监听器执行并回复监听的返回值
+     * @param event 事件
+     * @param responseType 回复的类型
+     * @param options 发送配置,超时时间和消息头使用该配置,为null使用默认配置
+     * @return 回复
+     */
+    default <R> Future<R> multicastRequest(ApplicationEvent event, Class<R> responseType, DeliveryOptions options){
+        return Future.failedFuture(new UnsupportedOperationException());
+    }
+
+    /**
+     * 批量事件多播,默认逐个多播
+     * @param events 事件列表
+     * @param direct 是否点对点【点对点模式将会只有一个消费者接收到】
+     */
+    default void multicastEvents(Collection<ApplicationEvent> events, boolean direct){
+        events.forEach(event -> multicastEvent(event, direct));
+    }
 }
@@ -1,5 +1,12 @@
 package com.aristoco.core.event;
 
+import com.aristoco.core.event.schedule.ScheduledEventHandle;
+import io.vertx.core.Future;
+import io.vertx.core.eventbus.DeliveryOptions;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
 /**
  * 事件发布器接口
  *
@@ -44,4 +51,124 @@ public interface ApplicationEventPublisher {
      */
     void publishEvent(Object event, boolean direct);
 
+    /**
+     * 发布事件,接收方队列已满时等待有空位后再发布
+     * <p> 配合{@link com.aristoco.core.event.executor.EventOverflowPolicy#BLOCK}使用,默认实现直接发布
+     *
+     * @param event  事件
+     * @param direct 是否点对点【点对点模式将会只有一个消费者接收到】
+     * @return 发布结果,完成时事件已经发出
+     */
+    default Future<Void> publishEventWhenWritable(Object event, boolean direct) {
+        publishEvent(event, direct);
+        return Future.succeededFuture();
+    }
+
+    /**
+     * 发布事件,返回的Future在当前vertx中所有监听器执行完成时完成
+     * <p> 返回Future或CompletionStage的监听器在其完成时才算执行完成,其他节点的监听器不等待
+     * <p> 默认实现直接发布
+     *
+     * @param event 事件
+     * @return 当前vertx中监听器的执行结果
+     */
+    default Future<Void> publishEventWithCompletion(Object event) {
+        publishEvent(event, false);
+        return Future.succeededFuture();
+    }
+
+    /**
+     * 延迟发布事件
+     *
+     * @param event 事件
+     * @param delay 延迟时间
+     * @param unit  时间单位
+     * @return 取消句柄
+     */
+    default ScheduledEventHandle publishEventDelayed(Object event, long delay, TimeUnit unit) {
+        return publishEventDelayed(event, false, unit.toMillis(delay));
+    }
+
+    /**
+     * 延迟发布事件
+     * <p> 默认实现不支持
+     *
+     * @param event       事件
+     * @param direct      是否点对点【点对点模式将会只有一个消费者接收到】
+     * @param delayMillis 延迟时间(毫秒)
+     * @return 取消句柄
+     */
+    default ScheduledEventHandle publishEventDelayed(Object event, boolean direct, long delayMillis) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * 在指定时间发布事件
+     *
+     * @param event     事件
+     * @param timestamp 发布的时间戳(毫秒),已经过去的尽快发布
+     * @return 取消句柄
+     */
+    default ScheduledEventHandle publishEventAt(Object event, long timestamp) {
+        return publishEventAt(event, false, timestamp);
+    }
+
+    /**
+     * 在指定时间发布事件
+     *
+     * @param event     事件
+     * @param direct    是否点对点【点对点模式将会只有一个消费者接收到】
+     * @param timestamp 发布的时间戳(毫秒),已经过去的尽快发布
+     * @return 取消句柄
+     */
+    default ScheduledEventHandle publishEventAt(Object event, boolean direct, long timestamp) {
+        return publishEventDelayed(event, direct, timestamp - System.currentTimeMillis());
+    }
+
+    /**
+     * 请求事件,由一个监听器执行并回复监听的返回值
+     *
+     * @param event        事件
+     * @param responseType 回复的类型
+     * @return 回复,监听没有返回值的为null
+     */
+    default <R> Future<R> publishRequest(Object event, Class<R> responseType) {
+        return publishRequest(event, responseType, null);
+    }
+
+    /**
+     * 请求事件,由一个监听器执行并回复监听的返回值
+     * <p> {@link com.aristoco.core.event.annotation.EventListener}方法的返回值、
+     * {@link AsyncApplicationListener}完成的值作为回复
+     * <p> 默认实现不支持
+     *
+     * @param event        事件
+     * @param responseType 回复的类型
+     * @param options      发送配置,超时时间和消息头使用该配置,为null使用默认配置
+     * @return 回复,监听没有返回值的为null
+     */
+    default <R> Future<R> publishRequest(Object event, Class<R> responseType, DeliveryOptions options) {
+        return Future.failedFuture(new UnsupportedOperationException());
+    }
+
+    /**
+     * 批量发布事件
+     *
+     * @param events 事件列表
+     */
+    default void publishEvents(Collection<?> events) {
+        publishEvents(events, false);
+    }
+
+    /**
+     * 批量发布事件
+     * <p> 同类型的事件会合并为一条消息发送,默认实现逐个发布
+     *
+     * @param events 事件列表
+     * @param direct 是否点对点【点对点模式将会只有一个消费者接收到】
+     */
+    default void publishEvents(Collection<?> events, boolean direct) {
+        events.forEach(event -> publishEvent(event, direct));
+    }
+
 }
@@ -0,0 +1,32 @@
+package com.aristoco.core.event;
+
+import io.vertx.core.Future;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/14
+ * @description 异步事件监听接口
+ * <p> 返回的Future完成时监听才算执行结束,顺序执行和按key分片执行时,下一个事件会等待当前事件完成
+ * <p> 在事件线程池中执行时会在工作线程上等待完成,没有启用线程池的在eventloop上只跟踪完成不等待
+ **/
+@FunctionalInterface
+public interface AsyncApplicationListener<E extends ApplicationEvent> extends ApplicationListener<E> {
+
+    /**
+     * 异步执行事件
+     *
+     * @param event the event to respond to
+     * @return 执行结果,完成时监听执行结束
+     */
+    Future<?> onApplicationEventAsync(E event);
+
+    /**
+     * 执行事件,不等待完成
+     *
+     * @param event the event to respond to
+     */
+    @Override
+    default void onApplicationEvent(E event) {
+        onApplicationEventAsync(event);
+    }
+}
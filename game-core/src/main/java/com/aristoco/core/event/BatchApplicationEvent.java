@@ -0,0 +1,52 @@
+package com.aristoco.core.event;
+
+import com.aristoco.core.event.executor.EventRoutingKeyResolver;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/15
+ * @description 批量事件载体
+ * <p> 同一类型、同一事件源、同一路由key的事件合并为一条eventbus消息传输
+ * <p> 批量监听器(参数为List)一次收到整批事件,普通监听器按单个事件依次执行
+ **/
+@EqualsAndHashCode(callSuper = true)
+@Data
+@ToString(callSuper = true)
+public class BatchApplicationEvent extends ApplicationEvent implements RoutingKeyAware {
+
+    /**
+     * 批量的事件,类型都相同
+     */
+    private final List<ApplicationEvent> events;
+
+    public BatchApplicationEvent(List<ApplicationEvent> events) {
+        this.events = events;
+    }
+
+    /**
+     * 单个事件包装为批量事件,用于批量监听器收到单个事件的情况
+     *
+     * @param event 事件
+     * @return 批量事件
+     */
+    public static BatchApplicationEvent of(ApplicationEvent event) {
+        BatchApplicationEvent batchEvent = new BatchApplicationEvent(List.of(event));
+        batchEvent.setSource(event.getSource());
+        return batchEvent;
+    }
+
+    /**
+     * 同一批事件的路由key相同,取第一个事件的
+     *
+     * @return 路由key
+     */
+    @Override
+    public Object routingKey() {
+        return events.isEmpty() ? null : EventRoutingKeyResolver.getRoutingKey(events.get(0));
+    }
+}
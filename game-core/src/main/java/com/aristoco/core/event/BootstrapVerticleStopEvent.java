@@ -1,11 +1,14 @@
 package com.aristoco.core.event;
 
+import com.aristoco.core.event.annotation.PriorityEvent;
+
 /**
  * @author chenguowei
  * @date 2024/7/31
  * @description BootstrapVerticle停止事件
  * 用于启动整体的停服
  **/
+@PriorityEvent
 public class BootstrapVerticleStopEvent extends ApplicationEvent{
 
 }
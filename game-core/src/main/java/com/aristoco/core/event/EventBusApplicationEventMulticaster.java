@@ -1,31 +1,75 @@
 package com.aristoco.core.event;
 
-import cn.hutool.core.lang.Pair;
 import com.aristoco.core.GameApplicationContext;
 import com.aristoco.core.annotation.Component;
 import com.aristoco.core.annotation.Prototype;
 import com.aristoco.core.bean.definition.EventListenerBeanClassDefinition;
 import com.aristoco.core.config.ApplicationEventExecutorConfig;
+import com.aristoco.core.event.annotation.CoalesceEvent;
+import com.aristoco.core.event.annotation.EventRetry;
+import com.aristoco.core.event.annotation.JournaledEvent;
+import com.aristoco.core.event.codec.ApplicationEventClassTable;
+import com.aristoco.core.event.codec.ApplicationEventMessageCodec;
+import com.aristoco.core.event.codec.LocalApplicationEventMessageCodec;
+import com.aristoco.core.event.condition.EventConditionCompiler;
+import com.aristoco.core.event.executor.EventCoalescer;
+import com.aristoco.core.event.executor.EventPendingQueue;
+import com.aristoco.core.event.executor.EventPendingQueueRegistry;
+import com.aristoco.core.event.executor.EventPriority;
+import com.aristoco.core.event.executor.EventRoutingKeyResolver;
+import com.aristoco.core.event.executor.EventTask;
+import com.aristoco.core.event.executor.PriorityEventExecutor;
+import com.aristoco.core.event.executor.StripedEventExecutor;
+import com.aristoco.core.event.executor.VirtualThreadEventExecutor;
+import com.aristoco.core.event.invoker.EventListenerArgumentResolver;
+import com.aristoco.core.event.journal.EventJournal;
+import com.aristoco.core.event.invoker.EventListenerInvoker;
+import com.aristoco.core.event.invoker.EventListenerInvokerFactory;
+import com.aristoco.core.event.metrics.EventListenerMetrics;
+import com.aristoco.core.event.metrics.EventMetricsFactory;
+import com.aristoco.core.event.metrics.EventQueueMetrics;
+import com.aristoco.core.event.retry.DeadLetterEvent;
+import com.aristoco.core.event.retry.EventDeadLetterQueue;
+import com.aristoco.core.event.retry.EventRetryPolicy;
+import com.aristoco.core.event.schedule.EventTimingWheel;
+import com.aristoco.core.event.schedule.ScheduledEventHandle;
 import com.aristoco.core.exception.MvelCompileExpressionException;
 import com.aristoco.core.utils.ClassUtils;
 import com.aristoco.core.utils.MvelUtils;
 import com.aristoco.core.utils.StringUtils;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.WorkerExecutor;
 import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
 import io.vertx.core.eventbus.MessageConsumer;
-import io.vertx.core.json.JsonObject;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.impl.WorkerPool;
+import io.vertx.core.shareddata.LocalMap;
 import jakarta.annotation.PostConstruct;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.Serializable;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -51,6 +95,52 @@ public class EventBusApplicationEventMulticaster implements ApplicationEventMult
      */
     private final String EVENT_BUS_PAYLOAD_PREFIX = EVENT_BUS_PREFIX + "payload.";
 
+    /**
+     * 本地监听器的地址后缀
+     * 本地监听器单独使用一个地址,投递时不经过序列化
+     */
+    private final String EVENT_BUS_LOCAL_SUFFIX = ".local";
+
+    /**
+     * 消费者数量缓存名,同一个vertx中的所有多播器共用
+     */
+    private final String LOCAL_CONSUMER_COUNT_MAP_NAME = EVENT_BUS_PREFIX + "local.consumer.count";
+
+    /**
+     * 事件源的消息头,消费者根据消息头过滤事件源,不需要解码事件
+     */
+    public static final String EVENT_SOURCE_HEADER = "eventSource";
+
+    /**
+     * 事件类型的消息头,payload事件为payload的类名
+     */
+    public static final String EVENT_TYPE_HEADER = "eventType";
+
+    /**
+     * 事件完成跟踪的消息头,当前vertx中的消费者执行完成后通知发布方
+     */
+    public static final String EVENT_COMPLETION_HEADER = "eventCompletion";
+
+    /**
+     * 请求事件的实例请求地址后缀,每个消费者实例一个,用于按负载选择实例
+     */
+    private static final String EVENT_BUS_REQUEST_SUFFIX = ".request.";
+
+    /**
+     * 请求事件监听执行失败的失败码
+     */
+    public static final int REQUEST_FAILURE_CODE = 500;
+
+    /**
+     * 请求事件没有监听器执行的失败码
+     */
+    public static final int REQUEST_NO_LISTENER_CODE = 404;
+
+    /**
+     * 请求事件被丢弃的失败码
+     */
+    public static final int REQUEST_REJECTED_CODE = 503;
+
     /**
      * 应用上下文
      */
@@ -77,28 +167,122 @@ public class EventBusApplicationEventMulticaster implements ApplicationEventMult
     private final DeliveryOptions eventbusDeliveryOptions;
 
     /**
-     * 共享事件监听器列表
-     * k:事件地址  v:[{事件类,事件执行器},...]
+     * 本地监听器的eventbus发送配置
+     */
+    private final DeliveryOptions localDeliveryOptions;
+
+    /**
+     * 是否启用事件指标
+     */
+    private final boolean metricsEnabled;
+
+    /**
+     * 事件指标实现,未启用为null
+     */
+    private final EventMetricsFactory eventMetricsFactory;
+
+    /**
+     * 当前vertx中的消费者数量,本地监听地址的用于发布时判断是否有本地监听器
+     * k:消费地址 v:消费者数量
+     */
+    private final LocalMap<String, Integer> localConsumerCountMap;
+
+    /**
+     * 待发送的批量事件
+     * k:批量key v:待发送的批量
+     */
+    private final Map<EventBatchKey, EventBatch> eventBatchMap = new HashMap<>();
+
+    /**
+     * 批量是否已经关闭,关闭后批量发布的事件不再等待直接发送
+     */
+    private boolean eventBatchClosed;
+
+    /**
+     * 事件工作线程池,未启用或使用虚拟线程为null
+     */
+    private WorkerExecutor eventBusEventExecutor;
+
+    /**
+     * 虚拟线程事件执行器,未启用为null
+     */
+    private VirtualThreadEventExecutor virtualThreadEventExecutor;
+
+    /**
+     * 顺序执行器,只有一个分片,未启用或者不按顺序执行为null
+     */
+    private StripedEventExecutor orderedEventExecutor;
+
+    /**
+     * 按key分片的事件执行器,未启用为null
+     */
+    private StripedEventExecutor stripedEventExecutor;
+
+    /**
+     * 按优先级分队列的事件执行器,未启用为null
+     */
+    private PriorityEventExecutor priorityEventExecutor;
+
+    /**
+     * 共享事件监听器分发索引
+     */
+    private final EventListenerDispatchIndex shareDispatchIndex = new EventListenerDispatchIndex();
+
+    /**
+     * 本地共享事件监听器分发索引
+     */
+    private final EventListenerDispatchIndex localShareDispatchIndex = new EventListenerDispatchIndex();
+
+    /**
+     * 共享监听的消费者,每个实际事件类型一个
+     * k:消费地址 v:共享消费者
+     */
+    private final Map<String, ShareEventConsumer> shareConsumerMap = new HashMap<>();
+
+    /**
+     * 独立监听的消费者,每个监听器在每个实际事件类型上一个
+     * k:监听器 v:[消费者,...]
+     */
+    private final Map<EventListenerEntry, List<MessageConsumer<ApplicationEvent>>> aloneConsumerMap =
+            new IdentityHashMap<>();
+
+    /**
+     * 已注册的监听器,注册和移除时加锁,事件分发不加锁
+     * k:监听器接口实例,注解监听为监听方法的类定义 v:[注册信息,...]
+     */
+    private final Map<Object, List<EventListenerRegistration>> listenerRegistrationMap = new IdentityHashMap<>();
+
+    /**
+     * 监听的类型需要订阅的实际事件类型
+     * <p> 事件只发布到实际类型的地址上,监听父类或接口的需要订阅所有子类型的地址
+     * k:监听的类型 v:自身和扫描到的子类型
+     */
+    private final Map<Class<?>, Set<Class<?>>> dispatchClassMap = new HashMap<>();
+
+    /**
+     * verticle的vertx上下文,消费者在这里注册,延迟事件和暂存的任务也在这里执行
+     */
+    private final Context verticleContext;
+
+    /**
+     * 延迟发布事件的时间轮,绑定verticle的上下文,verticle卸载后停止
      */
-    private final Map<String, List<Pair<Class<?>, EventListenHandler<? extends ApplicationEvent>>>> shareEventListenerMap = new HashMap<>();
+    private final EventTimingWheel eventTimingWheel;
 
     /**
-     * 独立事件监听器列表
-     * k:事件地址  v:[{事件类,事件执行器},...]
+     * 事件日志,未启用为null
      */
-    private final Map<String, List<Pair<Class<?>, EventListenHandler<? extends ApplicationEvent>>>> aloneEventListenerMap = new HashMap<>();
+    private final EventJournal eventJournal;
 
     /**
-     * 共享事件监听器列表
-     * k:事件地址  v:[{事件类,事件执行器},...]
+     * 没有指定重试策略的监听器使用的重试策略
      */
-    private final Map<String, List<Pair<Class<?>, EventListenHandler<? extends ApplicationEvent>>>> localShareEventListenerMap = new HashMap<>();
+    private final EventRetryPolicy defaultRetryPolicy;
 
     /**
-     * 独立事件监听器列表
-     * k:事件地址  v:[{事件类,事件执行器},...]
+     * 死信队列,未启用为null
      */
-    private final Map<String, List<Pair<Class<?>, EventListenHandler<? extends ApplicationEvent>>>> localAloneEventListenerMap = new HashMap<>();
+    private final EventDeadLetterQueue deadLetterQueue;
 
     @Inject
     public EventBusApplicationEventMulticaster(GameApplicationContext context, Vertx vertx, EventBus eventBus,
@@ -108,6 +292,43 @@ public class EventBusApplicationEventMulticaster implements ApplicationEventMult
         this.eventBus = eventBus;
         this.applicationEventExecutorConfig = applicationEventExecutorConfig;
         this.eventbusDeliveryOptions = applicationEventExecutorConfig.getEventOptions().toDeliveryOptions();
+        if (StringUtils.isBlank(this.eventbusDeliveryOptions.getCodecName())) {
+            this.eventbusDeliveryOptions.setCodecName(ApplicationEventMessageCodec.CODEC_NAME);
+        }
+        this.localDeliveryOptions = new DeliveryOptions(this.eventbusDeliveryOptions)
+                .setCodecName(LocalApplicationEventMessageCodec.getCodecName(
+                        applicationEventExecutorConfig.getEventOptions().isCopyOnLocalDeliver()))
+                .setLocalOnly(true);
+        this.localConsumerCountMap = vertx.sharedData().getLocalMap(LOCAL_CONSUMER_COUNT_MAP_NAME);
+        ApplicationEventExecutorConfig.MetricsConfig metricsConfig = applicationEventExecutorConfig.getMetrics();
+        this.metricsEnabled = metricsConfig.isEnable();
+        this.eventMetricsFactory = metricsEnabled ? EventMetricsFactory.load(metricsConfig) : null;
+        //没有通过verticle启动的上下文使用当前上下文
+        this.verticleContext = context.getVertxContext() != null ? context.getVertxContext() :
+                vertx.getOrCreateContext();
+        ApplicationEventExecutorConfig.ScheduleConfig scheduleConfig = applicationEventExecutorConfig.getSchedule();
+        this.eventTimingWheel = new EventTimingWheel(vertx, verticleContext,
+                scheduleConfig.getTickDuration(), scheduleConfig.getWheelSize(), this::multicastEvent);
+        ApplicationEventExecutorConfig.JournalConfig journalConfig = applicationEventExecutorConfig.getJournal();
+        this.eventJournal = journalConfig.isEnable() ? EventJournal.getSharedJournal(
+                Path.of(journalConfig.getDirectory()), journalConfig.getSegmentSize(),
+                journalConfig.getFlushInterval()) : null;
+        //verticle卸载或者vertx关闭时发送所有等待中的批量,已经接收的事件不丢失
+        ((ContextInternal) verticleContext).addCloseHook(completion -> {
+            flushEventBatches();
+            completion.complete();
+        });
+        if (eventJournal != null) {
+            //verticle卸载或者vertx关闭时释放共享的事件日志,最后一个释放时刷盘关闭
+            ((ContextInternal) verticleContext).addCloseHook(completion ->
+                    eventJournal.release().onComplete(completion));
+        }
+        ApplicationEventExecutorConfig.RetryConfig retryConfig = applicationEventExecutorConfig.getRetry();
+        this.defaultRetryPolicy = new EventRetryPolicy(retryConfig.getMaxRetries(), retryConfig.getDelay(),
+                retryConfig.getMultiplier(), retryConfig.getMaxDelay());
+        ApplicationEventExecutorConfig.DeadLetterConfig deadLetterConfig = applicationEventExecutorConfig.getDeadLetter();
+        this.deadLetterQueue = deadLetterConfig.isEnable() ?
+                EventDeadLetterQueue.getSharedQueue(vertx, deadLetterConfig) : null;
     }
 
     /**
@@ -115,401 +336,1809 @@ public class EventBusApplicationEventMulticaster implements ApplicationEventMult
      */
     @PostConstruct
     public void init() {
-        //初始化事件监听器
-        initEventListener();
+        //注册事件编码器,自定义的编码器由使用方自行注册
+        if (ApplicationEventMessageCodec.CODEC_NAME.equals(eventbusDeliveryOptions.getCodecName())) {
+            ApplicationEventMessageCodec.register(eventBus);
+        }
+        //本地事件编码器,直接传递事件对象
+        LocalApplicationEventMessageCodec.register(eventBus);
 
-        //注册事件监听器到eventbus上
-        registerListenerToEventBus();
+        //初始化事件执行器
+        initEventExecutor();
+
+        //初始化事件监听器,并注册到eventbus上
+        initEventListener();
 
     }
 
     /**
-     * 注册事件监听器到eventbus
+     * 初始化事件执行器
      */
-    private void registerListenerToEventBus() {
-        WorkerExecutor eventBusEventExecutor;
+    private void initEventExecutor() {
         ApplicationEventExecutorConfig.ExecutorConfig executorConfig =
                 applicationEventExecutorConfig.getExecutor();
         if (executorConfig.isEnable()) {
-            //创建一个事件专用的命名工作work-pool
-            String name = executorConfig.getName();
-            int poolSize = executorConfig.getPoolSize();
-            long maxExecuteTime = executorConfig.getMaxExecuteTime();
-            TimeUnit maxExecuteTimeUnit = executorConfig.getMaxExecuteTimeUnit();
-            eventBusEventExecutor = vertx.createSharedWorkerExecutor(name, poolSize, maxExecuteTime, maxExecuteTimeUnit);
-        } else {
-            eventBusEventExecutor = null;
-        }
-        //共享事件监听,一个地址转发多个监听
-        registerShareEventListeners(eventBusEventExecutor, false);
-        registerShareEventListeners(eventBusEventExecutor, true);
-        //独立事件监听,每个监听各自独立
-        registerAloneEventListeners(eventBusEventExecutor, false);
-        registerAloneEventListeners(eventBusEventExecutor, true);
-    }
-
-    /**
-     * 注册独立监听时间
-     *
-     * @param eventBusEventExecutor 事件执行线程池
-     * @param isLocal               是否监听本地事件
-     */
-    @SuppressWarnings({"rawtypes"})
-    private void registerAloneEventListeners(WorkerExecutor eventBusEventExecutor, boolean isLocal) {
-        getEventListenerMap(true, isLocal)
-                .forEach((listenAddr, listeners) -> {
-                    //判断是否是payload监听地址
-                    boolean isPayLoadEvent = listenAddr.startsWith(EVENT_BUS_PAYLOAD_PREFIX);
-                    listeners.forEach(pair -> {
-                        Class<?> eventClass = pair.getKey();
-                        EventListenHandler listener = pair.getValue();
-                        //事件处理在work-pool中，避免阻塞
-                        MessageConsumer<Object> consumer = isLocal ?
-                                eventBus.localConsumer(listenAddr) : eventBus.consumer(listenAddr);
-                        consumer.handler(message -> {
-                            JsonObject body = (JsonObject) message.body();
-                            Callable<Object> callable = () -> {
-                                //执行事件监听器
-                                handleEventListener(listenAddr, isPayLoadEvent, eventClass, listener, body);
-                                return null;
-                            };
-                            if (eventBusEventExecutor != null) {
-                                //事件处理在work-pool中，避免阻塞
-                                eventBusEventExecutor.executeBlocking(callable, applicationEventExecutorConfig
-                                        .getExecutor().isOrder());
-                            } else {
-                                try {
-                                    callable.call();
-                                } catch (Exception e) {
-                                    log.error("事件执行失败", e);
-                                }
-                            }
-                        });
-                    });
-                });
+            Executor stripeExecutor;
+            if (executorConfig.isVirtualThread()) {
+                //每次监听执行使用独立的虚拟线程
+                virtualThreadEventExecutor = VirtualThreadEventExecutor.getSharedExecutor(vertx,
+                        executorConfig.getName(), executorConfig.getMaxConcurrency());
+                stripeExecutor = virtualThreadEventExecutor;
+            } else {
+                //创建一个事件专用的命名工作work-pool
+                String name = executorConfig.getName();
+                int poolSize = executorConfig.getPoolSize();
+                long maxExecuteTime = executorConfig.getMaxExecuteTime();
+                TimeUnit maxExecuteTimeUnit = executorConfig.getMaxExecuteTimeUnit();
+                WorkerExecutor workerExecutor = vertx.createSharedWorkerExecutor(name, poolSize, maxExecuteTime,
+                        maxExecuteTimeUnit);
+                eventBusEventExecutor = workerExecutor;
+                stripeExecutor = task -> workerExecutor.executeBlocking(() -> {
+                    task.run();
+                    return null;
+                }, false);
+            }
+            if (executorConfig.isOrder()) {
+                //只有一个分片,所有事件按顺序执行,异步监听完成后才执行下一个
+                orderedEventExecutor = new StripedEventExecutor(stripeExecutor, 1, Integer.MAX_VALUE);
+            }
+            //按key分片执行
+            ApplicationEventExecutorConfig.StripedConfig stripedConfig = executorConfig.getStriped();
+            if (stripedConfig.isEnable()) {
+                stripedEventExecutor = new StripedEventExecutor(stripeExecutor, stripedConfig.getStripes(),
+                        stripedConfig.getQueueSize());
+            }
+            //按优先级分队列执行
+            ApplicationEventExecutorConfig.PriorityConfig priorityConfig = executorConfig.getPriority();
+            if (priorityConfig.isEnable()) {
+                if (executorConfig.isOrder()) {
+                    //只有一个执行者,当前verticle的事件仍然一个一个执行
+                    priorityEventExecutor = new PriorityEventExecutor(stripeExecutor, 1,
+                            priorityConfig.getQueueSize(), priorityConfig.getWeights());
+                } else {
+                    int concurrency = executorConfig.isVirtualThread() ?
+                            executorConfig.getMaxConcurrency() : executorConfig.getPoolSize();
+                    //虚拟线程不限制并发时不会排队,不需要优先级
+                    if (concurrency > 0) {
+                        //所有verticle共用,不能使用当前verticle的WorkerExecutor
+                        Executor vertxExecutor = virtualThreadEventExecutor;
+                        priorityEventExecutor = PriorityEventExecutor.getSharedExecutor(vertx,
+                                executorConfig.getName(), () -> vertxExecutor != null ? vertxExecutor :
+                                        createVertxWorkerExecutor(executorConfig), concurrency,
+                                priorityConfig.getQueueSize(), priorityConfig.getWeights());
+                    }
+                }
+            }
+        }
     }
 
     /**
-     * 注册共享事件监听
-     *
-     * @param eventBusEventExecutor 事件线程池
-     * @param isLocal               是否本地监听
-     */
-    @SuppressWarnings({"rawtypes"})
-    private void registerShareEventListeners(WorkerExecutor eventBusEventExecutor, boolean isLocal) {
-        getEventListenerMap(false, isLocal)
-                .forEach((listenAddr, listeners) -> {
-                            //判断是否是payload监听地址
-                            boolean isPayLoadEvent = listenAddr.startsWith(EVENT_BUS_PAYLOAD_PREFIX);
-                            MessageConsumer<Object> consumer = isLocal ?
-                                    eventBus.localConsumer(listenAddr) : eventBus.consumer(listenAddr);
-                            consumer.handler(message -> {
-                                JsonObject body = (JsonObject) message.body();
-                                Callable<Object> callable = () -> {
-                                    listeners.forEach(pair -> {
-                                        Class<?> eventClass = pair.getKey();
-                                        EventListenHandler listener = pair.getValue();
-                                        //执行事件监听器
-                                        handleEventListener(listenAddr, isPayLoadEvent, eventClass, listener, body);
-                                    });
-                                    return null;
-                                };
-                                if (eventBusEventExecutor != null) {
-                                    //事件处理在work-pool中，避免阻塞
-                                    eventBusEventExecutor.executeBlocking(callable,
-                                            applicationEventExecutorConfig.getExecutor().isOrder());
-                                } else {
-                                    try {
-                                        callable.call();
-                                    } catch (Exception e) {
-                                        log.error("事件执行失败", e);
-                                    }
-                                }
-                            });
-                        }
-                );
+     * 创建和vertx生命周期一致的工作线程执行器
+     * <p> 和verticle的WorkerExecutor使用同名的共享线程池,线程池在vertx关闭时关闭,
+     * 任务在不属于任何verticle的工作上下文中执行,verticle卸载后仍然可用
+     *
+     * @param executorConfig 线程池配置
+     * @return 执行器
+     */
+    private Executor createVertxWorkerExecutor(ApplicationEventExecutorConfig.ExecutorConfig executorConfig) {
+        VertxInternal vertxInternal = (VertxInternal) vertx;
+        WorkerPool workerPool = vertxInternal.createSharedWorkerPool(executorConfig.getName(),
+                executorConfig.getPoolSize(), executorConfig.getMaxExecuteTime(),
+                executorConfig.getMaxExecuteTimeUnit());
+        ContextInternal workerContext = vertxInternal.createWorkerContext(null, vertxInternal.closeFuture(),
+                workerPool, Thread.currentThread().getContextClassLoader());
+        return task -> workerContext.executeBlocking(() -> {
+            task.run();
+            return null;
+        }, false);
     }
 
     /**
-     * 执行监听器
+     * 注册事件监听器,订阅监听类型及其子类型的地址
+     * <p> 共享监听一个地址转发多个监听,独立监听每个监听各自独立
      *
-     * @param listenAddr     监听地址
-     * @param isPayLoadEvent 是否是payload事件
-     * @param eventClass     事件类型
-     * @param listener       监听器
-     * @param body           消息体
+     * @param owner         监听器接口实例,注解监听为监听方法的类定义
+     * @param listenerClass 监听的类型
+     * @param alone         是否独立
+     * @param isLocal       是否本地监听
+     * @param listener      监听器
      */
-    @SuppressWarnings({"rawtypes", "unchecked"})
-    private void handleEventListener(String listenAddr, boolean isPayLoadEvent, Class<?> eventClass,
-                                     EventListenHandler listener, JsonObject body) {
-        //包装一下,避免阻塞
-        Future.succeededFuture()
-                .compose(ignore -> {
-                    try {
-                        if (isPayLoadEvent) {
-                            //判断监听的事件是否是payload事件
-                            listener.accept(body.mapTo(PayloadApplicationEvent.class));
-                        } else {
-                            listener.accept(body.mapTo(eventClass));
-                        }
-                    } catch (Throwable e) {
-                        log.error("事件执行失败,事件类型：{},事件消息:{}", listenAddr, body, e);
+    private void registerEventListener(Object owner, Class<?> listenerClass, boolean alone, boolean isLocal,
+                                       EventListenerEntry listener) {
+        synchronized (listenerRegistrationMap) {
+            listenerRegistrationMap.computeIfAbsent(owner, k -> new ArrayList<>())
+                    .add(new EventListenerRegistration(listenerClass, alone, isLocal, listener));
+            Set<Class<?>> eventClasses = getDispatchClasses(listenerClass);
+            eventClasses.forEach(ApplicationEventClassTable::register);
+            if (alone) {
+                List<MessageConsumer<ApplicationEvent>> consumers = new ArrayList<>();
+                for (Class<?> eventClass : eventClasses) {
+                    //同一个监听器监听了多个有继承关系的类型时,只由最近的类型订阅
+                    if (listener.getDispatchListenerClass(eventClass) == listenerClass) {
+                        consumers.add(registerAloneConsumer(eventClass, isLocal, listener));
                     }
-                    return Future.succeededFuture();
-                });
+                }
+                aloneConsumerMap.put(listener, consumers);
+                return;
+            }
+            getShareDispatchIndex(isLocal).addListener(listenerClass, listener);
+            refreshShareConsumers(listenerClass, isLocal);
+            for (Class<?> eventClass : eventClasses) {
+                String consumerAddr = getConsumerAddress(getListenAddress(eventClass), isLocal);
+                if (!shareConsumerMap.containsKey(consumerAddr)) {
+                    shareConsumerMap.put(consumerAddr, registerShareConsumer(eventClass, isLocal));
+                }
+            }
+        }
     }
 
     /**
-     * 初始化事件监听器
+     * 移除监听器的所有注册,没有监听器的地址会注销消费者
+     *
+     * @param owner 监听器接口实例,注解监听为监听方法的类定义
+     * @return true:有移除
      */
-    private void initEventListener() {
-        List<EventListenerBeanClassDefinition> eventListeners = context.getEventListeners();
-        eventListeners.forEach(beanClassDefinition -> {
-            //处理当前监听的地址信息
-            Set<Class<?>> listenerClasses = beanClassDefinition.getListenerClasses();
-            listenerClasses.forEach(listenerClass -> {
-                String listenAddr;
-                if (ApplicationEvent.class.isAssignableFrom(listenerClass)) {
-                    listenAddr = EVENT_BUS_PREFIX + listenerClass.getName();
-                } else {
-                    listenAddr = EVENT_BUS_PAYLOAD_PREFIX + listenerClass.getName();
+    private boolean unregisterEventListener(Object owner) {
+        synchronized (listenerRegistrationMap) {
+            List<EventListenerRegistration> registrations = listenerRegistrationMap.remove(owner);
+            if (registrations == null) {
+                return false;
+            }
+            for (EventListenerRegistration registration : registrations) {
+                if (registration.alone()) {
+                    List<MessageConsumer<ApplicationEvent>> consumers =
+                            aloneConsumerMap.remove(registration.listener());
+                    if (consumers != null) {
+                        consumers.forEach(MessageConsumer::unregister);
+                    }
+                    continue;
                 }
-                //判断当前方法的类型
-                Class<?> clazz = beanClassDefinition.getClazz();
-                String beanName = beanClassDefinition.getBeanName();
-
-                //获取对象
-                Object bean = context.getBean(beanName, clazz);
-
-                //判断是接口还是注解事件监听
-                handleEventListerByType(beanClassDefinition, listenerClass, bean, listenAddr);
-            });
-        });
+                getShareDispatchIndex(registration.local())
+                        .removeListener(registration.listenerClass(), registration.listener());
+                refreshShareConsumers(registration.listenerClass(), registration.local());
+            }
+            return true;
+        }
     }
 
     /**
-     * 获取监听器缓存列表
+     * 刷新共享消费者的监听器列表,没有监听器的注销消费者
      *
-     * @param alone 是否独立
-     * @param local 是否本地
-     * @return
+     * @param listenerClass 变化的监听类型
+     * @param isLocal       是否本地监听
      */
-    private Map<String, List<Pair<Class<?>, EventListenHandler<? extends ApplicationEvent>>>> getEventListenerMap(Boolean alone, Boolean local) {
-        if (alone) {
-            return local ? this.localAloneEventListenerMap : this.aloneEventListenerMap;
-        } else {
-            return local ? this.localShareEventListenerMap : this.shareEventListenerMap;
+    private void refreshShareConsumers(Class<?> listenerClass, boolean isLocal) {
+        EventListenerDispatchIndex dispatchIndex = getShareDispatchIndex(isLocal);
+        Iterator<ShareEventConsumer> iterator = shareConsumerMap.values().iterator();
+        while (iterator.hasNext()) {
+            ShareEventConsumer shareConsumer = iterator.next();
+            if (shareConsumer.local != isLocal || !listenerClass.isAssignableFrom(shareConsumer.eventClass)) {
+                continue;
+            }
+            EventListenerEntry[] listeners = dispatchIndex.getListeners(shareConsumer.eventClass);
+            if (listeners.length == 0) {
+                shareConsumer.consumer.unregister();
+                iterator.remove();
+            } else {
+                shareConsumer.listeners = listeners;
+                shareConsumer.requestTarget.setReplyListener(getReplyListener(listeners));
+            }
         }
     }
 
     /**
-     * 根据类型处理事件监听器
+     * 注册独立监听的消费者
      *
-     * @param beanClassDefinition 监听器的类定义
-     * @param listenerClass       监听的类型
-     * @param bean                监听实例
-     * @param listenAddr          监听地址
+     * @param eventClass 实际事件类型
+     * @param isLocal    是否本地监听
+     * @param listener   监听器
+     * @return 消费者
      */
-    private void handleEventListerByType(EventListenerBeanClassDefinition beanClassDefinition, Class<?> listenerClass,
-                                         Object bean, String listenAddr) {
-        boolean isInterface = handleEventListerInterface(beanClassDefinition, listenerClass, bean, listenAddr);
-        if (isInterface) {
-            //是接口则接口处理
-            return;
-        }
-        //处理监听注解
-        List<EventListenerBeanClassDefinition.ParameterBeanClassDefinition> parameterBeanClassDefinitions =
-                beanClassDefinition.getParameterBeanClassDefinitions();
-        String condition = beanClassDefinition.getCondition();
-        Serializable expression = compileExpression(condition, beanClassDefinition.getClazz().getName());
-        Set<Class<?>> payloadClassSet = parameterBeanClassDefinitions.
-                stream()
-                .filter(EventListenerBeanClassDefinition.ParameterBeanClassDefinition::isPayloadEvent)
-                .map(EventListenerBeanClassDefinition.ParameterBeanClassDefinition::getParameterClass)
-                .collect(Collectors.toSet());
-        getEventListenerMap(beanClassDefinition.isAlone(), beanClassDefinition.isLocal())
-                .computeIfAbsent(listenAddr, k -> new ArrayList<>())
-                .add(new Pair<>(payloadClassSet.contains(listenerClass) ? PayloadApplicationEvent.class : listenerClass,
-                        event -> handleEventListenerByAnnotation(beanClassDefinition, listenerClass, bean, event, expression))
-                );
+    private MessageConsumer<ApplicationEvent> registerAloneConsumer(Class<?> eventClass, boolean isLocal,
+                                                                    EventListenerEntry listener) {
+        String listenAddr = getListenAddress(eventClass);
+        //事件处理在work-pool中，避免阻塞
+        EventQueueMetrics queueMetrics = createQueueMetrics(getConsumerAddress(listenAddr, isLocal));
+        EventPendingQueue pendingQueue = createPendingQueue(listenAddr, isLocal, queueMetrics);
+        EventCoalescer coalescer = createEventCoalescer(eventClass, listenAddr, isLocal);
+        EventRequestRouter.EventRequestTarget requestTarget = createRequestTarget(listenAddr, isLocal, pendingQueue,
+                listener.replying() ? listener.name() : null);
+        return createConsumer(listenAddr, isLocal, pendingQueue, requestTarget, (message, replyLocal) -> {
+            //事件源不匹配的不解码事件
+            if (!listener.isAcceptSource(getEventSource(message))) {
+                skipEventMessage(message, "没有监听该事件源的监听器");
+                return;
+            }
+            long receiveTime = metricsEnabled ? System.nanoTime() : 0L;
+            ApplicationEvent event = message.body();
+            long decodedTime = metricsEnabled ? System.nanoTime() : 0L;
+            Callable<Future<Object>> callable = () -> {
+                //执行事件监听器
+                recordDispatchMetrics(listener, receiveTime, decodedTime);
+                return handleEventListener(listenAddr, listener, event);
+            };
+            executeEventTask(pendingQueue, coalescer, queueMetrics, listenAddr, event, callable, message,
+                    replyLocal);
+        });
     }
 
     /**
-     * 执行注解的事件监听方法
+     * 注册共享监听的消费者
+     * <p> 每个实际事件类型一个消费者,监听器从分发索引中按类型层级解析
      *
-     * @param beanClassDefinition 事件监听方法的定义
-     * @param listenerClass       监听的类
-     * @param bean                监听的实例
-     * @param event               监听的事件对象
-     * @param expression          mvel表达式
-     */
-    @SuppressWarnings("rawtypes")
-    private void handleEventListenerByAnnotation(EventListenerBeanClassDefinition beanClassDefinition,
-                                                 Class<?> listenerClass, Object bean,
-                                                 ApplicationEvent event, Serializable expression) throws Exception {
-        Set<String> eventSources = beanClassDefinition.getEventSources();
-        List<EventListenerBeanClassDefinition.ParameterBeanClassDefinition> parameterBeanClassDefinitions =
-                beanClassDefinition.getParameterBeanClassDefinitions();
-        boolean trigger = true;
-        if (!eventSources.isEmpty()) {
-            trigger = eventSources.contains(event.getSource());
-        }
-        if (!trigger) {
-            return;
-        }
-
-        Method method = beanClassDefinition.getMethod();
-
-        //判断是否执行
-        Set<Class<?>> listenerClasses = beanClassDefinition.getListenerClasses();
-        Map<String, Object> paramMap = new HashMap<>(listenerClasses.size());
-        if (parameterBeanClassDefinitions.isEmpty()) {
-            //无参数的监听，判断是否有条件
-            if (expression != null) {
-                listenerClasses.forEach(listenerClazz -> {
-                    if (listenerClazz.isAssignableFrom(listenerClass)) {
-                        paramMap.put(ClassUtils.getClassLowerCaseCamel(listenerClazz), event);
-                    } else {
-                        paramMap.put(ClassUtils.getClassLowerCaseCamel(listenerClazz), null);
+     * @param eventClass 实际事件类型
+     * @param isLocal    是否本地监听
+     * @return 共享消费者
+     */
+    private ShareEventConsumer registerShareConsumer(Class<?> eventClass, boolean isLocal) {
+        String listenAddr = getListenAddress(eventClass);
+        EventQueueMetrics queueMetrics = createQueueMetrics(getConsumerAddress(listenAddr, isLocal));
+        EventPendingQueue pendingQueue = createPendingQueue(listenAddr, isLocal, queueMetrics);
+        EventCoalescer coalescer = createEventCoalescer(eventClass, listenAddr, isLocal);
+        ShareEventConsumer shareConsumer = new ShareEventConsumer(eventClass, isLocal);
+        shareConsumer.listeners = getShareDispatchIndex(isLocal).getListeners(eventClass);
+        EventRequestRouter.EventRequestTarget requestTarget = createRequestTarget(listenAddr, isLocal, pendingQueue,
+                getReplyListener(shareConsumer.listeners));
+        shareConsumer.requestTarget = requestTarget;
+        shareConsumer.consumer = createConsumer(listenAddr, isLocal, pendingQueue, requestTarget,
+                (message, replyLocal) -> {
+                    //监听器列表写时复制,这里只读取当前的快照
+                    EventListenerEntry[] listeners = shareConsumer.listeners;
+                    //先根据消息头过滤事件源,没有匹配的监听器时不解码事件
+                    String source = getEventSource(message);
+                    if (!hasAcceptSourceListener(listeners, source)) {
+                        skipEventMessage(message, "没有监听该事件源的监听器");
+                        return;
                     }
-                });
-                trigger = MvelUtils.handleExpression(expression, paramMap, Boolean.class);
-            }
-            if (trigger) {
-                method.invoke(bean);
-            }
-            return;
-        }
-        //构建参数列表
-        Object[] args = parameterBeanClassDefinitions.stream()
-                .map(definitions -> {
-                    if (definitions.getParameterClass().isAssignableFrom(listenerClass)) {
-                        //判断是否是事件类，不是事件类需要获取payload
-                        if (ApplicationEvent.class.isAssignableFrom(listenerClass)) {
-                            paramMap.put(definitions.getParameterName(), event);
-                            return event;
-                        } else {
-                            //是payload包装过的
-                            PayloadApplicationEvent payloadApplicationEvent =
-                                    (PayloadApplicationEvent) event;
-                            Object payload = payloadApplicationEvent.getPayload();
-                            paramMap.put(definitions.getParameterName(), payload);
-                            return payload;
+                    //同一个地址只解码一次,所有监听器共用同一个事件对象
+                    long receiveTime = metricsEnabled ? System.nanoTime() : 0L;
+                    ApplicationEvent event = message.body();
+                    long decodedTime = metricsEnabled ? System.nanoTime() : 0L;
+                    Callable<Future<Object>> callable = () -> {
+                        //执行事件监听器,异步监听全部完成时才算执行结束
+                        List<Future<Object>> futures = new ArrayList<>(listeners.length);
+                        for (EventListenerEntry listener : listeners) {
+                            if (listener.isAcceptSource(source)) {
+                                recordDispatchMetrics(listener, receiveTime, decodedTime);
+                                futures.add(handleEventListener(listenAddr, listener, event));
+                            }
                         }
-                    }
-                    paramMap.put(definitions.getParameterName(), null);
-                    return null;
-                })
-                .toArray(Object[]::new);
-        if (expression != null) {
-            trigger = MvelUtils.handleExpression(expression, paramMap, Boolean.class);
-        }
-        if (trigger) {
-            method.invoke(bean, args);
-        }
+                        return Future.join(futures).transform(ignore -> getReplyResult(futures));
+                    };
+                    executeEventTask(pendingQueue, coalescer, queueMetrics, listenAddr, event, callable, message,
+                            replyLocal);
+                });
+        return shareConsumer;
     }
 
     /**
-     * 处理监听器接口实现类
+     * 获取多个监听器执行结果中的回复
+     * <p> 使用第一个非null的返回值,都没有返回值时有执行失败的返回失败
      *
-     * @param beanClassDefinition 接口实现类定义
-     * @param listenerClass       监听的类型
-     * @param bean                监听的实例
-     * @param listenAddr          监听的地址
-     * @return
+     * @param futures 各监听器的执行结果,都已经完成
+     * @return 回复
      */
-    @SuppressWarnings({"rawtypes", "unchecked"})
-    private boolean handleEventListerInterface(EventListenerBeanClassDefinition beanClassDefinition,
-                                               Class<?> listenerClass, Object bean,
-                                               String listenAddr) {
-        if (beanClassDefinition.getParameterBeanClassDefinitions() != null) {
-            return false;
+    private Future<Object> getReplyResult(List<Future<Object>> futures) {
+        Throwable cause = null;
+        for (Future<Object> future : futures) {
+            if (future.failed()) {
+                if (cause == null) {
+                    cause = future.cause();
+                }
+            } else if (future.result() != null) {
+                return future;
+            }
         }
-        ApplicationListener listener = (ApplicationListener) bean;
-        //处理监听器接口
-        boolean payloadEvent = beanClassDefinition.isPayloadEvent();
-        String parameterName = beanClassDefinition.getParameterName();
-        //编译表达式
-        String condition = listener.condition();
-        Serializable expression = compileExpression(condition, bean.getClass().getName());
-
-        //获取要监听的事件源
-        Set<String> evenSources = Stream.of(listener.eventSources())
-                .map(Class::getName)
-                .collect(Collectors.toSet());
-
-        getEventListenerMap(listener.isAlone(), listener.isLocal())
-                .computeIfAbsent(listenAddr, k -> new ArrayList<>())
-                //如果是payload包装事件传入payload
-                .add(new Pair<>(payloadEvent ? PayloadApplicationEvent.class : listenerClass, event -> {
-                            boolean trigger = true;
-                            if (expression != null) {
-                                trigger = MvelUtils.handleExpression(expression, Map.of(parameterName, event),
-                                        Boolean.class);
-                            }
-                            if (!evenSources.isEmpty()) {
-                                trigger = evenSources.contains(event.getSource());
-                            }
-                            if (trigger) {
-                                listener.onApplicationEvent(event);
-                            }
-                        })
-                );
-        return true;
+        return cause == null ? Future.succeededFuture() : Future.failedFuture(cause);
     }
 
     /**
-     * 编译表达式
+     * 执行事件任务
+     * <p> 有路由key并且启用了分片的,在key对应的分片中按顺序执行
+     * <p> 合并事件先合并到key相同的等待任务中,合并掉的不再提交
+     * <p> 启用了待执行队列的,先加入队列,队列满时按策略处理,等待策略的在有空位后再提交
+     * <p> 分片队列已满时记录指标,发布方的完成跟踪和请求都失败
+     * <p> 异步监听返回的Future完成时事件任务才结束,顺序执行和分片执行在前一个事件结束后才执行下一个,执行线程不等待
+     * <p> 执行完成后通知完成跟踪,请求事件回复执行结果
      *
-     * @param expressionStr 表达式字符串
-     * @param listenerName  监听器名字
-     * @return
+     * @param pendingQueue 待执行队列,未启用为null
+     * @param coalescer    事件合并器,不是合并事件为null
+     * @param queueMetrics 排队指标
+     * @param listenAddr   监听地址
+     * @param event        事件
+     * @param callable     事件任务,返回执行结果
+     * @param message      eventbus消息
+     * @param replyLocal   是否本地回复
      */
-    private Serializable compileExpression(String expressionStr, String listenerName) {
-        if (StringUtils.isNotBlank(expressionStr)) {
+    private void executeEventTask(EventPendingQueue pendingQueue, EventCoalescer coalescer,
+                                  EventQueueMetrics queueMetrics, String listenAddr,
+                                  ApplicationEvent event, Callable<Future<Object>> callable,
+                                  Message<ApplicationEvent> message, boolean replyLocal) {
+        EventTask eventTask = () -> {
+            Future<Object> future;
             try {
-                //处理为通用解析的模式,条件表达式不存在默认值情况
-                if (expressionStr.startsWith("#{") || expressionStr.startsWith("${")) {
-                    return MvelUtils.compileExpression(expressionStr);
+                future = callable.call();
+            } catch (Exception e) {
+                log.error("事件执行失败", e);
+                future = Future.failedFuture(e);
+            }
+            //完成时回复,执行器在完成时释放分片/执行位置
+            return future.onComplete(ar -> completeEventMessage(message, replyLocal, ar));
+        };
+        Runnable onDropped = () -> rejectEventMessage(message, "事件待执行队列已满");
+        EventCoalescer.CoalescedTask coalescedTask = null;
+        //请求事件需要各自回复,批量事件已经合并发送,都不再合并
+        if (coalescer != null && message.replyAddress() == null && !(event instanceof BatchApplicationEvent)) {
+            coalescedTask = coalescer.offer(EventRoutingKeyResolver.getRoutingKey(event),
+                    eventTask, () -> countDown(getCompletionTracker(message)));
+            if (coalescedTask == null) {
+                //已经合并到等待执行的任务中
+                return;
+            }
+            eventTask = coalescedTask;
+            onDropped = coalescedTask::cancel;
+        }
+        EventCoalescer.CoalescedTask finalCoalescedTask = coalescedTask;
+        Consumer<EventTask> submitter = task -> {
+            try {
+                dispatchEventTask(listenAddr, event, task);
+            } catch (RejectedExecutionException e) {
+                Object routingKey = EventRoutingKeyResolver.getRoutingKey(event);
+                log.warn("事件执行队列已满,拒绝事件,事件类型：{},路由key：{},原因：{}", listenAddr, routingKey,
+                        e.getMessage());
+                if (stripedEventExecutor != null && routingKey != null) {
+                    queueMetrics.recordStripeRejected();
+                } else {
+                    queueMetrics.recordExecutorRejected();
+                }
+                if (pendingQueue != null) {
+                    pendingQueue.cancel(task);
+                }
+                if (finalCoalescedTask != null) {
+                    //合并掉的事件已经视为处理完成,最新的事件也按丢弃处理
+                    finalCoalescedTask.cancel();
+                } else {
+                    failEventMessage(message, e);
                 }
-                return MvelUtils.compileExpression("#{" + expressionStr + "}");
-            } catch (Throwable e) {
-                throw new MvelCompileExpressionException(listenerName, expressionStr, e);
             }
+        };
+        if (pendingQueue == null) {
+            submitter.accept(eventTask);
+        } else if (!pendingQueue.offer(eventTask, onDropped, submitter)) {
+            //队列已满被丢弃
+            onDropped.run();
         }
-        return null;
     }
 
     /**
-     * 将给定的事件发送到eventbus,事件名就是类名
+     * 把事件任务交给事件执行器
      *
-     * @param event  事件
-     * @param direct 是否点对点【点对点模式将会只有一个消费者接收到】
+     * @param listenAddr 监听地址
+     * @param event      事件
+     * @param task       事件任务
+     * @throws RejectedExecutionException 分片队列或者优先级队列已满,或者执行器拒绝
      */
-    @Override
-    public void multicastEvent(ApplicationEvent event, boolean direct) {
-        if (event instanceof PayloadApplicationEvent<?> e) {
-            //直接发布事件对象,会经过包装,便于传输
-            publishToEventBus(EVENT_BUS_PAYLOAD_PREFIX + e.getPayload().getClass().getName(),
-                    JsonObject.mapFrom(e), direct);
-        } else {
-            publishToEventBus(EVENT_BUS_PREFIX + event.getClass().getName(),
-                    JsonObject.mapFrom(event), direct);
+    private void dispatchEventTask(String listenAddr, ApplicationEvent event, EventTask task) {
+        if (stripedEventExecutor != null) {
+            Object routingKey = EventRoutingKeyResolver.getRoutingKey(event);
+            if (routingKey != null) {
+                stripedEventExecutor.execute(routingKey, task);
+                return;
+            }
+        }
+        if (priorityEventExecutor != null) {
+            priorityEventExecutor.execute(EventPriority.getPriority(event), task);
+            return;
         }
+        if (orderedEventExecutor != null) {
+            //只有一个分片,前一个事件结束后才执行下一个
+            orderedEventExecutor.execute(listenAddr, task);
+            return;
+        }
+        if (virtualThreadEventExecutor != null) {
+            //事件处理在虚拟线程中
+            virtualThreadEventExecutor.execute(task);
+            return;
+        }
+        if (eventBusEventExecutor != null) {
+            //事件处理在work-pool中，避免阻塞
+            eventBusEventExecutor.executeBlocking(task::execute, false);
+            return;
+        }
+        task.execute();
     }
 
     /**
-     * 发布信息到eventbus上
+     * 事件执行完成,通知完成跟踪,请求事件回复执行结果
+     * <p> 非事件的返回值包装为payload事件回复,本地请求直接传递对象,其他的使用eventbus的编码器
      *
-     * @param addr    发布地址
-     * @param message 消息
-     * @param direct  是否点对点【点对点模式将会只有一个消费者接收到】
+     * @param message    eventbus消息
+     * @param replyLocal 是否本地回复
+     * @param result     执行结果
      */
-    private void publishToEventBus(String addr, JsonObject message, boolean direct) {
-        if (direct) {
-            eventBus.send(addr, message, eventbusDeliveryOptions);
+    private void completeEventMessage(Message<ApplicationEvent> message, boolean replyLocal,
+                                      AsyncResult<Object> result) {
+        countDown(getCompletionTracker(message));
+        if (message.replyAddress() == null) {
             return;
         }
-        eventBus.publish(addr, message, eventbusDeliveryOptions);
+        if (result.failed()) {
+            message.fail(REQUEST_FAILURE_CODE, String.valueOf(result.cause().getMessage()));
+            return;
+        }
+        Object reply = result.result();
+        if (reply == null) {
+            message.reply(null);
+            return;
+        }
+        ApplicationEvent replyEvent = reply instanceof ApplicationEvent e ? e : new PayloadApplicationEvent<>(reply);
+        message.reply(replyEvent, new DeliveryOptions()
+                .setCodecName(replyLocal ? localDeliveryOptions.getCodecName() :
+                        eventbusDeliveryOptions.getCodecName()));
+    }
+
+    /**
+     * 事件没有执行,通知完成跟踪,请求事件回复没有监听器
+     *
+     * @param message        eventbus消息
+     * @param failureMessage 失败信息
+     */
+    private void skipEventMessage(Message<ApplicationEvent> message, String failureMessage) {
+        countDown(getCompletionTracker(message));
+        if (message.replyAddress() != null) {
+            message.fail(REQUEST_NO_LISTENER_CODE, failureMessage);
+        }
+    }
+
+    /**
+     * 事件被丢弃,通知完成跟踪,请求事件回复拒绝执行
+     *
+     * @param message        eventbus消息
+     * @param failureMessage 失败信息
+     */
+    private void rejectEventMessage(Message<ApplicationEvent> message, String failureMessage) {
+        countDown(getCompletionTracker(message));
+        if (message.replyAddress() != null) {
+            message.fail(REQUEST_REJECTED_CODE, failureMessage);
+        }
+    }
+
+    /**
+     * 事件没能提交执行,发布方的完成跟踪失败,请求事件回复拒绝执行
+     *
+     * @param message eventbus消息
+     * @param cause   失败原因
+     */
+    private void failEventMessage(Message<ApplicationEvent> message, Throwable cause) {
+        EventCompletionTracker tracker = getCompletionTracker(message);
+        if (tracker != null) {
+            tracker.fail(cause);
+        }
+        if (message.replyAddress() != null) {
+            message.fail(REQUEST_REJECTED_CODE, cause.getMessage());
+        }
+    }
+
+    /**
+     * 获取消息的完成跟踪
+     *
+     * @param message eventbus消息
+     * @return 完成跟踪,不需要跟踪的为null
+     */
+    private EventCompletionTracker getCompletionTracker(Message<ApplicationEvent> message) {
+        return EventCompletionTracker.get(vertx, message.headers().get(EVENT_COMPLETION_HEADER));
+    }
+
+    /**
+     * 消费者处理完成,通知完成跟踪
+     *
+     * @param tracker 完成跟踪,可以为null
+     */
+    private void countDown(EventCompletionTracker tracker) {
+        if (tracker != null) {
+            tracker.countDown();
+        }
+    }
+
+    /**
+     * 获取消息的事件源
+     * <p> 优先使用消息头,没有消息头的(例如其他方式发布的)才解码事件获取
+     *
+     * @param message eventbus消息
+     * @return 事件源
+     */
+    private String getEventSource(Message<ApplicationEvent> message) {
+        String source = message.headers().get(EVENT_SOURCE_HEADER);
+        if (source != null) {
+            return source;
+        }
+        return message.body().getSource();
+    }
+
+    /**
+     * 是否有监听该事件源的监听器
+     *
+     * @param listeners 监听器列表
+     * @param source    事件源
+     * @return true:有
+     */
+    private boolean hasAcceptSourceListener(EventListenerEntry[] listeners, String source) {
+        for (EventListenerEntry listener : listeners) {
+            if (listener.isAcceptSource(source)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 创建待执行队列
+     * <p> 只有启用了线程池和队列配置才创建,同步执行的事件不会堆积
+     *
+     * @param listenAddr   监听地址
+     * @param isLocal      是否本地监听
+     * @param queueMetrics 排队指标
+     * @return 待执行队列,未启用返回null
+     */
+    private EventPendingQueue createPendingQueue(String listenAddr, boolean isLocal, EventQueueMetrics queueMetrics) {
+        ApplicationEventExecutorConfig.ExecutorConfig executorConfig = applicationEventExecutorConfig.getExecutor();
+        ApplicationEventExecutorConfig.QueueConfig queueConfig = executorConfig.getQueue();
+        if (!executorConfig.isEnable() || !queueConfig.isEnable()) {
+            return null;
+        }
+        //暂存的任务回到verticle的上下文提交
+        return new EventPendingQueue(getConsumerAddress(listenAddr, isLocal), queueConfig.getCapacity(),
+                queueConfig.getOverflowPolicy(), verticleContext, queueMetrics);
+    }
+
+    /**
+     * 创建消费者地址的排队指标记录
+     *
+     * @param consumerAddress 消费者地址
+     * @return 指标记录,未启用指标时不记录
+     */
+    private EventQueueMetrics createQueueMetrics(String consumerAddress) {
+        if (!metricsEnabled) {
+            return EventQueueMetrics.NOOP;
+        }
+        return eventMetricsFactory.createQueueMetrics(consumerAddress);
+    }
+
+    /**
+     * 创建事件合并器
+     * <p> 只有标注了{@link CoalesceEvent}的事件类型(payload事件为payload的类型)才创建
+     *
+     * @param eventClass 实际事件类型
+     * @param listenAddr 监听地址
+     * @param isLocal    是否本地监听
+     * @return 事件合并器,不是合并事件返回null
+     */
+    private EventCoalescer createEventCoalescer(Class<?> eventClass, String listenAddr, boolean isLocal) {
+        if (!eventClass.isAnnotationPresent(CoalesceEvent.class)) {
+            return null;
+        }
+        return new EventCoalescer(getConsumerAddress(listenAddr, isLocal));
+    }
+
+    /**
+     * 创建eventbus消费者
+     * <p> 本地监听器使用单独的本地地址,并记录各地址的消费者数量用于发布时判断
+     * <p> 每个消费者再注册一个只接收请求的本地实例地址,请求时按负载选择实例
+     *
+     * @param listenAddr   监听地址
+     * @param isLocal      是否本地监听
+     * @param pendingQueue  待执行队列,未启用为null
+     * @param requestTarget 请求的消费者实例
+     * @param handler       消息处理 参数:[eventbus消息,是否本地回复]
+     * @return 消费者
+     */
+    private MessageConsumer<ApplicationEvent> createConsumer(String listenAddr, boolean isLocal,
+                                                             EventPendingQueue pendingQueue,
+                                                             EventRequestRouter.EventRequestTarget requestTarget,
+                                                             BiConsumer<Message<ApplicationEvent>, Boolean> handler) {
+        String consumerAddr = getConsumerAddress(listenAddr, isLocal);
+        MessageConsumer<ApplicationEvent> consumer = isLocal ? eventBus.localConsumer(consumerAddr) :
+                eventBus.consumer(consumerAddr);
+        consumer.handler(message -> handler.accept(message, isLocal));
+        localConsumerCountMap.merge(consumerAddr, 1, Integer::sum);
+        if (pendingQueue != null) {
+            EventPendingQueueRegistry.register(vertx, pendingQueue);
+        }
+        MessageConsumer<ApplicationEvent> requestConsumer = eventBus.localConsumer(requestTarget.getAddress(),
+                message -> handler.accept(message, true));
+        EventRequestRouter.register(vertx, listenAddr, requestTarget);
+        //verticle卸载时消费者会被注销
+        consumer.endHandler(ignore -> {
+            localConsumerCountMap.computeIfPresent(consumerAddr, (k, count) -> count > 1 ? count - 1 : null);
+            if (pendingQueue != null) {
+                EventPendingQueueRegistry.unregister(vertx, pendingQueue);
+            }
+            EventRequestRouter.unregister(vertx, listenAddr, requestTarget);
+            requestConsumer.unregister();
+        });
+        return consumer;
+    }
+
+    /**
+     * 创建请求的消费者实例
+     *
+     * @param listenAddr    监听地址
+     * @param isLocal       是否本地监听
+     * @param pendingQueue  待执行队列,未启用为null
+     * @param replyListener 有返回值的监听器名,没有为null
+     * @return 消费者实例
+     */
+    private EventRequestRouter.EventRequestTarget createRequestTarget(String listenAddr, boolean isLocal,
+                                                                      EventPendingQueue pendingQueue,
+                                                                      String replyListener) {
+        return new EventRequestRouter.EventRequestTarget(getConsumerAddress(listenAddr, isLocal) +
+                EVENT_BUS_REQUEST_SUFFIX + UUID.randomUUID(), pendingQueue, replyListener);
+    }
+
+    /**
+     * 获取消费者上有返回值的监听器名,用于请求时只在同一种监听器的实例中选择
+     *
+     * @param listeners 消费者上的监听器
+     * @return 有返回值的监听器名,多个用逗号连接,没有返回null
+     */
+    private String getReplyListener(EventListenerEntry[] listeners) {
+        StringJoiner joiner = null;
+        for (EventListenerEntry listener : listeners) {
+            if (listener.replying()) {
+                if (joiner == null) {
+                    joiner = new StringJoiner(",");
+                }
+                joiner.add(listener.name());
+            }
+        }
+        return joiner == null ? null : joiner.toString();
+    }
+
+    /**
+     * 获取当前vertx中所有事件待执行队列的深度
+     *
+     * @return k:监听地址 v:等待执行的事件数
+     */
+    public Map<String, Integer> getPendingQueueDepths() {
+        return EventPendingQueueRegistry.getQueueDepths(vertx);
+    }
+
+    /**
+     * 获取本地监听地址
+     *
+     * @param listenAddr 监听地址
+     * @return 本地监听地址
+     */
+    private String getLocalAddress(String listenAddr) {
+        return listenAddr + EVENT_BUS_LOCAL_SUFFIX;
+    }
+
+    /**
+     * 获取消费地址,本地监听使用本地监听地址
+     *
+     * @param listenAddr 监听地址
+     * @param isLocal    是否本地监听
+     * @return 消费地址
+     */
+    private String getConsumerAddress(String listenAddr, boolean isLocal) {
+        return isLocal ? getLocalAddress(listenAddr) : listenAddr;
+    }
+
+    /**
+     * 是否有本地监听器
+     *
+     * @param localAddr 本地监听地址
+     * @return true:有
+     */
+    private boolean hasLocalConsumer(String localAddr) {
+        return localConsumerCountMap.get(localAddr) != null;
+    }
+
+    /**
+     * 执行监听器
+     * <p> 批量事件对普通监听器按单个事件依次执行,单个事件对批量监听器包装为批量事件
+     *
+     * @param listenAddr 监听地址
+     * @param listener   监听器
+     * @param event      事件
+     * @return 执行结果,批量事件逐个执行的为最后一个事件的结果
+     */
+    private Future<Object> handleEventListener(String listenAddr, EventListenerEntry listener,
+                                               ApplicationEvent event) {
+        if (event instanceof BatchApplicationEvent batchEvent) {
+            if (listener.batch()) {
+                return invokeEventListener(listenAddr, listener, event);
+            }
+            //逐个执行,前一个完成后再执行下一个,前一个失败不影响后面的
+            Future<Object> future = Future.succeededFuture();
+            for (ApplicationEvent e : batchEvent.getEvents()) {
+                future = future.transform(ignore -> invokeEventListener(listenAddr, listener, e));
+            }
+            return future;
+        }
+        return invokeEventListener(listenAddr, listener, listener.batch() ? BatchApplicationEvent.of(event) : event);
+    }
+
+    /**
+     * 执行监听器,先判断条件再执行
+     * <p> 监听返回Future或CompletionStage的,完成时才算执行结束,结果为其完成的值
+     *
+     * @param listenAddr 监听地址
+     * @param listener   监听器
+     * @param event      事件
+     * @return 执行结果,条件不满足的为null,执行失败记录日志后返回失败
+     */
+    private Future<Object> invokeEventListener(String listenAddr, EventListenerEntry listener,
+                                               ApplicationEvent event) {
+        return invokeEventListener(listenAddr, listener, event, 0);
+    }
+
+    /**
+     * 执行监听器,先判断条件再执行
+     * <p> 执行失败的按重试策略重试,重试都失败的进入死信
+     *
+     * @param listenAddr 监听地址
+     * @param listener   监听器
+     * @param event      事件
+     * @param attempt    已经重试的次数
+     * @return 执行结果,条件不满足的为null,执行失败记录日志后返回失败
+     */
+    private Future<Object> invokeEventListener(String listenAddr, EventListenerEntry listener,
+                                               ApplicationEvent event, int attempt) {
+        try {
+            if (!testCondition(listener, event)) {
+                return Future.succeededFuture();
+            }
+        } catch (Throwable e) {
+            log.error("事件条件判断失败,事件类型：{},事件消息:{}", listenAddr, event, e);
+            return Future.failedFuture(e);
+        }
+        long start = metricsEnabled ? System.nanoTime() : 0L;
+        Future<Object> future;
+        try {
+            future = toFuture(listener.handler().accept(event));
+        } catch (Throwable e) {
+            future = Future.failedFuture(e);
+        }
+        if (metricsEnabled) {
+            future.onComplete(ar -> listener.metrics().recordInvoke(System.nanoTime() - start, ar.succeeded()));
+        }
+        return future.onFailure(e -> handleListenerFailure(listenAddr, listener, event, attempt, e));
+    }
+
+    /**
+     * 处理监听执行失败
+     * <p> 可以重试的放入时间轮等待后重新交给事件执行器,不阻塞eventloop和工作线程,也不为每次重试创建定时器
+     * <p> 重试在原事件任务之外执行,不影响顺序执行的后续事件,也不影响完成跟踪和请求回复
+     *
+     * @param listenAddr 监听地址
+     * @param listener   监听器
+     * @param event      事件
+     * @param attempt    已经重试的次数
+     * @param cause      失败的异常
+     */
+    private void handleListenerFailure(String listenAddr, EventListenerEntry listener, ApplicationEvent event,
+                                       int attempt, Throwable cause) {
+        EventRetryPolicy retryPolicy = listener.retryPolicy();
+        if (!retryPolicy.canRetry(attempt)) {
+            log.error("事件执行失败,事件类型：{},事件消息:{},执行次数：{}", listenAddr, event, attempt + 1, cause);
+            addDeadLetter(listenAddr, listener, event, attempt + 1, cause);
+            return;
+        }
+        long delay = retryPolicy.getDelay(attempt);
+        log.warn("事件执行失败,{}毫秒后重试,事件类型：{},事件消息:{},执行次数：{}", delay, listenAddr, event,
+                attempt + 1, cause);
+        listener.metrics().recordRetry();
+        try {
+            eventTimingWheel.schedule(event, delay, () -> {
+                try {
+                    dispatchEventTask(listenAddr, event,
+                            () -> invokeEventListener(listenAddr, listener, event, attempt + 1));
+                } catch (RejectedExecutionException e) {
+                    addDeadLetter(listenAddr, listener, event, attempt + 1, cause);
+                }
+            });
+        } catch (IllegalStateException e) {
+            //verticle已经卸载,不再重试
+            addDeadLetter(listenAddr, listener, event, attempt + 1, cause);
+        }
+    }
+
+    /**
+     * 加入死信
+     *
+     * @param listenAddr 监听地址
+     * @param listener   监听器
+     * @param event      事件
+     * @param attempts   执行次数
+     * @param cause      最后一次失败的异常
+     */
+    private void addDeadLetter(String listenAddr, EventListenerEntry listener, ApplicationEvent event, int attempts,
+                               Throwable cause) {
+        listener.metrics().recordDeadLetter();
+        if (deadLetterQueue != null) {
+            deadLetterQueue.add(new DeadLetterEvent(listener.name(), listenAddr, event, cause, attempts,
+                    System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * 获取当前vertx的死信队列
+     *
+     * @return 死信队列,未启用为null
+     */
+    public EventDeadLetterQueue getDeadLetterQueue() {
+        return deadLetterQueue;
+    }
+
+    /**
+     * 将监听的返回值转换为Future
+     *
+     * @param result 监听的返回值
+     * @return 返回Future或CompletionStage的为对应的Future,其他的为以返回值完成
+     */
+    @SuppressWarnings("unchecked")
+    private Future<Object> toFuture(Object result) {
+        if (result instanceof Future<?> future) {
+            return (Future<Object>) future;
+        }
+        if (result instanceof CompletionStage<?> stage) {
+            return Future.fromCompletionStage((CompletionStage<Object>) stage);
+        }
+        return Future.succeededFuture(result);
+    }
+
+    /**
+     * 判断监听条件
+     *
+     * @param listener 监听器
+     * @param event    事件
+     * @return true:执行监听
+     */
+    private boolean testCondition(EventListenerEntry listener, ApplicationEvent event) {
+        Predicate<ApplicationEvent> condition = listener.condition();
+        if (condition == null) {
+            return true;
+        }
+        if (!metricsEnabled) {
+            return condition.test(event);
+        }
+        long start = System.nanoTime();
+        boolean passed = condition.test(event);
+        listener.metrics().recordCondition(System.nanoTime() - start, passed);
+        return passed;
+    }
+
+    /**
+     * 记录事件解码和等待执行的时间
+     *
+     * @param listener    监听器
+     * @param receiveTime 收到事件的时间
+     * @param decodedTime 解码完成的时间
+     */
+    private void recordDispatchMetrics(EventListenerEntry listener, long receiveTime, long decodedTime) {
+        if (!metricsEnabled) {
+            return;
+        }
+        EventListenerMetrics metrics = listener.metrics();
+        metrics.recordDeserialize(decodedTime - receiveTime);
+        metrics.recordQueueWait(System.nanoTime() - decodedTime);
+    }
+
+    /**
+     * 初始化事件监听器
+     */
+    private void initEventListener() {
+        List<EventListenerBeanClassDefinition> eventListeners = context.getEventListeners();
+        eventListeners.forEach(beanClassDefinition -> {
+            //处理当前监听的地址信息
+            Set<Class<?>> listenerClasses = beanClassDefinition.getListenerClasses();
+            listenerClasses.forEach(listenerClass -> {
+                //记录需要订阅的实际事件类型
+                getDispatchClasses(listenerClass).addAll(beanClassDefinition.getListenerSubClasses()
+                        .getOrDefault(listenerClass, Set.of()));
+                String listenAddr = getListenAddress(listenerClass);
+                //判断当前方法的类型
+                Class<?> clazz = beanClassDefinition.getClazz();
+                String beanName = beanClassDefinition.getBeanName();
+
+                //获取对象
+                Object bean = context.getBean(beanName, clazz);
+
+                //判断是接口还是注解事件监听
+                handleEventListerByType(beanClassDefinition, listenerClass, bean, listenAddr);
+            });
+        });
+    }
+
+    /**
+     * 获取监听地址,事件名就是类名
+     *
+     * @param eventClass 事件类,非事件类的为payload类
+     * @return 监听地址
+     */
+    private String getListenAddress(Class<?> eventClass) {
+        if (ApplicationEvent.class.isAssignableFrom(eventClass)) {
+            return EVENT_BUS_PREFIX + eventClass.getName();
+        }
+        return EVENT_BUS_PAYLOAD_PREFIX + eventClass.getName();
+    }
+
+    /**
+     * 获取共享监听器分发索引
+     *
+     * @param local 是否本地
+     * @return 分发索引
+     */
+    private EventListenerDispatchIndex getShareDispatchIndex(boolean local) {
+        return local ? this.localShareDispatchIndex : this.shareDispatchIndex;
+    }
+
+    /**
+     * 获取监听类型需要订阅的实际事件类型
+     * <p> 运行时添加的监听类型没有扫描信息,使用已经订阅过的子类型
+     * <p> 订阅的类型会注册到事件类编号表,用于eventbus上的解码
+     *
+     * @param listenerClass 监听的类型
+     * @return 自身和子类型
+     */
+    private Set<Class<?>> getDispatchClasses(Class<?> listenerClass) {
+        Set<Class<?>> eventClasses = dispatchClassMap.get(listenerClass);
+        if (eventClasses == null) {
+            eventClasses = new LinkedHashSet<>();
+            eventClasses.add(listenerClass);
+            if (!Object.class.equals(listenerClass)) {
+                for (Set<Class<?>> classes : dispatchClassMap.values()) {
+                    classes.stream().filter(listenerClass::isAssignableFrom).forEach(eventClasses::add);
+                }
+            }
+            dispatchClassMap.put(listenerClass, eventClasses);
+        }
+        return eventClasses;
+    }
+
+    /**
+     * 根据类型处理事件监听器
+     *
+     * @param beanClassDefinition 监听器的类定义
+     * @param listenerClass       监听的类型
+     * @param bean                监听实例
+     * @param listenAddr          监听地址
+     */
+    private void handleEventListerByType(EventListenerBeanClassDefinition beanClassDefinition, Class<?> listenerClass,
+                                         Object bean, String listenAddr) {
+        boolean isInterface = handleEventListerInterface(beanClassDefinition, listenerClass, bean, listenAddr);
+        if (isInterface) {
+            //是接口则接口处理
+            return;
+        }
+        //处理监听注解,启动时生成执行器,事件执行时不再反射
+        String listenerName = beanClassDefinition.getClazz().getName() + "#" + beanClassDefinition.getMethod().getName();
+        EventListenerInvoker invoker = EventListenerInvokerFactory.create(beanClassDefinition, listenerClass, bean);
+        Map<String, Class<?>> variableTypes = new HashMap<>();
+        Predicate<ApplicationEvent> condition = compileCondition(beanClassDefinition.getCondition(), listenerName,
+                getConditionVariables(beanClassDefinition, listenerClass, variableTypes), variableTypes);
+        registerEventListener(beanClassDefinition, listenerClass, beanClassDefinition.isAlone(),
+                beanClassDefinition.isLocal(),
+                new EventListenerEntry(beanClassDefinition, listenerName, beanClassDefinition.getEventSources(),
+                        beanClassDefinition.isBatch(), condition, invoker::invoke,
+                        createListenerMetrics(listenerName, listenAddr),
+                        getRetryPolicy(getEventRetry(beanClassDefinition.getMethod())),
+                        isReplying(beanClassDefinition.getMethod())));
+    }
+
+    /**
+     * 创建监听器指标
+     *
+     * @param listenerName 监听器名
+     * @param listenAddr   监听地址
+     * @return 指标,未启用时不记录
+     */
+    private EventListenerMetrics createListenerMetrics(String listenerName, String listenAddr) {
+        if (!metricsEnabled) {
+            return EventListenerMetrics.NOOP;
+        }
+        return eventMetricsFactory.createListenerMetrics(listenerName, listenAddr);
+    }
+
+    /**
+     * 获取监听方法的重试注解,方法上没有的使用所在类上的
+     *
+     * @param method 监听方法
+     * @return 重试注解,都没有为null
+     */
+    private EventRetry getEventRetry(Method method) {
+        EventRetry eventRetry = method.getAnnotation(EventRetry.class);
+        return eventRetry != null ? eventRetry : method.getDeclaringClass().getAnnotation(EventRetry.class);
+    }
+
+    /**
+     * 获取监听器的重试策略
+     *
+     * @param eventRetry 监听器上的重试注解,没有为null
+     * @return 重试策略,没有注解的使用全局配置
+     */
+    private EventRetryPolicy getRetryPolicy(EventRetry eventRetry) {
+        if (eventRetry != null) {
+            return EventRetryPolicy.of(eventRetry);
+        }
+        return defaultRetryPolicy;
+    }
+
+    /**
+     * 获取条件表达式可以使用的变量
+     * <p> 无参数的监听使用事件类名作为变量名,否则使用参数名
+     *
+     * @param beanClassDefinition 事件监听方法的定义
+     * @param listenerClass       监听的类
+     * @param variableTypes       记录变量声明的类型 k:变量名 v:类型
+     * @return k:变量名 v:从事件中取值
+     */
+    private Map<String, Function<ApplicationEvent, Object>> getConditionVariables(
+            EventListenerBeanClassDefinition beanClassDefinition, Class<?> listenerClass,
+            Map<String, Class<?>> variableTypes) {
+        List<EventListenerBeanClassDefinition.ParameterBeanClassDefinition> parameterBeanClassDefinitions =
+                beanClassDefinition.getParameterBeanClassDefinitions();
+        Map<String, Function<ApplicationEvent, Object>> variables = new LinkedHashMap<>();
+        if (parameterBeanClassDefinitions.isEmpty()) {
+            beanClassDefinition.getListenerClasses().forEach(listenerClazz -> {
+                boolean isListened = listenerClazz.isAssignableFrom(listenerClass);
+                String name = ClassUtils.getClassLowerCaseCamel(listenerClazz);
+                variables.put(name, event -> isListened ? event : null);
+                if (isListened && ApplicationEvent.class.isAssignableFrom(listenerClazz)) {
+                    variableTypes.put(name, listenerClazz);
+                }
+            });
+            return variables;
+        }
+        EventListenerArgumentResolver[] resolvers =
+                EventListenerInvokerFactory.getArgumentResolvers(beanClassDefinition, listenerClass);
+        for (int i = 0; i < resolvers.length; i++) {
+            EventListenerBeanClassDefinition.ParameterBeanClassDefinition parameterDefinition =
+                    parameterBeanClassDefinitions.get(i);
+            variables.put(parameterDefinition.getParameterName(), resolvers[i]::resolve);
+            //事件和payload参数的值就是参数声明的类型
+            if (resolvers[i] == EventListenerArgumentResolver.EVENT || resolvers[i] == EventListenerArgumentResolver.PAYLOAD) {
+                variableTypes.put(parameterDefinition.getParameterName(), parameterDefinition.getParameterClass());
+            }
+        }
+        return variables;
+    }
+
+    /**
+     * 处理监听器接口实现类
+     *
+     * @param beanClassDefinition 接口实现类定义
+     * @param listenerClass       监听的类型
+     * @param bean                监听的实例
+     * @param listenAddr          监听的地址
+     * @return
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private boolean handleEventListerInterface(EventListenerBeanClassDefinition beanClassDefinition,
+                                               Class<?> listenerClass, Object bean,
+                                               String listenAddr) {
+        if (beanClassDefinition.getParameterBeanClassDefinitions() != null) {
+            return false;
+        }
+        ApplicationListener listener = (ApplicationListener) bean;
+        //处理监听器接口
+        String parameterName = beanClassDefinition.getParameterName();
+        //编译条件
+        Predicate<ApplicationEvent> condition = compileCondition(listener.condition(), bean.getClass().getName(),
+                Map.of(parameterName, event -> event), Map.of(parameterName,
+                        ApplicationEvent.class.isAssignableFrom(listenerClass) ? listenerClass : PayloadApplicationEvent.class));
+
+        //获取要监听的事件源
+        Set<String> evenSources = Stream.of(listener.eventSources())
+                .map(Class::getName)
+                .collect(Collectors.toSet());
+
+        String listenerName = bean.getClass().getName();
+        registerEventListener(listener, listenerClass, listener.isAlone(), listener.isLocal(),
+                new EventListenerEntry(beanClassDefinition, listenerName, evenSources, false, condition,
+                        getEventListenHandler(listener), createListenerMetrics(listenerName, listenAddr),
+                        getRetryPolicy(bean.getClass().getAnnotation(EventRetry.class)),
+                        listener instanceof AsyncApplicationListener));
+        return true;
+    }
+
+    /**
+     * 监听方法是否有返回值
+     * <p> 异步监听的Future/CompletionStage泛型为Void的视为没有返回值
+     *
+     * @param method 监听方法
+     * @return true:有返回值
+     */
+    private boolean isReplying(Method method) {
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class || returnType == Void.class) {
+            return false;
+        }
+        if (Future.class.isAssignableFrom(returnType) || CompletionStage.class.isAssignableFrom(returnType)) {
+            return !(method.getGenericReturnType() instanceof ParameterizedType parameterizedType) ||
+                    parameterizedType.getActualTypeArguments()[0] != Void.class;
+        }
+        return true;
+    }
+
+    /**
+     * 获取监听器接口的执行,异步监听器返回执行结果
+     *
+     * @param listener 监听器
+     * @return 执行
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private EventListenHandler<ApplicationEvent> getEventListenHandler(ApplicationListener listener) {
+        if (listener instanceof AsyncApplicationListener asyncListener) {
+            return asyncListener::onApplicationEventAsync;
+        }
+        return event -> {
+            listener.onApplicationEvent(event);
+            return null;
+        };
+    }
+
+    /**
+     * 运行时添加事件监听器,监听的类型从监听器的泛型中获取
+     *
+     * @param listener the listener to add
+     */
+    @Override
+    public void addApplicationListener(ApplicationListener<?> listener) {
+        addApplicationListener(getListenerClass(listener), listener);
+    }
+
+    /**
+     * 运行时添加事件监听器
+     * <p> 监听父类或接口时,只能收到启动时已经订阅过的子类型事件
+     *
+     * @param listenerClass 监听的类型,payload事件为payload的类型
+     * @param listener      the listener to add
+     */
+    @Override
+    public void addApplicationListener(Class<?> listenerClass, ApplicationListener<?> listener) {
+        EventListenerBeanClassDefinition beanClassDefinition = new EventListenerBeanClassDefinition();
+        beanClassDefinition.setListenerClasses(Set.of(listenerClass));
+        beanClassDefinition.setPayloadEvent(!ApplicationEvent.class.isAssignableFrom(listenerClass));
+        beanClassDefinition.setParameterName(getListenerParameterName(listener));
+        beanClassDefinition.setClazz(listener.getClass());
+        handleEventListerInterface(beanClassDefinition, listenerClass, listener, getListenAddress(listenerClass));
+    }
+
+    /**
+     * 移除事件监听器,地址上没有监听器时注销消费者
+     *
+     * @param listener the listener to remove
+     */
+    @Override
+    public void removeApplicationListener(ApplicationListener<?> listener) {
+        unregisterEventListener(listener);
+    }
+
+    /**
+     * 移除符合条件的事件监听器
+     *
+     * @param predicate 移除条件
+     */
+    @Override
+    public void removeApplicationListeners(Predicate<ApplicationListener<?>> predicate) {
+        List<Object> owners;
+        synchronized (listenerRegistrationMap) {
+            owners = listenerRegistrationMap.keySet().stream()
+                    .filter(owner -> owner instanceof ApplicationListener<?> listener && predicate.test(listener))
+                    .collect(Collectors.toList());
+        }
+        owners.forEach(this::unregisterEventListener);
+    }
+
+    /**
+     * 移除所有的事件监听器,包括注解监听
+     */
+    @Override
+    public void removeAllListeners() {
+        List<Object> owners;
+        synchronized (listenerRegistrationMap) {
+            owners = new ArrayList<>(listenerRegistrationMap.keySet());
+        }
+        owners.forEach(this::unregisterEventListener);
+    }
+
+    /**
+     * 从监听器的泛型中获取监听的类型
+     *
+     * @param listener 监听器
+     * @return 监听的类型,payload事件为payload的类型
+     */
+    private Class<?> getListenerClass(ApplicationListener<?> listener) {
+        for (Class<?> clazz = listener.getClass(); clazz != null; clazz = clazz.getSuperclass()) {
+            for (Type genericInterface : clazz.getGenericInterfaces()) {
+                if (!(genericInterface instanceof ParameterizedType pt) ||
+                        (!ApplicationListener.class.equals(pt.getRawType()) &&
+                                !AsyncApplicationListener.class.equals(pt.getRawType()))) {
+                    continue;
+                }
+                Type eventType = pt.getActualTypeArguments()[0];
+                if (eventType instanceof Class<?> eventClass) {
+                    return eventClass;
+                }
+                if (eventType instanceof ParameterizedType p && p.getRawType() instanceof Class<?> rawClass) {
+                    if (PayloadApplicationEvent.class.equals(rawClass) &&
+                            p.getActualTypeArguments()[0] instanceof Class<?> payloadClass) {
+                        return payloadClass;
+                    }
+                    return rawClass;
+                }
+            }
+        }
+        throw new IllegalArgumentException("无法获取事件监听器监听的类型,请指定监听的类型：" +
+                listener.getClass().getName());
+    }
+
+    /**
+     * 获取监听器事件参数名,用于条件表达式
+     *
+     * @param listener 监听器
+     * @return 参数名,编译时没有保留参数名的为event
+     */
+    private String getListenerParameterName(ApplicationListener<?> listener) {
+        for (Method method : listener.getClass().getMethods()) {
+            if ("onApplicationEvent".equals(method.getName()) && !method.isBridge() &&
+                    method.getParameterCount() == 1 && method.getParameters()[0].isNamePresent()) {
+                return method.getParameters()[0].getName();
+            }
+        }
+        return "event";
+    }
+
+    /**
+     * 编译监听条件
+     * <p> 常用的条件直接编译为java判断,其他的使用mvel执行
+     *
+     * @param condition    条件表达式
+     * @param listenerName  监听器名字
+     * @param variables     表达式可以使用的变量 k:变量名 v:从事件中取值
+     * @param variableTypes 变量声明的类型,用于编译时检查属性
+     * @return 条件判断,没有条件返回null
+     */
+    private Predicate<ApplicationEvent> compileCondition(String condition, String listenerName,
+                                                         Map<String, Function<ApplicationEvent, Object>> variables,
+                                                         Map<String, Class<?>> variableTypes) {
+        if (StringUtils.isBlank(condition)) {
+            return null;
+        }
+        Predicate<ApplicationEvent> predicate = EventConditionCompiler.compile(condition, variables, variableTypes);
+        if (predicate != null) {
+            log.info("事件监听条件已编译为java判断,监听器：{},条件：{}", listenerName, condition);
+            return predicate;
+        }
+        log.info("事件监听条件使用mvel执行,监听器：{},条件：{}", listenerName, condition);
+        Serializable expression = compileExpression(condition, listenerName);
+        return event -> {
+            Map<String, Object> paramMap = new HashMap<>(variables.size());
+            variables.forEach((name, value) -> paramMap.put(name, value.apply(event)));
+            return Boolean.TRUE.equals(MvelUtils.handleExpression(expression, paramMap, Boolean.class));
+        };
+    }
+
+    /**
+     * 编译表达式
+     *
+     * @param expressionStr 表达式字符串
+     * @param listenerName  监听器名字
+     * @return
+     */
+    private Serializable compileExpression(String expressionStr, String listenerName) {
+        if (StringUtils.isNotBlank(expressionStr)) {
+            try {
+                //处理为通用解析的模式,条件表达式不存在默认值情况
+                if (expressionStr.startsWith("#{") || expressionStr.startsWith("${")) {
+                    return MvelUtils.compileExpression(expressionStr);
+                }
+                return MvelUtils.compileExpression("#{" + expressionStr + "}");
+            } catch (Throwable e) {
+                throw new MvelCompileExpressionException(listenerName, expressionStr, e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 将给定的事件发送到eventbus,事件名就是类名
+     *
+     * @param event  事件
+     * @param direct 是否点对点【点对点模式将会只有一个消费者接收到】
+     */
+    @Override
+    public void multicastEvent(ApplicationEvent event, boolean direct) {
+        journalEvent(event, direct);
+        String eventType = getEventType(event);
+        publishToEventBus(getEventAddress(event, eventType), eventType, event, direct);
+    }
+
+    /**
+     * 记录到事件日志
+     * <p> 只记录标注了{@link JournaledEvent}的事件,重放中发布的不再记录,记录失败不影响发布
+     *
+     * @param event  事件
+     * @param direct 是否点对点
+     */
+    private void journalEvent(ApplicationEvent event, boolean direct) {
+        if (eventJournal == null || EventJournal.isReplaying()) {
+            return;
+        }
+        Class<?> eventClass = event instanceof PayloadApplicationEvent<?> payloadEvent ?
+                payloadEvent.getPayload().getClass() : event.getClass();
+        if (!eventClass.isAnnotationPresent(JournaledEvent.class)) {
+            return;
+        }
+        try {
+            //在日志的写线程中写入,不阻塞发布
+            eventJournal.append(event, direct)
+                    .onFailure(e -> log.error("事件记录到事件日志失败,事件消息:{}", event, e));
+        } catch (Throwable e) {
+            log.error("事件记录到事件日志失败,事件消息:{}", event, e);
+        }
+    }
+
+    /**
+     * 获取事件日志,用于从指定位置重放事件
+     *
+     * @return 事件日志,未启用为null
+     */
+    public EventJournal getEventJournal() {
+        return eventJournal;
+    }
+
+    /**
+     * 当前已经注册的所有消费者都注册完成时完成
+     * <p> 消费者注册是异步的,集群模式下需要把订阅传播到其他节点,完成后才能收到其他节点发布的事件
+     *
+     * @return 注册结果,有消费者注册失败的失败
+     */
+    public Future<Void> whenConsumersRegistered() {
+        List<Future<Void>> futures = new ArrayList<>();
+        synchronized (listenerRegistrationMap) {
+            shareConsumerMap.values().forEach(shareConsumer -> futures.add(getRegistration(shareConsumer.consumer)));
+            aloneConsumerMap.values().forEach(consumers -> consumers.forEach(consumer ->
+                    futures.add(getRegistration(consumer))));
+        }
+        return Future.all(futures).mapEmpty();
+    }
+
+    /**
+     * 获取消费者的注册结果
+     *
+     * @param consumer 消费者
+     * @return 注册结果
+     */
+    private static Future<Void> getRegistration(MessageConsumer<ApplicationEvent> consumer) {
+        Promise<Void> promise = Promise.promise();
+        consumer.completionHandler(promise);
+        return promise.future();
+    }
+
+    /**
+     * 事件多播,当前vertx中所有消费者执行完成时返回的Future完成
+     * <p> 按发布时当前vertx中该事件地址的消费者数量跟踪,超过发送超时时间未完成的失败
+     *
+     * @param event 事件
+     * @return 当前vertx中监听器的执行结果
+     */
+    @Override
+    public Future<Void> multicastEventWithCompletion(ApplicationEvent event) {
+        journalEvent(event, false);
+        String eventType = getEventType(event);
+        String addr = getEventAddress(event, eventType);
+        int consumerCount = localConsumerCountMap.getOrDefault(addr, 0) +
+                localConsumerCountMap.getOrDefault(getLocalAddress(addr), 0);
+        EventCompletionTracker tracker = EventCompletionTracker.create(vertx, consumerCount,
+                eventbusDeliveryOptions.getSendTimeout());
+        if (tracker == null) {
+            publishToEventBus(addr, eventType, event, false);
+            return Future.succeededFuture();
+        }
+        publishToEventBus(addr, eventType, event, false, tracker.getId());
+        return tracker.future();
+    }
+
+    /**
+     * 请求事件,由一个消费者执行并回复监听的返回值
+     * <p> 当前vertx中有多个消费者实例时,选择负载最小的实例本地投递,不经过编码
+     * <p> 当前vertx中没有消费者的,通过eventbus使用二进制编码器请求其他节点
+     * <p> 返回值不是事件的包装为payload事件回复,接收时再解开
+     *
+     * @param event        事件
+     * @param responseType 回复的类型
+     * @param options      发送配置,消息头和指定的超时时间使用该配置,为null使用默认配置
+     * @return 回复,没有返回值的为null
+     */
+    @Override
+    public <R> Future<R> multicastRequest(ApplicationEvent event, Class<R> responseType, DeliveryOptions options) {
+        //回复通过eventbus传输时需要解码
+        if (!ApplicationEvent.class.isAssignableFrom(responseType)) {
+            ApplicationEventClassTable.register(responseType);
+        }
+        String eventType = getEventType(event);
+        String addr = getEventAddress(event, eventType);
+        EventRequestRouter.EventRequestTarget target = EventRequestRouter.select(vertx, addr);
+        Future<Message<Object>> future;
+        if (target != null) {
+            target.acquire();
+            future = eventBus.<Object>request(target.getAddress(), event,
+                            getRequestDeliveryOptions(localDeliveryOptions, eventType, event, options))
+                    .onComplete(ignore -> target.release());
+        } else {
+            future = eventBus.request(addr, event,
+                    getRequestDeliveryOptions(eventbusDeliveryOptions, eventType, event, options));
+        }
+        return future.map(message -> getResponse(message.body(), responseType));
+    }
+
+    /**
+     * 获取请求的发送配置
+     *
+     * @param deliveryOptions 基础发送配置
+     * @param eventType       事件类型
+     * @param event           事件
+     * @param options         请求指定的发送配置,可以为null
+     * @return 发送配置
+     */
+    private DeliveryOptions getRequestDeliveryOptions(DeliveryOptions deliveryOptions, String eventType,
+                                                      ApplicationEvent event, DeliveryOptions options) {
+        DeliveryOptions requestOptions = getDeliveryOptions(deliveryOptions, eventType, event, null);
+        if (options != null) {
+            //只有指定了超时时间的才覆盖默认配置
+            if (options.getSendTimeout() != DeliveryOptions.DEFAULT_TIMEOUT) {
+                requestOptions.setSendTimeout(options.getSendTimeout());
+            }
+            if (options.getHeaders() != null) {
+                options.getHeaders().forEach(requestOptions::addHeader);
+            }
+        }
+        return requestOptions;
+    }
+
+    /**
+     * 获取回复的值
+     *
+     * @param body         回复的消息
+     * @param responseType 回复的类型
+     * @return 回复的值,payload事件回复的为payload
+     */
+    private <R> R getResponse(Object body, Class<R> responseType) {
+        if (body instanceof PayloadApplicationEvent<?> payloadEvent && !responseType.isInstance(body)) {
+            return responseType.cast(payloadEvent.getPayload());
+        }
+        return responseType.cast(body);
+    }
+
+    /**
+     * 延迟事件多播
+     * <p> 放入多播器所在事件循环上下文的时间轮,到期时在该上下文中多播,精度为一个tick
+     *
+     * @param event       事件
+     * @param direct      是否点对点【点对点模式将会只有一个消费者接收到】
+     * @param delayMillis 延迟时间(毫秒)
+     * @return 取消句柄
+     */
+    @Override
+    public ScheduledEventHandle multicastEventDelayed(ApplicationEvent event, boolean direct, long delayMillis) {
+        return eventTimingWheel.schedule(event, direct, delayMillis);
+    }
+
+    /**
+     * 事件多播,本vertx中接收方的等待策略队列已满时,等待有空位后再多播
+     *
+     * @param event  事件
+     * @param direct 是否点对点【点对点模式将会只有一个消费者接收到】
+     * @return 多播结果,完成时事件已经发出
+     */
+    @Override
+    public Future<Void> multicastEventWhenWritable(ApplicationEvent event, boolean direct) {
+        String eventType = getEventType(event);
+        String addr = getEventAddress(event, eventType);
+        return EventPendingQueueRegistry.whenWritable(vertx, addr, getLocalAddress(addr))
+                .onSuccess(ignore -> {
+                    journalEvent(event, direct);
+                    publishToEventBus(addr, eventType, event, direct);
+                });
+    }
+
+    /**
+     * 批量发布事件
+     * <p> 同类型、同事件源、同路由key的事件合并为一条消息,按配置的数量和时间阈值发送
+     *
+     * @param events 事件列表
+     * @param direct 是否点对点【点对点模式将会只有一个消费者接收到】
+     */
+    @Override
+    public void multicastEvents(Collection<ApplicationEvent> events, boolean direct) {
+        events.forEach(event -> journalEvent(event, direct));
+        ApplicationEventExecutorConfig.BatchConfig batchConfig = applicationEventExecutorConfig.getBatch();
+        if (batchConfig.getMaxDelay() <= 0) {
+            //不等待,只合并本次发布的事件
+            Map<EventBatchKey, List<ApplicationEvent>> batchEventMap = new LinkedHashMap<>();
+            events.forEach(event -> batchEventMap.computeIfAbsent(getEventBatchKey(event, direct),
+                    k -> new ArrayList<>()).add(event));
+            batchEventMap.forEach(this::publishBatchEvents);
+            return;
+        }
+        events.forEach(event -> addToEventBatch(getEventBatchKey(event, direct), event, batchConfig));
+    }
+
+    /**
+     * 添加到待发送的批量中,达到数量时立即发送,否则等待定时发送
+     *
+     * @param batchKey    批量key
+     * @param event       事件
+     * @param batchConfig 批量配置
+     */
+    private void addToEventBatch(EventBatchKey batchKey, ApplicationEvent event,
+                                 ApplicationEventExecutorConfig.BatchConfig batchConfig) {
+        List<ApplicationEvent> flushEvents = null;
+        synchronized (eventBatchMap) {
+            if (eventBatchClosed) {
+                //已经关闭的不再等待,直接发送
+                flushEvents = List.of(event);
+            } else {
+                EventBatch eventBatch = eventBatchMap.computeIfAbsent(batchKey, k -> new EventBatch());
+                eventBatch.events.add(event);
+                if (eventBatch.events.size() >= batchConfig.getMaxSize()) {
+                    eventBatchMap.remove(batchKey);
+                    if (eventBatch.timerId >= 0) {
+                        vertx.cancelTimer(eventBatch.timerId);
+                    }
+                    flushEvents = eventBatch.events;
+                } else if (eventBatch.timerId < 0) {
+                    eventBatch.timerId = vertx.setTimer(batchConfig.getMaxDelay(),
+                            timerId -> flushEventBatch(batchKey, timerId));
+                }
+            }
+        }
+        if (flushEvents != null) {
+            publishBatchEvents(batchKey, flushEvents);
+        }
+    }
+
+    /**
+     * 定时发送批量
+     *
+     * @param batchKey 批量key
+     * @param timerId  定时器id,批量已经按数量发送过的不处理
+     */
+    private void flushEventBatch(EventBatchKey batchKey, long timerId) {
+        EventBatch eventBatch;
+        synchronized (eventBatchMap) {
+            eventBatch = eventBatchMap.get(batchKey);
+            if (eventBatch == null || eventBatch.timerId != timerId) {
+                return;
+            }
+            eventBatchMap.remove(batchKey);
+        }
+        publishBatchEvents(batchKey, eventBatch.events);
+    }
+
+    /**
+     * 关闭批量,取消定时器并发送所有等待中的批量
+     */
+    private void flushEventBatches() {
+        Map<EventBatchKey, EventBatch> flushBatchMap;
+        synchronized (eventBatchMap) {
+            eventBatchClosed = true;
+            flushBatchMap = new LinkedHashMap<>(eventBatchMap);
+            eventBatchMap.clear();
+        }
+        flushBatchMap.forEach((batchKey, eventBatch) -> {
+            if (eventBatch.timerId >= 0) {
+                vertx.cancelTimer(eventBatch.timerId);
+            }
+            publishBatchEvents(batchKey, eventBatch.events);
+        });
+    }
+
+    /**
+     * 发送批量事件,超过单条消息数量的拆分发送
+     *
+     * @param batchKey 批量key
+     * @param events   事件列表
+     */
+    private void publishBatchEvents(EventBatchKey batchKey, List<ApplicationEvent> events) {
+        int maxSize = Math.max(applicationEventExecutorConfig.getBatch().getMaxSize(), 1);
+        for (int from = 0; from < events.size(); from += maxSize) {
+            List<ApplicationEvent> batchEvents = events.subList(from, Math.min(from + maxSize, events.size()));
+            ApplicationEvent message;
+            if (batchEvents.size() == 1) {
+                message = batchEvents.get(0);
+            } else {
+                BatchApplicationEvent batchEvent = new BatchApplicationEvent(new ArrayList<>(batchEvents));
+                batchEvent.setSource(batchKey.source());
+                message = batchEvent;
+            }
+            publishToEventBus(batchKey.addr(), batchKey.eventType(), message, batchKey.direct());
+        }
+    }
+
+    /**
+     * 获取事件的批量key
+     *
+     * @param event  事件
+     * @param direct 是否点对点
+     * @return 批量key
+     */
+    private EventBatchKey getEventBatchKey(ApplicationEvent event, boolean direct) {
+        String eventType = getEventType(event);
+        return new EventBatchKey(getEventAddress(event, eventType), eventType, event.getSource(),
+                EventRoutingKeyResolver.getRoutingKey(event), direct);
+    }
+
+    /**
+     * 获取事件类型,payload事件为payload的类名
+     *
+     * @param event 事件
+     * @return 事件类型
+     */
+    private String getEventType(ApplicationEvent event) {
+        if (event instanceof PayloadApplicationEvent<?> e) {
+            return e.getPayload().getClass().getName();
+        }
+        return event.getClass().getName();
+    }
+
+    /**
+     * 获取事件的发布地址,事件名就是类名
+     *
+     * @param event     事件
+     * @param eventType 事件类型
+     * @return 发布地址
+     */
+    private String getEventAddress(ApplicationEvent event, String eventType) {
+        if (event instanceof PayloadApplicationEvent<?>) {
+            //直接发布事件对象,会经过包装,便于传输
+            return EVENT_BUS_PAYLOAD_PREFIX + eventType;
+        }
+        return EVENT_BUS_PREFIX + eventType;
+    }
+
+    /**
+     * 发布信息到eventbus上
+     * <p> 本地监听器走单独的本地地址,直接传递事件对象
+     * <p> 点对点模式下有本地监听器时优先发给本地监听器
+     *
+     * @param addr      发布地址
+     * @param eventType 事件类型
+     * @param message   消息,通过事件编码器传输
+     * @param direct    是否点对点【点对点模式将会只有一个消费者接收到】
+     */
+    private void publishToEventBus(String addr, String eventType, ApplicationEvent message, boolean direct) {
+        publishToEventBus(addr, eventType, message, direct, null);
+    }
+
+    /**
+     * 发布信息到eventbus上
+     *
+     * @param addr         发布地址
+     * @param eventType    事件类型
+     * @param message      消息,通过事件编码器传输
+     * @param direct       是否点对点【点对点模式将会只有一个消费者接收到】
+     * @param completionId 完成跟踪编号,不需要跟踪为null
+     */
+    private void publishToEventBus(String addr, String eventType, ApplicationEvent message, boolean direct,
+                                   String completionId) {
+        String localAddr = getLocalAddress(addr);
+        boolean hasLocalConsumer = hasLocalConsumer(localAddr);
+        if (direct) {
+            if (hasLocalConsumer) {
+                eventBus.send(localAddr, message,
+                        getDeliveryOptions(localDeliveryOptions, eventType, message, completionId));
+            } else {
+                eventBus.send(addr, message,
+                        getDeliveryOptions(eventbusDeliveryOptions, eventType, message, completionId));
+            }
+            return;
+        }
+        eventBus.publish(addr, message, getDeliveryOptions(eventbusDeliveryOptions, eventType, message, completionId));
+        if (hasLocalConsumer) {
+            eventBus.publish(localAddr, message,
+                    getDeliveryOptions(localDeliveryOptions, eventType, message, completionId));
+        }
+    }
+
+    /**
+     * 获取带事件信息消息头的发送配置
+     *
+     * @param deliveryOptions 基础发送配置
+     * @param eventType       事件类型
+     * @param event           事件
+     * @param completionId    完成跟踪编号,不需要跟踪为null
+     * @return 发送配置
+     */
+    private DeliveryOptions getDeliveryOptions(DeliveryOptions deliveryOptions, String eventType,
+                                               ApplicationEvent event, String completionId) {
+        DeliveryOptions options = new DeliveryOptions(deliveryOptions)
+                .addHeader(EVENT_TYPE_HEADER, eventType);
+        if (event.getSource() != null) {
+            options.addHeader(EVENT_SOURCE_HEADER, event.getSource());
+        }
+        if (completionId != null) {
+            options.addHeader(EVENT_COMPLETION_HEADER, completionId);
+        }
+        return options;
+    }
+
+    /**
+     * 监听器的注册信息
+     *
+     * @param listenerClass 监听的类型
+     * @param alone         是否独立
+     * @param local         是否本地监听
+     * @param listener      监听器
+     */
+    private record EventListenerRegistration(Class<?> listenerClass, boolean alone, boolean local,
+                                             EventListenerEntry listener) {
+    }
+
+    /**
+     * 共享监听的消费者
+     */
+    private static class ShareEventConsumer {
+
+        /**
+         * 实际事件类型
+         */
+        private final Class<?> eventClass;
+
+        /**
+         * 是否本地监听
+         */
+        private final boolean local;
+
+        /**
+         * eventbus消费者
+         */
+        private MessageConsumer<ApplicationEvent> consumer;
+
+        /**
+         * 当前的监听器,写时复制,变化时整体替换
+         */
+        private volatile EventListenerEntry[] listeners;
+
+        /**
+         * 请求的消费者实例,监听器变化时更新有返回值的监听器
+         */
+        private EventRequestRouter.EventRequestTarget requestTarget;
+
+        private ShareEventConsumer(Class<?> eventClass, boolean local) {
+            this.eventClass = eventClass;
+            this.local = local;
+        }
+    }
+
+    /**
+     * 批量key,同一个key的事件合并为一条消息
+     *
+     * @param addr       发布地址
+     * @param eventType  事件类型
+     * @param source     事件源
+     * @param routingKey 路由key
+     * @param direct     是否点对点
+     */
+    private record EventBatchKey(String addr, String eventType, String source, Object routingKey, boolean direct) {
+    }
+
+    /**
+     * 待发送的批量
+     */
+    private static class EventBatch {
+
+        /**
+         * 事件列表
+         */
+        private final List<ApplicationEvent> events = new ArrayList<>();
+
+        /**
+         * 定时发送的定时器id,未设置为-1
+         */
+        private long timerId = -1;
     }
 }
@@ -0,0 +1,132 @@
+package com.aristoco.core.event;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/14
+ * @description 事件执行完成的跟踪
+ * <p> 发布时按当前vertx中该地址的消费者数量创建,编号放在消息头中
+ * <p> 每个消费者处理完(包括过滤掉和被丢弃的)计数减一,全部完成时完成,超时未完成的失败
+ * <p> 事件没能提交执行(例如分片队列已满)的直接失败
+ * <p> 其他vertx的消费者不参与计数
+ **/
+final class EventCompletionTracker {
+
+    /**
+     * k:跟踪编号 v:跟踪
+     */
+    private static final Map<String, EventCompletionTracker> TRACKER_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * 跟踪编号
+     */
+    private final String id;
+
+    /**
+     * 发布事件的vertx
+     */
+    private final Vertx vertx;
+
+    /**
+     * 未完成的消费者数量
+     */
+    private final AtomicInteger remaining;
+
+    /**
+     * 执行结果
+     */
+    private final Promise<Void> promise = Promise.promise();
+
+    /**
+     * 超时定时器id
+     */
+    private final long timerId;
+
+    private EventCompletionTracker(Vertx vertx, int consumerCount, long timeout) {
+        this.id = UUID.randomUUID().toString();
+        this.vertx = vertx;
+        this.remaining = new AtomicInteger(consumerCount);
+        this.timerId = vertx.setTimer(timeout, ignore -> {
+            if (TRACKER_MAP.remove(id, this)) {
+                promise.tryFail(new TimeoutException("事件监听执行超时,未完成的消费者数量：" + remaining.get()));
+            }
+        });
+        //定时器设置后再放入,保证完成时能取消定时器
+        TRACKER_MAP.put(id, this);
+    }
+
+    /**
+     * 创建跟踪
+     *
+     * @param vertx         发布事件的vertx
+     * @param consumerCount 当前vertx中接收事件的消费者数量
+     * @param timeout       超时时间(毫秒)
+     * @return 跟踪,没有消费者的返回null
+     */
+    static EventCompletionTracker create(Vertx vertx, int consumerCount, long timeout) {
+        if (consumerCount <= 0) {
+            return null;
+        }
+        return new EventCompletionTracker(vertx, consumerCount, timeout);
+    }
+
+    /**
+     * 获取跟踪
+     *
+     * @param vertx 消费者所在的vertx
+     * @param id    跟踪编号,可以为null
+     * @return 跟踪,没有或者不是当前vertx发布的返回null
+     */
+    static EventCompletionTracker get(Vertx vertx, String id) {
+        if (id == null) {
+            return null;
+        }
+        EventCompletionTracker tracker = TRACKER_MAP.get(id);
+        return tracker != null && tracker.vertx == vertx ? tracker : null;
+    }
+
+    /**
+     * 一个消费者处理完成
+     */
+    void countDown() {
+        if (remaining.decrementAndGet() == 0 && TRACKER_MAP.remove(id, this)) {
+            vertx.cancelTimer(timerId);
+            promise.tryComplete();
+        }
+    }
+
+    /**
+     * 事件没能提交执行,直接失败
+     *
+     * @param cause 失败原因
+     */
+    void fail(Throwable cause) {
+        if (TRACKER_MAP.remove(id, this)) {
+            vertx.cancelTimer(timerId);
+            promise.tryFail(cause);
+        }
+    }
+
+    /**
+     * @return 跟踪编号
+     */
+    String getId() {
+        return id;
+    }
+
+    /**
+     * @return 执行结果
+     */
+    Future<Void> future() {
+        return promise.future();
+    }
+}
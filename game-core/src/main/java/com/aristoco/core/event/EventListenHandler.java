@@ -8,6 +8,13 @@ package com.aristoco.core.event;
 @FunctionalInterface
 public interface EventListenHandler<T> {
 
-    void accept(T t) throws Throwable;
+    /**
+     * 执行监听
+     *
+     * @param t 事件
+     * @return 监听的返回值,返回Future或CompletionStage的在完成时才算执行结束
+     * @throws Throwable 监听抛出的异常
+     */
+    Object accept(T t) throws Throwable;
 
 }
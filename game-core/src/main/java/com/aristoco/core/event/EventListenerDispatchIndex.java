@@ -0,0 +1,137 @@
+package com.aristoco.core.event;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/12
+ * @description 事件监听器分发索引
+ * <p> 按监听的类型记录监听器,每个实际事件类型第一次分发时沿类型层级(自身、父类、接口)解析出所有监听器并缓存为数组
+ * <p> 之后同类型的事件直接取缓存的数组,不再遍历类型层级
+ * <p> 写时复制,添加和移除时整体替换监听器表和缓存,由调用方保证写操作串行,分发时不加锁
+ **/
+final class EventListenerDispatchIndex {
+
+    /**
+     * 空监听器数组
+     */
+    private static final EventListenerEntry[] EMPTY_LISTENERS = new EventListenerEntry[0];
+
+    /**
+     * 按监听类型记录的监听器,只读,变化时整体替换
+     * k:监听的类型 v:[事件监听,...]
+     */
+    private volatile Map<Class<?>, List<EventListenerEntry>> listenerMap = Map.of();
+
+    /**
+     * 实际事件类型的监听器缓存,监听器变化时整体替换
+     * k:实际事件类型 v:可以接收该类型的所有监听器
+     */
+    private volatile Map<Class<?>, EventListenerEntry[]> dispatchCache = new ConcurrentHashMap<>();
+
+    /**
+     * 添加监听器
+     *
+     * @param listenerClass 监听的类型
+     * @param listener      监听器
+     */
+    void addListener(Class<?> listenerClass, EventListenerEntry listener) {
+        Map<Class<?>, List<EventListenerEntry>> newListenerMap = new LinkedHashMap<>(listenerMap);
+        List<EventListenerEntry> listeners = new ArrayList<>(newListenerMap.getOrDefault(listenerClass, List.of()));
+        listeners.add(listener);
+        newListenerMap.put(listenerClass, List.copyOf(listeners));
+        update(newListenerMap);
+    }
+
+    /**
+     * 移除监听器
+     *
+     * @param listenerClass 监听的类型
+     * @param listener      监听器
+     */
+    void removeListener(Class<?> listenerClass, EventListenerEntry listener) {
+        List<EventListenerEntry> listeners = listenerMap.get(listenerClass);
+        if (listeners == null) {
+            return;
+        }
+        List<EventListenerEntry> newListeners = listeners.stream()
+                .filter(entry -> entry != listener)
+                .toList();
+        Map<Class<?>, List<EventListenerEntry>> newListenerMap = new LinkedHashMap<>(listenerMap);
+        if (newListeners.isEmpty()) {
+            newListenerMap.remove(listenerClass);
+        } else {
+            newListenerMap.put(listenerClass, newListeners);
+        }
+        update(newListenerMap);
+    }
+
+    /**
+     * 替换监听器表,先替换表再替换缓存,读取到新缓存时一定能读取到新表
+     *
+     * @param newListenerMap 新的监听器表
+     */
+    private void update(Map<Class<?>, List<EventListenerEntry>> newListenerMap) {
+        listenerMap = Collections.unmodifiableMap(newListenerMap);
+        dispatchCache = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * 获取可以接收该事件类型的所有监听器
+     *
+     * @param eventClass 实际事件类型,payload事件为payload的类型
+     * @return 监听器数组,自身类型的监听器在前,父类型的在后
+     */
+    EventListenerEntry[] getListeners(Class<?> eventClass) {
+        return dispatchCache.computeIfAbsent(eventClass, this::resolveListeners);
+    }
+
+    /**
+     * 沿类型层级解析监听器
+     *
+     * @param eventClass 实际事件类型
+     * @return 监听器数组
+     */
+    private EventListenerEntry[] resolveListeners(Class<?> eventClass) {
+        List<EventListenerEntry> listeners = new ArrayList<>();
+        for (Class<?> type : getTypeHierarchy(eventClass)) {
+            List<EventListenerEntry> typeListeners = listenerMap.get(type);
+            if (typeListeners == null) {
+                continue;
+            }
+            //同一个监听器监听了多个有继承关系的类型时只执行一次
+            for (EventListenerEntry listener : typeListeners) {
+                if (listener.getDispatchListenerClass(eventClass) == type) {
+                    listeners.add(listener);
+                }
+            }
+        }
+        return listeners.isEmpty() ? EMPTY_LISTENERS : listeners.toArray(EMPTY_LISTENERS);
+    }
+
+    /**
+     * 获取类型层级,先是自身和父类,再是所有接口
+     * <p> 不包含Object,监听Object的只接收Object本身的事件
+     *
+     * @param eventClass 实际事件类型
+     * @return 类型层级
+     */
+    static Set<Class<?>> getTypeHierarchy(Class<?> eventClass) {
+        Set<Class<?>> hierarchy = new LinkedHashSet<>();
+        hierarchy.add(eventClass);
+        for (Class<?> type = eventClass.getSuperclass(); type != null && type != Object.class;
+             type = type.getSuperclass()) {
+            hierarchy.add(type);
+        }
+        Deque<Class<?>> interfaces = new ArrayDeque<>();
+        hierarchy.forEach(type -> interfaces.addAll(Arrays.asList(type.getInterfaces())));
+        while (!interfaces.isEmpty()) {
+            Class<?> type = interfaces.poll();
+            if (hierarchy.add(type)) {
+                interfaces.addAll(Arrays.asList(type.getInterfaces()));
+            }
+        }
+        return hierarchy;
+    }
+}
@@ -0,0 +1,57 @@
+package com.aristoco.core.event;
+
+import com.aristoco.core.bean.definition.EventListenerBeanClassDefinition;
+import com.aristoco.core.event.metrics.EventListenerMetrics;
+import com.aristoco.core.event.retry.EventRetryPolicy;
+
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/12
+ * @description 注册到eventbus地址上的事件监听
+ * <p> 事件源的过滤放在监听外部,消费者可以只根据消息头判断,不需要解码事件
+ *
+ * @param definition   监听器的类定义,同一个监听器监听多个类型时共用
+ * @param name         监听器名
+ * @param eventSources 监听的事件源,为空时监听所有事件源
+ * @param batch        是否批量监听,批量监听收到的事件都是{@link BatchApplicationEvent}
+ * @param condition    监听条件,没有为null
+ * @param handler      事件执行
+ * @param metrics      监听器指标
+ * @param retryPolicy  执行失败的重试策略
+ * @param replying     是否有返回值,请求事件只路由到有返回值的监听
+ **/
+record EventListenerEntry(EventListenerBeanClassDefinition definition, String name, Set<String> eventSources,
+                          boolean batch, Predicate<ApplicationEvent> condition,
+                          EventListenHandler<ApplicationEvent> handler, EventListenerMetrics metrics,
+                          EventRetryPolicy retryPolicy, boolean replying) {
+
+    /**
+     * 是否监听该事件源
+     *
+     * @param source 事件源
+     * @return true:监听
+     */
+    boolean isAcceptSource(String source) {
+        return eventSources.isEmpty() || eventSources.contains(source);
+    }
+
+    /**
+     * 获取该监听器接收实际事件类型时使用的监听类型
+     * <p> 同一个监听器监听了多个有继承关系的类型时,只由类型层级中最近的一个接收,避免重复执行
+     *
+     * @param eventClass 实际事件类型
+     * @return 监听类型,不接收返回null
+     */
+    Class<?> getDispatchListenerClass(Class<?> eventClass) {
+        Set<Class<?>> listenerClasses = definition.getListenerClasses();
+        for (Class<?> type : EventListenerDispatchIndex.getTypeHierarchy(eventClass)) {
+            if (listenerClasses.contains(type)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
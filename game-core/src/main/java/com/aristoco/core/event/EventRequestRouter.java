@@ -0,0 +1,179 @@
+package com.aristoco.core.event;
+
+import com.aristoco.core.event.executor.EventPendingQueue;
+import io.vertx.core.Vertx;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/19
+ * @description 请求事件的路由
+ * <p> 同一个vertx中每个消费者实例额外注册一个只接收请求的本地地址,记录在这里
+ * <p> 只在有返回值的监听器中选择,同一个地址上有多种监听器时固定使用最早注册的那种,避免请求落到其他监听器上
+ * <p> 在同一种监听器的实例中选择负载最小(未回复的请求数加待执行队列深度)的实例,负载相同的随机选择
+ * <p> 其他节点的消费者不参与路由,本vertx中没有消费者时由eventbus投递
+ **/
+final class EventRequestRouter {
+
+    /**
+     * k:vertx v:[k:监听地址 v:消费者实例列表]
+     */
+    private static final Map<Vertx, Map<String, Set<EventRequestTarget>>> TARGETS = new WeakHashMap<>();
+
+    private EventRequestRouter() {
+    }
+
+    /**
+     * 注册消费者实例
+     *
+     * @param vertx      vertx
+     * @param listenAddr 监听地址
+     * @param target     消费者实例
+     */
+    static void register(Vertx vertx, String listenAddr, EventRequestTarget target) {
+        getTargetMap(vertx).computeIfAbsent(listenAddr, k -> new CopyOnWriteArraySet<>()).add(target);
+    }
+
+    /**
+     * 注销消费者实例
+     *
+     * @param vertx      vertx
+     * @param listenAddr 监听地址
+     * @param target     消费者实例
+     */
+    static void unregister(Vertx vertx, String listenAddr, EventRequestTarget target) {
+        getTargetMap(vertx).computeIfPresent(listenAddr, (k, targets) -> {
+            targets.remove(target);
+            return targets.isEmpty() ? null : targets;
+        });
+    }
+
+    /**
+     * 选择负载最小的消费者实例
+     *
+     * @param vertx      vertx
+     * @param listenAddr 监听地址
+     * @return 消费者实例,没有有返回值的监听器返回null
+     */
+    static EventRequestTarget select(Vertx vertx, String listenAddr) {
+        Set<EventRequestTarget> targets = getTargetMap(vertx).get(listenAddr);
+        if (targets == null) {
+            return null;
+        }
+        EventRequestTarget selected = null;
+        String replyListener = null;
+        int minLoad = Integer.MAX_VALUE;
+        int sameLoadCount = 0;
+        for (EventRequestTarget target : targets) {
+            String targetReplyListener = target.replyListener;
+            if (targetReplyListener == null) {
+                continue;
+            }
+            if (replyListener == null) {
+                //注册顺序中第一个有返回值的监听器
+                replyListener = targetReplyListener;
+            } else if (!replyListener.equals(targetReplyListener)) {
+                continue;
+            }
+            int load = target.getLoad();
+            if (load < minLoad) {
+                selected = target;
+                minLoad = load;
+                sameLoadCount = 1;
+            } else if (load == minLoad && ThreadLocalRandom.current().nextInt(++sameLoadCount) == 0) {
+                //负载相同的等概率选择,避免总是落在第一个实例上
+                selected = target;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * 获取vertx的消费者实例表
+     *
+     * @param vertx vertx
+     * @return k:监听地址 v:消费者实例列表
+     */
+    private static Map<String, Set<EventRequestTarget>> getTargetMap(Vertx vertx) {
+        synchronized (TARGETS) {
+            return TARGETS.computeIfAbsent(vertx, k -> new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * 请求的消费者实例
+     */
+    static final class EventRequestTarget {
+
+        /**
+         * 实例的请求地址
+         */
+        private final String address;
+
+        /**
+         * 实例的待执行队列,未启用为null
+         */
+        private final EventPendingQueue pendingQueue;
+
+        /**
+         * 已发送未回复的请求数
+         */
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        /**
+         * 实例上有返回值的监听器名,用于只在同一种监听器的实例中选择,没有有返回值的监听器为null
+         */
+        private volatile String replyListener;
+
+        EventRequestTarget(String address, EventPendingQueue pendingQueue, String replyListener) {
+            this.address = address;
+            this.pendingQueue = pendingQueue;
+            this.replyListener = replyListener;
+        }
+
+        /**
+         * 实例上的监听器变化时更新
+         *
+         * @param replyListener 有返回值的监听器名,没有为null
+         */
+        void setReplyListener(String replyListener) {
+            this.replyListener = replyListener;
+        }
+
+        /**
+         * @return 实例的请求地址
+         */
+        String getAddress() {
+            return address;
+        }
+
+        /**
+         * @return 负载,未回复的请求数加待执行队列深度
+         */
+        int getLoad() {
+            int load = inFlight.get();
+            return pendingQueue == null ? load : load + pendingQueue.getDepth();
+        }
+
+        /**
+         * 发送请求
+         */
+        void acquire() {
+            inFlight.incrementAndGet();
+        }
+
+        /**
+         * 收到回复
+         */
+        void release() {
+            inFlight.decrementAndGet();
+        }
+    }
+}
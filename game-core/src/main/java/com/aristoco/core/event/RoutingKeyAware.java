@@ -0,0 +1,20 @@
+package com.aristoco.core.event;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/13
+ * @description 提供路由key的事件
+ * <p> 事件线程池使用分片模式时,key相同的事件按顺序执行,例如使用玩家id保证同一个玩家的事件顺序
+ * <p> 事件类和payload类都可以实现
+ * @see com.aristoco.core.event.annotation.EventKey
+ **/
+public interface RoutingKeyAware {
+
+    /**
+     * 获取路由key
+     * <p> 不使用getter命名,避免被序列化
+     *
+     * @return 路由key,为null时不保证顺序
+     */
+    Object routingKey();
+}
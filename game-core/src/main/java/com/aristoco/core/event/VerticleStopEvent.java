@@ -1,5 +1,6 @@
 package com.aristoco.core.event;
 
+import com.aristoco.core.event.annotation.PriorityEvent;
 import com.aristoco.core.vertx.verticle.BaseVerticle;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
  * @date 2024/7/31
  * @description verticle停止事件
  **/
+@PriorityEvent
 @NoArgsConstructor
 @Getter
 public class VerticleStopEvent extends ApplicationEvent{
@@ -0,0 +1,20 @@
+package com.aristoco.core.event.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 合并事件,只保留最新的
+ * <p> 适用于位置更新、资源数量这类只关心最新值的高频事件,标注在事件类(或payload类)上
+ * <p> 同一个消费者中还在等待执行的事件,key相同的后到的替换先到的,监听器只收到最新的一个
+ * <p> key使用{@link EventKey}或{@link com.aristoco.core.event.RoutingKeyAware},没有key的同类型事件全部合并
+ * <p> 请求事件和批量事件不合并
+ *
+ * @author chenguowei
+ * @see com.aristoco.core.event.executor.EventCoalescer
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface CoalesceEvent {
+}
@@ -0,0 +1,18 @@
+package com.aristoco.core.event.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 本地投递时复制事件
+ * <p> 本地监听器默认直接拿到发布的事件对象(零拷贝),事件可能被监听器修改时在事件类上添加此注解,
+ * 每个本地消费者都会拿到一份独立的复制
+ *
+ * @author chenguowei
+ * @see com.aristoco.core.event.codec.LocalApplicationEventMessageCodec
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface CopyOnDeliver {
+}
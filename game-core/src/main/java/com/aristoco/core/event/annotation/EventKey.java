@@ -0,0 +1,17 @@
+package com.aristoco.core.event.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 事件路由key
+ * <p> 事件线程池使用分片模式时,key相同的事件在同一个分片中按顺序执行,不同key的事件并行执行
+ * <p> 标注在事件类(或payload类)的字段上,也可以实现{@link com.aristoco.core.event.RoutingKeyAware}接口
+ *
+ * @author chenguowei
+ * @see com.aristoco.core.event.executor.StripedEventExecutor
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface EventKey {
+}
@@ -0,0 +1,38 @@
+package com.aristoco.core.event.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 事件监听失败的重试策略
+ * <p> 标注在{@link EventListener}方法上,或者{@link com.aristoco.core.event.ApplicationListener}实现类上
+ * <p> 标注在监听方法所在的类上时,对类中所有没有标注的监听方法生效,方法上的优先
+ * <p> 没有标注的使用全局配置,重试都失败的事件进入死信
+ *
+ * @author chenguowei
+ * @see com.aristoco.core.event.retry.EventRetryPolicy
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface EventRetry {
+
+    /**
+     * 最多重试次数,为0时不重试
+     */
+    int maxRetries() default 3;
+
+    /**
+     * 第一次重试的等待时间(毫秒)
+     */
+    long delay() default 100L;
+
+    /**
+     * 每次重试等待时间的倍数
+     */
+    double multiplier() default 2.0;
+
+    /**
+     * 最长等待时间(毫秒)
+     */
+    long maxDelay() default 10000L;
+}
@@ -0,0 +1,18 @@
+package com.aristoco.core.event.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 记录到事件日志的事件
+ * <p> 启用事件日志后,标注在事件类(或payload类)上的事件发布时先追加到本地磁盘的日志中,可以从指定位置重放
+ * <p> 请求事件不记录
+ *
+ * @author chenguowei
+ * @see com.aristoco.core.event.journal.EventJournal
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface JournaledEvent {
+}
@@ -0,0 +1,26 @@
+package com.aristoco.core.event.annotation;
+
+import com.aristoco.core.event.executor.EventPriority;
+
+import java.lang.annotation.*;
+
+/**
+ * 事件优先级,标注在事件类(或payload类)上
+ * <p> 启用优先级后,不同优先级的事件在事件执行器中进入不同的队列,按权重轮流执行
+ * <p> 低优先级事件堆积时,高优先级事件的等待时间仍然有上限
+ * <p> 没有标注的为{@link EventPriority#NORMAL},有路由key的事件仍然按分片执行
+ *
+ * @author chenguowei
+ * @see com.aristoco.core.event.executor.PriorityEventExecutor
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface PriorityEvent {
+
+    /**
+     * 优先级
+     */
+    EventPriority value() default EventPriority.HIGH;
+}
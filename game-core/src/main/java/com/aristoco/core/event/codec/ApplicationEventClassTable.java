@@ -0,0 +1,90 @@
+package com.aristoco.core.event.codec;
+
+import cn.hutool.core.lang.hash.MurmurHash;
+import com.aristoco.core.event.PayloadApplicationEvent;
+import com.aristoco.core.exception.EventClassIdRepeatException;
+import com.aristoco.core.exception.EventClassNotRegisteredException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/6
+ * @description 事件类编号表
+ * <p> 编号由类名计算得出,集群中各节点对同一个类得到的编号一致,传输时只需要带上编号而不用带完整类名
+ * <p> 接收端只能解析已经注册过的类,监听器初始化时会注册所有监听的类
+ **/
+public class ApplicationEventClassTable {
+
+    /**
+     * k:类编号 v:类
+     */
+    private static final Map<Integer, Class<?>> ID_CLASS_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * k:类 v:类编号
+     */
+    private static final Map<Class<?>, Integer> CLASS_ID_MAP = new ConcurrentHashMap<>();
+
+    static {
+        register(PayloadApplicationEvent.class);
+    }
+
+    /**
+     * 注册类,已注册的直接返回编号
+     *
+     * @param clazz 事件类/payload类
+     * @return 类编号
+     */
+    public static int register(Class<?> clazz) {
+        Integer classId = CLASS_ID_MAP.get(clazz);
+        if (classId != null) {
+            return classId;
+        }
+        synchronized (ApplicationEventClassTable.class) {
+            return CLASS_ID_MAP.computeIfAbsent(clazz, k -> {
+                int id = computeClassId(k);
+                Class<?> repeatClass = ID_CLASS_MAP.putIfAbsent(id, k);
+                if (repeatClass != null) {
+                    throw new EventClassIdRepeatException(id, k.getName(), repeatClass.getName());
+                }
+                return id;
+            });
+        }
+    }
+
+    /**
+     * 获取类编号,未注册的会先注册
+     *
+     * @param clazz 事件类/payload类
+     * @return 类编号
+     */
+    public static int getClassId(Class<?> clazz) {
+        return register(clazz);
+    }
+
+    /**
+     * 根据编号获取类
+     *
+     * @param classId 类编号
+     * @return 对应的类
+     */
+    public static Class<?> getClass(int classId) {
+        Class<?> clazz = ID_CLASS_MAP.get(classId);
+        if (clazz == null) {
+            throw new EventClassNotRegisteredException(classId);
+        }
+        return clazz;
+    }
+
+    /**
+     * 根据类名计算编号
+     *
+     * @param clazz 类
+     * @return 类编号
+     */
+    private static int computeClassId(Class<?> clazz) {
+        return MurmurHash.hash32(clazz.getName());
+    }
+}
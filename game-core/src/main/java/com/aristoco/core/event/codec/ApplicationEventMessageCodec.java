@@ -0,0 +1,267 @@
+package com.aristoco.core.event.codec;
+
+import com.aristoco.core.event.ApplicationEvent;
+import com.aristoco.core.event.BatchApplicationEvent;
+import com.aristoco.core.event.PayloadApplicationEvent;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.EncodeException;
+import io.vertx.core.json.jackson.DatabindCodec;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/6
+ * @description 事件的eventbus二进制编码器
+ * <p> 直接传输事件对象,不再经过JsonObject中转
+ * <p> 格式：[事件类型(1)][事件类编号(4)][payload类编号(4),只有payload事件有][内容长度(4)][内容]
+ * <p> 批量事件格式：[批量标识(1)][元素的事件类型(1)][事件类编号(4)][payload类编号(4)][事件数量(4)][[内容长度(4)][内容]...]
+ * @see ApplicationEventClassTable
+ **/
+public class ApplicationEventMessageCodec implements MessageCodec<ApplicationEvent, ApplicationEvent> {
+
+    /**
+     * 编码器名
+     */
+    public static final String CODEC_NAME = "applicationEventCodec";
+
+    /**
+     * 普通事件
+     */
+    private static final byte APPLICATION_EVENT = 0;
+
+    /**
+     * payload包装的事件
+     */
+    private static final byte PAYLOAD_APPLICATION_EVENT = 1;
+
+    /**
+     * 批量事件
+     */
+    private static final byte BATCH_APPLICATION_EVENT = 2;
+
+    /**
+     * 已经注册过编码器的eventbus
+     */
+    private static final Set<EventBus> REGISTERED_EVENT_BUS = Collections.newSetFromMap(new WeakHashMap<>());
+
+    /**
+     * 注册编码器,同一个eventbus只会注册一次
+     *
+     * @param eventBus vertx的eventbus
+     */
+    public static void register(EventBus eventBus) {
+        synchronized (REGISTERED_EVENT_BUS) {
+            if (REGISTERED_EVENT_BUS.add(eventBus)) {
+                eventBus.registerCodec(new ApplicationEventMessageCodec());
+            }
+        }
+    }
+
+    /**
+     * 编码到集群传输
+     *
+     * @param buffer the {@link Buffer} where the message has to be encoded into
+     * @param event  the object to encode
+     */
+    @Override
+    public void encodeToWire(Buffer buffer, ApplicationEvent event) {
+        if (event instanceof BatchApplicationEvent batchEvent) {
+            //同一批事件类型相同,只写一次类型
+            List<ApplicationEvent> events = batchEvent.getEvents();
+            buffer.appendByte(BATCH_APPLICATION_EVENT);
+            appendEventType(buffer, events.get(0));
+            buffer.appendInt(events.size());
+            events.forEach(e -> appendEventContent(buffer, e));
+            return;
+        }
+        appendEventType(buffer, event);
+        appendEventContent(buffer, event);
+    }
+
+    /**
+     * 从集群传输中解码
+     *
+     * @param pos    the position where to start reading the message
+     * @param buffer the {@link Buffer} to read from
+     * @return 事件
+     */
+    @Override
+    public ApplicationEvent decodeFromWire(int pos, Buffer buffer) {
+        boolean isBatch = buffer.getByte(pos) == BATCH_APPLICATION_EVENT;
+        if (isBatch) {
+            pos += 1;
+        }
+        byte eventType = buffer.getByte(pos);
+        pos += 1;
+        Class<?> eventClass = ApplicationEventClassTable.getClass(buffer.getInt(pos));
+        pos += 4;
+        Class<?> payloadClass = null;
+        if (eventType == PAYLOAD_APPLICATION_EVENT) {
+            payloadClass = ApplicationEventClassTable.getClass(buffer.getInt(pos));
+            pos += 4;
+        }
+        JavaType javaType = getEventType(eventClass, payloadClass);
+        if (!isBatch) {
+            int length = buffer.getInt(pos);
+            pos += 4;
+            return readEvent(buffer.getBytes(pos, pos + length), javaType);
+        }
+        int size = buffer.getInt(pos);
+        pos += 4;
+        List<ApplicationEvent> events = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int length = buffer.getInt(pos);
+            pos += 4;
+            events.add(readEvent(buffer.getBytes(pos, pos + length), javaType));
+            pos += length;
+        }
+        return toBatchEvent(events);
+    }
+
+    /**
+     * 本地传输时复制一份,保证各消费者之间互不影响
+     * <p> 不复制直接投递原事件的使用本地监听地址的{@link LocalApplicationEventMessageCodec}
+     *
+     * @param event the object to transform
+     * @return 复制的事件
+     */
+    @Override
+    public ApplicationEvent transform(ApplicationEvent event) {
+        return copy(event);
+    }
+
+    /**
+     * 深度复制事件,保证各消费者之间互不影响
+     *
+     * @param event 事件
+     * @return 复制的事件
+     */
+    public ApplicationEvent copy(ApplicationEvent event) {
+        if (event instanceof BatchApplicationEvent batchEvent) {
+            List<ApplicationEvent> events = new ArrayList<>(batchEvent.getEvents().size());
+            batchEvent.getEvents().forEach(e -> events.add(copyEvent(e)));
+            return toBatchEvent(events);
+        }
+        return copyEvent(event);
+    }
+
+    @Override
+    public String name() {
+        return CODEC_NAME;
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+
+    /**
+     * 写入事件类型
+     *
+     * @param buffer 写入的buffer
+     * @param event  事件
+     */
+    private void appendEventType(Buffer buffer, ApplicationEvent event) {
+        if (event instanceof PayloadApplicationEvent<?> payloadEvent) {
+            buffer.appendByte(PAYLOAD_APPLICATION_EVENT);
+            buffer.appendInt(ApplicationEventClassTable.getClassId(PayloadApplicationEvent.class));
+            buffer.appendInt(ApplicationEventClassTable.getClassId(payloadEvent.getPayload().getClass()));
+        } else {
+            buffer.appendByte(APPLICATION_EVENT);
+            buffer.appendInt(ApplicationEventClassTable.getClassId(event.getClass()));
+        }
+    }
+
+    /**
+     * 写入事件内容
+     *
+     * @param buffer 写入的buffer
+     * @param event  事件
+     */
+    private void appendEventContent(Buffer buffer, ApplicationEvent event) {
+        byte[] bytes = writeEvent(event);
+        buffer.appendInt(bytes.length);
+        buffer.appendBytes(bytes);
+    }
+
+    /**
+     * 复制事件
+     *
+     * @param event 事件
+     * @return 复制的事件
+     */
+    private ApplicationEvent copyEvent(ApplicationEvent event) {
+        Class<?> payloadClass = null;
+        if (event instanceof PayloadApplicationEvent<?> payloadEvent) {
+            payloadClass = payloadEvent.getPayload().getClass();
+        }
+        return readEvent(writeEvent(event), getEventType(event.getClass(), payloadClass));
+    }
+
+    /**
+     * 组装批量事件,事件源和批量中的事件一致
+     *
+     * @param events 事件列表
+     * @return 批量事件
+     */
+    private BatchApplicationEvent toBatchEvent(List<ApplicationEvent> events) {
+        BatchApplicationEvent batchEvent = new BatchApplicationEvent(events);
+        batchEvent.setSource(events.get(0).getSource());
+        return batchEvent;
+    }
+
+    /**
+     * 获取事件的反序列化类型
+     *
+     * @param eventClass   事件类
+     * @param payloadClass payload类,非payload事件为null
+     * @return 反序列化类型
+     */
+    private JavaType getEventType(Class<?> eventClass, Class<?> payloadClass) {
+        ObjectMapper mapper = DatabindCodec.mapper();
+        if (payloadClass == null) {
+            return mapper.constructType(eventClass);
+        }
+        return mapper.getTypeFactory().constructParametricType(eventClass, payloadClass);
+    }
+
+    /**
+     * 序列化事件
+     *
+     * @param event 事件
+     * @return 序列化后的内容
+     */
+    private byte[] writeEvent(ApplicationEvent event) {
+        try {
+            return DatabindCodec.mapper().writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new EncodeException("事件序列化失败,事件类型：" + event.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * 反序列化事件
+     *
+     * @param bytes     序列化后的内容
+     * @param eventType 事件类型
+     * @return 事件
+     */
+    private ApplicationEvent readEvent(byte[] bytes, JavaType eventType) {
+        try {
+            return DatabindCodec.mapper().readValue(bytes, eventType);
+        } catch (IOException e) {
+            throw new DecodeException("事件反序列化失败,事件类型：" + eventType, e);
+        }
+    }
+}
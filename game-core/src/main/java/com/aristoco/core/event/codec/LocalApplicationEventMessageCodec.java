@@ -0,0 +1,137 @@
+package com.aristoco.core.event.codec;
+
+import com.aristoco.core.event.ApplicationEvent;
+import com.aristoco.core.event.BatchApplicationEvent;
+import com.aristoco.core.event.annotation.CopyOnDeliver;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/7
+ * @description 本地事件编码器
+ * <p> 本地投递直接把发布的事件对象交给消费者,不做任何序列化
+ * <p> 事件类有{@link CopyOnDeliver}注解或者使用全局复制的编码器时,才会通过二进制编码器复制一份
+ * <p> 全局复制和不复制的编码器名不同,同一个eventbus上的verticle可以使用不同的配置
+ * <p> 集群传输使用二进制编码器的格式
+ **/
+public class LocalApplicationEventMessageCodec implements MessageCodec<ApplicationEvent, ApplicationEvent> {
+
+    /**
+     * 编码器名
+     */
+    public static final String CODEC_NAME = "localApplicationEventCodec";
+
+    /**
+     * 所有事件都复制后投递的编码器名
+     */
+    public static final String COPY_CODEC_NAME = "copyLocalApplicationEventCodec";
+
+    /**
+     * 已经注册过编码器的eventbus
+     */
+    private static final Set<EventBus> REGISTERED_EVENT_BUS = Collections.newSetFromMap(new WeakHashMap<>());
+
+    /**
+     * 复制事件时使用的编码器
+     */
+    private final ApplicationEventMessageCodec copyCodec = new ApplicationEventMessageCodec();
+
+    /**
+     * 是否所有事件都复制后投递
+     */
+    private final boolean copyOnDeliver;
+
+    public LocalApplicationEventMessageCodec(boolean copyOnDeliver) {
+        this.copyOnDeliver = copyOnDeliver;
+    }
+
+    /**
+     * 注册编码器,同一个eventbus只会注册一次,复制和不复制的都注册
+     *
+     * @param eventBus vertx的eventbus
+     */
+    public static void register(EventBus eventBus) {
+        synchronized (REGISTERED_EVENT_BUS) {
+            if (REGISTERED_EVENT_BUS.add(eventBus)) {
+                eventBus.registerCodec(new LocalApplicationEventMessageCodec(false));
+                eventBus.registerCodec(new LocalApplicationEventMessageCodec(true));
+            }
+        }
+    }
+
+    /**
+     * 获取编码器名
+     *
+     * @param copyOnDeliver 是否所有事件都复制后投递
+     * @return 编码器名
+     */
+    public static String getCodecName(boolean copyOnDeliver) {
+        return copyOnDeliver ? COPY_CODEC_NAME : CODEC_NAME;
+    }
+
+    /**
+     * 编码到集群传输,和二进制编码器的格式相同
+     *
+     * @param buffer the {@link Buffer} where the message has to be encoded into
+     * @param event  the object to encode
+     */
+    @Override
+    public void encodeToWire(Buffer buffer, ApplicationEvent event) {
+        copyCodec.encodeToWire(buffer, event);
+    }
+
+    /**
+     * 从集群传输中解码
+     *
+     * @param pos    the position where to start reading the message
+     * @param buffer the {@link Buffer} to read from
+     * @return 事件
+     */
+    @Override
+    public ApplicationEvent decodeFromWire(int pos, Buffer buffer) {
+        return copyCodec.decodeFromWire(pos, buffer);
+    }
+
+    /**
+     * 本地投递,默认直接返回原对象
+     *
+     * @param event the object to transform
+     * @return 原事件/复制的事件
+     */
+    @Override
+    public ApplicationEvent transform(ApplicationEvent event) {
+        if (copyOnDeliver || getEventClass(event).isAnnotationPresent(CopyOnDeliver.class)) {
+            return copyCodec.copy(event);
+        }
+        return event;
+    }
+
+    @Override
+    public String name() {
+        return getCodecName(copyOnDeliver);
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+
+    /**
+     * 获取判断复制的事件类,批量事件使用其中的事件类
+     *
+     * @param event 事件
+     * @return 事件类
+     */
+    private Class<?> getEventClass(ApplicationEvent event) {
+        if (event instanceof BatchApplicationEvent batchEvent && !batchEvent.getEvents().isEmpty()) {
+            return batchEvent.getEvents().get(0).getClass();
+        }
+        return event.getClass();
+    }
+}
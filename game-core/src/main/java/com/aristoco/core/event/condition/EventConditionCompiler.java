@@ -0,0 +1,499 @@
+package com.aristoco.core.event.condition;
+
+import com.aristoco.core.event.ApplicationEvent;
+import org.mvel2.Operator;
+import org.mvel2.math.MathProcessor;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/9
+ * @description 事件监听条件编译器
+ * <p> 将常用的条件表达式直接编译为java的判断,事件执行时不经过mvel解释执行
+ * <p> 支持的语法：
+ * <p>	1.比较 == != > >= < <=
+ * <p>	2.逻辑 && || ! and or 以及括号
+ * <p>	3.属性读取 player.level,按getter/public字段读取,中间为null时结果为null
+ * <p>	4.字面量 数字,'字符串',"字符串",true,false,null
+ * <p> 其他写法(方法调用,算术,三元,配置插值等)返回null,由调用方使用mvel执行
+ * <p> 和mvel的语义一致：不同类型的比较按mvel的规则转换,!只作用于紧跟的值(!a == b 为 (!a) == b),取反的值必须是布尔值
+ * <p> 变量有声明类型的,属性在编译时检查,不存在的直接编译失败
+ **/
+public class EventConditionCompiler {
+
+    /**
+     * 编译条件表达式,变量没有声明类型
+     *
+     * @param condition 条件表达式,可以带#{}包装
+     * @param variables 表达式可以使用的变量 k:变量名 v:从事件中取值
+     * @return 事件判断,不支持的表达式返回null
+     */
+    public static Predicate<ApplicationEvent> compile(String condition,
+                                                      Map<String, Function<ApplicationEvent, Object>> variables) {
+        return compile(condition, variables, Map.of());
+    }
+
+    /**
+     * 编译条件表达式
+     *
+     * @param condition     条件表达式,可以带#{}包装
+     * @param variables     表达式可以使用的变量 k:变量名 v:从事件中取值
+     * @param variableTypes 变量声明的类型,用于编译时检查属性,没有的按运行时的类型读取
+     * @return 事件判断,不支持的表达式和声明类型上找不到的属性返回null
+     */
+    public static Predicate<ApplicationEvent> compile(String condition,
+                                                      Map<String, Function<ApplicationEvent, Object>> variables,
+                                                      Map<String, Class<?>> variableTypes) {
+        String expressionStr = condition.trim();
+        if (expressionStr.startsWith("${")) {
+            //配置插值需要mvel处理
+            return null;
+        }
+        if (expressionStr.startsWith("#{")) {
+            if (!expressionStr.endsWith("}")) {
+                return null;
+            }
+            expressionStr = expressionStr.substring(2, expressionStr.length() - 1);
+        }
+        try {
+            Parser parser = new Parser(tokenize(expressionStr), variables, variableTypes);
+            Object node = parser.parseOr();
+            parser.expectEnd();
+            return toPredicate(node);
+        } catch (UnsupportedConditionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 转为判断
+     *
+     * @param node 判断或取值
+     * @return 判断
+     */
+    @SuppressWarnings("unchecked")
+    private static Predicate<ApplicationEvent> toPredicate(Object node) {
+        if (node instanceof Predicate<?> predicate) {
+            return (Predicate<ApplicationEvent>) predicate;
+        }
+        Function<ApplicationEvent, Object> value = (Function<ApplicationEvent, Object>) node;
+        return event -> Boolean.TRUE.equals(value.apply(event));
+    }
+
+    /**
+     * 转为取值
+     *
+     * @param node 判断或取值
+     * @return 取值
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<ApplicationEvent, Object> toValue(Object node) {
+        if (node instanceof Predicate<?> predicate) {
+            Predicate<ApplicationEvent> p = (Predicate<ApplicationEvent>) predicate;
+            return p::test;
+        }
+        return (Function<ApplicationEvent, Object>) node;
+    }
+
+    /**
+     * 判断是否相等,数字按数值比较
+     * <p> 类型不同的按mvel的规则转换后比较,例如数字和数字字符串相等
+     *
+     * @param left  左值
+     * @param right 右值
+     * @return true:相等
+     */
+    static boolean isEquals(Object left, Object right) {
+        if (left == null || right == null) {
+            return left == right;
+        }
+        if (left instanceof Number l && right instanceof Number r) {
+            return compareNumber(l, r) == 0;
+        }
+        if (left.getClass() == right.getClass()) {
+            return left.equals(right);
+        }
+        return Boolean.TRUE.equals(MathProcessor.doOperations(left, Operator.EQUAL, right));
+    }
+
+    /**
+     * 比较大小
+     * <p> 类型不同的按mvel的规则转换后比较,无法转换的抛出异常
+     *
+     * @param left     左值
+     * @param operator 比较符 {@link Operator#GTHAN} {@link Operator#GETHAN} {@link Operator#LTHAN} {@link Operator#LETHAN}
+     * @param right    右值
+     * @return 比较结果,有null时为false
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static boolean compare(Object left, int operator, Object right) {
+        if (left == null || right == null) {
+            return false;
+        }
+        int result;
+        if (left instanceof Number l && right instanceof Number r) {
+            result = compareNumber(l, r);
+        } else if (left instanceof Comparable l && left.getClass() == right.getClass()) {
+            result = l.compareTo(right);
+        } else {
+            return Boolean.TRUE.equals(MathProcessor.doOperations(left, operator, right));
+        }
+        return switch (operator) {
+            case Operator.GTHAN -> result > 0;
+            case Operator.GETHAN -> result >= 0;
+            case Operator.LTHAN -> result < 0;
+            default -> result <= 0;
+        };
+    }
+
+    /**
+     * 取反,和mvel一致只能对布尔值取反
+     *
+     * @param value 值
+     * @return 取反的结果
+     */
+    static boolean negate(Object value) {
+        if (value instanceof Boolean b) {
+            return !b;
+        }
+        throw new IllegalArgumentException(value == null ? "条件表达式不能对null取反" :
+                "条件表达式只能对布尔值取反,value:" + value.getClass().getName());
+    }
+
+    /**
+     * 比较数字
+     *
+     * @param left  左值
+     * @param right 右值
+     * @return 比较结果
+     */
+    private static int compareNumber(Number left, Number right) {
+        if (isIntegral(left) && isIntegral(right)) {
+            return Long.compare(left.longValue(), right.longValue());
+        }
+        if (left instanceof BigDecimal || right instanceof BigDecimal ||
+                left instanceof BigInteger || right instanceof BigInteger) {
+            return new BigDecimal(left.toString()).compareTo(new BigDecimal(right.toString()));
+        }
+        return Double.compare(left.doubleValue(), right.doubleValue());
+    }
+
+    /**
+     * 是否整数类型
+     *
+     * @param number 数字
+     * @return true:是
+     */
+    private static boolean isIntegral(Number number) {
+        return number instanceof Integer || number instanceof Long ||
+                number instanceof Short || number instanceof Byte;
+    }
+
+    /**
+     * 拆分表达式
+     *
+     * @param expressionStr 表达式
+     * @return 词列表
+     */
+    private static List<Token> tokenize(String expressionStr) {
+        List<Token> tokens = new ArrayList<>();
+        int length = expressionStr.length();
+        int i = 0;
+        while (i < length) {
+            char c = expressionStr.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (Character.isJavaIdentifierStart(c)) {
+                int start = i;
+                while (i < length && Character.isJavaIdentifierPart(expressionStr.charAt(i))) {
+                    i++;
+                }
+                tokens.add(new Token(TokenType.IDENTIFIER, expressionStr.substring(start, i)));
+            } else if (Character.isDigit(c)) {
+                int start = i;
+                while (i < length && (Character.isDigit(expressionStr.charAt(i)) || expressionStr.charAt(i) == '.')) {
+                    i++;
+                }
+                if (i < length && Character.isJavaIdentifierPart(expressionStr.charAt(i))) {
+                    //带类型后缀的数字
+                    throw new UnsupportedConditionException();
+                }
+                tokens.add(new Token(TokenType.NUMBER, expressionStr.substring(start, i)));
+            } else if (c == '\'' || c == '"') {
+                int end = expressionStr.indexOf(c, i + 1);
+                if (end < 0) {
+                    throw new UnsupportedConditionException();
+                }
+                String value = expressionStr.substring(i + 1, end);
+                if (value.indexOf('\\') >= 0) {
+                    //转义字符交给mvel处理
+                    throw new UnsupportedConditionException();
+                }
+                tokens.add(new Token(TokenType.STRING, value));
+                i = end + 1;
+            } else {
+                String operator = matchOperator(expressionStr, i);
+                tokens.add(new Token(TokenType.OPERATOR, operator));
+                i += operator.length();
+            }
+        }
+        tokens.add(new Token(TokenType.END, ""));
+        return tokens;
+    }
+
+    /**
+     * 匹配操作符
+     *
+     * @param expressionStr 表达式
+     * @param index         开始位置
+     * @return 操作符
+     */
+    private static String matchOperator(String expressionStr, int index) {
+        for (String operator : new String[]{"==", "!=", ">=", "<=", "&&", "||", ">", "<", "!", "(", ")", "."}) {
+            if (expressionStr.startsWith(operator, index)) {
+                return operator;
+            }
+        }
+        throw new UnsupportedConditionException();
+    }
+
+    /**
+     * 词类型
+     */
+    private enum TokenType {
+        IDENTIFIER, NUMBER, STRING, OPERATOR, END
+    }
+
+    /**
+     * 词
+     *
+     * @param type  类型
+     * @param value 内容
+     */
+    private record Token(TokenType type, String value) {
+
+        boolean is(String operator) {
+            return type == TokenType.OPERATOR && value.equals(operator);
+        }
+
+        boolean isKeyword(String keyword) {
+            return type == TokenType.IDENTIFIER && value.equals(keyword);
+        }
+    }
+
+    /**
+     * 不支持的表达式
+     */
+    private static class UnsupportedConditionException extends RuntimeException {
+
+        UnsupportedConditionException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * 递归下降解析,生成的节点为Predicate(判断)或者Function(取值)
+     */
+    private static class Parser {
+
+        private final List<Token> tokens;
+
+        private final Map<String, Function<ApplicationEvent, Object>> variables;
+
+        private final Map<String, Class<?>> variableTypes;
+
+        private int position = 0;
+
+        Parser(List<Token> tokens, Map<String, Function<ApplicationEvent, Object>> variables,
+               Map<String, Class<?>> variableTypes) {
+            this.tokens = tokens;
+            this.variables = variables;
+            this.variableTypes = variableTypes;
+        }
+
+        private Token peek() {
+            return tokens.get(position);
+        }
+
+        private Token next() {
+            return tokens.get(position++);
+        }
+
+        void expectEnd() {
+            if (peek().type() != TokenType.END) {
+                throw new UnsupportedConditionException();
+            }
+        }
+
+        Object parseOr() {
+            Object node = parseAnd();
+            while (peek().is("||") || peek().isKeyword("or")) {
+                next();
+                Predicate<ApplicationEvent> left = toPredicate(node);
+                Predicate<ApplicationEvent> right = toPredicate(parseAnd());
+                node = (Predicate<ApplicationEvent>) event -> left.test(event) || right.test(event);
+            }
+            return node;
+        }
+
+        private Object parseAnd() {
+            Object node = parseComparison();
+            while (peek().is("&&") || peek().isKeyword("and")) {
+                next();
+                Predicate<ApplicationEvent> left = toPredicate(node);
+                Predicate<ApplicationEvent> right = toPredicate(parseComparison());
+                node = (Predicate<ApplicationEvent>) event -> left.test(event) && right.test(event);
+            }
+            return node;
+        }
+
+        private Object parseNot() {
+            if (peek().is("!")) {
+                next();
+                Object node = parseNot();
+                if (node instanceof Predicate<?>) {
+                    return toPredicate(node).negate();
+                }
+                Function<ApplicationEvent, Object> value = toValue(node);
+                return (Predicate<ApplicationEvent>) event -> negate(value.apply(event));
+            }
+            return parsePrimary();
+        }
+
+        private Object parseComparison() {
+            Object node = parseNot();
+            Token token = peek();
+            if (token.type() != TokenType.OPERATOR) {
+                return node;
+            }
+            Function<ApplicationEvent, Object> left;
+            Function<ApplicationEvent, Object> right;
+            switch (token.value()) {
+                case "==" -> {
+                    next();
+                    left = toValue(node);
+                    right = toValue(parseNot());
+                    return (Predicate<ApplicationEvent>) event -> isEquals(left.apply(event), right.apply(event));
+                }
+                case "!=" -> {
+                    next();
+                    left = toValue(node);
+                    right = toValue(parseNot());
+                    return (Predicate<ApplicationEvent>) event -> !isEquals(left.apply(event), right.apply(event));
+                }
+                case ">", ">=", "<", "<=" -> {
+                    next();
+                    left = toValue(node);
+                    right = toValue(parseNot());
+                    int operator = switch (token.value()) {
+                        case ">" -> Operator.GTHAN;
+                        case ">=" -> Operator.GETHAN;
+                        case "<" -> Operator.LTHAN;
+                        default -> Operator.LETHAN;
+                    };
+                    return (Predicate<ApplicationEvent>) event -> compare(left.apply(event), operator, right.apply(event));
+                }
+                default -> {
+                    return node;
+                }
+            }
+        }
+
+        private Object parsePrimary() {
+            Token token = next();
+            switch (token.type()) {
+                case NUMBER -> {
+                    Object value = parseNumber(token.value());
+                    return (Function<ApplicationEvent, Object>) event -> value;
+                }
+                case STRING -> {
+                    String value = token.value();
+                    return (Function<ApplicationEvent, Object>) event -> value;
+                }
+                case IDENTIFIER -> {
+                    return parsePath(token.value());
+                }
+                case OPERATOR -> {
+                    if (token.is("(")) {
+                        Object node = parseOr();
+                        if (!next().is(")")) {
+                            throw new UnsupportedConditionException();
+                        }
+                        return node;
+                    }
+                    throw new UnsupportedConditionException();
+                }
+                default -> throw new UnsupportedConditionException();
+            }
+        }
+
+        private Object parsePath(String identifier) {
+            switch (identifier) {
+                case "true" -> {
+                    return (Predicate<ApplicationEvent>) event -> true;
+                }
+                case "false" -> {
+                    return (Predicate<ApplicationEvent>) event -> false;
+                }
+                case "null" -> {
+                    return (Function<ApplicationEvent, Object>) event -> null;
+                }
+                default -> {
+                }
+            }
+            Function<ApplicationEvent, Object> variable = variables.get(identifier);
+            if (variable == null) {
+                //未知的变量,可能是类名等,交给mvel处理
+                throw new UnsupportedConditionException();
+            }
+            Function<ApplicationEvent, Object> node = variable;
+            //声明的类型,为null的按运行时类型读取
+            Class<?> type = variableTypes.get(identifier);
+            while (peek().is(".")) {
+                next();
+                Token property = next();
+                if (property.type() != TokenType.IDENTIFIER || peek().is("(")) {
+                    //方法调用交给mvel处理
+                    throw new UnsupportedConditionException();
+                }
+                Function<ApplicationEvent, Object> target = node;
+                String propertyName = property.value();
+                if (type != null) {
+                    try {
+                        type = EventPropertyAccessor.getPropertyType(type, propertyName);
+                    } catch (IllegalArgumentException e) {
+                        //声明类型上没有的属性(例如只有子类有的属性)交给mvel在运行时解析
+                        throw new UnsupportedConditionException();
+                    }
+                }
+                node = event -> EventPropertyAccessor.getProperty(target.apply(event), propertyName);
+            }
+            if (peek().is("(")) {
+                throw new UnsupportedConditionException();
+            }
+            return node;
+        }
+
+        private Object parseNumber(String value) {
+            try {
+                if (value.indexOf('.') >= 0) {
+                    return Double.parseDouble(value);
+                }
+                long number = Long.parseLong(value);
+                if (number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE) {
+                    return (int) number;
+                }
+                return number;
+            } catch (NumberFormatException e) {
+                throw new UnsupportedConditionException();
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.aristoco.core.event.condition;
+
+import com.aristoco.core.utils.StringUtils;
+import io.vertx.core.json.JsonObject;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/9
+ * @description 条件表达式的属性读取
+ * <p> 按 getXxx/isXxx/xxx()/public字段 的顺序查找,查找结果按类缓存
+ * <p> Map和JsonObject直接按key读取
+ **/
+public class EventPropertyAccessor {
+
+    /**
+     * 类的属性读取缓存
+     * k:属性名 v:读取方法,已适配为(Object)Object
+     */
+    private static final ClassValue<Map<String, MethodHandle>> PROPERTY_GETTERS = new ClassValue<>() {
+        @Override
+        protected Map<String, MethodHandle> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * 读取属性
+     *
+     * @param target   读取的对象
+     * @param property 属性名
+     * @return 属性值,对象为null时返回null
+     */
+    @SuppressWarnings("rawtypes")
+    public static Object getProperty(Object target, String property) {
+        if (target == null) {
+            return null;
+        }
+        if (target instanceof Map map) {
+            return map.get(property);
+        }
+        if (target instanceof JsonObject jsonObject) {
+            return jsonObject.getValue(property);
+        }
+        MethodHandle getter = PROPERTY_GETTERS.get(target.getClass())
+                .computeIfAbsent(property, k -> findGetter(target.getClass(), k));
+        try {
+            return getter.invokeExact(target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(StringUtils.format("条件表达式的属性读取失败,class:{},property:{}",
+                    target.getClass().getName(), property), e);
+        }
+    }
+
+    /**
+     * 获取属性的声明类型,用于编译时检查属性是否存在
+     * <p> Object、Map、JsonObject、接口和数组只能在运行时确定,返回null
+     *
+     * @param clazz    声明的类型,为null时返回null
+     * @param property 属性名
+     * @return 属性的类型,运行时才能确定的返回null
+     * @throws IllegalArgumentException 属性不存在
+     */
+    public static Class<?> getPropertyType(Class<?> clazz, String property) {
+        if (clazz == null || clazz == Object.class || clazz.isInterface() || clazz.isArray()
+                || Map.class.isAssignableFrom(clazz) || JsonObject.class.isAssignableFrom(clazz)) {
+            return null;
+        }
+        Member member = findMember(clazz, property);
+        if (member == null) {
+            throw new IllegalArgumentException(StringUtils.format("条件表达式的属性不存在,class:{},property:{}",
+                    clazz.getName(), property));
+        }
+        return member instanceof Method method ? method.getReturnType() : ((Field) member).getType();
+    }
+
+    /**
+     * 查找属性的读取方法
+     *
+     * @param clazz    类
+     * @param property 属性名
+     * @return 读取方法
+     */
+    private static MethodHandle findGetter(Class<?> clazz, String property) {
+        Member member = findMember(clazz, property);
+        if (member == null) {
+            throw new IllegalArgumentException(StringUtils.format("条件表达式的属性不存在,class:{},property:{}",
+                    clazz.getName(), property));
+        }
+        try {
+            if (member instanceof Method method) {
+                method.setAccessible(true);
+                return adapt(MethodHandles.lookup().unreflect(method));
+            }
+            return adapt(MethodHandles.lookup().unreflectGetter((Field) member));
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException(StringUtils.format("条件表达式的属性无法访问,class:{},property:{}",
+                    clazz.getName(), property), e);
+        }
+    }
+
+    /**
+     * 查找属性的读取方法或者public字段
+     *
+     * @param clazz    类
+     * @param property 属性名
+     * @return 方法/字段,没有返回null
+     */
+    private static Member findMember(Class<?> clazz, String property) {
+        String upperFirst = StringUtils.upperFirst(property);
+        for (String methodName : new String[]{"get" + upperFirst, "is" + upperFirst, property}) {
+            Method method = findMethod(clazz, methodName);
+            if (method != null) {
+                return method;
+            }
+        }
+        try {
+            return clazz.getField(property);
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 查找无参的实例方法,包括父类
+     *
+     * @param clazz      类
+     * @param methodName 方法名
+     * @return 方法,没有返回null
+     */
+    private static Method findMethod(Class<?> clazz, String methodName) {
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            try {
+                Method method = c.getDeclaredMethod(methodName);
+                if (!Modifier.isStatic(method.getModifiers()) && method.getReturnType() != void.class) {
+                    return method;
+                }
+            } catch (NoSuchMethodException ignore) {
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 适配为统一的调用类型
+     *
+     * @param methodHandle 读取方法
+     * @return (Object)Object
+     */
+    private static MethodHandle adapt(MethodHandle methodHandle) {
+        return methodHandle.asType(MethodType.methodType(Object.class, Object.class));
+    }
+}
@@ -0,0 +1,179 @@
+package com.aristoco.core.event.executor;
+
+import io.vertx.core.Future;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/20
+ * @description 事件合并器
+ * <p> 每个消费者一个,记录每个key还在等待执行的任务
+ * <p> 同一个key已经有等待的任务时,只替换任务的内容,不再提交新的任务,被替换的事件视为已处理
+ * <p> 任务开始执行后再到达的事件提交新的任务
+ * @see com.aristoco.core.event.annotation.CoalesceEvent
+ **/
+public class EventCoalescer {
+
+    /**
+     * 没有key的事件使用的key,同类型的全部合并
+     */
+    private static final Object NO_KEY = new Object();
+
+    /**
+     * 监听地址
+     */
+    @Getter
+    private final String address;
+
+    /**
+     * 等待执行的任务
+     * k:合并key v:任务
+     */
+    private final Map<Object, CoalescedTask> pendingTasks = new ConcurrentHashMap<>();
+
+    /**
+     * 被合并掉的事件数
+     */
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    /**
+     * @param address 监听地址
+     */
+    public EventCoalescer(String address) {
+        this.address = address;
+    }
+
+    /**
+     * 加入任务
+     *
+     * @param key       合并key,可以为null
+     * @param task      事件任务
+     * @param onSkipped 任务被替换或者被丢弃时执行
+     * @return 需要提交执行的任务,合并到已经等待的任务中时返回null
+     */
+    public CoalescedTask offer(Object key, EventTask task, Runnable onSkipped) {
+        Object coalesceKey = key == null ? NO_KEY : key;
+        CoalescedTask[] created = new CoalescedTask[1];
+        Runnable[] replaced = new Runnable[1];
+        pendingTasks.compute(coalesceKey, (k, pending) -> {
+            if (pending != null) {
+                replaced[0] = pending.replace(task, onSkipped);
+                if (replaced[0] != null) {
+                    return pending;
+                }
+            }
+            created[0] = new CoalescedTask(k, task, onSkipped);
+            return created[0];
+        });
+        if (replaced[0] != null) {
+            coalescedCount.incrementAndGet();
+            replaced[0].run();
+        }
+        return created[0];
+    }
+
+    /**
+     * 获取等待执行的key数量
+     *
+     * @return 等待数
+     */
+    public int getPendingCount() {
+        return pendingTasks.size();
+    }
+
+    /**
+     * 获取被合并掉的事件数
+     *
+     * @return 合并数
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * 合并的任务
+     */
+    public class CoalescedTask implements EventTask {
+
+        /**
+         * 合并key
+         */
+        private final Object key;
+
+        /**
+         * 最新的事件任务
+         */
+        private EventTask task;
+
+        /**
+         * 最新的事件被替换或者被丢弃时执行
+         */
+        private Runnable onSkipped;
+
+        /**
+         * 是否已经开始执行或者被丢弃
+         */
+        private boolean done;
+
+        private CoalescedTask(Object key, EventTask task, Runnable onSkipped) {
+            this.key = key;
+            this.task = task;
+            this.onSkipped = onSkipped;
+        }
+
+        /**
+         * 替换为最新的事件任务
+         *
+         * @param newTask      最新的事件任务
+         * @param newOnSkipped 最新的事件被替换或者被丢弃时执行
+         * @return 被替换的事件需要执行的处理,已经开始执行的返回null
+         */
+        private synchronized Runnable replace(EventTask newTask, Runnable newOnSkipped) {
+            if (done) {
+                return null;
+            }
+            Runnable skipped = onSkipped;
+            task = newTask;
+            onSkipped = newOnSkipped;
+            return skipped;
+        }
+
+        /**
+         * 取出任务,之后到达的事件提交新的任务
+         *
+         * @return true:取出成功
+         */
+        private boolean take() {
+            synchronized (this) {
+                if (done) {
+                    return false;
+                }
+                done = true;
+            }
+            //不在锁内移除,避免和offer互相等待
+            pendingTasks.remove(key, this);
+            return true;
+        }
+
+        @Override
+        public Future<?> execute() {
+            if (take()) {
+                return task.execute();
+            }
+            return Future.succeededFuture();
+        }
+
+        /**
+         * 任务被丢弃,最新的事件视为已处理
+         */
+        public void cancel() {
+            if (take()) {
+                onSkipped.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.aristoco.core.event.executor;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/16
+ * @description 事件待执行队列满时的处理策略
+ **/
+public enum EventOverflowPolicy {
+
+    /**
+     * 丢弃队列中最早的事件,加入新事件
+     */
+    DROP_OLDEST,
+
+    /**
+     * 丢弃新事件
+     */
+    DROP_NEWEST,
+
+    /**
+     * 发布方等待队列有空位后再发布
+     * <p> 通过publishEventWhenWritable发布的事件在发布方等待;普通发布不会阻塞eventloop,
+     * 队列满时事件暂存在队列中,有空位后再提交执行,提交执行的事件不超过容量
+     */
+    BLOCK,
+
+    /**
+     * 拒绝新事件,记录拒绝数量并打印日志
+     */
+    REJECT
+}
@@ -0,0 +1,402 @@
+package com.aristoco.core.event.executor;
+
+import com.aristoco.core.event.metrics.EventQueueMetrics;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/16
+ * @description 事件待执行队列
+ * <p> 记录已经提交到线程池但还没开始执行的事件任务,超过容量时按策略处理,避免慢监听导致任务无限堆积
+ * <p> 任务仍然按原来的方式提交执行,队列只负责计数和取消,不改变执行顺序
+ * <p> 等待执行的任务使用双向链表记录,开始执行和取消时O(1)移除;容量判断和加入在同一个锁内完成
+ * <p> 等待策略在队列满时暂存新任务,有空位后按到达顺序在消费者的context中提交执行,提交执行的任务不会超过容量
+ **/
+@Slf4j
+public class EventPendingQueue {
+
+    /**
+     * 任务状态:等待执行
+     */
+    private static final int PENDING = 0;
+
+    /**
+     * 任务状态:已经开始执行
+     */
+    private static final int RUNNING = 1;
+
+    /**
+     * 任务状态:被丢弃
+     */
+    private static final int CANCELLED = 2;
+
+    /**
+     * 监听地址
+     */
+    @Getter
+    private final String address;
+
+    /**
+     * 队列容量
+     */
+    @Getter
+    private final int capacity;
+
+    /**
+     * 队列满时的处理策略
+     */
+    @Getter
+    private final EventOverflowPolicy overflowPolicy;
+
+    /**
+     * 消费者的context,暂存的任务有空位后在这里提交执行
+     */
+    private final Context context;
+
+    /**
+     * 排队指标
+     */
+    private final EventQueueMetrics queueMetrics;
+
+    /**
+     * 链表和计数的锁
+     */
+    private final Object lock = new Object();
+
+    /**
+     * 最早提交的等待执行任务
+     */
+    private PendingTask head;
+
+    /**
+     * 最晚提交的等待执行任务
+     */
+    private PendingTask tail;
+
+    /**
+     * 已经提交执行但还没开始的任务数
+     */
+    private int size;
+
+    /**
+     * 等待策略下队列满时暂存的任务,还没有提交执行
+     */
+    private final Queue<PendingTask> blockedTasks = new ArrayDeque<>();
+
+    /**
+     * 丢弃的任务数
+     */
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * 拒绝的任务数
+     */
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * 等待队列有空位的发布方,按等待顺序唤醒
+     */
+    private final Queue<Promise<Void>> writableWaiters = new ArrayDeque<>();
+
+    /**
+     * @param address        监听地址
+     * @param capacity       队列容量
+     * @param overflowPolicy 队列满时的处理策略
+     * @param context        消费者的context
+     * @param queueMetrics   排队指标
+     */
+    public EventPendingQueue(String address, int capacity, EventOverflowPolicy overflowPolicy, Context context,
+                             EventQueueMetrics queueMetrics) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("事件队列容量必须大于0,capacity:" + capacity);
+        }
+        this.address = address;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.context = context;
+        this.queueMetrics = queueMetrics;
+    }
+
+    /**
+     * 加入任务
+     * <p> 有空位的任务直接交给提交方法;等待策略下队列满时暂存,有空位后在消费者的context中交给提交方法
+     *
+     * @param task      事件任务
+     * @param onDropped 已经加入的任务因为队列满被丢弃时执行,可以为null
+     * @param submitter 提交方法,参数为包装后的任务
+     * @return true:已经加入 false:队列已满被丢弃/拒绝
+     */
+    public boolean offer(EventTask task, Runnable onDropped, Consumer<EventTask> submitter) {
+        PendingTask pendingTask = new PendingTask(task, onDropped, submitter);
+        PendingTask dropped = null;
+        synchronized (lock) {
+            if (size >= capacity || !blockedTasks.isEmpty()) {
+                switch (overflowPolicy) {
+                    case DROP_NEWEST -> {
+                        droppedCount.incrementAndGet();
+                        queueMetrics.recordPendingDropped();
+                        return false;
+                    }
+                    case REJECT -> {
+                        rejectedCount.incrementAndGet();
+                        queueMetrics.recordPendingRejected();
+                        log.warn("事件队列已满,拒绝事件,监听地址：{},容量：{}", address, capacity);
+                        return false;
+                    }
+                    case DROP_OLDEST -> dropped = pollFirst();
+                    case BLOCK -> {
+                        //不能阻塞eventloop,暂存到有空位时再提交
+                        blockedTasks.offer(pendingTask);
+                        return true;
+                    }
+                }
+            }
+            link(pendingTask);
+        }
+        if (dropped != null) {
+            droppedCount.incrementAndGet();
+            queueMetrics.recordPendingDropped();
+            if (dropped.onDropped != null) {
+                dropped.onDropped.run();
+            }
+        }
+        submitter.accept(pendingTask);
+        return true;
+    }
+
+    /**
+     * 已经加入的任务没能提交执行,从队列中移除
+     *
+     * @param task 交给提交方法的任务
+     */
+    public void cancel(EventTask task) {
+        if (!(task instanceof PendingTask pendingTask)) {
+            return;
+        }
+        List<Promise<Void>> waiters;
+        synchronized (lock) {
+            if (pendingTask.state != PENDING) {
+                return;
+            }
+            pendingTask.state = CANCELLED;
+            waiters = unlink(pendingTask);
+        }
+        completeWaiters(waiters);
+    }
+
+    /**
+     * 队列有空位时完成
+     *
+     * @return 等待结果
+     */
+    public Future<Void> whenWritable() {
+        synchronized (lock) {
+            if (isWritable()) {
+                return Future.succeededFuture();
+            }
+            Promise<Void> promise = Promise.promise();
+            writableWaiters.offer(promise);
+            return promise.future();
+        }
+    }
+
+    /**
+     * 获取等待执行的任务数,包括等待策略下暂存的任务
+     *
+     * @return 队列深度
+     */
+    public int getDepth() {
+        synchronized (lock) {
+            return size + blockedTasks.size();
+        }
+    }
+
+    /**
+     * 获取丢弃的任务数
+     *
+     * @return 丢弃数
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * 获取拒绝的任务数
+     *
+     * @return 拒绝数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * 是否有空位,需要持有锁
+     *
+     * @return true:有空位
+     */
+    private boolean isWritable() {
+        return size < capacity && blockedTasks.isEmpty();
+    }
+
+    /**
+     * 加入链表尾部,需要持有锁
+     *
+     * @param pendingTask 任务
+     */
+    private void link(PendingTask pendingTask) {
+        pendingTask.prev = tail;
+        if (tail == null) {
+            head = pendingTask;
+        } else {
+            tail.next = pendingTask;
+        }
+        tail = pendingTask;
+        size++;
+    }
+
+    /**
+     * 取出并丢弃最早的等待任务,需要持有锁
+     *
+     * @return 丢弃的任务,没有时返回null
+     */
+    private PendingTask pollFirst() {
+        PendingTask first = head;
+        if (first == null) {
+            return null;
+        }
+        first.state = CANCELLED;
+        removeNode(first);
+        return first;
+    }
+
+    /**
+     * 任务开始执行或者被取消,从链表中移除
+     * <p> 有空位时先提交暂存的任务,暂存的任务都提交后再唤醒等待的发布方,需要持有锁
+     *
+     * @param pendingTask 任务
+     * @return 需要唤醒的发布方
+     */
+    private List<Promise<Void>> unlink(PendingTask pendingTask) {
+        removeNode(pendingTask);
+        while (size < capacity && !blockedTasks.isEmpty()) {
+            PendingTask blockedTask = blockedTasks.poll();
+            link(blockedTask);
+            //在锁内加入context的任务队列,保证按到达顺序提交
+            context.runOnContext(ignore -> blockedTask.submitter.accept(blockedTask));
+        }
+        if (writableWaiters.isEmpty() || !isWritable()) {
+            return null;
+        }
+        //每个空位唤醒一个发布方,队列空了没有后续的空位通知时全部唤醒
+        List<Promise<Void>> waiters = new ArrayList<>();
+        if (size == 0) {
+            waiters.addAll(writableWaiters);
+            writableWaiters.clear();
+        } else {
+            waiters.add(writableWaiters.poll());
+        }
+        return waiters;
+    }
+
+    /**
+     * 从链表中移除节点,需要持有锁
+     *
+     * @param pendingTask 任务
+     */
+    private void removeNode(PendingTask pendingTask) {
+        PendingTask prev = pendingTask.prev;
+        PendingTask next = pendingTask.next;
+        if (prev == null) {
+            head = next;
+        } else {
+            prev.next = next;
+        }
+        if (next == null) {
+            tail = prev;
+        } else {
+            next.prev = prev;
+        }
+        pendingTask.prev = null;
+        pendingTask.next = null;
+        size--;
+    }
+
+    /**
+     * 唤醒等待的发布方,不能持有锁
+     *
+     * @param waiters 发布方,可以为null
+     */
+    private static void completeWaiters(List<Promise<Void>> waiters) {
+        if (waiters != null) {
+            waiters.forEach(Promise::tryComplete);
+        }
+    }
+
+    /**
+     * 等待执行的任务
+     */
+    private class PendingTask implements EventTask {
+
+        /**
+         * 事件任务
+         */
+        private final EventTask task;
+
+        /**
+         * 被丢弃时执行,可以为null
+         */
+        private final Runnable onDropped;
+
+        /**
+         * 提交方法
+         */
+        private final Consumer<EventTask> submitter;
+
+        /**
+         * 任务状态,需要持有锁
+         */
+        private int state = PENDING;
+
+        /**
+         * 链表中的前一个任务
+         */
+        private PendingTask prev;
+
+        /**
+         * 链表中的后一个任务
+         */
+        private PendingTask next;
+
+        private PendingTask(EventTask task, Runnable onDropped, Consumer<EventTask> submitter) {
+            this.task = task;
+            this.onDropped = onDropped;
+            this.submitter = submitter;
+        }
+
+        @Override
+        public Future<?> execute() {
+            List<Promise<Void>> waiters;
+            synchronized (lock) {
+                if (state != PENDING) {
+                    //已经被丢弃
+                    return Future.succeededFuture();
+                }
+                state = RUNNING;
+                waiters = unlink(this);
+            }
+            completeWaiters(waiters);
+            return task.execute();
+        }
+    }
+}
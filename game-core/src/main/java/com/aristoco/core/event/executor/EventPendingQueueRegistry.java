@@ -0,0 +1,117 @@
+package com.aristoco.core.event.executor;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/16
+ * @description 事件待执行队列注册表
+ * <p> 同一个vertx中所有多播器的队列都注册在这里,用于发布方等待和查看队列深度
+ **/
+public class EventPendingQueueRegistry {
+
+    /**
+     * k:vertx v:[k:监听地址 v:队列列表]
+     */
+    private static final Map<Vertx, Map<String, Set<EventPendingQueue>>> QUEUES = new WeakHashMap<>();
+
+    /**
+     * 注册队列
+     *
+     * @param vertx vertx
+     * @param queue 队列
+     */
+    public static void register(Vertx vertx, EventPendingQueue queue) {
+        getQueueMap(vertx).computeIfAbsent(queue.getAddress(), k -> new CopyOnWriteArraySet<>()).add(queue);
+    }
+
+    /**
+     * 注销队列
+     *
+     * @param vertx vertx
+     * @param queue 队列
+     */
+    public static void unregister(Vertx vertx, EventPendingQueue queue) {
+        getQueueMap(vertx).computeIfPresent(queue.getAddress(), (k, queues) -> {
+            queues.remove(queue);
+            return queues.isEmpty() ? null : queues;
+        });
+    }
+
+    /**
+     * 等待地址上所有等待策略的队列都有空位
+     *
+     * @param vertx     vertx
+     * @param addresses 监听地址
+     * @return 等待结果
+     */
+    public static Future<Void> whenWritable(Vertx vertx, String... addresses) {
+        Map<String, Set<EventPendingQueue>> queueMap = getQueueMap(vertx);
+        List<Future<Void>> futures = null;
+        for (String address : addresses) {
+            Set<EventPendingQueue> queues = queueMap.get(address);
+            if (queues == null) {
+                continue;
+            }
+            for (EventPendingQueue queue : queues) {
+                if (queue.getOverflowPolicy() != EventOverflowPolicy.BLOCK) {
+                    continue;
+                }
+                Future<Void> future = queue.whenWritable();
+                if (future.isComplete()) {
+                    continue;
+                }
+                if (futures == null) {
+                    futures = new ArrayList<>();
+                }
+                futures.add(future);
+            }
+        }
+        if (futures == null) {
+            return Future.succeededFuture();
+        }
+        return Future.all(futures).mapEmpty();
+    }
+
+    /**
+     * 获取队列深度
+     *
+     * @param vertx vertx
+     * @return k:监听地址 v:地址上所有队列的等待任务数
+     */
+    public static Map<String, Integer> getQueueDepths(Vertx vertx) {
+        Map<String, Integer> depths = new TreeMap<>();
+        getQueueMap(vertx).forEach((address, queues) -> depths.put(address,
+                queues.stream().mapToInt(EventPendingQueue::getDepth).sum()));
+        return depths;
+    }
+
+    /**
+     * 获取地址上的所有队列
+     *
+     * @param vertx   vertx
+     * @param address 监听地址
+     * @return 队列列表
+     */
+    public static Collection<EventPendingQueue> getQueues(Vertx vertx, String address) {
+        Set<EventPendingQueue> queues = getQueueMap(vertx).get(address);
+        return queues == null ? Collections.emptySet() : Collections.unmodifiableSet(queues);
+    }
+
+    /**
+     * 获取vertx的队列表
+     *
+     * @param vertx vertx
+     * @return k:监听地址 v:队列列表
+     */
+    private static Map<String, Set<EventPendingQueue>> getQueueMap(Vertx vertx) {
+        synchronized (QUEUES) {
+            return QUEUES.computeIfAbsent(vertx, k -> new ConcurrentHashMap<>());
+        }
+    }
+}
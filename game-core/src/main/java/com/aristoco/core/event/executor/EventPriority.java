@@ -0,0 +1,60 @@
+package com.aristoco.core.event.executor;
+
+import com.aristoco.core.event.ApplicationEvent;
+import com.aristoco.core.event.BatchApplicationEvent;
+import com.aristoco.core.event.PayloadApplicationEvent;
+import com.aristoco.core.event.annotation.PriorityEvent;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/24
+ * @description 事件优先级
+ * @see PriorityEvent
+ **/
+public enum EventPriority {
+
+    /**
+     * 高优先级,停服、战斗结算这类需要及时处理的事件
+     */
+    HIGH,
+
+    /**
+     * 普通优先级,默认
+     */
+    NORMAL,
+
+    /**
+     * 低优先级,统计、日志这类可以延后处理的事件
+     */
+    LOW;
+
+    /**
+     * 类上标注的优先级,没有标注的为null
+     */
+    private static final ClassValue<EventPriority> PRIORITIES = new ClassValue<>() {
+        @Override
+        protected EventPriority computeValue(Class<?> type) {
+            PriorityEvent priorityEvent = type.getAnnotation(PriorityEvent.class);
+            return priorityEvent == null ? null : priorityEvent.value();
+        }
+    };
+
+    /**
+     * 获取事件的优先级
+     * <p> 事件类上没有标注的,payload事件再看payload的类型,批量事件取第一个事件的
+     *
+     * @param event 事件
+     * @return 优先级,没有标注的为{@link #NORMAL}
+     */
+    public static EventPriority getPriority(ApplicationEvent event) {
+        if (event instanceof BatchApplicationEvent batchEvent) {
+            return batchEvent.getEvents().isEmpty() ? NORMAL : getPriority(batchEvent.getEvents().get(0));
+        }
+        EventPriority priority = PRIORITIES.get(event.getClass());
+        if (priority == null && event instanceof PayloadApplicationEvent<?> payloadEvent
+                && payloadEvent.getPayload() != null) {
+            priority = PRIORITIES.get(payloadEvent.getPayload().getClass());
+        }
+        return priority == null ? NORMAL : priority;
+    }
+}
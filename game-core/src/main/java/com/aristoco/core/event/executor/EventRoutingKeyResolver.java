@@ -0,0 +1,82 @@
+package com.aristoco.core.event.executor;
+
+import com.aristoco.core.event.ApplicationEvent;
+import com.aristoco.core.event.PayloadApplicationEvent;
+import com.aristoco.core.event.RoutingKeyAware;
+import com.aristoco.core.event.annotation.EventKey;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/13
+ * @description 事件路由key解析
+ * <p> 优先使用{@link RoutingKeyAware},其次是{@link EventKey}标注的字段,payload事件从payload中获取
+ **/
+public class EventRoutingKeyResolver {
+
+    /**
+     * 类上@EventKey字段的读取方法,没有的为null
+     */
+    private static final ClassValue<MethodHandle> EVENT_KEY_GETTERS = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!field.isAnnotationPresent(EventKey.class)) {
+                        continue;
+                    }
+                    try {
+                        field.setAccessible(true);
+                        return MethodHandles.lookup().unreflectGetter(field)
+                                .asType(MethodType.methodType(Object.class, Object.class));
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException("事件路由key字段读取失败：" + field, e);
+                    }
+                }
+            }
+            return null;
+        }
+    };
+
+    /**
+     * 获取事件的路由key
+     *
+     * @param event 事件
+     * @return 路由key,没有返回null
+     */
+    public static Object getRoutingKey(ApplicationEvent event) {
+        Object key = getKey(event);
+        if (key == null && event instanceof PayloadApplicationEvent<?> payloadEvent) {
+            key = getKey(payloadEvent.getPayload());
+        }
+        return key;
+    }
+
+    /**
+     * 获取对象上的路由key
+     *
+     * @param target 事件或者payload
+     * @return 路由key,没有返回null
+     */
+    private static Object getKey(Object target) {
+        if (target == null) {
+            return null;
+        }
+        if (target instanceof RoutingKeyAware routingKeyAware) {
+            return routingKeyAware.routingKey();
+        }
+        MethodHandle getter = EVENT_KEY_GETTERS.get(target.getClass());
+        if (getter == null) {
+            return null;
+        }
+        try {
+            return getter.invokeExact(target);
+        } catch (Throwable e) {
+            throw new IllegalStateException("事件路由key读取失败：" + target.getClass().getName(), e);
+        }
+    }
+}
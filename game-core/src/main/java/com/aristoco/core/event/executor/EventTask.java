@@ -0,0 +1,33 @@
+package com.aristoco.core.event.executor;
+
+import io.vertx.core.Future;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/28
+ * @description 事件任务
+ * <p> 返回的Future完成时任务才算执行结束,分片,顺序和优先级执行器在完成后才释放执行位置,执行线程不等待
+ **/
+@FunctionalInterface
+public interface EventTask {
+
+    /**
+     * 执行任务
+     *
+     * @return 执行结果,异步监听在监听返回的Future完成时完成
+     */
+    Future<?> execute();
+
+    /**
+     * 同步任务,执行完成即结束
+     *
+     * @param task 任务
+     * @return 事件任务
+     */
+    static EventTask of(Runnable task) {
+        return () -> {
+            task.run();
+            return Future.succeededFuture();
+        };
+    }
+}
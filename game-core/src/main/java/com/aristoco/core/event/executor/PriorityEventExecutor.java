@@ -0,0 +1,317 @@
+package com.aristoco.core.event.executor;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/24
+ * @description 按优先级分队列的事件执行器
+ * <p> 每个优先级一个队列,任务先在队列中等待,最多{@code concurrency}个执行者同时从队列中取任务到执行器(vertx工作线程池或虚拟线程)中执行
+ * <p> 取任务时按权重平滑轮询非空的队列,低优先级任务堆积时,高优先级任务至少能分到其权重占比的执行机会
+ * <p> 执行者不独占线程,每次最多连续执行{@link #MAX_DRAIN_TASKS}个任务后让出线程
+ * <p> 异步任务没有完成时执行者让出线程但仍然计入并发数,完成后再继续取任务
+ * <p> 每个优先级队列有容量上限,满了以后拒绝新任务,和分片队列一样抛出{@link RejectedExecutionException}
+ * @see EventPriority
+ **/
+@Slf4j
+public class PriorityEventExecutor {
+
+    /**
+     * 执行者单次最多连续执行的任务数
+     */
+    private static final int MAX_DRAIN_TASKS = 64;
+
+    /**
+     * 同一个vertx中同名的执行器共用,并发上限对所有verticle生效
+     */
+    private static final Map<Vertx, Map<String, PriorityEventExecutor>> SHARED_EXECUTORS = new WeakHashMap<>();
+
+    /**
+     * 执行任务的执行器
+     */
+    private final Executor executor;
+
+    /**
+     * 同时执行的最大数量
+     */
+    private final int concurrency;
+
+    /**
+     * 单个优先级队列的最大排队任务数
+     */
+    private final int queueSize;
+
+    /**
+     * 各优先级的队列,下标为优先级的序号
+     */
+    private final Lane[] lanes;
+
+    /**
+     * 所有队列中排队的任务数,只在锁内读写
+     */
+    private int size;
+
+    /**
+     * 正在执行的执行者数量
+     */
+    private final AtomicInteger runningCount = new AtomicInteger();
+
+    /**
+     * @param executor    执行任务的执行器
+     * @param concurrency 同时执行的最大数量
+     * @param queueSize   单个优先级队列的最大排队任务数
+     * @param weights     各优先级的权重,没有配置的为1
+     */
+    public PriorityEventExecutor(Executor executor, int concurrency, int queueSize,
+                                 Map<EventPriority, Integer> weights) {
+        if (concurrency <= 0 || queueSize <= 0) {
+            throw new IllegalArgumentException("优先级执行器并发数和队列长度必须大于0,concurrency:" + concurrency +
+                    ",queueSize:" + queueSize);
+        }
+        this.executor = executor;
+        this.concurrency = concurrency;
+        this.queueSize = queueSize;
+        EventPriority[] priorities = EventPriority.values();
+        this.lanes = new Lane[priorities.length];
+        for (EventPriority priority : priorities) {
+            int weight = weights == null ? 1 : weights.getOrDefault(priority, 1);
+            if (weight <= 0) {
+                throw new IllegalArgumentException("事件优先级权重必须大于0,priority:" + priority + ",weight:" + weight);
+            }
+            this.lanes[priority.ordinal()] = new Lane(weight);
+        }
+    }
+
+    /**
+     * 获取共享的执行器,同一个vertx中同名的只创建一次
+     * <p> 执行任务的执行器只在第一次获取时创建,生命周期需要和vertx一致,
+     * 不能使用verticle创建的WorkerExecutor,verticle卸载时会被关闭
+     *
+     * @param vertx           vertx
+     * @param name            执行器名
+     * @param executorFactory 创建执行任务的执行器
+     * @param concurrency     同时执行的最大数量
+     * @param queueSize       单个优先级队列的最大排队任务数
+     * @param weights         各优先级的权重
+     * @return 执行器
+     */
+    public static PriorityEventExecutor getSharedExecutor(Vertx vertx, String name, Supplier<Executor> executorFactory,
+                                                          int concurrency, int queueSize,
+                                                          Map<EventPriority, Integer> weights) {
+        synchronized (SHARED_EXECUTORS) {
+            return SHARED_EXECUTORS.computeIfAbsent(vertx, k -> new HashMap<>())
+                    .computeIfAbsent(name, k -> new PriorityEventExecutor(executorFactory.get(), concurrency,
+                            queueSize, weights));
+        }
+    }
+
+    /**
+     * 提交任务
+     *
+     * @param priority 优先级
+     * @param task     任务
+     * @throws RejectedExecutionException 优先级队列已满,或者执行器拒绝
+     */
+    public void execute(EventPriority priority, EventTask task) {
+        Lane lane = lanes[priority.ordinal()];
+        synchronized (this) {
+            if (lane.tasks.size() >= queueSize) {
+                throw new RejectedExecutionException("事件优先级队列已满,priority:" + priority +
+                        ",queueSize:" + queueSize);
+            }
+            lane.tasks.offer(task);
+            size++;
+        }
+        try {
+            trySchedule();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                if (!lane.tasks.removeLastOccurrence(task)) {
+                    //已经被正在执行的执行者取走
+                    log.error("事件优先级执行器提交失败", e);
+                    return;
+                }
+                size--;
+            }
+            throw e instanceof RejectedExecutionException rejected ? rejected :
+                    new RejectedExecutionException("事件优先级执行器提交失败", e);
+        }
+    }
+
+    /**
+     * 提交同步任务
+     *
+     * @param priority 优先级
+     * @param task     任务
+     * @throws RejectedExecutionException 优先级队列已满,或者执行器拒绝
+     */
+    public void execute(EventPriority priority, Runnable task) {
+        execute(priority, EventTask.of(task));
+    }
+
+    /**
+     * 获取优先级队列中排队的任务数
+     *
+     * @param priority 优先级
+     * @return 排队任务数
+     */
+    public synchronized int getQueueDepth(EventPriority priority) {
+        return lanes[priority.ordinal()].tasks.size();
+    }
+
+    /**
+     * 没有达到并发上限时增加一个执行者
+     *
+     * @throws RuntimeException 执行器提交失败,已经回退并发数
+     */
+    private void trySchedule() {
+        while (true) {
+            int running = runningCount.get();
+            if (running >= concurrency) {
+                return;
+            }
+            if (runningCount.compareAndSet(running, running + 1)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RuntimeException e) {
+                    //执行器已经关闭或者其他提交失败,都不能占用执行位置
+                    runningCount.decrementAndGet();
+                    throw e;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * 按权重从队列中取任务执行
+     * <p> 异步任务没有完成时返回,完成后继续取任务,期间仍然计入并发数
+     */
+    private void drain() {
+        boolean suspended = false;
+        try {
+            EventTask task;
+            int count = 0;
+            while (count++ < MAX_DRAIN_TASKS && (task = poll()) != null) {
+                Future<?> future = execute(task);
+                if (!future.isComplete()) {
+                    suspended = true;
+                    future.onComplete(ignore -> resume());
+                    return;
+                }
+            }
+        } finally {
+            if (!suspended) {
+                runningCount.decrementAndGet();
+                //执行期间有新任务加入或者达到单次上限
+                if (hasPending()) {
+                    try {
+                        trySchedule();
+                    } catch (RuntimeException e) {
+                        log.error("事件优先级执行器继续执行失败,排队的任务等待下次提交时执行", e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 异步任务完成后继续取任务执行
+     */
+    private void resume() {
+        try {
+            executor.execute(this::drain);
+        } catch (RuntimeException e) {
+            runningCount.decrementAndGet();
+            log.error("事件优先级执行器继续执行失败", e);
+        }
+    }
+
+    /**
+     * 执行任务,异常视为执行完成
+     *
+     * @param task 任务
+     * @return 执行结果
+     */
+    private Future<?> execute(EventTask task) {
+        try {
+            Future<?> future = task.execute();
+            return future == null ? Future.succeededFuture() : future;
+        } catch (Throwable e) {
+            log.error("事件优先级任务执行失败", e);
+            return Future.succeededFuture();
+        }
+    }
+
+    /**
+     * 平滑加权轮询取出下一个任务
+     * <p> 每次非空队列的当前权重加上各自的权重,取当前权重最大的,再减去非空队列的权重和
+     *
+     * @return 任务,没有返回null
+     */
+    private synchronized EventTask poll() {
+        Lane selected = null;
+        int totalWeight = 0;
+        for (Lane lane : lanes) {
+            if (lane.tasks.isEmpty()) {
+                //空队列不累积权重,有任务后重新开始
+                lane.currentWeight = 0;
+                continue;
+            }
+            lane.currentWeight += lane.weight;
+            totalWeight += lane.weight;
+            if (selected == null || lane.currentWeight > selected.currentWeight) {
+                selected = lane;
+            }
+        }
+        if (selected == null) {
+            return null;
+        }
+        selected.currentWeight -= totalWeight;
+        size--;
+        return selected.tasks.poll();
+    }
+
+    /**
+     * @return 是否还有排队的任务
+     */
+    private synchronized boolean hasPending() {
+        return size > 0;
+    }
+
+    /**
+     * 优先级队列
+     */
+    private static class Lane {
+
+        /**
+         * 排队的任务
+         */
+        private final ArrayDeque<EventTask> tasks = new ArrayDeque<>();
+
+        /**
+         * 权重
+         */
+        private final int weight;
+
+        /**
+         * 平滑加权轮询的当前权重
+         */
+        private int currentWeight;
+
+        private Lane(int weight) {
+            this.weight = weight;
+        }
+    }
+}
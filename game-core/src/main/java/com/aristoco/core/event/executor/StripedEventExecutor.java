@@ -0,0 +1,222 @@
+package com.aristoco.core.event.executor;
+
+import io.vertx.core.Future;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/13
+ * @description 按key分片的有序事件执行器
+ * <p> 同一个key的任务落在同一个分片上,分片内按提交顺序串行执行;不同分片在线程池中并行执行
+ * <p> 分片不独占线程,有任务时才提交到执行器(vertx工作线程池或虚拟线程)中执行,每次最多连续执行{@link #MAX_DRAIN_TASKS}个任务后让出线程
+ * <p> 异步任务没有完成时分片让出线程但保持占用,完成后再提交执行后续任务
+ **/
+@Slf4j
+public class StripedEventExecutor {
+
+    /**
+     * 分片单次最多连续执行的任务数,避免一个繁忙的分片一直占用线程
+     */
+    private static final int MAX_DRAIN_TASKS = 64;
+
+    /**
+     * 执行分片任务的执行器
+     */
+    private final Executor executor;
+
+    /**
+     * 分片列表
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * 单个分片的最大排队任务数
+     */
+    private final int queueSize;
+
+    /**
+     * @param executor    执行分片任务的执行器
+     * @param stripeCount 分片数量
+     * @param queueSize   单个分片的最大排队任务数
+     */
+    public StripedEventExecutor(Executor executor, int stripeCount, int queueSize) {
+        if (stripeCount <= 0 || queueSize <= 0) {
+            throw new IllegalArgumentException("分片数量和队列长度必须大于0,stripes:" + stripeCount +
+                    ",queueSize:" + queueSize);
+        }
+        this.executor = executor;
+        this.queueSize = queueSize;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * 提交任务
+     *
+     * @param key  路由key
+     * @param task 任务
+     * @throws RejectedExecutionException 分片队列已满
+     */
+    public void execute(Object key, EventTask task) {
+        stripes[getStripeIndex(key)].offer(task);
+    }
+
+    /**
+     * 提交同步任务
+     *
+     * @param key  路由key
+     * @param task 任务
+     * @throws RejectedExecutionException 分片队列已满
+     */
+    public void execute(Object key, Runnable task) {
+        execute(key, EventTask.of(task));
+    }
+
+    /**
+     * 获取当前所有分片的排队任务数
+     *
+     * @return 排队任务数
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Stripe stripe : stripes) {
+            depth += stripe.size.get();
+        }
+        return depth;
+    }
+
+    /**
+     * 计算key对应的分片
+     *
+     * @param key 路由key
+     * @return 分片下标
+     */
+    private int getStripeIndex(Object key) {
+        int hash = key.hashCode();
+        //高位参与运算,避免连续的id落在相邻分片上不均匀
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, stripes.length);
+    }
+
+    /**
+     * 分片
+     */
+    private class Stripe {
+
+        /**
+         * 排队的任务
+         */
+        private final Queue<EventTask> tasks = new ConcurrentLinkedQueue<>();
+
+        /**
+         * 排队的任务数
+         */
+        private final AtomicInteger size = new AtomicInteger();
+
+        /**
+         * 是否已经提交到线程池执行
+         */
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        /**
+         * 添加任务
+         *
+         * @param task 任务
+         */
+        private void offer(EventTask task) {
+            if (size.incrementAndGet() > queueSize) {
+                size.decrementAndGet();
+                throw new RejectedExecutionException("事件分片队列已满,queueSize:" + queueSize);
+            }
+            tasks.offer(task);
+            schedule();
+        }
+
+        /**
+         * 提交到执行器执行,同一时间只会有一个线程在执行该分片
+         */
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                submit();
+            }
+        }
+
+        /**
+         * 已经占用分片,提交到执行器执行
+         */
+        private void submit() {
+            try {
+                executor.execute(this::drain);
+            } catch (RuntimeException e) {
+                //执行器已经关闭,释放分片,排队的任务等下次提交
+                scheduled.set(false);
+                throw e;
+            }
+        }
+
+        /**
+         * 按顺序执行排队的任务
+         * <p> 异步任务没有完成时返回,完成后继续执行,期间分片保持占用
+         */
+        private void drain() {
+            boolean suspended = false;
+            try {
+                EventTask task;
+                int count = 0;
+                while (count++ < MAX_DRAIN_TASKS && (task = tasks.poll()) != null) {
+                    size.decrementAndGet();
+                    Future<?> future = execute(task);
+                    if (!future.isComplete()) {
+                        suspended = true;
+                        future.onComplete(ignore -> resume());
+                        return;
+                    }
+                }
+            } finally {
+                if (!suspended) {
+                    scheduled.set(false);
+                    //执行期间有新任务加入或者达到单次上限
+                    if (!tasks.isEmpty()) {
+                        schedule();
+                    }
+                }
+            }
+        }
+
+        /**
+         * 异步任务完成后继续执行分片
+         */
+        private void resume() {
+            try {
+                submit();
+            } catch (RuntimeException e) {
+                log.error("事件分片继续执行失败", e);
+            }
+        }
+
+        /**
+         * 执行任务,异常视为执行完成
+         *
+         * @param task 任务
+         * @return 执行结果
+         */
+        private Future<?> execute(EventTask task) {
+            try {
+                Future<?> future = task.execute();
+                return future == null ? Future.succeededFuture() : future;
+            } catch (Throwable e) {
+                log.error("事件分片任务执行失败", e);
+                return Future.succeededFuture();
+            }
+        }
+    }
+}
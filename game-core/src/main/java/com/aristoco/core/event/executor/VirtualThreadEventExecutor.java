@@ -0,0 +1,241 @@
+package com.aristoco.core.event.executor;
+
+import io.vertx.core.Closeable;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.VertxInternal;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/14
+ * @description 虚拟线程事件执行器
+ * <p> 每次监听执行使用一个独立的虚拟线程,阻塞的监听(sleep,jdbc等)不需要调整平台线程池大小
+ * <p> 可以通过信号量限制同时执行的数量,超过的在虚拟线程中等待,不会阻塞eventloop
+ * <p> 运行环境不支持虚拟线程(jdk21以下)时退回到按需创建的平台线程池,有并发上限的使用固定大小的线程池,并打印警告
+ * <p> 同一个vertx中同名的执行器共用,配置不一致时报错;vertx关闭时关闭线程池
+ **/
+@Slf4j
+public class VirtualThreadEventExecutor implements Executor, Closeable {
+
+    /**
+     * 同一个vertx中同名的执行器共用,并发上限对所有verticle生效
+     */
+    private static final Map<Vertx, Map<String, VirtualThreadEventExecutor>> SHARED_EXECUTORS = new WeakHashMap<>();
+
+    /**
+     * 所属的vertx
+     */
+    private final Vertx vertx;
+
+    /**
+     * 执行器名
+     */
+    private final String name;
+
+    /**
+     * 最大并发数,小于等于0不限制
+     */
+    private final int maxConcurrency;
+
+    /**
+     * 实际执行的线程池
+     */
+    private final ExecutorService executorService;
+
+    /**
+     * 并发限制,不限制为null
+     */
+    private final Semaphore semaphore;
+
+    /**
+     * 是否使用的虚拟线程
+     */
+    private final boolean virtual;
+
+    /**
+     * @param vertx          所属的vertx
+     * @param name           执行器名,用于平台线程命名
+     * @param maxConcurrency 最大并发数,小于等于0不限制
+     */
+    private VirtualThreadEventExecutor(Vertx vertx, String name, int maxConcurrency) {
+        this.vertx = vertx;
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        ExecutorService virtualThreadExecutor = newVirtualThreadPerTaskExecutor();
+        this.virtual = virtualThreadExecutor != null;
+        if (virtual) {
+            this.executorService = virtualThreadExecutor;
+            this.semaphore = maxConcurrency > 0 ? new Semaphore(maxConcurrency) : null;
+            return;
+        }
+        log.warn("当前运行环境不支持虚拟线程,事件执行器[{}]使用平台线程,并发上限：{}", name, maxConcurrency);
+        ThreadFactory threadFactory = newThreadFactory(name);
+        if (maxConcurrency > 0) {
+            //线程数即为并发上限
+            ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency,
+                    60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+            threadPoolExecutor.allowCoreThreadTimeOut(true);
+            this.executorService = threadPoolExecutor;
+        } else {
+            this.executorService = Executors.newCachedThreadPool(threadFactory);
+        }
+        this.semaphore = null;
+    }
+
+    /**
+     * 获取共享的执行器,同一个vertx中同名的只创建一次
+     * <p> 创建时注册vertx的关闭回调,vertx关闭时关闭线程池
+     *
+     * @param vertx          vertx
+     * @param name           执行器名
+     * @param maxConcurrency 最大并发数,小于等于0不限制
+     * @return 执行器
+     * @throws IllegalArgumentException 已经存在同名但并发上限不同的执行器
+     */
+    public static VirtualThreadEventExecutor getSharedExecutor(Vertx vertx, String name, int maxConcurrency) {
+        synchronized (SHARED_EXECUTORS) {
+            Map<String, VirtualThreadEventExecutor> executors = SHARED_EXECUTORS.computeIfAbsent(vertx,
+                    k -> new HashMap<>());
+            VirtualThreadEventExecutor executor = executors.get(name);
+            if (executor != null) {
+                if (Math.max(executor.maxConcurrency, 0) != Math.max(maxConcurrency, 0)) {
+                    throw new IllegalArgumentException("事件执行器[" + name + "]已经使用不同的并发上限创建,已有：" +
+                            executor.maxConcurrency + ",当前：" + maxConcurrency);
+                }
+                return executor;
+            }
+            executor = new VirtualThreadEventExecutor(vertx, name, maxConcurrency);
+            executors.put(name, executor);
+            ((VertxInternal) vertx).addCloseHook(executor);
+            return executor;
+        }
+    }
+
+    /**
+     * 执行任务
+     *
+     * @param task 任务
+     */
+    @Override
+    public void execute(Runnable task) {
+        if (semaphore == null) {
+            executorService.execute(task);
+            return;
+        }
+        executorService.execute(() -> {
+            //在虚拟线程中等待,不占用平台线程
+            semaphore.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                semaphore.release();
+            }
+        });
+    }
+
+    /**
+     * 执行事件任务,有并发限制的在任务返回的Future完成时才释放
+     *
+     * @param task 事件任务
+     */
+    public void execute(EventTask task) {
+        if (semaphore == null) {
+            executorService.execute(() -> execute0(task));
+            return;
+        }
+        executorService.execute(() -> {
+            //在虚拟线程中等待,不占用平台线程
+            semaphore.acquireUninterruptibly();
+            Future<?> future = execute0(task);
+            if (future.isComplete()) {
+                semaphore.release();
+            } else {
+                future.onComplete(ignore -> semaphore.release());
+            }
+        });
+    }
+
+    /**
+     * vertx关闭时关闭线程池,已经提交的任务继续执行完
+     *
+     * @param completion 关闭结果
+     */
+    @Override
+    public void close(Promise<Void> completion) {
+        synchronized (SHARED_EXECUTORS) {
+            Map<String, VirtualThreadEventExecutor> executors = SHARED_EXECUTORS.get(vertx);
+            if (executors != null && executors.remove(name, this) && executors.isEmpty()) {
+                SHARED_EXECUTORS.remove(vertx);
+            }
+        }
+        executorService.shutdown();
+        completion.complete();
+    }
+
+    /**
+     * 是否使用的虚拟线程
+     *
+     * @return true:虚拟线程 false:平台线程
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * 执行事件任务,异常视为执行完成
+     *
+     * @param task 事件任务
+     * @return 执行结果
+     */
+    private static Future<?> execute0(EventTask task) {
+        try {
+            Future<?> future = task.execute();
+            return future == null ? Future.succeededFuture() : future;
+        } catch (Throwable e) {
+            log.error("事件任务执行失败", e);
+            return Future.succeededFuture();
+        }
+    }
+
+    /**
+     * 创建虚拟线程执行器,通过反射调用,兼容jdk21以下的编译环境
+     *
+     * @return 执行器,不支持虚拟线程返回null
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            //jdk19/20需要开启预览特性
+            log.warn("虚拟线程执行器创建失败,jdk19/20需要开启预览特性(--enable-preview)", e);
+            return null;
+        }
+    }
+
+    /**
+     * 平台线程工厂
+     *
+     * @param name 线程名前缀
+     * @return 线程工厂
+     */
+    private static ThreadFactory newThreadFactory(String name) {
+        AtomicInteger index = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
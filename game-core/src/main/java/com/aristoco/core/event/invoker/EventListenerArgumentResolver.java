@@ -0,0 +1,104 @@
+package com.aristoco.core.event.invoker;
+
+import com.aristoco.core.bean.definition.EventListenerBeanClassDefinition;
+import com.aristoco.core.event.ApplicationEvent;
+import com.aristoco.core.event.BatchApplicationEvent;
+import com.aristoco.core.event.PayloadApplicationEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/8
+ * @description 事件监听方法的参数解析
+ * <p> 每个参数在启动时就确定取值方式,事件执行时不再做类型判断
+ **/
+public enum EventListenerArgumentResolver {
+
+    /**
+     * 直接传入事件
+     */
+    EVENT {
+        @Override
+        public Object resolve(ApplicationEvent event) {
+            return event;
+        }
+    },
+
+    /**
+     * 传入payload事件中的payload
+     */
+    PAYLOAD {
+        @Override
+        public Object resolve(ApplicationEvent event) {
+            return ((PayloadApplicationEvent<?>) event).getPayload();
+        }
+    },
+
+    /**
+     * 批量事件,传入事件列表
+     */
+    BATCH_EVENT {
+        @Override
+        public Object resolve(ApplicationEvent event) {
+            return ((BatchApplicationEvent) event).getEvents();
+        }
+    },
+
+    /**
+     * 批量payload事件,传入payload列表
+     */
+    BATCH_PAYLOAD {
+        @Override
+        public Object resolve(ApplicationEvent event) {
+            List<ApplicationEvent> events = ((BatchApplicationEvent) event).getEvents();
+            List<Object> payloads = new ArrayList<>(events.size());
+            for (ApplicationEvent e : events) {
+                payloads.add(((PayloadApplicationEvent<?>) e).getPayload());
+            }
+            return payloads;
+        }
+    },
+
+    /**
+     * 当前监听的事件与参数无关,传入null
+     */
+    NONE {
+        @Override
+        public Object resolve(ApplicationEvent event) {
+            return null;
+        }
+    };
+
+    /**
+     * 获取参数值
+     *
+     * @param event 事件
+     * @return 参数值
+     */
+    public abstract Object resolve(ApplicationEvent event);
+
+    /**
+     * 根据参数定义和监听的事件类确定取值方式
+     *
+     * @param parameterDefinition 参数定义
+     * @param listenerClass       监听的事件类
+     * @return 参数解析
+     */
+    public static EventListenerArgumentResolver of(
+            EventListenerBeanClassDefinition.ParameterBeanClassDefinition parameterDefinition,
+            Class<?> listenerClass) {
+        if (!parameterDefinition.getParameterClass().isAssignableFrom(listenerClass)) {
+            return NONE;
+        }
+        if (parameterDefinition.isBatch()) {
+            return ApplicationEvent.class.isAssignableFrom(listenerClass) ? BATCH_EVENT : BATCH_PAYLOAD;
+        }
+        //事件类直接传入事件,其他的都是payload包装过的,传入payload
+        if (ApplicationEvent.class.isAssignableFrom(listenerClass)) {
+            return EVENT;
+        }
+        return PAYLOAD;
+    }
+}
@@ -0,0 +1,24 @@
+package com.aristoco.core.event.invoker;
+
+import com.aristoco.core.event.ApplicationEvent;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/8
+ * @description 事件监听方法执行器
+ * <p> 启动时为每个监听方法生成,已经绑定了监听实例和参数列表
+ * @see EventListenerInvokerFactory
+ **/
+@FunctionalInterface
+public interface EventListenerInvoker {
+
+    /**
+     * 执行监听方法
+     *
+     * @param event 事件
+     * @return 监听方法的返回值,没有返回值的为null
+     * @throws Throwable 监听方法抛出的异常
+     */
+    Object invoke(ApplicationEvent event) throws Throwable;
+
+}
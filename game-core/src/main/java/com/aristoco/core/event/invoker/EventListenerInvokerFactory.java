@@ -0,0 +1,294 @@
+package com.aristoco.core.event.invoker;
+
+import com.aristoco.core.bean.definition.EventListenerBeanClassDefinition;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/8
+ * @description 事件监听方法执行器工厂
+ * <p> 启动时通过LambdaMetafactory为监听方法生成直接调用的实现,事件执行时没有反射调用和参数数组的创建
+ * <p> 参数超过{@link #MAX_GENERATED_ARITY}个或者生成失败的,退回到反射调用
+ * <p> 有返回值的监听方法(例如返回Future)使用带返回值的调用接口,返回值交给多播器判断是否异步完成
+ **/
+@Slf4j
+public class EventListenerInvokerFactory {
+
+    /**
+     * 生成直接调用的最大参数个数
+     */
+    public static final int MAX_GENERATED_ARITY = 4;
+
+    /**
+     * 各参数个数对应的调用接口
+     */
+    private static final Class<?>[] METHOD_INVOKER_INTERFACES = {
+            MethodInvoker0.class, MethodInvoker1.class, MethodInvoker2.class,
+            MethodInvoker3.class, MethodInvoker4.class
+    };
+
+    /**
+     * 有返回值的监听方法各参数个数对应的调用接口
+     */
+    private static final Class<?>[] RESULT_METHOD_INVOKER_INTERFACES = {
+            ResultMethodInvoker0.class, ResultMethodInvoker1.class, ResultMethodInvoker2.class,
+            ResultMethodInvoker3.class, ResultMethodInvoker4.class
+    };
+
+    /**
+     * 创建监听方法执行器
+     *
+     * @param beanClassDefinition 监听方法定义
+     * @param listenerClass       当前监听的事件类
+     * @param bean                监听实例
+     * @return 执行器
+     */
+    public static EventListenerInvoker create(EventListenerBeanClassDefinition beanClassDefinition,
+                                              Class<?> listenerClass, Object bean) {
+        Method method = beanClassDefinition.getMethod();
+        EventListenerArgumentResolver[] resolvers = getArgumentResolvers(beanClassDefinition, listenerClass);
+        if (resolvers.length <= MAX_GENERATED_ARITY) {
+            try {
+                return createGeneratedInvoker(generateMethodInvoker(method, bean), resolvers);
+            } catch (Throwable e) {
+                log.warn("事件监听方法生成执行器失败,使用反射调用,方法：{}", method, e);
+            }
+        }
+        return createReflectInvoker(method, bean, resolvers);
+    }
+
+    /**
+     * 获取监听方法各参数的解析方式
+     *
+     * @param beanClassDefinition 监听方法定义
+     * @param listenerClass       当前监听的事件类
+     * @return 参数解析,按参数顺序
+     */
+    public static EventListenerArgumentResolver[] getArgumentResolvers(
+            EventListenerBeanClassDefinition beanClassDefinition, Class<?> listenerClass) {
+        List<EventListenerBeanClassDefinition.ParameterBeanClassDefinition> parameterBeanClassDefinitions =
+                beanClassDefinition.getParameterBeanClassDefinitions();
+        return parameterBeanClassDefinitions.stream()
+                .map(definition -> EventListenerArgumentResolver.of(definition, listenerClass))
+                .toArray(EventListenerArgumentResolver[]::new);
+    }
+
+    /**
+     * 按参数个数绑定参数解析
+     *
+     * @param methodInvoker 生成的方法调用
+     * @param resolvers     参数解析
+     * @return 执行器
+     */
+    private static EventListenerInvoker createGeneratedInvoker(Object methodInvoker,
+                                                               EventListenerArgumentResolver[] resolvers) {
+        switch (resolvers.length) {
+            case 0 -> {
+                if (methodInvoker instanceof ResultMethodInvoker0 invoker) {
+                    return event -> invoker.invoke();
+                }
+                MethodInvoker0 invoker = (MethodInvoker0) methodInvoker;
+                return event -> {
+                    invoker.invoke();
+                    return null;
+                };
+            }
+            case 1 -> {
+                EventListenerArgumentResolver r0 = resolvers[0];
+                if (methodInvoker instanceof ResultMethodInvoker1 invoker) {
+                    return event -> invoker.invoke(r0.resolve(event));
+                }
+                MethodInvoker1 invoker = (MethodInvoker1) methodInvoker;
+                return event -> {
+                    invoker.invoke(r0.resolve(event));
+                    return null;
+                };
+            }
+            case 2 -> {
+                EventListenerArgumentResolver r0 = resolvers[0];
+                EventListenerArgumentResolver r1 = resolvers[1];
+                if (methodInvoker instanceof ResultMethodInvoker2 invoker) {
+                    return event -> invoker.invoke(r0.resolve(event), r1.resolve(event));
+                }
+                MethodInvoker2 invoker = (MethodInvoker2) methodInvoker;
+                return event -> {
+                    invoker.invoke(r0.resolve(event), r1.resolve(event));
+                    return null;
+                };
+            }
+            case 3 -> {
+                EventListenerArgumentResolver r0 = resolvers[0];
+                EventListenerArgumentResolver r1 = resolvers[1];
+                EventListenerArgumentResolver r2 = resolvers[2];
+                if (methodInvoker instanceof ResultMethodInvoker3 invoker) {
+                    return event -> invoker.invoke(r0.resolve(event), r1.resolve(event), r2.resolve(event));
+                }
+                MethodInvoker3 invoker = (MethodInvoker3) methodInvoker;
+                return event -> {
+                    invoker.invoke(r0.resolve(event), r1.resolve(event), r2.resolve(event));
+                    return null;
+                };
+            }
+            case 4 -> {
+                EventListenerArgumentResolver r0 = resolvers[0];
+                EventListenerArgumentResolver r1 = resolvers[1];
+                EventListenerArgumentResolver r2 = resolvers[2];
+                EventListenerArgumentResolver r3 = resolvers[3];
+                if (methodInvoker instanceof ResultMethodInvoker4 invoker) {
+                    return event -> invoker.invoke(r0.resolve(event), r1.resolve(event), r2.resolve(event),
+                            r3.resolve(event));
+                }
+                MethodInvoker4 invoker = (MethodInvoker4) methodInvoker;
+                return event -> {
+                    invoker.invoke(r0.resolve(event), r1.resolve(event), r2.resolve(event), r3.resolve(event));
+                    return null;
+                };
+            }
+            default -> throw new IllegalArgumentException("不支持的参数个数：" + resolvers.length);
+        }
+    }
+
+    /**
+     * 反射调用的执行器
+     *
+     * @param method    监听方法
+     * @param bean      监听实例
+     * @param resolvers 参数解析
+     * @return 执行器
+     */
+    private static EventListenerInvoker createReflectInvoker(Method method, Object bean,
+                                                             EventListenerArgumentResolver[] resolvers) {
+        method.setAccessible(true);
+        return event -> {
+            Object[] args = new Object[resolvers.length];
+            for (int i = 0; i < resolvers.length; i++) {
+                args[i] = resolvers[i].resolve(event);
+            }
+            try {
+                return method.invoke(bean, args);
+            } catch (InvocationTargetException e) {
+                //抛出监听方法自身的异常,和生成的执行器一致
+                throw e.getCause();
+            }
+        };
+    }
+
+    /**
+     * 通过LambdaMetafactory生成监听方法的调用实现,监听实例已经绑定
+     *
+     * @param method 监听方法
+     * @param bean   监听实例
+     * @return MethodInvokerN的实现,有返回值的为ResultMethodInvokerN的实现
+     * @throws Throwable 生成失败
+     */
+    private static Object generateMethodInvoker(Method method, Object bean) throws Throwable {
+        Class<?> declaringClass = method.getDeclaringClass();
+        int arity = method.getParameterCount();
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+        MethodHandle target = lookup.unreflect(method);
+        Class<?> returnType = method.getReturnType();
+        boolean hasResult = returnType != void.class;
+        Class<?> invokerInterface = hasResult ? RESULT_METHOD_INVOKER_INTERFACES[arity] :
+                METHOD_INVOKER_INTERFACES[arity];
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        MethodType factoryType = isStatic ? MethodType.methodType(invokerInterface) :
+                MethodType.methodType(invokerInterface, declaringClass);
+        //引用类型的返回值统一按Object返回,基本类型由LambdaMetafactory装箱
+        Class<?> invokeReturnType = hasResult ? Object.class : void.class;
+        Class<?> instantiatedReturnType = returnType.isPrimitive() ? returnType : Object.class;
+        CallSite callSite = LambdaMetafactory.metafactory(lookup, "invoke", factoryType,
+                MethodType.genericMethodType(arity).changeReturnType(invokeReturnType), target,
+                MethodType.methodType(instantiatedReturnType, method.getParameterTypes()));
+        return isStatic ? callSite.getTarget().invoke() : callSite.getTarget().invoke(bean);
+    }
+
+    /**
+     * 无参的监听方法调用
+     */
+    @FunctionalInterface
+    public interface MethodInvoker0 {
+        void invoke();
+    }
+
+    /**
+     * 1个参数的监听方法调用
+     */
+    @FunctionalInterface
+    public interface MethodInvoker1 {
+        void invoke(Object arg0);
+    }
+
+    /**
+     * 2个参数的监听方法调用
+     */
+    @FunctionalInterface
+    public interface MethodInvoker2 {
+        void invoke(Object arg0, Object arg1);
+    }
+
+    /**
+     * 3个参数的监听方法调用
+     */
+    @FunctionalInterface
+    public interface MethodInvoker3 {
+        void invoke(Object arg0, Object arg1, Object arg2);
+    }
+
+    /**
+     * 4个参数的监听方法调用
+     */
+    @FunctionalInterface
+    public interface MethodInvoker4 {
+        void invoke(Object arg0, Object arg1, Object arg2, Object arg3);
+    }
+
+    /**
+     * 有返回值的无参监听方法调用
+     */
+    @FunctionalInterface
+    public interface ResultMethodInvoker0 {
+        Object invoke();
+    }
+
+    /**
+     * 有返回值的1个参数的监听方法调用
+     */
+    @FunctionalInterface
+    public interface ResultMethodInvoker1 {
+        Object invoke(Object arg0);
+    }
+
+    /**
+     * 有返回值的2个参数的监听方法调用
+     */
+    @FunctionalInterface
+    public interface ResultMethodInvoker2 {
+        Object invoke(Object arg0, Object arg1);
+    }
+
+    /**
+     * 有返回值的3个参数的监听方法调用
+     */
+    @FunctionalInterface
+    public interface ResultMethodInvoker3 {
+        Object invoke(Object arg0, Object arg1, Object arg2);
+    }
+
+    /**
+     * 有返回值的4个参数的监听方法调用
+     */
+    @FunctionalInterface
+    public interface ResultMethodInvoker4 {
+        Object invoke(Object arg0, Object arg1, Object arg2, Object arg3);
+    }
+}
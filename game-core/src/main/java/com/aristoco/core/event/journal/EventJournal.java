@@ -0,0 +1,568 @@
+package com.aristoco.core.event.journal;
+
+import com.aristoco.core.event.ApplicationEvent;
+import com.aristoco.core.event.ApplicationEventPublisher;
+import com.aristoco.core.event.PayloadApplicationEvent;
+import com.aristoco.core.event.codec.ApplicationEventClassTable;
+import com.aristoco.core.event.codec.ApplicationEventMessageCodec;
+import com.aristoco.core.exception.EventJournalException;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/22
+ * @description 事件日志
+ * <p> 分段的内存映射追加日志,每段预先分配固定大小,文件名为该段第一条记录的位置,写满后新建下一段
+ * <p> 记录格式：[内容长度(4)][内容crc32(4)][时间戳(8)][标识(1)][类名长度(2)][类名][事件编码]
+ * <p> 事件编码使用{@link ApplicationEventMessageCodec}的二进制格式,类名用于重放时注册事件类编号
+ * <p> 追加在调用线程编码,写入映射内存和切换段在单独的写线程中执行,不会阻塞事件循环
+ * <p> 追加返回的结果在写入映射内存后完成,这时进程崩溃不会丢失;刷盘只是写线程按间隔统一msync(组提交),
+ * 不等待刷盘也不通知追加方,机器掉电可能丢失最近一个刷盘间隔内的记录
+ * <p> 共享的日志按引用计数关闭,多播器在verticle的上下文关闭时释放
+ * <p> 打开时从最后一段找到最后一条完整的记录继续追加,长度为0或者校验失败的视为结尾
+ **/
+@Slf4j
+public class EventJournal {
+
+    /**
+     * 共享的事件日志,同一个目录只打开一次
+     * k:日志目录 v:事件日志
+     */
+    private static final Map<Path, EventJournal> SHARED_JOURNALS = new ConcurrentHashMap<>();
+
+    /**
+     * 段文件后缀
+     */
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * 记录头长度:[内容长度(4)][内容crc32(4)]
+     */
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    /**
+     * 标识:点对点发布
+     */
+    private static final byte FLAG_DIRECT = 1;
+
+    /**
+     * 重放中的线程,重放发布的事件不再记录
+     */
+    private static final ThreadLocal<Boolean> REPLAYING = new ThreadLocal<>();
+
+    /**
+     * 事件编码器
+     */
+    private static final ApplicationEventMessageCodec CODEC = new ApplicationEventMessageCodec();
+
+    /**
+     * 日志目录
+     */
+    @Getter
+    private final Path directory;
+
+    /**
+     * 每段的大小
+     */
+    @Getter
+    private final int segmentSize;
+
+    /**
+     * 写线程,追加、切换段和刷盘都在这里执行
+     */
+    private final ScheduledExecutorService writeExecutor;
+
+    /**
+     * 读取的段映射,每段只映射一次
+     * k:段的起始位置 v:映射的内存
+     */
+    private final Map<Long, MappedByteBuffer> readSegments = new ConcurrentHashMap<>();
+
+    /**
+     * 当前写入的段
+     */
+    private volatile JournalSegment activeSegment;
+
+    /**
+     * 是否已经关闭
+     */
+    private volatile boolean closed;
+
+    /**
+     * 共享的引用数,在{@link #SHARED_JOURNALS}的计算中修改
+     */
+    private int refCount;
+
+    /**
+     * @param directory     日志目录
+     * @param segmentSize   每段的大小
+     * @param flushInterval 刷盘间隔(毫秒)
+     */
+    public EventJournal(Path directory, int segmentSize, long flushInterval) {
+        if (segmentSize <= RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("事件日志段大小过小,segmentSize:" + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        try {
+            Files.createDirectories(directory);
+            List<Long> baseOffsets = listSegments(directory);
+            this.activeSegment = baseOffsets.isEmpty() ? createSegment(0L) :
+                    openSegment(baseOffsets.get(baseOffsets.size() - 1));
+        } catch (IOException e) {
+            throw new EventJournalException("事件日志打开失败：" + directory, e);
+        }
+        this.writeExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-journal-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writeExecutor.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval,
+                TimeUnit.MILLISECONDS);
+        log.info("事件日志已打开,目录：{},写入位置：{}", directory, getEndOffset());
+    }
+
+    /**
+     * 获取共享的事件日志,同一个目录只打开一次
+     * <p> 每次获取增加一次引用,不再使用时调用{@link #release()}
+     *
+     * @param directory     日志目录
+     * @param segmentSize   每段的大小
+     * @param flushInterval 刷盘间隔(毫秒)
+     * @return 事件日志
+     */
+    public static EventJournal getSharedJournal(Path directory, int segmentSize, long flushInterval) {
+        return SHARED_JOURNALS.compute(directory.toAbsolutePath().normalize(), (k, journal) -> {
+            if (journal == null) {
+                journal = new EventJournal(k, segmentSize, flushInterval);
+            }
+            journal.refCount++;
+            return journal;
+        });
+    }
+
+    /**
+     * 当前线程是否在重放事件
+     *
+     * @return true:重放中
+     */
+    public static boolean isReplaying() {
+        return REPLAYING.get() != null;
+    }
+
+    /**
+     * 追加事件
+     * <p> 在调用线程编码,交给写线程写入,返回的结果在写线程中完成
+     *
+     * @param event  事件,不支持批量事件
+     * @param direct 是否点对点发布
+     * @return 记录的位置,写入映射内存后完成,不等待刷盘
+     */
+    public Future<Long> append(ApplicationEvent event, boolean direct) {
+        //编码在调用线程,事件之后被修改也不影响记录
+        byte[] body = encodeRecord(event, direct);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        int recordSize = RECORD_HEADER_SIZE + body.length;
+        if (recordSize > segmentSize) {
+            return Future.failedFuture(new EventJournalException("事件超过事件日志段大小,事件大小：" + recordSize +
+                    ",段大小：" + segmentSize));
+        }
+        if (closed) {
+            return Future.failedFuture(new EventJournalException("事件日志已经关闭：" + directory));
+        }
+        Promise<Long> promise = Promise.promise();
+        try {
+            writeExecutor.execute(() -> {
+                try {
+                    promise.complete(write(body, (int) crc.getValue(), recordSize));
+                } catch (Throwable e) {
+                    promise.fail(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            //和关闭同时发生
+            promise.fail(new EventJournalException("事件日志已经关闭：" + directory, e));
+        }
+        return promise.future();
+    }
+
+    /**
+     * 刷盘,只在写线程中调用
+     */
+    private void flush() {
+        //只刷当前段,写满的段在切换时已经刷过
+        JournalSegment segment = activeSegment;
+        segment.buffer.force();
+    }
+
+    /**
+     * 获取写入的结尾位置,也是下一条记录的位置
+     *
+     * @return 结尾位置
+     */
+    public synchronized long getEndOffset() {
+        return activeSegment.baseOffset + activeSegment.buffer.position();
+    }
+
+    /**
+     * 从指定位置读取记录
+     *
+     * @param fromOffset 开始位置,必须是记录的位置或者0
+     * @param consumer   记录处理
+     * @return 最后读取的记录之后的位置
+     */
+    public long read(long fromOffset, Consumer<EventJournalRecord> consumer) {
+        long endOffset = getEndOffset();
+        List<Long> baseOffsets;
+        try {
+            baseOffsets = listSegments(directory);
+        } catch (IOException e) {
+            throw new EventJournalException("事件日志读取失败：" + directory, e);
+        }
+        long offset = fromOffset;
+        for (int i = 0; i < baseOffsets.size(); i++) {
+            long baseOffset = baseOffsets.get(i);
+            long nextBaseOffset = i + 1 < baseOffsets.size() ? baseOffsets.get(i + 1) : Long.MAX_VALUE;
+            if (offset >= nextBaseOffset) {
+                continue;
+            }
+            offset = Math.max(offset, baseOffset);
+            offset = readSegment(baseOffset, offset, Math.min(nextBaseOffset, endOffset), consumer);
+            if (offset >= endOffset) {
+                break;
+            }
+            //段的剩余空间放不下记录时直接切换到下一段
+            offset = nextBaseOffset;
+        }
+        return Math.min(offset, endOffset);
+    }
+
+    /**
+     * 从指定位置重放事件,重新发布到指定的上下文
+     * <p> 重放发布的事件不会再次记录到日志中
+     *
+     * @param fromOffset 开始位置,必须是记录的位置或者0
+     * @param publisher  事件发布器,一般是新的上下文
+     * @return 最后重放的事件之后的位置,可以作为下次重放的开始位置
+     */
+    public long replay(long fromOffset, ApplicationEventPublisher publisher) {
+        REPLAYING.set(Boolean.TRUE);
+        try {
+            return read(fromOffset, record -> publisher.publishEvent(record.event(), record.direct()));
+        } finally {
+            REPLAYING.remove();
+        }
+    }
+
+    /**
+     * 释放一次共享的引用,最后一个引用释放时关闭
+     *
+     * @return 关闭结果,没有关闭的直接完成
+     */
+    public Future<Void> release() {
+        boolean[] last = new boolean[1];
+        SHARED_JOURNALS.computeIfPresent(directory, (k, journal) -> {
+            if (journal != this || --refCount > 0) {
+                return journal;
+            }
+            last[0] = true;
+            return null;
+        });
+        return last[0] ? close() : Future.succeededFuture();
+    }
+
+    /**
+     * 关闭,已经提交的追加写完后刷盘并停止写线程
+     * <p> 不阻塞调用线程,之后的追加直接失败
+     *
+     * @return 关闭结果,刷盘后在写线程中完成
+     */
+    public Future<Void> close() {
+        synchronized (this) {
+            if (closed) {
+                return Future.succeededFuture();
+            }
+            closed = true;
+        }
+        SHARED_JOURNALS.remove(directory, this);
+        Promise<Void> promise = Promise.promise();
+        //写线程按提交顺序执行,最后刷盘
+        writeExecutor.execute(() -> {
+            try {
+                flush();
+                promise.complete();
+            } catch (Throwable e) {
+                log.error("事件日志关闭时刷盘失败,目录：{}", directory, e);
+                promise.fail(e);
+            } finally {
+                //映射的内存没有公开的释放方法,不再引用后由gc回收
+                readSegments.clear();
+            }
+        });
+        writeExecutor.shutdown();
+        log.info("事件日志已关闭,目录：{}", directory);
+        return promise.future();
+    }
+
+    /**
+     * 写入记录,只在写线程中调用
+     *
+     * @param body       记录内容
+     * @param crc        内容的crc32
+     * @param recordSize 记录长度
+     * @return 记录的位置
+     */
+    private long write(byte[] body, int crc, int recordSize) {
+        synchronized (this) {
+            JournalSegment segment = activeSegment;
+            if (segment.buffer.remaining() < recordSize) {
+                segment = rollSegment(segment);
+            }
+            long offset = segment.baseOffset + segment.buffer.position();
+            segment.buffer.putInt(body.length).putInt(crc).put(body);
+            return offset;
+        }
+    }
+
+    /**
+     * 定时刷盘,失败只记录日志
+     */
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Throwable e) {
+            log.error("事件日志刷盘失败,目录：{}", directory, e);
+        }
+    }
+
+    /**
+     * 切换到下一段,当前段先刷盘,只在写线程中调用
+     *
+     * @param segment 当前段
+     * @return 新的段
+     */
+    private JournalSegment rollSegment(JournalSegment segment) {
+        segment.buffer.force();
+        try {
+            activeSegment = createSegment(segment.baseOffset + segment.buffer.position());
+        } catch (IOException e) {
+            throw new EventJournalException("事件日志新建段失败：" + directory, e);
+        }
+        return activeSegment;
+    }
+
+    /**
+     * 新建段
+     *
+     * @param baseOffset 段的起始位置
+     * @return 段
+     * @throws IOException 文件创建失败
+     */
+    private JournalSegment createSegment(long baseOffset) throws IOException {
+        return new JournalSegment(baseOffset, mapSegment(baseOffset, FileChannel.MapMode.READ_WRITE));
+    }
+
+    /**
+     * 打开已有的段,找到最后一条完整的记录之后继续写
+     *
+     * @param baseOffset 段的起始位置
+     * @return 段
+     * @throws IOException 文件打开失败
+     */
+    private JournalSegment openSegment(long baseOffset) throws IOException {
+        MappedByteBuffer buffer = mapSegment(baseOffset, FileChannel.MapMode.READ_WRITE);
+        int position = 0;
+        while (true) {
+            int bodySize = readRecordBodySize(buffer, position);
+            if (bodySize < 0) {
+                break;
+            }
+            position += RECORD_HEADER_SIZE + bodySize;
+        }
+        //清理写了一半的记录,避免之后的读取误判
+        int tornEnd = Math.min(buffer.limit(), position + RECORD_HEADER_SIZE +
+                Math.max(buffer.limit() - position >= 4 ? buffer.getInt(position) : 0, 0));
+        for (int i = position; i < tornEnd; i++) {
+            buffer.put(i, (byte) 0);
+        }
+        buffer.position(position);
+        return new JournalSegment(baseOffset, buffer);
+    }
+
+    /**
+     * 读取段中的记录
+     *
+     * @param baseOffset 段的起始位置
+     * @param fromOffset 开始位置
+     * @param endOffset  结束位置
+     * @param consumer   记录处理
+     * @return 最后读取的记录之后的位置
+     */
+    private long readSegment(long baseOffset, long fromOffset, long endOffset,
+                             Consumer<EventJournalRecord> consumer) {
+        //段文件创建时就是完整大小,之后写入的记录在已有的映射中也能读到
+        MappedByteBuffer buffer = readSegments.computeIfAbsent(baseOffset, k -> {
+            try {
+                return mapSegment(k, FileChannel.MapMode.READ_ONLY);
+            } catch (IOException e) {
+                throw new EventJournalException("事件日志读取失败,段：" + k, e);
+            }
+        });
+        int position = (int) (fromOffset - baseOffset);
+        while (baseOffset + position < endOffset) {
+            int bodySize = readRecordBodySize(buffer, position);
+            if (bodySize < 0) {
+                break;
+            }
+            int nextPosition = position + RECORD_HEADER_SIZE + bodySize;
+            EventJournalRecord record = decodeRecord(buffer, position, bodySize, baseOffset + nextPosition);
+            consumer.accept(record);
+            position = nextPosition;
+        }
+        return baseOffset + position;
+    }
+
+    /**
+     * 读取并校验记录的内容长度
+     *
+     * @param buffer   段
+     * @param position 记录的位置
+     * @return 内容长度,没有完整的记录返回-1
+     */
+    private int readRecordBodySize(MappedByteBuffer buffer, int position) {
+        if (buffer.limit() - position < RECORD_HEADER_SIZE) {
+            return -1;
+        }
+        int bodySize = buffer.getInt(position);
+        if (bodySize <= 0 || bodySize > buffer.limit() - position - RECORD_HEADER_SIZE) {
+            return -1;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(position + RECORD_HEADER_SIZE, bodySize));
+        return (int) crc.getValue() == buffer.getInt(position + 4) ? bodySize : -1;
+    }
+
+    /**
+     * 编码记录内容
+     *
+     * @param event  事件
+     * @param direct 是否点对点发布
+     * @return 记录内容
+     */
+    private byte[] encodeRecord(ApplicationEvent event, boolean direct) {
+        Class<?> eventClass = event instanceof PayloadApplicationEvent<?> payloadEvent ?
+                payloadEvent.getPayload().getClass() : event.getClass();
+        byte[] className = eventClass.getName().getBytes(StandardCharsets.UTF_8);
+        Buffer buffer = Buffer.buffer()
+                .appendLong(System.currentTimeMillis())
+                .appendByte(direct ? FLAG_DIRECT : 0)
+                .appendShort((short) className.length)
+                .appendBytes(className);
+        CODEC.encodeToWire(buffer, event);
+        return buffer.getBytes();
+    }
+
+    /**
+     * 解码记录
+     *
+     * @param buffer     段
+     * @param position   记录的位置
+     * @param bodySize   内容长度
+     * @param nextOffset 下一条记录的位置
+     * @return 记录
+     */
+    private EventJournalRecord decodeRecord(MappedByteBuffer buffer, int position, int bodySize, long nextOffset) {
+        byte[] bytes = new byte[bodySize];
+        buffer.get(position + RECORD_HEADER_SIZE, bytes);
+        Buffer body = Buffer.buffer(bytes);
+        long timestamp = body.getLong(0);
+        boolean direct = body.getByte(8) == FLAG_DIRECT;
+        int classNameLength = body.getShort(9);
+        String className = body.getString(11, 11 + classNameLength, StandardCharsets.UTF_8.name());
+        try {
+            //重放的进程中事件类可能还没注册
+            ApplicationEventClassTable.register(Class.forName(className, false, EventJournal.class.getClassLoader()));
+        } catch (ClassNotFoundException e) {
+            throw new EventJournalException("事件日志中的事件类不存在：" + className, e);
+        }
+        ApplicationEvent event = CODEC.decodeFromWire(11 + classNameLength, body);
+        return new EventJournalRecord(nextOffset - RECORD_HEADER_SIZE - bodySize, nextOffset, timestamp, direct,
+                event);
+    }
+
+    /**
+     * 映射段文件
+     *
+     * @param baseOffset 段的起始位置
+     * @param mode       映射模式
+     * @return 映射的内存
+     * @throws IOException 文件打开失败
+     */
+    private MappedByteBuffer mapSegment(long baseOffset, FileChannel.MapMode mode) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", baseOffset, SEGMENT_SUFFIX));
+        boolean write = mode == FileChannel.MapMode.READ_WRITE;
+        try (FileChannel channel = write ?
+                FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE) :
+                FileChannel.open(path, StandardOpenOption.READ)) {
+            //映射在通道关闭后仍然有效
+            return channel.map(mode, 0, write ? segmentSize : channel.size());
+        }
+    }
+
+    /**
+     * 获取目录中所有段的起始位置
+     *
+     * @param directory 日志目录
+     * @return 段的起始位置,从小到大
+     * @throws IOException 目录读取失败
+     */
+    private static List<Long> listSegments(Path directory) throws IOException {
+        List<Long> baseOffsets = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> {
+                        try {
+                            baseOffsets.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+                        } catch (NumberFormatException ignore) {
+                            //不是段文件
+                        }
+                    });
+        }
+        baseOffsets.sort(null);
+        return baseOffsets;
+    }
+
+    /**
+     * 日志段
+     *
+     * @param baseOffset 段的起始位置
+     * @param buffer     映射的内存,写入位置就是段内的结尾
+     */
+    private record JournalSegment(long baseOffset, MappedByteBuffer buffer) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.aristoco.core.event.journal;
+
+import com.aristoco.core.event.ApplicationEvent;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/22
+ * @description 事件日志中的一条记录
+ *
+ * @param offset     记录的位置
+ * @param nextOffset 下一条记录的位置
+ * @param timestamp  记录的时间戳(毫秒)
+ * @param direct     是否点对点发布
+ * @param event      事件
+ **/
+public record EventJournalRecord(long offset, long nextOffset, long timestamp, boolean direct,
+                                 ApplicationEvent event) {
+}
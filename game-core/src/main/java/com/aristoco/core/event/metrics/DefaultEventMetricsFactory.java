@@ -0,0 +1,228 @@
+package com.aristoco.core.event.metrics;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/19
+ * @description 内存中统计的事件指标
+ * <p> 同名的监听器(多个verticle实例)合并统计
+ **/
+public class DefaultEventMetricsFactory implements EventMetricsFactory {
+
+    /**
+     * 单例
+     */
+    private static final DefaultEventMetricsFactory INSTANCE = new DefaultEventMetricsFactory();
+
+    /**
+     * k:监听器名@监听地址 v:指标
+     */
+    private final Map<String, DefaultEventListenerMetrics> listenerMetricsMap = new ConcurrentHashMap<>();
+
+    /**
+     * k:消费者地址 v:指标
+     */
+    private final Map<String, DefaultEventQueueMetrics> queueMetricsMap = new ConcurrentHashMap<>();
+
+    private DefaultEventMetricsFactory() {
+    }
+
+    public static DefaultEventMetricsFactory getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public EventListenerMetrics createListenerMetrics(String listenerName, String address) {
+        return listenerMetricsMap.computeIfAbsent(listenerName + "@" + address,
+                k -> new DefaultEventListenerMetrics(listenerName, address));
+    }
+
+    @Override
+    public EventQueueMetrics createQueueMetrics(String address) {
+        return queueMetricsMap.computeIfAbsent(address, DefaultEventQueueMetrics::new);
+    }
+
+    /**
+     * 获取所有监听器的指标
+     *
+     * @return k:监听器名@监听地址 v:指标
+     */
+    public Map<String, DefaultEventListenerMetrics> getListenerMetrics() {
+        return Collections.unmodifiableMap(listenerMetricsMap);
+    }
+
+    /**
+     * 获取所有消费者地址的排队指标
+     *
+     * @return k:消费者地址 v:指标
+     */
+    public Map<String, DefaultEventQueueMetrics> getQueueMetrics() {
+        return Collections.unmodifiableMap(queueMetricsMap);
+    }
+
+    /**
+     * 内存中统计的监听器指标
+     */
+    @Getter
+    public static class DefaultEventListenerMetrics implements EventListenerMetrics {
+
+        /**
+         * 监听器名
+         */
+        private final String listenerName;
+
+        /**
+         * 监听地址
+         */
+        private final String address;
+
+        /**
+         * 执行次数
+         */
+        private final LongAdder invokeCount = new LongAdder();
+
+        /**
+         * 执行失败次数
+         */
+        private final LongAdder failedCount = new LongAdder();
+
+        /**
+         * 条件不通过次数
+         */
+        private final LongAdder conditionRejectedCount = new LongAdder();
+
+        /**
+         * 重试次数
+         */
+        private final LongAdder retryCount = new LongAdder();
+
+        /**
+         * 进入死信次数
+         */
+        private final LongAdder deadLetterCount = new LongAdder();
+
+        /**
+         * 等待时间
+         */
+        private final EventLatencyHistogram queueWait = new EventLatencyHistogram();
+
+        /**
+         * 解码时间
+         */
+        private final EventLatencyHistogram deserialize = new EventLatencyHistogram();
+
+        /**
+         * 条件判断时间
+         */
+        private final EventLatencyHistogram condition = new EventLatencyHistogram();
+
+        /**
+         * 执行时间
+         */
+        private final EventLatencyHistogram invoke = new EventLatencyHistogram();
+
+        private DefaultEventListenerMetrics(String listenerName, String address) {
+            this.listenerName = listenerName;
+            this.address = address;
+        }
+
+        @Override
+        public void recordQueueWait(long nanos) {
+            queueWait.record(nanos);
+        }
+
+        @Override
+        public void recordDeserialize(long nanos) {
+            deserialize.record(nanos);
+        }
+
+        @Override
+        public void recordCondition(long nanos, boolean passed) {
+            condition.record(nanos);
+            if (!passed) {
+                conditionRejectedCount.increment();
+            }
+        }
+
+        @Override
+        public void recordInvoke(long nanos, boolean success) {
+            invoke.record(nanos);
+            invokeCount.increment();
+            if (!success) {
+                failedCount.increment();
+            }
+        }
+
+        @Override
+        public void recordRetry() {
+            retryCount.increment();
+        }
+
+        @Override
+        public void recordDeadLetter() {
+            deadLetterCount.increment();
+        }
+    }
+
+    /**
+     * 内存中统计的消费者地址排队指标
+     */
+    @Getter
+    public static class DefaultEventQueueMetrics implements EventQueueMetrics {
+
+        /**
+         * 消费者地址
+         */
+        private final String address;
+
+        /**
+         * 分片队列已满被拒绝的事件数
+         */
+        private final LongAdder stripeRejectedCount = new LongAdder();
+
+        /**
+         * 优先级队列已满或者执行器已经关闭被拒绝的事件数
+         */
+        private final LongAdder executorRejectedCount = new LongAdder();
+
+        /**
+         * 待执行队列已满被丢弃的事件数
+         */
+        private final LongAdder pendingDroppedCount = new LongAdder();
+
+        /**
+         * 待执行队列已满被拒绝的事件数
+         */
+        private final LongAdder pendingRejectedCount = new LongAdder();
+
+        private DefaultEventQueueMetrics(String address) {
+            this.address = address;
+        }
+
+        @Override
+        public void recordStripeRejected() {
+            stripeRejectedCount.increment();
+        }
+
+        @Override
+        public void recordExecutorRejected() {
+            executorRejectedCount.increment();
+        }
+
+        @Override
+        public void recordPendingDropped() {
+            pendingDroppedCount.increment();
+        }
+
+        @Override
+        public void recordPendingRejected() {
+            pendingRejectedCount.increment();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.aristoco.core.event.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/19
+ * @description 延迟直方图
+ * <p> 按2的幂分段,每段再分为8个子桶,相对误差在12.5%以内,记录时只有一次数组自增,不分配对象
+ **/
+public class EventLatencyHistogram {
+
+    /**
+     * 每段子桶数的位数
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /**
+     * 每段子桶数
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 桶数量,覆盖long的正数范围
+     */
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    /**
+     * 各桶的计数
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * 总数
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * 总和
+     */
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * 最大值
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * 记录
+     *
+     * @param value 值,小于0按0记录
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(getBucketIndex(value));
+        count.increment();
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * 获取快照
+     *
+     * @return 快照
+     */
+    public EventLatencySnapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        double mean = total == 0 ? 0 : (double) sum.sum() / total;
+        return new EventLatencySnapshot(total, mean, getPercentile(counts, total, 0.5),
+                getPercentile(counts, total, 0.9), getPercentile(counts, total, 0.99), max.get());
+    }
+
+    /**
+     * 计算分位值
+     *
+     * @param counts     各桶计数
+     * @param total      总数
+     * @param percentile 分位
+     * @return 分位值,取桶的下界
+     */
+    private static long getPercentile(long[] counts, long total, double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(total * percentile);
+        long current = 0;
+        for (int i = 0; i < counts.length; i++) {
+            current += counts[i];
+            if (current >= target) {
+                return getBucketLowerBound(i);
+            }
+        }
+        return getBucketLowerBound(counts.length - 1);
+    }
+
+    /**
+     * 值对应的桶
+     *
+     * @param value 值
+     * @return 桶下标
+     */
+    private static int getBucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * 桶的下界
+     *
+     * @param index 桶下标
+     * @return 下界
+     */
+    private static long getBucketLowerBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKET_COUNT;
+        return (SUB_BUCKET_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * 直方图快照,单位纳秒
+     *
+     * @param count 总数
+     * @param mean  平均值
+     * @param p50   50分位
+     * @param p90   90分位
+     * @param p99   99分位
+     * @param max   最大值
+     */
+    public record EventLatencySnapshot(long count, double mean, long p50, long p90, long p99, long max) {
+    }
+}
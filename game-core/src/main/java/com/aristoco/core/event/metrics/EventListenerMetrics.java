@@ -0,0 +1,63 @@
+package com.aristoco.core.event.metrics;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/19
+ * @description 单个事件监听器的指标记录
+ * <p> 每个监听器在注册时创建一次,事件执行时直接记录,实现需要保证线程安全和低开销
+ * <p> 时间单位都是纳秒
+ **/
+public interface EventListenerMetrics {
+
+    /**
+     * 不记录的实现,未启用指标时使用
+     */
+    EventListenerMetrics NOOP = new EventListenerMetrics() {
+    };
+
+    /**
+     * 记录事件从eventbus收到到监听器开始执行的等待时间
+     *
+     * @param nanos 纳秒
+     */
+    default void recordQueueWait(long nanos) {
+    }
+
+    /**
+     * 记录事件解码时间
+     *
+     * @param nanos 纳秒
+     */
+    default void recordDeserialize(long nanos) {
+    }
+
+    /**
+     * 记录条件判断时间
+     *
+     * @param nanos  纳秒
+     * @param passed 条件是否通过
+     */
+    default void recordCondition(long nanos, boolean passed) {
+    }
+
+    /**
+     * 记录监听方法执行时间
+     *
+     * @param nanos   纳秒
+     * @param success 是否执行成功
+     */
+    default void recordInvoke(long nanos, boolean success) {
+    }
+
+    /**
+     * 记录一次重试
+     */
+    default void recordRetry() {
+    }
+
+    /**
+     * 记录重试后仍然失败进入死信
+     */
+    default void recordDeadLetter() {
+    }
+}
@@ -0,0 +1,50 @@
+package com.aristoco.core.event.metrics;
+
+import com.aristoco.core.config.ApplicationEventExecutorConfig;
+
+import java.util.ServiceLoader;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/19
+ * @description 事件指标SPI
+ * <p> 通过{@link ServiceLoader}查找自定义实现(例如对接Micrometer),没有时按配置使用内置实现
+ * @see DefaultEventMetricsFactory
+ * @see OpenTelemetryEventMetricsFactory
+ **/
+public interface EventMetricsFactory {
+
+    /**
+     * 创建监听器的指标记录
+     *
+     * @param listenerName 监听器名
+     * @param address      监听地址
+     * @return 指标记录
+     */
+    EventListenerMetrics createListenerMetrics(String listenerName, String address);
+
+    /**
+     * 创建消费者地址的排队指标记录
+     *
+     * @param address 消费者地址
+     * @return 指标记录,默认不记录
+     */
+    default EventQueueMetrics createQueueMetrics(String address) {
+        return EventQueueMetrics.NOOP;
+    }
+
+    /**
+     * 获取指标实现
+     *
+     * @param metricsConfig 指标配置
+     * @return 指标实现
+     */
+    static EventMetricsFactory load(ApplicationEventExecutorConfig.MetricsConfig metricsConfig) {
+        return ServiceLoader.load(EventMetricsFactory.class)
+                .findFirst()
+                .orElseGet(() -> switch (metricsConfig.getType()) {
+                    case OPEN_TELEMETRY -> OpenTelemetryEventMetricsFactory.getInstance();
+                    case MEMORY -> DefaultEventMetricsFactory.getInstance();
+                });
+    }
+}
@@ -0,0 +1,19 @@
+package com.aristoco.core.event.metrics;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/19
+ * @description 内置的事件指标实现类型
+ **/
+public enum EventMetricsType {
+
+    /**
+     * 内存中统计,通过{@link DefaultEventMetricsFactory#getListenerMetrics()}查看
+     */
+    MEMORY,
+
+    /**
+     * 记录到OpenTelemetry的全局Meter中
+     */
+    OPEN_TELEMETRY
+}
@@ -0,0 +1,40 @@
+package com.aristoco.core.event.metrics;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/28
+ * @description 单个消费者地址的排队指标记录
+ * <p> 每个消费者在注册时创建一次,同一个地址上的所有监听器共用,实现需要保证线程安全和低开销
+ **/
+public interface EventQueueMetrics {
+
+    /**
+     * 不记录的实现,未启用指标时使用
+     */
+    EventQueueMetrics NOOP = new EventQueueMetrics() {
+    };
+
+    /**
+     * 记录分片队列已满被拒绝的事件
+     */
+    default void recordStripeRejected() {
+    }
+
+    /**
+     * 记录优先级队列已满或者执行器已经关闭被拒绝的事件
+     */
+    default void recordExecutorRejected() {
+    }
+
+    /**
+     * 记录待执行队列已满被丢弃的事件
+     */
+    default void recordPendingDropped() {
+    }
+
+    /**
+     * 记录待执行队列已满被拒绝的事件
+     */
+    default void recordPendingRejected() {
+    }
+}
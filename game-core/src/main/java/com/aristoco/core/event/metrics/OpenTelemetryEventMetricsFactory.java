@@ -0,0 +1,183 @@
+package com.aristoco.core.event.metrics;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.metrics.Meter;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/19
+ * @description 记录到OpenTelemetry的事件指标
+ * <p> 使用全局的OpenTelemetry,需要在启动时注册sdk,否则指标不会被导出
+ **/
+public class OpenTelemetryEventMetricsFactory implements EventMetricsFactory {
+
+    /**
+     * 单例
+     */
+    private static volatile OpenTelemetryEventMetricsFactory instance;
+
+    /**
+     * 监听器名属性
+     */
+    private static final AttributeKey<String> LISTENER_KEY = AttributeKey.stringKey("listener");
+
+    /**
+     * 监听地址属性
+     */
+    private static final AttributeKey<String> ADDRESS_KEY = AttributeKey.stringKey("address");
+
+    /**
+     * 执行结果属性
+     */
+    private static final AttributeKey<Boolean> SUCCESS_KEY = AttributeKey.booleanKey("success");
+
+    private final LongHistogram queueWait;
+
+    private final LongHistogram deserialize;
+
+    private final LongHistogram condition;
+
+    private final LongHistogram invoke;
+
+    private final LongCounter conditionRejected;
+
+    private final LongCounter retry;
+
+    private final LongCounter deadLetter;
+
+    private final LongCounter stripeRejected;
+
+    private final LongCounter executorRejected;
+
+    private final LongCounter pendingDropped;
+
+    private final LongCounter pendingRejected;
+
+    private OpenTelemetryEventMetricsFactory() {
+        Meter meter = GlobalOpenTelemetry.getMeter("com.aristoco.core.event");
+        this.queueWait = buildHistogram(meter, "event.listener.queue.wait", "事件等待执行时间");
+        this.deserialize = buildHistogram(meter, "event.listener.deserialize", "事件解码时间");
+        this.condition = buildHistogram(meter, "event.listener.condition", "事件条件判断时间");
+        this.invoke = buildHistogram(meter, "event.listener.invoke", "事件监听执行时间");
+        this.conditionRejected = meter.counterBuilder("event.listener.condition.rejected")
+                .setDescription("事件条件不通过次数")
+                .build();
+        this.retry = meter.counterBuilder("event.listener.retry")
+                .setDescription("事件监听失败重试次数")
+                .build();
+        this.deadLetter = meter.counterBuilder("event.listener.dead.letter")
+                .setDescription("事件重试后仍然失败进入死信次数")
+                .build();
+        this.stripeRejected = meter.counterBuilder("event.queue.stripe.rejected")
+                .setDescription("分片队列已满被拒绝的事件数")
+                .build();
+        this.executorRejected = meter.counterBuilder("event.queue.executor.rejected")
+                .setDescription("优先级队列已满或者执行器已经关闭被拒绝的事件数")
+                .build();
+        this.pendingDropped = meter.counterBuilder("event.queue.pending.dropped")
+                .setDescription("待执行队列已满被丢弃的事件数")
+                .build();
+        this.pendingRejected = meter.counterBuilder("event.queue.pending.rejected")
+                .setDescription("待执行队列已满被拒绝的事件数")
+                .build();
+    }
+
+    public static OpenTelemetryEventMetricsFactory getInstance() {
+        if (instance == null) {
+            synchronized (OpenTelemetryEventMetricsFactory.class) {
+                if (instance == null) {
+                    instance = new OpenTelemetryEventMetricsFactory();
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public EventListenerMetrics createListenerMetrics(String listenerName, String address) {
+        //属性在创建时构建好,记录时不再分配
+        Attributes attributes = Attributes.of(LISTENER_KEY, listenerName, ADDRESS_KEY, address);
+        Attributes successAttributes = attributes.toBuilder().put(SUCCESS_KEY, true).build();
+        Attributes failedAttributes = attributes.toBuilder().put(SUCCESS_KEY, false).build();
+        return new EventListenerMetrics() {
+            @Override
+            public void recordQueueWait(long nanos) {
+                queueWait.record(nanos, attributes);
+            }
+
+            @Override
+            public void recordDeserialize(long nanos) {
+                deserialize.record(nanos, attributes);
+            }
+
+            @Override
+            public void recordCondition(long nanos, boolean passed) {
+                condition.record(nanos, attributes);
+                if (!passed) {
+                    conditionRejected.add(1, attributes);
+                }
+            }
+
+            @Override
+            public void recordInvoke(long nanos, boolean success) {
+                invoke.record(nanos, success ? successAttributes : failedAttributes);
+            }
+
+            @Override
+            public void recordRetry() {
+                retry.add(1, attributes);
+            }
+
+            @Override
+            public void recordDeadLetter() {
+                deadLetter.add(1, attributes);
+            }
+        };
+    }
+
+    @Override
+    public EventQueueMetrics createQueueMetrics(String address) {
+        Attributes attributes = Attributes.of(ADDRESS_KEY, address);
+        return new EventQueueMetrics() {
+            @Override
+            public void recordStripeRejected() {
+                stripeRejected.add(1, attributes);
+            }
+
+            @Override
+            public void recordExecutorRejected() {
+                executorRejected.add(1, attributes);
+            }
+
+            @Override
+            public void recordPendingDropped() {
+                pendingDropped.add(1, attributes);
+            }
+
+            @Override
+            public void recordPendingRejected() {
+                pendingRejected.add(1, attributes);
+            }
+        };
+    }
+
+    /**
+     * 创建纳秒单位的直方图
+     *
+     * @param meter       meter
+     * @param name        指标名
+     * @param description 描述
+     * @return 直方图
+     */
+    private static LongHistogram buildHistogram(Meter meter, String name, String description) {
+        return meter.histogramBuilder(name)
+                .setDescription(description)
+                .setUnit("ns")
+                .ofLongs()
+                .build();
+    }
+}
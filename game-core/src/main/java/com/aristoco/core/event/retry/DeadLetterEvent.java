@@ -0,0 +1,19 @@
+package com.aristoco.core.event.retry;
+
+import com.aristoco.core.event.ApplicationEvent;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/23
+ * @description 重试后仍然执行失败的事件
+ *
+ * @param listenerName 监听器名
+ * @param address      监听地址
+ * @param event        事件
+ * @param cause        最后一次失败的异常
+ * @param attempts     执行次数,包括第一次
+ * @param timestamp    进入死信的时间戳(毫秒)
+ **/
+public record DeadLetterEvent(String listenerName, String address, ApplicationEvent event, Throwable cause,
+                              int attempts, long timestamp) {
+}
@@ -0,0 +1,248 @@
+package com.aristoco.core.event.retry;
+
+import cn.hutool.core.exceptions.ExceptionUtil;
+import com.aristoco.core.config.ApplicationEventExecutorConfig;
+import com.aristoco.core.event.ApplicationEvent;
+import com.aristoco.core.event.PayloadApplicationEvent;
+import com.aristoco.core.utils.StringUtils;
+import io.vertx.core.Closeable;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.json.JsonObject;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/23
+ * @description 事件死信队列
+ * <p> 同一个vertx共用一个,内存中用环形缓冲保存最近的死信,满了覆盖最早的
+ * <p> 配置了文件的,死信同时以json行追加到文件中,写文件在单独的线程中,不阻塞事件执行
+ * <p> 死信文件只打开一次,每行写入后刷新;vertx关闭时关闭文件和写文件的线程
+ **/
+@Slf4j
+public class EventDeadLetterQueue implements Closeable {
+
+    /**
+     * k:vertx v:死信队列
+     */
+    private static final Map<Vertx, EventDeadLetterQueue> QUEUES = new WeakHashMap<>();
+
+    /**
+     * 环形缓冲
+     */
+    private final DeadLetterEvent[] buffer;
+
+    /**
+     * 下一个写入的下标,一直递增
+     */
+    private long writeIndex;
+
+    /**
+     * 进入死信的总数
+     */
+    private final LongAdder deadLetterCount = new LongAdder();
+
+    /**
+     * 死信文件,未配置为null
+     */
+    private final Path file;
+
+    /**
+     * 写文件的线程,未配置文件为null
+     */
+    private final ExecutorService fileExecutor;
+
+    /**
+     * 死信文件的写入流,第一次写入时打开,只在写文件的线程中使用
+     */
+    private BufferedWriter fileWriter;
+
+    /**
+     * @param capacity 内存中保存的死信数量
+     * @param file     死信文件,可以为null
+     */
+    public EventDeadLetterQueue(int capacity, Path file) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("死信队列容量必须大于0,capacity:" + capacity);
+        }
+        this.buffer = new DeadLetterEvent[capacity];
+        this.file = file;
+        this.fileExecutor = file == null ? null : Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-dead-letter-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 获取vertx共用的死信队列,第一次获取时按配置创建
+     *
+     * @param vertx            vertx
+     * @param deadLetterConfig 死信配置
+     * @return 死信队列
+     */
+    public static EventDeadLetterQueue getSharedQueue(Vertx vertx,
+                                                      ApplicationEventExecutorConfig.DeadLetterConfig deadLetterConfig) {
+        synchronized (QUEUES) {
+            EventDeadLetterQueue queue = QUEUES.get(vertx);
+            if (queue == null) {
+                queue = new EventDeadLetterQueue(deadLetterConfig.getCapacity(),
+                        StringUtils.isBlank(deadLetterConfig.getFile()) ? null : Path.of(deadLetterConfig.getFile()));
+                QUEUES.put(vertx, queue);
+                //vertx关闭时关闭死信文件
+                ((VertxInternal) vertx).addCloseHook(queue);
+            }
+            return queue;
+        }
+    }
+
+    /**
+     * 加入死信
+     *
+     * @param deadLetter 死信
+     */
+    public void add(DeadLetterEvent deadLetter) {
+        deadLetterCount.increment();
+        synchronized (buffer) {
+            buffer[(int) (writeIndex++ % buffer.length)] = deadLetter;
+        }
+        if (fileExecutor != null) {
+            try {
+                fileExecutor.execute(() -> writeToFile(deadLetter));
+            } catch (RejectedExecutionException e) {
+                log.warn("死信队列已经关闭,死信只保存在内存中：{}", deadLetter);
+            }
+        }
+    }
+
+    /**
+     * 获取内存中保存的死信
+     *
+     * @return 死信列表,从早到晚
+     */
+    public List<DeadLetterEvent> getDeadLetters() {
+        synchronized (buffer) {
+            int size = (int) Math.min(writeIndex, buffer.length);
+            List<DeadLetterEvent> deadLetters = new ArrayList<>(size);
+            for (long i = writeIndex - size; i < writeIndex; i++) {
+                deadLetters.add(buffer[(int) (i % buffer.length)]);
+            }
+            return deadLetters;
+        }
+    }
+
+    /**
+     * 清空内存中保存的死信
+     */
+    public void clear() {
+        synchronized (buffer) {
+            for (int i = 0; i < buffer.length; i++) {
+                buffer[i] = null;
+            }
+            writeIndex = 0;
+        }
+    }
+
+    /**
+     * 获取进入死信的总数
+     *
+     * @return 死信数
+     */
+    public long getDeadLetterCount() {
+        return deadLetterCount.sum();
+    }
+
+    /**
+     * vertx关闭时,写完已经提交的死信后关闭文件和写文件的线程
+     *
+     * @param completion 关闭结果
+     */
+    @Override
+    public void close(Promise<Void> completion) {
+        synchronized (QUEUES) {
+            QUEUES.values().remove(this);
+        }
+        if (fileExecutor == null) {
+            completion.complete();
+            return;
+        }
+        try {
+            fileExecutor.execute(() -> {
+                closeFileWriter();
+                completion.complete();
+            });
+        } catch (RejectedExecutionException e) {
+            //已经关闭
+            completion.complete();
+        }
+        fileExecutor.shutdown();
+    }
+
+    /**
+     * 追加到死信文件
+     *
+     * @param deadLetter 死信
+     */
+    private void writeToFile(DeadLetterEvent deadLetter) {
+        //payload事件记录payload的类型
+        ApplicationEvent event = deadLetter.event();
+        Class<?> eventClass = event instanceof PayloadApplicationEvent<?> payloadEvent ?
+                payloadEvent.getPayload().getClass() : event.getClass();
+        JsonObject json = new JsonObject()
+                .put("timestamp", deadLetter.timestamp())
+                .put("listener", deadLetter.listenerName())
+                .put("address", deadLetter.address())
+                .put("attempts", deadLetter.attempts())
+                .put("eventType", eventClass.getName())
+                .put("exception", ExceptionUtil.stacktraceToString(deadLetter.cause()));
+        try {
+            json.put("event", JsonObject.mapFrom(event));
+        } catch (Exception e) {
+            json.put("event", String.valueOf(event));
+        }
+        try {
+            if (fileWriter == null) {
+                fileWriter = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            fileWriter.write(json.encode());
+            fileWriter.newLine();
+            fileWriter.flush();
+        } catch (IOException e) {
+            log.error("死信写入文件失败,文件：{},死信：{}", file, json, e);
+            //下次写入时重新打开
+            closeFileWriter();
+        }
+    }
+
+    /**
+     * 关闭死信文件的写入流,只在写文件的线程中调用
+     */
+    private void closeFileWriter() {
+        if (fileWriter == null) {
+            return;
+        }
+        try {
+            fileWriter.close();
+        } catch (IOException e) {
+            log.error("死信文件关闭失败,文件：{}", file, e);
+        }
+        fileWriter = null;
+    }
+}
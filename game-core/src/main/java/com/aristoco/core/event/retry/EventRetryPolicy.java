@@ -0,0 +1,53 @@
+package com.aristoco.core.event.retry;
+
+import com.aristoco.core.event.annotation.EventRetry;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/23
+ * @description 事件监听失败的重试策略,等待时间按倍数递增
+ *
+ * @param maxRetries 最多重试次数,为0时不重试
+ * @param delay      第一次重试的等待时间(毫秒)
+ * @param multiplier 每次重试等待时间的倍数
+ * @param maxDelay   最长等待时间(毫秒)
+ **/
+public record EventRetryPolicy(int maxRetries, long delay, double multiplier, long maxDelay) {
+
+    /**
+     * 不重试
+     */
+    public static final EventRetryPolicy NONE = new EventRetryPolicy(0, 0L, 1.0, 0L);
+
+    /**
+     * 根据注解创建
+     *
+     * @param eventRetry 重试注解
+     * @return 重试策略
+     */
+    public static EventRetryPolicy of(EventRetry eventRetry) {
+        return new EventRetryPolicy(eventRetry.maxRetries(), eventRetry.delay(), eventRetry.multiplier(),
+                eventRetry.maxDelay());
+    }
+
+    /**
+     * 是否还可以重试
+     *
+     * @param attempt 已经重试的次数
+     * @return true:可以
+     */
+    public boolean canRetry(int attempt) {
+        return attempt < maxRetries;
+    }
+
+    /**
+     * 获取重试的等待时间
+     *
+     * @param attempt 已经重试的次数
+     * @return 等待时间(毫秒),至少1毫秒
+     */
+    public long getDelay(int attempt) {
+        double retryDelay = delay * Math.pow(multiplier, attempt);
+        return Math.max(1L, (long) Math.min(retryDelay, maxDelay));
+    }
+}
@@ -0,0 +1,563 @@
+package com.aristoco.core.event.schedule;
+
+import com.aristoco.core.event.ApplicationEvent;
+import io.vertx.core.Closeable;
+import io.vertx.core.Context;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextInternal;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.BiConsumer;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/21
+ * @description 延迟事件的分层时间轮
+ * <p> 每个事件循环上下文一个,只使用一个周期定时器驱动,没有延迟事件时停止定时器
+ * <p> 每层{@code wheelSize}个槽,第0层每个槽一个tick,上一层每个槽是下一层一整圈,到达上层槽时把其中的事件降到下层
+ * <p> 事件是槽中双向链表的节点,添加和取消都是O(1),每个事件只额外占用一个节点对象
+ * <p> 其他线程的添加和取消先放入无锁队列,在上下文线程中每个tick处理,到期的事件在上下文线程中发布
+ * <p> 除了延迟发布事件,也用于延迟执行事件相关的任务,例如监听失败后的重试
+ * <p> 上下文关闭(verticle卸载)时停止定时器并丢弃等待的事件,之后不能再添加
+ **/
+@Slf4j
+public class EventTimingWheel implements Closeable {
+
+    /**
+     * 时间轮层数,默认配置下可以覆盖约21年,更长的延迟放在最上层循环降级
+     */
+    private static final int LEVELS = 4;
+
+    /**
+     * 事件状态:等待发布
+     */
+    private static final int PENDING = 0;
+
+    /**
+     * 事件状态:已经取消
+     */
+    private static final int CANCELLED = 1;
+
+    /**
+     * 事件状态:已经发布
+     */
+    private static final int EXPIRED = 2;
+
+    /**
+     * 事件状态更新
+     */
+    private static final AtomicIntegerFieldUpdater<TimerEntry> STATE_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(TimerEntry.class, "state");
+
+    /**
+     * vertx
+     */
+    private final Vertx vertx;
+
+    /**
+     * 驱动时间轮的上下文
+     */
+    private final Context context;
+
+    /**
+     * 到期的处理 参数:[事件,是否点对点]
+     */
+    private final BiConsumer<ApplicationEvent, Boolean> expireHandler;
+
+    /**
+     * 每个tick的时长(毫秒)
+     */
+    private final long tickMillis;
+
+    /**
+     * 每个tick的时长(纳秒)
+     */
+    private final long tickNanos;
+
+    /**
+     * 每层槽数的位数
+     */
+    private final int wheelBits;
+
+    /**
+     * 槽下标掩码
+     */
+    private final int wheelMask;
+
+    /**
+     * 各层的槽,每个槽是双向循环链表的哨兵节点
+     */
+    private final TimerEntry[][] wheels;
+
+    /**
+     * 时间轮的起始时间(纳秒)
+     */
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * 待放入时间轮的事件
+     */
+    private final Queue<TimerEntry> addQueue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 待从时间轮中移除的已取消事件
+     */
+    private final Queue<TimerEntry> cancelQueue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 等待发布的事件数,包括还没放入时间轮的
+     */
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    /**
+     * 驱动定时器是否在运行
+     */
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * 上下文是否已经关闭
+     */
+    private volatile boolean closed;
+
+    /**
+     * 当前tick,只在上下文线程中读写
+     */
+    private long currentTick;
+
+    /**
+     * 时间轮中的事件数,只在上下文线程中读写
+     */
+    private int wheelCount;
+
+    /**
+     * 驱动定时器id
+     */
+    private volatile long timerId = -1;
+
+    /**
+     * @param vertx         vertx
+     * @param context       驱动时间轮的上下文
+     * @param tickMillis    每个tick的时长(毫秒)
+     * @param wheelSize     每层的槽数,会调整为2的幂
+     * @param expireHandler 到期的处理 参数:[事件,是否点对点]
+     */
+    public EventTimingWheel(Vertx vertx, Context context, long tickMillis, int wheelSize,
+                            BiConsumer<ApplicationEvent, Boolean> expireHandler) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("时间轮tick时长必须大于0,tickMillis:" + tickMillis);
+        }
+        if (wheelSize <= 1 || wheelSize > 1 << 15) {
+            throw new IllegalArgumentException("时间轮槽数必须在2到32768之间,wheelSize:" + wheelSize);
+        }
+        this.vertx = vertx;
+        this.context = context;
+        this.expireHandler = expireHandler;
+        this.tickMillis = tickMillis;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.wheelBits = 32 - Integer.numberOfLeadingZeros(wheelSize - 1);
+        this.wheelMask = (1 << wheelBits) - 1;
+        this.wheels = new TimerEntry[LEVELS][1 << wheelBits];
+        for (TimerEntry[] wheel : wheels) {
+            for (int i = 0; i < wheel.length; i++) {
+                wheel[i] = new TimerEntry(null, false, 0, null);
+                wheel[i].prev = wheel[i];
+                wheel[i].next = wheel[i];
+            }
+        }
+        //定时器属于上下文,上下文关闭后不会再触发,需要同时重置时间轮
+        ((ContextInternal) context).addCloseHook(this);
+    }
+
+    /**
+     * 延迟发布事件
+     * <p> 可以在任意线程中调用,到期时在时间轮的上下文线程中发布,精度为一个tick
+     *
+     * @param event       事件
+     * @param direct      是否点对点
+     * @param delayMillis 延迟时间(毫秒),小于等于0的在下一个tick发布
+     * @return 取消句柄
+     * @throws IllegalStateException 上下文已经关闭
+     */
+    public ScheduledEventHandle schedule(ApplicationEvent event, boolean direct, long delayMillis) {
+        return schedule(event, direct, delayMillis, null);
+    }
+
+    /**
+     * 延迟执行事件相关的任务,例如监听失败后的重试
+     * <p> 可以在任意线程中调用,到期时在时间轮的上下文线程中执行任务,不发布事件
+     *
+     * @param event       任务相关的事件,用于取消句柄和日志
+     * @param delayMillis 延迟时间(毫秒),小于等于0的在下一个tick执行
+     * @param task        到期执行的任务
+     * @return 取消句柄
+     * @throws IllegalStateException 上下文已经关闭
+     */
+    public ScheduledEventHandle schedule(ApplicationEvent event, long delayMillis, Runnable task) {
+        return schedule(event, false, delayMillis, task);
+    }
+
+    /**
+     * 加入时间轮
+     *
+     * @param event       事件
+     * @param direct      是否点对点
+     * @param delayMillis 延迟时间(毫秒)
+     * @param task        到期执行的任务,为null时发布事件
+     * @return 取消句柄
+     */
+    private ScheduledEventHandle schedule(ApplicationEvent event, boolean direct, long delayMillis, Runnable task) {
+        if (closed) {
+            throw new IllegalStateException("时间轮的上下文已经关闭,不能再添加延迟事件,事件消息:" + event);
+        }
+        long delayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(delayMillis, 0L));
+        long deadline = System.nanoTime() - startNanos + delayNanos;
+        //向上取整,不会提前发布
+        TimerEntry entry = new TimerEntry(event, direct, (deadline + tickNanos - 1) / tickNanos, task);
+        pendingCount.incrementAndGet();
+        addQueue.offer(entry);
+        if (closed) {
+            //和关闭同时发生,关闭时可能没有看到这个事件
+            discard(entry);
+            throw new IllegalStateException("时间轮的上下文已经关闭,不能再添加延迟事件,事件消息:" + event);
+        }
+        ensureRunning();
+        return entry;
+    }
+
+    /**
+     * 上下文关闭时停止定时器,丢弃所有等待的事件
+     *
+     * @param completion 关闭结果
+     */
+    @Override
+    public void close(Promise<Void> completion) {
+        closed = true;
+        if (timerId != -1) {
+            vertx.cancelTimer(timerId);
+        }
+        running.set(false);
+        int discarded = 0;
+        TimerEntry entry;
+        while ((entry = addQueue.poll()) != null) {
+            discarded += discard(entry);
+        }
+        cancelQueue.clear();
+        for (TimerEntry[] wheel : wheels) {
+            for (TimerEntry head : wheel) {
+                entry = detach(head);
+                while (entry != null) {
+                    TimerEntry next = entry.next;
+                    entry.prev = null;
+                    entry.next = null;
+                    discarded += discard(entry);
+                    entry = next;
+                }
+            }
+        }
+        wheelCount = 0;
+        if (discarded > 0) {
+            log.warn("时间轮的上下文已经关闭,丢弃{}个未到期的延迟事件", discarded);
+        }
+        completion.complete();
+    }
+
+    /**
+     * @return 等待发布的事件数
+     */
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * 启动驱动定时器
+     */
+    private void ensureRunning() {
+        if (running.compareAndSet(false, true)) {
+            context.runOnContext(ignore -> {
+                if (!closed) {
+                    timerId = vertx.setPeriodic(tickMillis, id -> onTimer());
+                }
+            });
+        }
+    }
+
+    /**
+     * 定时器触发,推进到当前时间对应的tick
+     */
+    private void onTimer() {
+        if (closed) {
+            return;
+        }
+        long targetTick = (System.nanoTime() - startNanos) / tickNanos;
+        removeCancelled();
+        if (wheelCount == 0) {
+            //时间轮是空的,直接跳到当前tick
+            currentTick = Math.max(currentTick, targetTick);
+        }
+        transferAdded();
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            expireSlot(wheels[0][(int) (currentTick & wheelMask)]);
+        }
+        if (pendingCount.get() == 0) {
+            vertx.cancelTimer(timerId);
+            running.set(false);
+            //停止期间有新加入的重新启动
+            if (pendingCount.get() > 0) {
+                ensureRunning();
+            }
+        }
+    }
+
+    /**
+     * 把其他线程加入的事件放入时间轮
+     */
+    private void transferAdded() {
+        TimerEntry entry;
+        while ((entry = addQueue.poll()) != null) {
+            if (entry.state == PENDING) {
+                place(entry);
+            }
+        }
+    }
+
+    /**
+     * 从时间轮中移除已取消的事件
+     */
+    private void removeCancelled() {
+        TimerEntry entry;
+        while ((entry = cancelQueue.poll()) != null) {
+            unlink(entry);
+        }
+    }
+
+    /**
+     * 按到期tick放入对应层的槽,已经到期的直接发布
+     *
+     * @param entry 事件节点
+     */
+    private void place(TimerEntry entry) {
+        long delta = entry.expireTick - currentTick;
+        if (delta <= 0) {
+            expire(entry);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = wheelBits * level;
+            if (level == LEVELS - 1 || delta >> (shift + wheelBits) == 0) {
+                long slot = level == LEVELS - 1 && delta >> (shift + wheelBits) != 0 ?
+                        //超过最上层一圈的,放在最后降级的槽中,降级时重新计算
+                        (currentTick >> shift) - 1 : entry.expireTick >> shift;
+                link(wheels[level][(int) (slot & wheelMask)], entry);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 到达上层槽的起点时,把上层槽中的事件降到下层,先降最高层
+     */
+    private void cascade() {
+        int level = 1;
+        while (level < LEVELS && (currentTick & ((1L << (wheelBits * level)) - 1)) == 0) {
+            level++;
+        }
+        for (int l = level - 1; l >= 1; l--) {
+            TimerEntry head = wheels[l][(int) ((currentTick >> (wheelBits * l)) & wheelMask)];
+            TimerEntry entry = detach(head);
+            while (entry != null) {
+                TimerEntry next = entry.next;
+                entry.prev = null;
+                entry.next = null;
+                wheelCount--;
+                place(entry);
+                entry = next;
+            }
+        }
+    }
+
+    /**
+     * 发布槽中所有的事件
+     *
+     * @param head 槽的哨兵节点
+     */
+    private void expireSlot(TimerEntry head) {
+        TimerEntry entry = detach(head);
+        while (entry != null) {
+            TimerEntry next = entry.next;
+            entry.prev = null;
+            entry.next = null;
+            wheelCount--;
+            expire(entry);
+            entry = next;
+        }
+    }
+
+    /**
+     * 发布事件
+     *
+     * @param entry 事件节点
+     */
+    private void expire(TimerEntry entry) {
+        if (!STATE_UPDATER.compareAndSet(entry, PENDING, EXPIRED)) {
+            return;
+        }
+        pendingCount.decrementAndGet();
+        try {
+            if (entry.task != null) {
+                entry.task.run();
+            } else {
+                expireHandler.accept(entry.event, entry.direct);
+            }
+        } catch (Throwable e) {
+            log.error("延迟事件执行失败,事件消息:{}", entry.event, e);
+        }
+    }
+
+    /**
+     * 丢弃还没发布的事件,标记为已取消
+     *
+     * @param entry 事件节点
+     * @return 1:丢弃成功 0:已经发布或者已经取消
+     */
+    private int discard(TimerEntry entry) {
+        if (!STATE_UPDATER.compareAndSet(entry, PENDING, CANCELLED)) {
+            return 0;
+        }
+        pendingCount.decrementAndGet();
+        return 1;
+    }
+
+    /**
+     * 加入槽
+     *
+     * @param head  槽的哨兵节点
+     * @param entry 事件节点
+     */
+    private void link(TimerEntry head, TimerEntry entry) {
+        entry.prev = head.prev;
+        entry.next = head;
+        head.prev.next = entry;
+        head.prev = entry;
+        wheelCount++;
+    }
+
+    /**
+     * 从槽中移除,不在槽中的不处理
+     *
+     * @param entry 事件节点
+     */
+    private void unlink(TimerEntry entry) {
+        if (entry.prev == null) {
+            return;
+        }
+        entry.prev.next = entry.next;
+        entry.next.prev = entry.prev;
+        entry.prev = null;
+        entry.next = null;
+        wheelCount--;
+    }
+
+    /**
+     * 取出槽中所有的节点
+     *
+     * @param head 槽的哨兵节点
+     * @return 第一个节点,最后一个节点的next为null,没有返回null
+     */
+    private TimerEntry detach(TimerEntry head) {
+        if (head.next == head) {
+            return null;
+        }
+        TimerEntry first = head.next;
+        head.prev.next = null;
+        head.prev = head;
+        head.next = head;
+        return first;
+    }
+
+    /**
+     * 时间轮中的事件节点
+     */
+    private final class TimerEntry implements ScheduledEventHandle {
+
+        /**
+         * 到期的tick
+         */
+        private final long expireTick;
+
+        /**
+         * 是否点对点
+         */
+        private final boolean direct;
+
+        /**
+         * 事件
+         */
+        private final ApplicationEvent event;
+
+        /**
+         * 到期执行的任务,为null时发布事件
+         */
+        private final Runnable task;
+
+        /**
+         * 事件状态
+         */
+        private volatile int state;
+
+        /**
+         * 槽中的前一个节点,不在槽中为null
+         */
+        private TimerEntry prev;
+
+        /**
+         * 槽中的后一个节点
+         */
+        private TimerEntry next;
+
+        private TimerEntry(ApplicationEvent event, boolean direct, long expireTick, Runnable task) {
+            this.event = event;
+            this.direct = direct;
+            this.expireTick = expireTick;
+            this.task = task;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!STATE_UPDATER.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            pendingCount.decrementAndGet();
+            //只有在驱动时间轮的事件循环线程中才能直接修改链表
+            if (Context.isOnEventLoopThread() && Vertx.currentContext() == context) {
+                unlink(this);
+            } else {
+                cancelQueue.offer(this);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        @Override
+        public ApplicationEvent getEvent() {
+            return event;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.aristoco.core.event.schedule;
+
+import com.aristoco.core.event.ApplicationEvent;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/21
+ * @description 延迟发布事件的句柄,用于取消还没到期的事件
+ **/
+public interface ScheduledEventHandle {
+
+    /**
+     * 取消发布
+     *
+     * @return true:取消成功 false:已经发布或者已经取消
+     */
+    boolean cancel();
+
+    /**
+     * @return 是否已经取消
+     */
+    boolean isCancelled();
+
+    /**
+     * @return 是否已经到期发布
+     */
+    boolean isExpired();
+
+    /**
+     * @return 延迟发布的事件
+     */
+    ApplicationEvent getEvent();
+}
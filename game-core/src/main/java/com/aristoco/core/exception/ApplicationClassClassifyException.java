@@ -0,0 +1,23 @@
+package com.aristoco.core.exception;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/27
+ * @description 启动时分类应用类失败
+ **/
+public class ApplicationClassClassifyException extends RuntimeException {
+
+    /**
+     * 分类失败的类名
+     */
+    private final String className;
+
+    public ApplicationClassClassifyException(String className, Throwable cause) {
+        super("分类应用类失败,类名：" + className + ",原因：" + cause.getMessage(), cause);
+        this.className = className;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+}
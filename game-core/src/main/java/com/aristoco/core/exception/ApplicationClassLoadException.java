@@ -0,0 +1,13 @@
+package com.aristoco.core.exception;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/26
+ * @description 读取类索引或者加载应用类失败
+ **/
+public class ApplicationClassLoadException extends RuntimeException {
+
+    public ApplicationClassLoadException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,13 @@
+package com.aristoco.core.exception;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/6
+ * @description 事件类编号重复
+ **/
+public class EventClassIdRepeatException extends RuntimeException {
+
+    public EventClassIdRepeatException(int classId, String className, String repeatClassName) {
+        super("事件类编号重复,编号：" + classId + ", " + className + " -- " + repeatClassName);
+    }
+}
@@ -0,0 +1,13 @@
+package com.aristoco.core.exception;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/6
+ * @description 事件类未注册到事件类编号表
+ **/
+public class EventClassNotRegisteredException extends RuntimeException {
+
+    public EventClassNotRegisteredException(int classId) {
+        super("事件类未注册,无法解析eventbus上的事件,事件类编号：" + classId);
+    }
+}
@@ -0,0 +1,17 @@
+package com.aristoco.core.exception;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/22
+ * @description 事件日志读写失败
+ **/
+public class EventJournalException extends RuntimeException {
+
+    public EventJournalException(String message) {
+        super(message);
+    }
+
+    public EventJournalException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -23,8 +23,11 @@
 
 package com.aristoco.core.guice;
 
+import cn.hutool.core.annotation.AnnotationUtil;
+import com.aristoco.core.BootstrapVerticle;
 import com.aristoco.core.GameApplicationContext;
 import com.aristoco.core.GameApplicationContextFactory;
+import com.aristoco.core.annotation.DeployVerticle;
 import com.aristoco.core.exception.BaseVerticleNotFoundException;
 import com.aristoco.core.vertx.verticle.BaseVerticle;
 import com.google.inject.Guice;
@@ -39,7 +42,9 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 创建verticle时同时创建guice来进行依赖注入
@@ -95,19 +100,32 @@ public class GuiceVerticleFactory implements VerticleFactory {
             promise.fail(e);
             return;
         }
+        //每次部署创建一次,同一次部署的实例共用父注入器
+        //重新部署时重新创建,不会沿用之前部署的配置和共享组件,部署的实例都停止后跟着释放
+        Map<Class<? extends BaseVerticle>, Injector> sharedInjectorMap = new ConcurrentHashMap<>(1);
         //执行创建
         promise.complete(() -> {
             //需要每次获取都获取一个新的上下文
             GameApplicationContext context = GameApplicationContextFactory.createGameApplicationContext(clazz);
             //构建guiceModule
+            boolean sharedInjector = isSharedInjector(clazz);
             List<Module> modules = new ArrayList<>();
-            modules.add(new GuiceVertxModule(vertx, context));
+            modules.add(new GuiceVertxModule(vertx, context,
+                    sharedInjector ? GuiceVertxModule.BindMode.INSTANCE : GuiceVertxModule.BindMode.ALL));
             //判断是否有额外的module
             if (!context.getExtraGuiceModule().isEmpty()) {
                 modules.addAll(context.getExtraGuiceModule());
             }
             //构建guice依赖
-            Injector injector = Guice.createInjector(modules);
+            Injector injector;
+            if (sharedInjector) {
+                //同一次部署的实例共用父注入器,只创建子注入器
+                Injector parentInjector = sharedInjectorMap.computeIfAbsent(clazz,
+                        k -> createSharedInjector(context));
+                injector = parentInjector.createChildInjector(modules);
+            } else {
+                injector = Guice.createInjector(modules);
+            }
             context.setInjector(injector);
             //获取引导verticle的实例
             BaseVerticle baseVerticle;
@@ -123,6 +141,35 @@ public class GuiceVerticleFactory implements VerticleFactory {
         });
     }
 
+    /**
+     * 创建共享的父注入器
+     * 父注入器使用复制的独立上下文,不持有第一个实例的上下文
+     *
+     * @param context 当前实例的上下文
+     * @return 父注入器
+     */
+    private Injector createSharedInjector(GameApplicationContext context) {
+        GameApplicationContext sharedContext = context.copy();
+        Injector injector = Guice.createInjector(new GuiceVertxModule(vertx, sharedContext,
+                GuiceVertxModule.BindMode.SHARED));
+        sharedContext.setInjector(injector);
+        return injector;
+    }
+
+    /**
+     * 是否开启了共享注入器,引导verticle只有一个实例不需要共享
+     *
+     * @param verticleClass Verticle类
+     * @return true:开启了
+     */
+    private static boolean isSharedInjector(Class<? extends BaseVerticle> verticleClass) {
+        if (BootstrapVerticle.class.isAssignableFrom(verticleClass)) {
+            return false;
+        }
+        DeployVerticle deployVerticle = AnnotationUtil.getSynthesizedAnnotation(verticleClass, DeployVerticle.class);
+        return deployVerticle != null && deployVerticle.sharedInjector();
+    }
+
     /**
      * 获取guice依赖注入的Verticle名
      *
@@ -37,21 +37,32 @@ import com.aristoco.core.guice.provider.ConfigurationBeanClassProvider;
 import com.aristoco.core.utils.MvelUtils;
 import com.aristoco.core.utils.StringUtils;
 import com.google.inject.AbstractModule;
+import com.google.inject.ConfigurationException;
+import com.google.inject.Key;
 import com.google.inject.Provider;
 import com.google.inject.Singleton;
+import com.google.inject.TypeLiteral;
 import com.google.inject.binder.AnnotatedBindingBuilder;
 import com.google.inject.binder.ScopedBindingBuilder;
+import com.google.inject.matcher.AbstractMatcher;
+import com.google.inject.matcher.Matcher;
 import com.google.inject.matcher.Matchers;
 import com.google.inject.multibindings.MapBinder;
 import com.google.inject.multibindings.Multibinder;
 import com.google.inject.name.Names;
+import com.google.inject.spi.Dependency;
+import com.google.inject.spi.InjectionPoint;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.shareddata.SharedData;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import org.mvel2.PropertyAccessException;
 
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -73,14 +84,30 @@ public class GuiceVertxModule extends AbstractModule {
      */
     private final GameApplicationContext context;
 
+    /**
+     * 绑定模式
+     */
+    private final BindMode bindMode;
+
     /**
      * provider缓存
      */
     private Map<Class<?>, Provider<?>> providerMap = new HashMap<>();
 
+    /**
+     * 共享组件缓存,开启共享注入器时使用
+     * k:组件类 v:组件定义
+     */
+    private Map<Class<?>, BeanClassDefinition> sharedComponentMap = new HashMap<>();
+
     public GuiceVertxModule(Vertx vertx, GameApplicationContext context) {
+        this(vertx, context, BindMode.ALL);
+    }
+
+    public GuiceVertxModule(Vertx vertx, GameApplicationContext context, BindMode bindMode) {
         this.vertx = vertx;
         this.context = context;
+        this.bindMode = bindMode;
     }
 
     /**
@@ -96,18 +123,27 @@ public class GuiceVertxModule extends AbstractModule {
         }
         //上下文注入vertx对象
         context.setVertx(vertx);
-        //绑定上下文信息
-        bind(GameApplicationContext.class).toInstance(context);
 
-        //监听注解，执行配置值注入和初始化方法
-        bindListener(Matchers.any(), new PostConstructAndValueFiledInjectionListener(context));
+        if (bindMode != BindMode.ALL) {
+            context.getClassSet()
+                    .stream()
+                    .filter(BeanClassDefinition::isShared)
+                    .forEach(beanClassDefinition -> sharedComponentMap.put(beanClassDefinition.getClazz(),
+                            beanClassDefinition));
+        }
 
-        //绑定当前vertx实例
-        bind(Vertx.class).toInstance(vertx);
-        //绑定eventbus方便使用
-        bind(EventBus.class).toInstance(vertx.eventBus());
-        //绑定SharedData方便使用
-        bind(SharedData.class).toInstance(vertx.sharedData());
+        //监听注解，执行配置值注入和初始化方法
+        //子注入器会继承父注入器的监听,父注入器只处理共享的类,其他的类由子注入器按各自实例的上下文处理
+        bindListener(getInjectionListenerMatcher(context), new PostConstructAndValueFiledInjectionListener(context));
+
+        if (bindMode.isBindShared()) {
+            //绑定当前vertx实例
+            bind(Vertx.class).toInstance(vertx);
+            //绑定eventbus方便使用
+            bind(EventBus.class).toInstance(vertx.eventBus());
+            //绑定SharedData方便使用
+            bind(SharedData.class).toInstance(vertx.sharedData());
+        }
 
         //处理启动时扫描分析出的依赖加载
         //绑定所有单例组件
@@ -119,12 +155,24 @@ public class GuiceVertxModule extends AbstractModule {
         //绑定所有的子类和父类
         bindExtendClass(context);
 
+        if (bindMode.isBindShared()) {
+            //配置绑定类和verticle配置注入关联
+            bindConfigPropertiesClassAndVerticleConfigClass(context);
+        }
+
+        if (!bindMode.isBindInstance()) {
+            //共享的父注入器只绑定共享部分,共享组件不能依赖子注入器中的绑定
+            checkSharedComponentDependency(context);
+            clearInjectCache();
+            return;
+        }
+
+        //绑定上下文信息
+        bind(GameApplicationContext.class).toInstance(context);
+
         //获取provider绑定
         bindProviderClass(context);
 
-        //配置绑定类和verticle配置注入关联
-        bindConfigPropertiesClassAndVerticleConfigClass(context);
-
         //配置类注入管理
         bindConfigurationInjectClass(context);
 
@@ -143,6 +191,157 @@ public class GuiceVertxModule extends AbstractModule {
      */
     private void clearInjectCache() {
         this.providerMap = null;
+        this.sharedComponentMap = null;
+    }
+
+    /**
+     * 获取配置值注入和初始化方法监听的类型
+     * 开启共享注入器时父注入器只监听共享组件和配置绑定类,子注入器监听其他的类
+     *
+     * @param context 应用上下文
+     * @return 类型匹配器
+     */
+    private Matcher<? super TypeLiteral<?>> getInjectionListenerMatcher(GameApplicationContext context) {
+        if (bindMode == BindMode.ALL) {
+            return Matchers.any();
+        }
+        Set<Class<?>> sharedClassSet = new HashSet<>(sharedComponentMap.keySet());
+        context.getConfigPropertityClassMap()
+                .values()
+                .forEach(beanClassDefinition -> sharedClassSet.add(beanClassDefinition.getClazz()));
+        boolean shared = bindMode == BindMode.SHARED;
+        return new AbstractMatcher<TypeLiteral<?>>() {
+            @Override
+            public boolean matches(TypeLiteral<?> typeLiteral) {
+                return sharedClassSet.contains(typeLiteral.getRawType()) == shared;
+            }
+        };
+    }
+
+    /**
+     * 检查共享组件的依赖
+     * 共享组件只能依赖父注入器中的绑定,依赖了只在子注入器中绑定的类时注入器创建失败
+     *
+     * @param context 应用上下文
+     */
+    private void checkSharedComponentDependency(GameApplicationContext context) {
+        //只在子注入器中绑定的类
+        Set<Class<?>> instanceClassSet = new HashSet<>();
+        instanceClassSet.add(GameApplicationContext.class);
+        instanceClassSet.add(ApplicationEventMulticaster.class);
+        instanceClassSet.add(AbstractVerticle.class);
+        context.getClassSet()
+                .stream()
+                .filter(beanClassDefinition -> !beanClassDefinition.isShared())
+                .forEach(beanClassDefinition -> instanceClassSet.add(beanClassDefinition.getClazz()));
+        context.getInterfaceClassMap().forEach((interfaceClass, nameMap) -> {
+            if (!isSharedBinding(nameMap)) {
+                instanceClassSet.add(interfaceClass);
+            }
+        });
+        context.getExtendClassMap().forEach((superClass, nameMap) -> {
+            if (!isSharedBinding(nameMap)) {
+                instanceClassSet.add(superClass);
+            }
+        });
+        instanceClassSet.addAll(context.getProviderClassMap().keySet());
+        context.getConfigurationClassMap()
+                .values()
+                .forEach(beanClassDefinitions -> beanClassDefinitions
+                        .forEach(beanClassDefinition -> instanceClassSet.add(beanClassDefinition.getClazz())));
+
+        sharedComponentMap.keySet().forEach(sharedClass -> {
+            Set<Dependency<?>> dependencies = new LinkedHashSet<>();
+            try {
+                dependencies.addAll(InjectionPoint.forConstructorOf(sharedClass).getDependencies());
+                InjectionPoint.forInstanceMethodsAndFields(sharedClass)
+                        .forEach(injectionPoint -> dependencies.addAll(injectionPoint.getDependencies()));
+            } catch (ConfigurationException e) {
+                //注入点本身有问题的交给guice报错
+                return;
+            }
+            dependencies.forEach(dependency -> {
+                Class<?> instanceClass = findInstanceClass(dependency.getKey().getTypeLiteral().getType(),
+                        instanceClassSet);
+                if (instanceClass != null) {
+                    addError("共享组件[%s]依赖了只在子注入器中绑定的[%s],共享组件只能依赖vertx、配置绑定类和其他共享组件",
+                            sharedClass.getName(), instanceClass.getName());
+                }
+            });
+        });
+    }
+
+    /**
+     * 查找依赖类型中只在子注入器中绑定的类,包括Set、Provider等泛型参数
+     *
+     * @param type             依赖类型
+     * @param instanceClassSet 只在子注入器中绑定的类
+     * @return 找不到返回null
+     */
+    private static Class<?> findInstanceClass(Type type, Set<Class<?>> instanceClassSet) {
+        if (type instanceof ParameterizedType parameterizedType) {
+            for (Type typeArgument : parameterizedType.getActualTypeArguments()) {
+                Class<?> instanceClass = findInstanceClass(typeArgument, instanceClassSet);
+                if (instanceClass != null) {
+                    return instanceClass;
+                }
+            }
+        }
+        Class<?> rawType = TypeLiteral.get(type).getRawType();
+        return instanceClassSet.contains(rawType) ? rawType : null;
+    }
+
+    /**
+     * 是否是只绑定在父注入器中的接口/父类,所有实现类都是共享组件
+     *
+     * @param nameMap 实现类/子类
+     * @return true:是
+     */
+    private boolean isSharedBinding(Map<String, BeanClassDefinition> nameMap) {
+        return nameMap.values()
+                .stream()
+                .allMatch(beanClassDefinition -> !(beanClassDefinition instanceof ConfigurationBeanClassDefinition)
+                        && sharedComponentMap.containsKey(beanClassDefinition.getClazz()));
+    }
+
+    /**
+     * 接口/父类是否绑定在当前注入器中
+     *
+     * @param nameMap 实现类/子类
+     * @return true:是
+     */
+    private boolean isBindInCurrentInjector(Map<String, BeanClassDefinition> nameMap) {
+        if (bindMode == BindMode.ALL) {
+            return true;
+        }
+        return isSharedBinding(nameMap) == (bindMode == BindMode.SHARED);
+    }
+
+    /**
+     * 是否是父注入器中的共享组件,子注入器中直接链接到父注入器的绑定
+     *
+     * @param beanClassDefinition 实现类/子类定义
+     * @return true:是
+     */
+    private boolean isParentComponent(BeanClassDefinition beanClassDefinition) {
+        return bindMode == BindMode.INSTANCE && !(beanClassDefinition instanceof ConfigurationBeanClassDefinition)
+                && sharedComponentMap.containsKey(beanClassDefinition.getClazz());
+    }
+
+    /**
+     * 获取父注入器中共享组件的绑定key
+     *
+     * @param clazz 共享组件类
+     * @param <T>   用于消除guice的错误
+     * @return 绑定key
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Key<T> getParentComponentKey(Class<?> clazz) {
+        BeanClassDefinition beanClassDefinition = sharedComponentMap.get(clazz);
+        if (StrUtil.isNotBlank(beanClassDefinition.getBeanName())) {
+            return (Key<T>) Key.get(clazz, Names.named(beanClassDefinition.getBeanName()));
+        }
+        return (Key<T>) Key.get(clazz);
     }
 
     /**
@@ -281,6 +480,9 @@ public class GuiceVertxModule extends AbstractModule {
     private void bindInterfaceClass(GameApplicationContext context) {
         Map<Class<?>, Map<String, BeanClassDefinition>> interfaceClassMap = context.getInterfaceClassMap();
         interfaceClassMap.forEach((interfaceClass, nameMap) -> {
+            if (!isBindInCurrentInjector(nameMap)) {
+                return;
+            }
             // 所有映射值都是正确的实现类类型，转换为泛型集合
             Map<Class<?>, BeanClassDefinition> implementationMap = nameMap.values()
                     .stream()
@@ -296,8 +498,7 @@ public class GuiceVertxModule extends AbstractModule {
                             if (beanClassDefinition instanceof ConfigurationBeanClassDefinition configurationBeanClassDefinition) {
                                 createBeanClassProvider(null, interfaceClass, configurationBeanClassDefinition);
                             } else {
-                                createBindingForInterface(null, (Class<Object>) interfaceClass,
-                                        beanClassDefinition.getClazz(), beanClassDefinition.isSingleton());
+                                bindComponentForInterface(null, (Class<Object>) interfaceClass, beanClassDefinition);
                             }
                         });
             } else {
@@ -311,12 +512,10 @@ public class GuiceVertxModule extends AbstractModule {
                     } else {
                         //如果是主要的提供默认绑定
                         if (beanClassDefinition.isPrimary()) {
-                            createBindingForInterface(null, (Class<Object>) interfaceClass,
-                                    beanClassDefinition.getClazz(), beanClassDefinition.isSingleton());
+                            bindComponentForInterface(null, (Class<Object>) interfaceClass, beanClassDefinition);
                         }
                         //绑定接口到实现使用指定名
-                        createBindingForInterface(name, (Class<Object>) interfaceClass,
-                                beanClassDefinition.getClazz(), beanClassDefinition.isSingleton());
+                        bindComponentForInterface(name, (Class<Object>) interfaceClass, beanClassDefinition);
                     }
                 });
             }
@@ -332,6 +531,9 @@ public class GuiceVertxModule extends AbstractModule {
     private void bindExtendClass(GameApplicationContext context) {
         Map<Class<?>, Map<String, BeanClassDefinition>> extendClassMap = context.getExtendClassMap();
         extendClassMap.forEach((supreClass, nameMap) -> {
+            if (!isBindInCurrentInjector(nameMap)) {
+                return;
+            }
             // 所有映射值都是正确的实现类类型，转换为泛型集合
             Map<Class<?>, BeanClassDefinition> extendMap = nameMap.values()
                     .stream()
@@ -348,8 +550,7 @@ public class GuiceVertxModule extends AbstractModule {
                                     if (beanClassDefinition instanceof ConfigurationBeanClassDefinition configurationBeanClassDefinition) {
                                         createBeanClassProvider(null, supreClass, configurationBeanClassDefinition);
                                     } else {
-                                        createBindingForExtend(null, (Class<Object>) supreClass,
-                                                beanClassDefinition.getClazz(), beanClassDefinition.isSingleton());
+                                        bindComponentForExtend(null, (Class<Object>) supreClass, beanClassDefinition);
                                     }
                                 }
                         );
@@ -364,18 +565,53 @@ public class GuiceVertxModule extends AbstractModule {
                     } else {
                         //如果是主要的提供默认绑定
                         if (beanClassDefinition.isPrimary()) {
-                            createBindingForExtend(null, (Class<Object>) supreClass,
-                                    beanClassDefinition.getClazz(), beanClassDefinition.isSingleton());
+                            bindComponentForExtend(null, (Class<Object>) supreClass, beanClassDefinition);
                         }
                         //绑定接口到实现使用指定名
-                        createBindingForExtend(name, (Class<Object>) supreClass,
-                                beanClassDefinition.getClazz(), beanClassDefinition.isSingleton());
+                        bindComponentForExtend(name, (Class<Object>) supreClass, beanClassDefinition);
                     }
                 });
             }
         });
     }
 
+    /**
+     * 绑定接口到实现类,共享组件在子注入器中链接到父注入器的绑定
+     *
+     * @param name                接口名
+     * @param interfaceClass      接口
+     * @param beanClassDefinition 实现类定义
+     * @param <T>                 用于消除guice的错误
+     */
+    @SuppressWarnings("unchecked")
+    private <T> void bindComponentForInterface(String name, Class<T> interfaceClass,
+                                               BeanClassDefinition beanClassDefinition) {
+        if (isParentComponent(beanClassDefinition)) {
+            createLinkedBindingForParent(name, interfaceClass, beanClassDefinition.getClazz());
+            return;
+        }
+        createBindingForInterface(name, interfaceClass, (Class<? extends T>) beanClassDefinition.getClazz(),
+                beanClassDefinition.isSingleton());
+    }
+
+    /**
+     * 绑定父类到子类,共享组件在子注入器中链接到父注入器的绑定
+     *
+     * @param name                bean名字
+     * @param superClazz          父类
+     * @param beanClassDefinition 子类定义
+     * @param <T>                 用于消除guice的错误
+     */
+    @SuppressWarnings("unchecked")
+    private <T> void bindComponentForExtend(String name, Class<T> superClazz, BeanClassDefinition beanClassDefinition) {
+        if (isParentComponent(beanClassDefinition)) {
+            createLinkedBindingForParent(name, superClazz, beanClassDefinition.getClazz());
+            return;
+        }
+        createBindingForExtend(name, superClazz, (Class<? extends T>) beanClassDefinition.getClazz(),
+                beanClassDefinition.isSingleton());
+    }
+
     /**
      * 绑定单例组件
      *
@@ -384,6 +620,10 @@ public class GuiceVertxModule extends AbstractModule {
     private void bindComponent(GameApplicationContext context) {
         Set<BeanClassDefinition> singletonClassSet = context.getClassSet();
         singletonClassSet.forEach(beanClassDefinition -> {
+            //共享组件只绑定在父注入器中,其他的只绑定在子注入器中
+            if (bindMode != BindMode.ALL && beanClassDefinition.isShared() != (bindMode == BindMode.SHARED)) {
+                return;
+            }
             createSimpleBinding(beanClassDefinition.getBeanName(), beanClassDefinition.getClazz(),
                     beanClassDefinition.isSingleton());
         });
@@ -423,6 +663,11 @@ public class GuiceVertxModule extends AbstractModule {
                                        Map<Class<? extends T>, BeanClassDefinition> multiClassMap) {
         Multibinder<T> multibinder = Multibinder.newSetBinder(binder(), clazz);
         multiClassMap.forEach((multiClass, beanclassDefinition) -> {
+            if (isParentComponent(beanclassDefinition)) {
+                //共享组件链接到父注入器的绑定,不在子注入器中重复创建
+                multibinder.addBinding().to(this.<T>getParentComponentKey(multiClass));
+                return;
+            }
             ScopedBindingBuilder scopedBindingBuilder;
             if (beanclassDefinition instanceof ConfigurationBeanClassDefinition configurationBeanClassDefinition) {
                 Provider<?> provider = providerMap.computeIfAbsent(configurationBeanClassDefinition.getClazz(),
@@ -519,5 +764,55 @@ public class GuiceVertxModule extends AbstractModule {
         }
     }
 
-}
+    /**
+     * 创建链接到父注入器共享组件的绑定
+     * 不指定作用域,由父注入器中的绑定决定是否是单例
+     *
+     * @param <T>         用于消除guice的错误
+     * @param name        bean名字
+     * @param superClazz  接口/父类
+     * @param sharedClass 共享组件类
+     */
+    public <T> void createLinkedBindingForParent(String name, Class<T> superClazz, Class<?> sharedClass) {
+        AnnotatedBindingBuilder<T> bind = bind(superClazz);
+        if (StrUtil.isNotBlank(name)) {
+            bind.annotatedWith(Names.named(name));
+        }
+        bind.to(this.<T>getParentComponentKey(sharedClass));
+    }
 
+    /**
+     * 绑定模式
+     */
+    @Getter
+    @AllArgsConstructor
+    public enum BindMode {
+
+        /**
+         * 所有绑定都在一个注入器中
+         */
+        ALL(true, true),
+
+        /**
+         * 同类型verticle实例共用的父注入器
+         * 绑定vertx、配置绑定类、共享组件和实现类都是共享组件的接口/父类
+         */
+        SHARED(true, false),
+
+        /**
+         * 每个verticle实例的子注入器
+         * 绑定共享部分以外的所有组件,接口/父类中的共享组件链接到父注入器的绑定
+         */
+        INSTANCE(false, true);
+
+        /**
+         * 是否绑定共享部分
+         */
+        private final boolean bindShared;
+
+        /**
+         * 是否绑定实例部分
+         */
+        private final boolean bindInstance;
+    }
+}
@@ -0,0 +1,279 @@
+package com.aristoco.core.scan;
+
+import com.aristoco.core.exception.ApplicationClassLoadException;
+import io.github.classgraph.AnnotationInfo;
+import io.github.classgraph.ClassInfo;
+import io.github.classgraph.FieldInfo;
+import io.github.classgraph.MethodInfo;
+import io.github.classgraph.ScanResult;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/26
+ * @description 应用类索引
+ * <p> 优先读取编译期{@link ApplicationClassIndexProcessor}生成的索引,每个jar或者类目录一个,启动时不需要扫描类路径
+ * <p> 没有索引的使用类扫描的结果构建,两者提供相同的查询
+ * <p> 查询结果按类名排序,和类扫描的顺序一致
+ **/
+public class ApplicationClassIndex {
+
+    /**
+     * 索引文件路径
+     */
+    public static final String INDEX_LOCATION = "META-INF/vertx-game/class.index";
+
+    /**
+     * 索引文件注释前缀
+     */
+    public static final String INDEX_COMMENT_PREFIX = "#";
+
+    /**
+     * 所有的类信息
+     * k:类名 v:类信息
+     */
+    private final NavigableMap<String, ApplicationClassInfo> classInfoMap;
+
+    private ApplicationClassIndex(NavigableMap<String, ApplicationClassInfo> classInfoMap) {
+        this.classInfoMap = Collections.unmodifiableNavigableMap(classInfoMap);
+    }
+
+    /**
+     * 读取类路径下所有的索引文件
+     * <p> 同一个类出现在多个索引中的,以类路径中靠前的为准
+     *
+     * @param classLoader 类加载器
+     * @return 类索引,没有索引文件返回null
+     */
+    public static ApplicationClassIndex load(ClassLoader classLoader) {
+        Enumeration<URL> resources;
+        try {
+            resources = classLoader.getResources(INDEX_LOCATION);
+        } catch (IOException e) {
+            throw new ApplicationClassLoadException("读取类索引失败,索引:" + INDEX_LOCATION, e);
+        }
+        if (!resources.hasMoreElements()) {
+            return null;
+        }
+        NavigableMap<String, ApplicationClassInfo> classInfoMap = new TreeMap<>();
+        while (resources.hasMoreElements()) {
+            URL url = resources.nextElement();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank() || line.startsWith(INDEX_COMMENT_PREFIX)) {
+                        continue;
+                    }
+                    ApplicationClassInfo classInfo = ApplicationClassInfo.parse(line, classLoader);
+                    if (classInfo != null) {
+                        classInfoMap.putIfAbsent(classInfo.getName(), classInfo);
+                    }
+                }
+            } catch (IOException e) {
+                throw new ApplicationClassLoadException("读取类索引失败,索引:" + url, e);
+            }
+        }
+        return new ApplicationClassIndex(classInfoMap);
+    }
+
+    /**
+     * 使用类扫描的结果构建
+     * <p> 需要的信息全部复制出来,构建完成后可以关闭扫描结果
+     *
+     * @param scanResult  类扫描结果,需要开启类、方法、字段和注解信息
+     * @param classLoader 类加载器
+     * @return 类索引
+     */
+    public static ApplicationClassIndex of(ScanResult scanResult, ClassLoader classLoader) {
+        NavigableMap<String, ApplicationClassInfo> classInfoMap = new TreeMap<>();
+        for (ClassInfo classInfo : scanResult.getAllClasses()) {
+            List<ClassInfo> hierarchy = new ArrayList<>();
+            hierarchy.add(classInfo);
+            hierarchy.addAll(classInfo.getSuperclasses());
+            Set<String> methodAnnotationNames = new LinkedHashSet<>();
+            Set<String> fieldAnnotationNames = new LinkedHashSet<>();
+            for (ClassInfo info : hierarchy) {
+                for (MethodInfo methodInfo : info.getDeclaredMethodInfo()) {
+                    for (AnnotationInfo annotationInfo : methodInfo.getAnnotationInfo()) {
+                        methodAnnotationNames.add(annotationInfo.getName());
+                    }
+                }
+                for (FieldInfo fieldInfo : info.getDeclaredFieldInfo()) {
+                    for (AnnotationInfo annotationInfo : fieldInfo.getAnnotationInfo()) {
+                        fieldAnnotationNames.add(annotationInfo.getName());
+                    }
+                }
+            }
+            ApplicationClassInfo applicationClassInfo = new ApplicationClassInfo(classInfo.getName(),
+                    classInfo.isInterface(), classInfo.isAbstract(), classInfo.isAnnotation(), classInfo.isEnum(),
+                    classInfo.getSuperclasses().getNames(),
+                    new LinkedHashSet<>(classInfo.getInterfaces().getNames()),
+                    new LinkedHashSet<>(classInfo.getAnnotations().getNames()),
+                    methodAnnotationNames, fieldAnnotationNames, classLoader);
+            classInfoMap.put(applicationClassInfo.getName(), applicationClassInfo);
+        }
+        return new ApplicationClassIndex(classInfoMap);
+    }
+
+    /**
+     * 过滤出新的索引
+     *
+     * @param filter 类过滤器
+     * @return 类索引
+     */
+    public ApplicationClassIndex filter(Predicate<ApplicationClassInfo> filter) {
+        NavigableMap<String, ApplicationClassInfo> filterClassInfoMap = new TreeMap<>();
+        classInfoMap.forEach((name, classInfo) -> {
+            if (filter.test(classInfo)) {
+                filterClassInfoMap.put(name, classInfo);
+            }
+        });
+        return new ApplicationClassIndex(filterClassInfoMap);
+    }
+
+    /**
+     * 合并另一个索引
+     * <p> 同一个类在两个索引中都有的,以当前索引为准
+     *
+     * @param other 另一个索引
+     * @return 合并后的索引
+     */
+    public ApplicationClassIndex merge(ApplicationClassIndex other) {
+        NavigableMap<String, ApplicationClassInfo> mergeClassInfoMap = new TreeMap<>(other.classInfoMap);
+        mergeClassInfoMap.putAll(classInfoMap);
+        return new ApplicationClassIndex(mergeClassInfoMap);
+    }
+
+    /**
+     * 索引中是否有指定包或者它的子包中的类
+     *
+     * @param packageName 包名,空的是根路径
+     * @return true:有
+     */
+    public boolean containsPackage(String packageName) {
+        if (packageName.isEmpty()) {
+            return !classInfoMap.isEmpty();
+        }
+        //按类名排序,包中的类都在包名之后
+        String prefix = packageName + ".";
+        String className = classInfoMap.ceilingKey(prefix);
+        return className != null && className.startsWith(prefix);
+    }
+
+    /**
+     * @return 类数量
+     */
+    public int size() {
+        return classInfoMap.size();
+    }
+
+    /**
+     * 根据类名获取类信息
+     *
+     * @param className 类名
+     * @return 类信息,没有返回null
+     */
+    public ApplicationClassInfo getClassInfo(String className) {
+        return classInfoMap.get(className);
+    }
+
+    /**
+     * @return 所有的类信息,包含接口、注解、枚举
+     */
+    public List<ApplicationClassInfo> getAllClasses() {
+        return List.copyOf(classInfoMap.values());
+    }
+
+    /**
+     * @return 所有的接口,不包含注解
+     */
+    public List<ApplicationClassInfo> getAllInterfaces() {
+        return find(ApplicationClassInfo::isInterface);
+    }
+
+    /**
+     * 获取有注解的类,包含通过元注解标注的
+     *
+     * @param annotationClass 注解类型
+     * @return 类信息列表
+     */
+    public List<ApplicationClassInfo> getClassesWithAnnotation(Class<? extends Annotation> annotationClass) {
+        return find(classInfo -> classInfo.hasAnnotation(annotationClass));
+    }
+
+    /**
+     * 获取实现了接口的类,包含父类实现的,不包含子接口
+     *
+     * @param interfaceClass 接口类型
+     * @return 类信息列表
+     */
+    public List<ApplicationClassInfo> getClassesImplementing(Class<?> interfaceClass) {
+        return getClassesImplementing(interfaceClass.getName());
+    }
+
+    /**
+     * 获取实现了接口的类,包含父类实现的,不包含子接口
+     *
+     * @param interfaceName 接口名
+     * @return 类信息列表
+     */
+    public List<ApplicationClassInfo> getClassesImplementing(String interfaceName) {
+        return find(classInfo -> !classInfo.isInterface() && !classInfo.isAnnotation()
+                && classInfo.implementsInterface(interfaceName));
+    }
+
+    /**
+     * 获取所有的子类
+     *
+     * @param superclass 父类
+     * @return 类信息列表
+     */
+    public List<ApplicationClassInfo> getSubclasses(Class<?> superclass) {
+        return find(classInfo -> classInfo.extendsSuperclass(superclass));
+    }
+
+    /**
+     * 获取有方法有注解的类,包含父类中的方法
+     *
+     * @param annotationClass 注解类型
+     * @return 类信息列表
+     */
+    public List<ApplicationClassInfo> getClassesWithMethodAnnotation(Class<? extends Annotation> annotationClass) {
+        return find(classInfo -> classInfo.hasMethodAnnotation(annotationClass));
+    }
+
+    /**
+     * 获取有字段有注解的类,包含父类中的字段
+     *
+     * @param annotationClass 注解类型
+     * @return 类信息列表
+     */
+    public List<ApplicationClassInfo> getClassesWithFieldAnnotation(Class<? extends Annotation> annotationClass) {
+        return find(classInfo -> classInfo.hasFieldAnnotation(annotationClass));
+    }
+
+    /**
+     * 查找符合条件的类
+     *
+     * @param predicate 条件
+     * @return 类信息列表
+     */
+    private List<ApplicationClassInfo> find(Predicate<ApplicationClassInfo> predicate) {
+        List<ApplicationClassInfo> classInfos = new ArrayList<>();
+        for (ApplicationClassInfo classInfo : classInfoMap.values()) {
+            if (predicate.test(classInfo)) {
+                classInfos.add(classInfo);
+            }
+        }
+        return classInfos;
+    }
+}
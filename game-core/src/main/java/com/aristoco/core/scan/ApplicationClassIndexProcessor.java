@@ -0,0 +1,275 @@
+package com.aristoco.core.scan;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.*;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/26
+ * @description 编译期生成应用类索引
+ * <p> 记录本次编译的所有类,写入{@link ApplicationClassIndex#INDEX_LOCATION},启动时直接读取不再扫描类路径
+ * <p> 增量编译时合并已有的索引,只替换本次编译的类,删除已经不存在的类
+ * <p> game-core通过META-INF/services自动注册,业务模块配置了annotationProcessorPaths的需要把game-core加进去
+ **/
+@SupportedAnnotationTypes("*")
+public class ApplicationClassIndexProcessor extends AbstractProcessor {
+
+    /**
+     * 元注解所在的包,不记录
+     */
+    private static final String META_ANNOTATION_PACKAGE = "java.lang.annotation.";
+
+    /**
+     * 本次编译的类记录
+     * k:类名 v:索引记录
+     */
+    private final Map<String, String> records = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+        for (TypeElement typeElement : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            collect(typeElement);
+        }
+        //不占用注解,其他处理器照常处理
+        return false;
+    }
+
+    /**
+     * 记录类和它的内部类
+     *
+     * @param typeElement 类
+     */
+    private void collect(TypeElement typeElement) {
+        ApplicationClassInfo classInfo = toClassInfo(typeElement);
+        records.put(classInfo.getName(), classInfo.toRecord());
+        for (TypeElement memberType : ElementFilter.typesIn(typeElement.getEnclosedElements())) {
+            collect(memberType);
+        }
+    }
+
+    /**
+     * 转换为类信息
+     *
+     * @param typeElement 类
+     * @return 类信息
+     */
+    private ApplicationClassInfo toClassInfo(TypeElement typeElement) {
+        ElementKind kind = typeElement.getKind();
+        boolean isAnnotation = kind == ElementKind.ANNOTATION_TYPE;
+        boolean isInterface = kind == ElementKind.INTERFACE;
+        boolean isAbstract = isInterface || isAnnotation || typeElement.getModifiers().contains(Modifier.ABSTRACT);
+
+        //父类,不包含Object
+        List<TypeElement> superclasses = new ArrayList<>();
+        for (TypeElement superclass = getSuperclass(typeElement); superclass != null;
+             superclass = getSuperclass(superclass)) {
+            superclasses.add(superclass);
+        }
+
+        //接口,包含父类和父接口的
+        Set<String> interfaceNames = new LinkedHashSet<>();
+        collectInterfaces(typeElement, interfaceNames);
+        superclasses.forEach(superclass -> collectInterfaces(superclass, interfaceNames));
+
+        //注解,包含元注解和父类上可以继承的注解
+        Set<String> annotationNames = new LinkedHashSet<>();
+        collectAnnotations(typeElement.getAnnotationMirrors(), annotationNames);
+        for (TypeElement superclass : superclasses) {
+            for (AnnotationMirror annotationMirror : superclass.getAnnotationMirrors()) {
+                if (getAnnotationElement(annotationMirror).getAnnotation(Inherited.class) != null) {
+                    collectAnnotations(List.of(annotationMirror), annotationNames);
+                }
+            }
+        }
+
+        //方法和字段上的注解,包含父类中声明的
+        Set<String> methodAnnotationNames = new LinkedHashSet<>();
+        Set<String> fieldAnnotationNames = new LinkedHashSet<>();
+        List<TypeElement> hierarchy = new ArrayList<>();
+        hierarchy.add(typeElement);
+        hierarchy.addAll(superclasses);
+        for (TypeElement element : hierarchy) {
+            for (ExecutableElement method : ElementFilter.methodsIn(element.getEnclosedElements())) {
+                collectMemberAnnotations(method, methodAnnotationNames);
+            }
+            for (VariableElement field : ElementFilter.fieldsIn(element.getEnclosedElements())) {
+                collectMemberAnnotations(field, fieldAnnotationNames);
+            }
+        }
+
+        return new ApplicationClassInfo(getBinaryName(typeElement), isInterface, isAbstract, isAnnotation,
+                kind == ElementKind.ENUM, superclasses.stream().map(this::getBinaryName).toList(), interfaceNames,
+                annotationNames, methodAnnotationNames, fieldAnnotationNames, null);
+    }
+
+    /**
+     * 获取父类
+     *
+     * @param typeElement 类
+     * @return 父类,没有或者是Object的返回null
+     */
+    private TypeElement getSuperclass(TypeElement typeElement) {
+        TypeMirror superclass = typeElement.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement superclassElement = (TypeElement) ((DeclaredType) superclass).asElement();
+        if (Object.class.getName().contentEquals(superclassElement.getQualifiedName())) {
+            return null;
+        }
+        return superclassElement;
+    }
+
+    /**
+     * 收集实现的接口和父接口
+     *
+     * @param typeElement    类或者接口
+     * @param interfaceNames 接口名
+     */
+    private void collectInterfaces(TypeElement typeElement, Set<String> interfaceNames) {
+        for (TypeMirror interfaceType : typeElement.getInterfaces()) {
+            if (interfaceType.getKind() != TypeKind.DECLARED) {
+                continue;
+            }
+            TypeElement interfaceElement = (TypeElement) ((DeclaredType) interfaceType).asElement();
+            if (interfaceNames.add(getBinaryName(interfaceElement))) {
+                collectInterfaces(interfaceElement, interfaceNames);
+            }
+        }
+    }
+
+    /**
+     * 收集注解和注解上的元注解
+     *
+     * @param annotationMirrors 注解
+     * @param annotationNames   注解名
+     */
+    private void collectAnnotations(List<? extends AnnotationMirror> annotationMirrors, Set<String> annotationNames) {
+        for (AnnotationMirror annotationMirror : annotationMirrors) {
+            TypeElement annotationElement = getAnnotationElement(annotationMirror);
+            String annotationName = getBinaryName(annotationElement);
+            if (annotationName.startsWith(META_ANNOTATION_PACKAGE) || isSourceRetention(annotationElement)) {
+                continue;
+            }
+            if (annotationNames.add(annotationName)) {
+                collectAnnotations(annotationElement.getAnnotationMirrors(), annotationNames);
+            }
+        }
+    }
+
+    /**
+     * 收集方法或者字段上的注解,只记录直接标注的
+     *
+     * @param element         方法或者字段
+     * @param annotationNames 注解名
+     */
+    private void collectMemberAnnotations(Element element, Set<String> annotationNames) {
+        for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+            TypeElement annotationElement = getAnnotationElement(annotationMirror);
+            if (!isSourceRetention(annotationElement)) {
+                annotationNames.add(getBinaryName(annotationElement));
+            }
+        }
+    }
+
+    /**
+     * 只在源码中的注解运行时拿不到,不记录
+     *
+     * @param annotationElement 注解
+     * @return true:只在源码中
+     */
+    private boolean isSourceRetention(TypeElement annotationElement) {
+        Retention retention = annotationElement.getAnnotation(Retention.class);
+        return retention != null && retention.value() == RetentionPolicy.SOURCE;
+    }
+
+    private TypeElement getAnnotationElement(AnnotationMirror annotationMirror) {
+        return (TypeElement) annotationMirror.getAnnotationType().asElement();
+    }
+
+    private String getBinaryName(TypeElement typeElement) {
+        return processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+    }
+
+    /**
+     * 写入索引,合并增量编译之前的索引
+     */
+    private void writeIndex() {
+        Map<String, String> indexRecords = new TreeMap<>(readExistingIndex());
+        indexRecords.putAll(records);
+        if (indexRecords.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject resource = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", ApplicationClassIndex.INDEX_LOCATION);
+            try (Writer writer = resource.openWriter()) {
+                writer.write(ApplicationClassIndex.INDEX_COMMENT_PREFIX + " vertx-game class index\n");
+                for (String record : indexRecords.values()) {
+                    writer.write(record);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "写入类索引失败,启动时将使用类扫描:" + e.getMessage());
+        }
+    }
+
+    /**
+     * 读取之前编译生成的索引,去掉已经不存在的类
+     *
+     * @return k:类名 v:索引记录
+     */
+    private Map<String, String> readExistingIndex() {
+        Map<String, String> existingRecords = new HashMap<>();
+        try {
+            FileObject resource = processingEnv.getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", ApplicationClassIndex.INDEX_LOCATION);
+            try (Reader reader = resource.openReader(true);
+                 BufferedReader bufferedReader = new BufferedReader(reader)) {
+                String line;
+                while ((line = bufferedReader.readLine()) != null) {
+                    if (line.isBlank() || line.startsWith(ApplicationClassIndex.INDEX_COMMENT_PREFIX)) {
+                        continue;
+                    }
+                    ApplicationClassInfo classInfo = ApplicationClassInfo.parse(line, null);
+                    if (classInfo != null && processingEnv.getElementUtils()
+                            .getTypeElement(classInfo.getName().replace('$', '.')) != null) {
+                        existingRecords.put(classInfo.getName(), line);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            //第一次编译没有索引
+        }
+        return existingRecords;
+    }
+}
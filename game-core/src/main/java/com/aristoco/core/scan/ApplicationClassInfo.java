@@ -0,0 +1,324 @@
+package com.aristoco.core.scan;
+
+import com.aristoco.core.exception.ApplicationClassLoadException;
+import lombok.Getter;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.*;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/26
+ * @description 应用类信息
+ * <p> 来自编译期生成的类索引或者运行时的类扫描,只记录依赖管理需要的信息,需要时才加载类
+ * <p> 父类和接口都是传递的,注解包含元注解和父类上可以继承的注解
+ * <p> 方法和字段注解包含父类中声明的,具体的方法和字段加载类后通过反射获取
+ * @see ApplicationClassIndex
+ **/
+@Getter
+public class ApplicationClassInfo {
+
+    /**
+     * 索引记录字段分隔符
+     */
+    private static final String RECORD_SEPARATOR = "\t";
+
+    /**
+     * 索引记录列表分隔符
+     */
+    private static final String LIST_SEPARATOR = ",";
+
+    /**
+     * 类名(二进制名)
+     */
+    private final String name;
+
+    /**
+     * 是否是接口,不包含注解
+     */
+    private final boolean isInterface;
+
+    /**
+     * 是否是抽象类,接口也是抽象的
+     */
+    private final boolean isAbstract;
+
+    /**
+     * 是否是注解
+     */
+    private final boolean isAnnotation;
+
+    /**
+     * 是否是枚举
+     */
+    private final boolean isEnum;
+
+    /**
+     * 所有父类,从直接父类开始,不包含Object
+     */
+    private final List<String> superclassNames;
+
+    /**
+     * 实现的所有接口,包含父类和父接口的
+     */
+    private final Set<String> interfaceNames;
+
+    /**
+     * 类上的注解,包含元注解和可以继承的注解
+     */
+    private final Set<String> annotationNames;
+
+    /**
+     * 当前类和父类中方法上的注解
+     */
+    private final Set<String> methodAnnotationNames;
+
+    /**
+     * 当前类和父类中字段上的注解
+     */
+    private final Set<String> fieldAnnotationNames;
+
+    /**
+     * 加载类使用的类加载器
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private final ClassLoader classLoader;
+
+    /**
+     * 已经加载的类
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private volatile Class<?> loadedClass;
+
+    public ApplicationClassInfo(String name, boolean isInterface, boolean isAbstract, boolean isAnnotation,
+                                boolean isEnum, List<String> superclassNames, Set<String> interfaceNames,
+                                Set<String> annotationNames, Set<String> methodAnnotationNames,
+                                Set<String> fieldAnnotationNames, ClassLoader classLoader) {
+        this.name = name;
+        this.isInterface = isInterface;
+        this.isAbstract = isAbstract;
+        this.isAnnotation = isAnnotation;
+        this.isEnum = isEnum;
+        this.superclassNames = List.copyOf(superclassNames);
+        this.interfaceNames = Collections.unmodifiableSet(new LinkedHashSet<>(interfaceNames));
+        this.annotationNames = Collections.unmodifiableSet(new LinkedHashSet<>(annotationNames));
+        this.methodAnnotationNames = Collections.unmodifiableSet(new LinkedHashSet<>(methodAnnotationNames));
+        this.fieldAnnotationNames = Collections.unmodifiableSet(new LinkedHashSet<>(fieldAnnotationNames));
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * 解析索引记录
+     * <p> 格式:类名 标记 父类 接口 注解 方法注解 字段注解,以制表符分隔,列表以逗号分隔
+     * <p> 标记:I接口 A抽象 N注解 E枚举
+     *
+     * @param record      索引记录
+     * @param classLoader 加载类使用的类加载器
+     * @return 类信息,格式不对的返回null
+     */
+    public static ApplicationClassInfo parse(String record, ClassLoader classLoader) {
+        String[] columns = record.split(RECORD_SEPARATOR, -1);
+        if (columns.length != 7 || columns[0].isEmpty()) {
+            return null;
+        }
+        String flags = columns[1];
+        return new ApplicationClassInfo(columns[0], flags.indexOf('I') >= 0, flags.indexOf('A') >= 0,
+                flags.indexOf('N') >= 0, flags.indexOf('E') >= 0, parseList(columns[2]),
+                new LinkedHashSet<>(parseList(columns[3])), new LinkedHashSet<>(parseList(columns[4])),
+                new LinkedHashSet<>(parseList(columns[5])), new LinkedHashSet<>(parseList(columns[6])), classLoader);
+    }
+
+    /**
+     * 转换为索引记录
+     *
+     * @return 索引记录
+     * @see #parse(String, ClassLoader)
+     */
+    public String toRecord() {
+        StringBuilder flags = new StringBuilder();
+        if (isInterface) {
+            flags.append('I');
+        }
+        if (isAbstract) {
+            flags.append('A');
+        }
+        if (isAnnotation) {
+            flags.append('N');
+        }
+        if (isEnum) {
+            flags.append('E');
+        }
+        return String.join(RECORD_SEPARATOR, name, flags,
+                String.join(LIST_SEPARATOR, superclassNames),
+                String.join(LIST_SEPARATOR, interfaceNames),
+                String.join(LIST_SEPARATOR, annotationNames),
+                String.join(LIST_SEPARATOR, methodAnnotationNames),
+                String.join(LIST_SEPARATOR, fieldAnnotationNames));
+    }
+
+    /**
+     * @return 包名
+     */
+    public String getPackageName() {
+        int index = name.lastIndexOf('.');
+        return index < 0 ? "" : name.substring(0, index);
+    }
+
+    /**
+     * @return 简单类名,内部类包含外部类名
+     */
+    public String getSimpleName() {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * @return 直接父类名,没有返回null
+     */
+    public String getSuperclassName() {
+        return superclassNames.isEmpty() ? null : superclassNames.get(0);
+    }
+
+    /**
+     * 是否有注解,包含元注解
+     *
+     * @param annotationClass 注解类型
+     * @return true:有
+     */
+    public boolean hasAnnotation(Class<? extends Annotation> annotationClass) {
+        return annotationNames.contains(annotationClass.getName());
+    }
+
+    /**
+     * 当前类或者父类中是否有方法有注解
+     *
+     * @param annotationClass 注解类型
+     * @return true:有
+     */
+    public boolean hasMethodAnnotation(Class<? extends Annotation> annotationClass) {
+        return methodAnnotationNames.contains(annotationClass.getName());
+    }
+
+    /**
+     * 当前类或者父类中是否有字段有注解
+     *
+     * @param annotationClass 注解类型
+     * @return true:有
+     */
+    public boolean hasFieldAnnotation(Class<? extends Annotation> annotationClass) {
+        return fieldAnnotationNames.contains(annotationClass.getName());
+    }
+
+    /**
+     * 是否实现了接口,包含父类和父接口实现的
+     *
+     * @param interfaceName 接口名
+     * @return true:实现了
+     */
+    public boolean implementsInterface(String interfaceName) {
+        return interfaceNames.contains(interfaceName);
+    }
+
+    /**
+     * 是否继承了父类
+     *
+     * @param superclass 父类
+     * @return true:继承了
+     */
+    public boolean extendsSuperclass(Class<?> superclass) {
+        return superclassNames.contains(superclass.getName());
+    }
+
+    /**
+     * 加载类,不会初始化
+     *
+     * @return 类
+     */
+    public Class<?> loadClass() {
+        Class<?> clazz = loadedClass;
+        if (clazz == null) {
+            try {
+                clazz = Class.forName(name, false, classLoader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                throw new ApplicationClassLoadException("加载应用类失败,类名:" + name, e);
+            }
+            loadedClass = clazz;
+        }
+        return clazz;
+    }
+
+    /**
+     * 获取当前类和父类中有注解的方法
+     * <p> 子类重写的方法只取子类的,不包含桥接方法
+     *
+     * @param annotationClass 注解类型
+     * @return 方法列表,子类的在前
+     */
+    public List<Method> getMethodsWithAnnotation(Class<? extends Annotation> annotationClass) {
+        List<Method> methods = new ArrayList<>();
+        Set<String> signatures = new HashSet<>();
+        for (Class<?> clazz = loadClass(); clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Method method : clazz.getDeclaredMethods()) {
+                //桥接方法也要记录签名,泛型父类中被重写的方法擦除后和桥接方法签名相同
+                boolean overridden = !signatures.add(method.getName() + Arrays.toString(method.getParameterTypes()));
+                if (overridden || method.isBridge() || method.isSynthetic()) {
+                    continue;
+                }
+                if (method.isAnnotationPresent(annotationClass)) {
+                    methods.add(method);
+                }
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * 获取当前类中声明的有注解的方法
+     *
+     * @param annotationClass 注解类型
+     * @return 方法列表
+     */
+    public List<Method> getDeclaredMethodsWithAnnotation(Class<? extends Annotation> annotationClass) {
+        List<Method> methods = new ArrayList<>();
+        for (Method method : loadClass().getDeclaredMethods()) {
+            if (!method.isBridge() && !method.isSynthetic() && method.isAnnotationPresent(annotationClass)) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * 获取当前类和父类中有注解的字段
+     *
+     * @param annotationClass 注解类型
+     * @return 字段列表,子类的在前
+     */
+    public List<Field> getFieldsWithAnnotation(Class<? extends Annotation> annotationClass) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> clazz = loadClass(); clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (!field.isSynthetic() && field.isAnnotationPresent(annotationClass)) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * 解析索引记录中的列表
+     *
+     * @param column 列
+     * @return 列表
+     */
+    private static List<String> parseList(String column) {
+        return column.isEmpty() ? List.of() : Arrays.asList(column.split(LIST_SEPARATOR));
+    }
+}
@@ -0,0 +1,857 @@
+package com.aristoco.core.scan;
+
+import cn.hutool.core.annotation.AnnotationUtil;
+import cn.hutool.core.util.StrUtil;
+import com.aristoco.core.GameApplicationContext;
+import com.aristoco.core.annotation.*;
+import com.aristoco.core.bean.definition.*;
+import com.aristoco.core.event.ApplicationEventMulticaster;
+import com.aristoco.core.event.ApplicationListener;
+import com.aristoco.core.event.AsyncApplicationListener;
+import com.aristoco.core.event.PayloadApplicationEvent;
+import com.aristoco.core.event.annotation.EventListener;
+import com.aristoco.core.exception.ApplicationClassClassifyException;
+import com.aristoco.core.exception.ApplicationClassLoadException;
+import com.aristoco.core.utils.ForkJoinUtils;
+import com.aristoco.core.utils.MvelUtils;
+import com.aristoco.core.utils.ReflectionUtils;
+import com.aristoco.core.utils.StringUtils;
+import com.google.inject.Provider;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.mvel2.ParserContext;
+
+import java.io.Serializable;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.aristoco.core.utils.ClassUtils.isPrimitiveOrString;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/27
+ * @description 应用类的定义表
+ * <p> 启动时对类索引只分类一次,加载类、读取注解、编译表达式都在分类时完成,所有Verticle共用
+ * <p> 每个Verticle通过{@link #filter(Predicate)}得到自己范围内的视图,视图和原表共用定义对象,创建后不再修改
+ * <p> 重名、重复前缀这类和Verticle范围相关的检查在注册到上下文时处理
+ * <p> 每个列表都按类名排序,和逐个查询类索引的顺序一致
+ **/
+@Slf4j
+@Getter
+public class ApplicationDefinitionTable {
+
+    /**
+     * 固定注入的组件
+     */
+    private final List<ComponentDefinition> components;
+
+    /**
+     * 接口的实现类,按接口名和实现类名排序
+     */
+    private final List<InterfaceDefinition> interfaceImplementations;
+
+    /**
+     * guice provider
+     */
+    private final List<ProviderDefinition> providers;
+
+    /**
+     * 配置类
+     */
+    private final List<ConfigurationDefinition> configurations;
+
+    /**
+     * 有配置值注入字段的类
+     */
+    private final List<MemberDefinition<ValueConfigBindBeanClassDefinition>> valueFields;
+
+    /**
+     * 有初始化方法的类
+     */
+    private final List<MemberDefinition<BeanClassDefinition>> postConstructMethods;
+
+    /**
+     * 配置绑定类
+     */
+    private final List<ConfigPropertiesDefinition> configProperties;
+
+    /**
+     * 自定义的事件多播器
+     */
+    private final List<ApplicationClassInfo> eventMulticasters;
+
+    /**
+     * 事件监听器,注解监听的在前,接口监听的在后
+     */
+    private final List<EventListenerDefinition> eventListeners;
+
+    private ApplicationDefinitionTable(List<ComponentDefinition> components,
+                                       List<InterfaceDefinition> interfaceImplementations,
+                                       List<ProviderDefinition> providers,
+                                       List<ConfigurationDefinition> configurations,
+                                       List<MemberDefinition<ValueConfigBindBeanClassDefinition>> valueFields,
+                                       List<MemberDefinition<BeanClassDefinition>> postConstructMethods,
+                                       List<ConfigPropertiesDefinition> configProperties,
+                                       List<ApplicationClassInfo> eventMulticasters,
+                                       List<EventListenerDefinition> eventListeners) {
+        this.components = List.copyOf(components);
+        this.interfaceImplementations = List.copyOf(interfaceImplementations);
+        this.providers = List.copyOf(providers);
+        this.configurations = List.copyOf(configurations);
+        this.valueFields = List.copyOf(valueFields);
+        this.postConstructMethods = List.copyOf(postConstructMethods);
+        this.configProperties = List.copyOf(configProperties);
+        this.eventMulticasters = List.copyOf(eventMulticasters);
+        this.eventListeners = List.copyOf(eventListeners);
+    }
+
+    /**
+     * 对类索引进行分类,每个类只处理一次
+     * <p> 类之间的分类互不影响,可以并行处理,结果按类名顺序合并
+     *
+     * @param classIndex      类索引
+     * @param classInfoFilter 类过滤器,只处理至少一个Verticle需要的类
+     * @param pool            并行处理的线程池,为null的串行处理
+     * @return 定义表
+     */
+    public static ApplicationDefinitionTable classify(ApplicationClassIndex classIndex,
+                                                      Predicate<ApplicationClassInfo> classInfoFilter,
+                                                      ForkJoinPool pool) {
+        List<ApplicationClassInfo> classInfos = classIndex.getAllClasses().stream()
+                .filter(classInfoFilter)
+                .toList();
+        Classification classification = new Classification();
+        ForkJoinUtils.invokeAll(pool, classInfos, classInfo -> {
+            Classification classInfoClassification = new Classification();
+            try {
+                classInfoClassification.add(classIndex, classInfoFilter, classInfo);
+            } catch (RuntimeException e) {
+                //并行分类时异常不一定有类的信息,统一带上类名
+                throw new ApplicationClassClassifyException(classInfo.getName(), e);
+            }
+            return classInfoClassification;
+        }).forEach(classification::merge);
+        return classification.toTable();
+    }
+
+    /**
+     * 过滤出一个Verticle范围内的视图
+     * <p> 接口实现需要接口和实现类都在范围内,配置类中@Bean返回的类不在范围内的不处理继承和接口关系
+     *
+     * @param classInfoFilter Verticle的类过滤器
+     * @return 定义表
+     */
+    public ApplicationDefinitionTable filter(Predicate<ApplicationClassInfo> classInfoFilter) {
+        List<ConfigurationDefinition> filterConfigurations = configurations.stream()
+                .filter(configuration -> classInfoFilter.test(configuration.classInfo()))
+                .map(configuration -> configuration.filter(classInfoFilter))
+                .toList();
+        return new ApplicationDefinitionTable(
+                filter(components, ComponentDefinition::classInfo, classInfoFilter),
+                interfaceImplementations.stream()
+                        .filter(definition -> classInfoFilter.test(definition.interfaceInfo())
+                                && classInfoFilter.test(definition.classInfo()))
+                        .toList(),
+                filter(providers, ProviderDefinition::classInfo, classInfoFilter),
+                filterConfigurations,
+                filter(valueFields, MemberDefinition::classInfo, classInfoFilter),
+                filter(postConstructMethods, MemberDefinition::classInfo, classInfoFilter),
+                filter(configProperties, ConfigPropertiesDefinition::classInfo, classInfoFilter),
+                filter(eventMulticasters, classInfo -> classInfo, classInfoFilter),
+                filter(eventListeners, EventListenerDefinition::classInfo, classInfoFilter));
+    }
+
+    private static <T> List<T> filter(List<T> definitions,
+                                      Function<T, ApplicationClassInfo> classInfoGetter,
+                                      Predicate<ApplicationClassInfo> classInfoFilter) {
+        return definitions.stream()
+                .filter(definition -> classInfoFilter.test(classInfoGetter.apply(definition)))
+                .toList();
+    }
+
+    /**
+     * 分类固定注入的组件,默认都是单例的
+     *
+     * @param classInfo 类信息
+     * @return 组件定义
+     */
+    private static ComponentDefinition classifyComponent(ApplicationClassInfo classInfo) {
+        Class<?> clazz = classInfo.loadClass();
+        String beanName = getComponent(clazz).value();
+        if (StrUtil.isBlank(beanName)) {
+            beanName = null;
+        }
+        BeanClassDefinition beanClassDefinition = new BeanClassDefinition();
+        beanClassDefinition.setClazz(clazz);
+        beanClassDefinition.setBeanName(beanName);
+        beanClassDefinition.setSingleton(!classInfo.hasAnnotation(Prototype.class));
+        beanClassDefinition.setPrimary(classInfo.hasAnnotation(Primary.class));
+        beanClassDefinition.setShared(classInfo.hasAnnotation(Shared.class));
+        return new ComponentDefinition(classInfo, beanClassDefinition, getRegisterName(classInfo, beanName),
+                loadSuperclasses(classInfo));
+    }
+
+    /**
+     * 分类接口的实现类,便于通过接口直接注入所有的实现类和使用别名注入指定实现类
+     *
+     * @param classIndex                 类索引
+     * @param classInfoFilter            类过滤器
+     * @param classInfo                  实现类信息
+     * @param interfaceImplementationMap k:接口名 v:实现类
+     */
+    private static void classifyInterfaceImplementations(ApplicationClassIndex classIndex,
+                                                         Predicate<ApplicationClassInfo> classInfoFilter,
+                                                         ApplicationClassInfo classInfo,
+                                                         Map<String, List<InterfaceDefinition>> interfaceImplementationMap) {
+        BeanClassDefinition beanClassDefinition = null;
+        for (String interfaceName : classInfo.getInterfaceNames()) {
+            ApplicationClassInfo interfaceInfo = classIndex.getClassInfo(interfaceName);
+            if (interfaceInfo == null || !interfaceInfo.isInterface() || !classInfoFilter.test(interfaceInfo)
+                    || interfaceName.equals(Provider.class.getName())) {
+                continue;
+            }
+            if (beanClassDefinition == null) {
+                Class<?> clazz = classInfo.loadClass();
+                String componentName = getComponent(clazz).value();
+                if (StrUtil.isBlank(componentName)) {
+                    //没有名字就使用类名(首字母小写的驼峰格式)
+                    componentName = StringUtils.toLowerCaseCamel(classInfo.getSimpleName());
+                }
+                beanClassDefinition = new BeanClassDefinition();
+                beanClassDefinition.setClazz(clazz);
+                beanClassDefinition.setBeanName(componentName);
+                beanClassDefinition.setSingleton(!classInfo.hasAnnotation(Prototype.class));
+            }
+            Class<?> interfaceClass = loadClass(interfaceName, beanClassDefinition.getClazz().getClassLoader());
+            interfaceImplementationMap.computeIfAbsent(interfaceName, k -> new ArrayList<>())
+                    .add(new InterfaceDefinition(interfaceInfo, classInfo, interfaceClass, beanClassDefinition));
+        }
+    }
+
+    /**
+     * 分类guice provider,只处理直接实现Provider的
+     *
+     * @param classInfo 类信息
+     * @return provider定义
+     */
+    @SuppressWarnings("unchecked")
+    private static List<ProviderDefinition> classifyProviders(ApplicationClassInfo classInfo) {
+        List<ProviderDefinition> providerDefinitions = new ArrayList<>();
+        //加载类获取泛型
+        Class<? extends Provider<?>> providerClass = (Class<? extends Provider<?>>) classInfo.loadClass();
+        for (Type genericInterface : providerClass.getGenericInterfaces()) {
+            if (!(genericInterface instanceof ParameterizedType pt) || !pt.getRawType().equals(Provider.class)) {
+                continue;
+            }
+            //Provider只会有一个泛型
+            if (pt.getActualTypeArguments()[0] instanceof Class<?> clazz) {
+                if (isPrimitiveOrString(clazz)) {
+                    log.warn("检查到有基础类型的provider,不会自动注入。请到module中指定使用！！！");
+                    continue;
+                }
+                String beanName = getComponent(providerClass).value();
+                if (StrUtil.isBlank(beanName)) {
+                    beanName = null;
+                }
+                ProviderClassDefinition providerClassDefinition = new ProviderClassDefinition();
+                providerClassDefinition.setBeanName(beanName);
+                providerClassDefinition.setClazz(providerClass);
+                providerClassDefinition.setSingleton(!classInfo.hasAnnotation(Prototype.class));
+                providerDefinitions.add(new ProviderDefinition(classInfo, clazz, providerClassDefinition));
+            }
+        }
+        return providerDefinitions;
+    }
+
+    /**
+     * 分类配置类,在所有非动态依赖加载完成后加载配置类中的动态依赖
+     *
+     * @param classIndex      类索引
+     * @param classInfoFilter 类过滤器
+     * @param classInfo       配置类信息
+     * @return 配置类定义
+     */
+    private static ConfigurationDefinition classifyConfiguration(ApplicationClassIndex classIndex,
+                                                                 Predicate<ApplicationClassInfo> classInfoFilter,
+                                                                 ApplicationClassInfo classInfo) {
+        Class<?> configurationClass = classInfo.loadClass();
+        Configuration configuration = configurationClass.getAnnotation(Configuration.class);
+        List<BeanMethodDefinition> beanMethods = classInfo.getDeclaredMethodsWithAnnotation(Bean.class)
+                .stream()
+                //必须要是public的无参方法
+                .filter(method -> Modifier.isPublic(method.getModifiers()) && method.getParameterCount() == 0)
+                .map(method -> {
+                    Bean bean = AnnotationUtil.getSynthesizedAnnotation(method, Bean.class);
+                    String name = bean.name();
+                    if (StrUtil.isNotBlank(bean.value())) {
+                        name = bean.value();
+                    }
+                    if (StrUtil.isBlank(name)) {
+                        name = null;
+                    }
+                    //获取返回值类型
+                    Class<?> resultClass = method.getReturnType();
+                    ConfigurationBeanClassDefinition beanClassDefinition = new ConfigurationBeanClassDefinition();
+                    beanClassDefinition.setConfigurationClass(configurationClass);
+                    beanClassDefinition.setConfigurationBeanName(configuration.value());
+                    beanClassDefinition.setBeanName(name);
+                    //判断是否有原型类注解
+                    beanClassDefinition.setSingleton(method.isAnnotationPresent(Prototype.class));
+                    beanClassDefinition.setClazz(resultClass);
+                    beanClassDefinition.setPrimary(method.isAnnotationPresent(Primary.class));
+
+                    ReflectionUtils.makeAccessible(method);
+                    beanClassDefinition.setMethod(method);
+
+                    //判断这个类有没有父类或者接口,没有扫描到的类不做处理[需要使用的类一定会被扫描到]
+                    ApplicationClassInfo resultClassInfo = classIndex.getClassInfo(resultClass.getName());
+                    if (resultClassInfo == null || resultClassInfo.isAbstract() || resultClassInfo.isInterface()
+                            || !classInfoFilter.test(resultClassInfo)) {
+                        return new BeanMethodDefinition(beanClassDefinition, null, null, List.of(), List.of());
+                    }
+                    List<Class<?>> interfaces = resultClassInfo.getInterfaceNames().stream()
+                            .<Class<?>>map(interfaceName -> loadClass(interfaceName, resultClass.getClassLoader()))
+                            .toList();
+                    return new BeanMethodDefinition(beanClassDefinition, resultClassInfo,
+                            getRegisterName(resultClassInfo, name), loadSuperclasses(resultClassInfo), interfaces);
+                })
+                .toList();
+        return new ConfigurationDefinition(classInfo, configurationClass, beanMethods);
+    }
+
+    /**
+     * 分类配置值注入的字段,复杂属性跳过
+     *
+     * @param classInfo 类信息
+     * @return 字段定义
+     */
+    private static MemberDefinition<ValueConfigBindBeanClassDefinition> classifyValueFields(ApplicationClassInfo classInfo) {
+        Class<?> clazz = classInfo.loadClass();
+        List<ValueConfigBindBeanClassDefinition> beanClassDefinitions = new ArrayList<>();
+        //每个类的分类任务使用自己的编译上下文,并行编译不需要加锁
+        ParserContext parserContext = MvelUtils.createParserContext();
+        for (Field field : classInfo.getFieldsWithAnnotation(Value.class)) {
+            String eval = field.getAnnotation(Value.class).value();
+            Class<?> fieldType = field.getType();
+            if (!isPrimitiveOrString(fieldType)) {
+                //复杂的属性绑定使用配置绑定类
+                log.warn("字段配置值注入-复杂属性注入请使用配置绑定类,当前类型：{} ,字段名：{} 已跳过",
+                        fieldType.getName(), field.getName());
+                continue;
+            }
+
+            //处理表达式
+            Serializable expression = MvelUtils.compileExpression(eval, parserContext);
+
+            ValueConfigBindBeanClassDefinition beanClassDefinition = new ValueConfigBindBeanClassDefinition();
+            beanClassDefinition.setClazz(clazz);
+            beanClassDefinition.setFiledClass(fieldType);
+
+            ReflectionUtils.makeAccessible(field);
+            beanClassDefinition.setField(field);
+            beanClassDefinition.setExpression(expression);
+            beanClassDefinitions.add(beanClassDefinition);
+        }
+        return new MemberDefinition<>(classInfo, clazz, beanClassDefinitions);
+    }
+
+    /**
+     * 分类初始化方法,必须是无参方法
+     *
+     * @param classInfo 类信息
+     * @return 方法定义
+     */
+    private static MemberDefinition<BeanClassDefinition> classifyPostConstructMethods(ApplicationClassInfo classInfo) {
+        Class<?> clazz = classInfo.loadClass();
+        List<BeanClassDefinition> beanClassDefinitions = classInfo.getMethodsWithAnnotation(PostConstruct.class)
+                .stream()
+                .filter(method -> method.getParameterCount() == 0)
+                .map(method -> {
+                    BeanClassDefinition beanClassDefinition = new BeanClassDefinition();
+                    beanClassDefinition.setClazz(clazz);
+
+                    ReflectionUtils.makeAccessible(method);
+                    beanClassDefinition.setMethod(method);
+                    return beanClassDefinition;
+                })
+                .toList();
+        return new MemberDefinition<>(classInfo, clazz, beanClassDefinitions);
+    }
+
+    /**
+     * 分类配置绑定类,在配置读取完成后赋值
+     *
+     * @param classInfo 类信息
+     * @return 配置绑定类定义
+     */
+    private static ConfigPropertiesDefinition classifyConfigProperties(ApplicationClassInfo classInfo) {
+        Class<?> clazz = classInfo.loadClass();
+        String configurationName = getComponent(clazz).value();
+        ConfigurationProperties configurationProperties = AnnotationUtil.getAnnotationAlias(clazz, ConfigurationProperties.class);
+        BeanClassDefinition beanClassDefinition = new BeanClassDefinition();
+        beanClassDefinition.setBeanName(StrUtil.isBlank(configurationName) ? null : configurationName);
+        beanClassDefinition.setClazz(clazz);
+        beanClassDefinition.setSingleton(true);
+        //前缀未配置的在注册时检查,不在任何Verticle范围内的不报错
+        return new ConfigPropertiesDefinition(classInfo, configurationProperties.value(), beanClassDefinition);
+    }
+
+    /**
+     * 分类事件监听注解
+     *
+     * @param classIndex 类索引
+     * @param classInfo  类信息
+     * @return 事件监听器定义
+     */
+    private static List<EventListenerDefinition> classifyAnnotationEventListeners(ApplicationClassIndex classIndex,
+                                                                                  ApplicationClassInfo classInfo) {
+        Class<?> clazz = classInfo.loadClass();
+        Component component = getComponent(clazz);
+        List<EventListenerDefinition> eventListeners = new ArrayList<>();
+        for (Method method : classInfo.getMethodsWithAnnotation(EventListener.class)) {
+            //记录参数的位置
+            List<EventListenerBeanClassDefinition.ParameterBeanClassDefinition> parameterBeanClassDefinitions =
+                    Stream.of(method.getParameters())
+                            .map(ApplicationDefinitionTable::getParameterBeanClassDefinition)
+                            .collect(Collectors.toList());
+            //获取注解信息
+            EventListener eventListener = method.getAnnotation(EventListener.class);
+            Set<String> eventSourceSet = Stream.of(eventListener.eventSources())
+                    .map(Class::getName)
+                    .collect(Collectors.toSet());
+            Class<?>[] listenerClasses = eventListener.value();
+            if (listenerClasses.length == 0) {
+                listenerClasses = parameterBeanClassDefinitions.stream()
+                        .map(EventListenerBeanClassDefinition.ParameterBeanClassDefinition::getParameterClass)
+                        .toArray(Class<?>[]::new);
+            }
+            if (listenerClasses.length == 0) {
+                log.warn("当前事件监听方法：{},没有监听任何事件", method.getName());
+                continue;
+            }
+            //批量事件监听的参数都需要是List
+            boolean batch = parameterBeanClassDefinitions.stream()
+                    .anyMatch(EventListenerBeanClassDefinition.ParameterBeanClassDefinition::isBatch);
+            if (batch && !parameterBeanClassDefinitions.stream()
+                    .allMatch(EventListenerBeanClassDefinition.ParameterBeanClassDefinition::isBatch)) {
+                log.warn("当前批量事件监听方法：{},参数必须都是List", method.getName());
+                continue;
+            }
+
+            //记录事件监听器的类定义信息
+            EventListenerBeanClassDefinition beanClassDefinition = new EventListenerBeanClassDefinition();
+            beanClassDefinition.setListenerClasses(Stream.of(listenerClasses).collect(Collectors.toSet()));
+            beanClassDefinition.setListenerSubClasses(getListenerSubClasses(classIndex,
+                    beanClassDefinition.getListenerClasses()));
+            beanClassDefinition.setParameterBeanClassDefinitions(parameterBeanClassDefinitions);
+            beanClassDefinition.setBatch(batch);
+            beanClassDefinition.setAlone(eventListener.alone());
+            beanClassDefinition.setLocal(eventListener.local());
+            beanClassDefinition.setCondition(eventListener.condition());
+            beanClassDefinition.setEventSources(eventSourceSet);
+
+            beanClassDefinition.setClazz(clazz);
+            beanClassDefinition.setBeanName(component.value());
+
+            ReflectionUtils.makeAccessible(method);
+            beanClassDefinition.setMethod(method);
+            eventListeners.add(new EventListenerDefinition(classInfo, beanClassDefinition));
+        }
+        return eventListeners;
+    }
+
+    /**
+     * 获取事件监听方法参数的定义
+     *
+     * @param parameter 参数
+     * @return 参数定义
+     */
+    private static EventListenerBeanClassDefinition.ParameterBeanClassDefinition getParameterBeanClassDefinition(
+            Parameter parameter) {
+        EventListenerBeanClassDefinition.ParameterBeanClassDefinition parameterBeanClassDefinition =
+                new EventListenerBeanClassDefinition.ParameterBeanClassDefinition();
+        Class<?> type = parameter.getType();
+        parameterBeanClassDefinition.setParameterClass(type);
+        parameterBeanClassDefinition.setParameterName(parameter.getName());
+        //判断是否是被payloadEvent包裹
+        if (PayloadApplicationEvent.class.isAssignableFrom(type)) {
+            if (parameter.getParameterizedType() instanceof ParameterizedType pt) {
+                parameterBeanClassDefinition.setParameterClass((Class<?>) pt.getActualTypeArguments()[0]);
+                parameterBeanClassDefinition.setPayloadEvent(true);
+            }
+        }
+        //判断是否是批量事件
+        if (List.class.equals(type)) {
+            if (parameter.getParameterizedType() instanceof ParameterizedType pt &&
+                    pt.getActualTypeArguments()[0] instanceof Class<?> typeClass) {
+                parameterBeanClassDefinition.setParameterClass(typeClass);
+                parameterBeanClassDefinition.setBatch(true);
+            }
+        }
+        return parameterBeanClassDefinition;
+    }
+
+    /**
+     * 分类事件监听接口
+     *
+     * @param classIndex 类索引
+     * @param classInfo  类信息
+     * @return 事件监听器定义,没有直接实现监听接口的返回null
+     */
+    private static EventListenerDefinition classifyInterfaceEventListener(ApplicationClassIndex classIndex,
+                                                                          ApplicationClassInfo classInfo) {
+        Class<?> clazz = classInfo.loadClass();
+        String beanName = getComponent(clazz).value();
+        if (StringUtils.isBlank(beanName)) {
+            beanName = null;
+        }
+        //获取当前事件监听方法的参数名,优先取类中实现的方法
+        Parameter parameter = Stream.of(clazz.getMethods())
+                .filter(method -> method.getName().equals("onApplicationEvent")
+                        && method.getParameterCount() == 1 && !method.isBridge())
+                .min(Comparator.comparing(method -> method.getDeclaringClass().isInterface()))
+                .map(method -> method.getParameters()[0])
+                .orElse(null);
+        String parameterName = parameter != null && parameter.isNamePresent() ? parameter.getName() : null;
+
+        //处理监听的类
+        for (Type genericInterface : clazz.getGenericInterfaces()) {
+            if (!(genericInterface instanceof ParameterizedType pt)) {
+                continue;
+            }
+            if (!pt.getRawType().equals(ApplicationListener.class) &&
+                    !pt.getRawType().equals(AsyncApplicationListener.class)) {
+                continue;
+            }
+            //监听器只会携带一个泛型，事件本身可以不带泛型
+            Type eventType = pt.getActualTypeArguments()[0];
+            Class<?> eventClass;
+            if (eventType instanceof ParameterizedType p) {
+                Type rawType = p.getRawType();
+                if (rawType.getTypeName().equals(PayloadApplicationEvent.class.getName())) {
+                    eventClass = (Class<?>) p.getActualTypeArguments()[0];
+                } else {
+                    eventClass = (Class<?>) rawType;
+                }
+            } else {
+                eventClass = (Class<?>) eventType;
+            }
+
+            EventListenerBeanClassDefinition beanClassDefinition = new EventListenerBeanClassDefinition();
+            beanClassDefinition.setListenerClasses(Set.of(eventClass));
+            beanClassDefinition.setListenerSubClasses(getListenerSubClasses(classIndex,
+                    beanClassDefinition.getListenerClasses()));
+            beanClassDefinition.setPayloadEvent(true);
+            beanClassDefinition.setParameterName(parameterName);
+
+            beanClassDefinition.setClazz(clazz);
+            beanClassDefinition.setBeanName(beanName);
+            return new EventListenerDefinition(classInfo, beanClassDefinition);
+        }
+        return null;
+    }
+
+    /**
+     * 获取监听的事件类在扫描范围内的子类型
+     * <p> 事件只发布到实际类型的地址上,监听父类或接口的监听器需要同时订阅这些子类型的地址
+     *
+     * @param classIndex      类索引
+     * @param listenerClasses 监听的事件类
+     * @return k:监听的事件类 v:可以实例化的子类型,没有子类型的不记录
+     */
+    private static Map<Class<?>, Set<Class<?>>> getListenerSubClasses(ApplicationClassIndex classIndex,
+                                                                      Set<Class<?>> listenerClasses) {
+        Map<Class<?>, Set<Class<?>>> listenerSubClasses = new HashMap<>();
+        for (Class<?> listenerClass : listenerClasses) {
+            //监听Object的不按层级分发,否则会订阅所有类
+            if (Object.class.equals(listenerClass) || listenerClass.isPrimitive() || listenerClass.isArray()) {
+                continue;
+            }
+            List<ApplicationClassInfo> subClassInfos = listenerClass.isInterface() ?
+                    classIndex.getClassesImplementing(listenerClass) :
+                    classIndex.getSubclasses(listenerClass);
+            Set<Class<?>> subClasses = subClassInfos.stream()
+                    .filter(classInfo -> !classInfo.isAbstract())
+                    .filter(classInfo -> !classInfo.isInterface())
+                    .<Class<?>>map(ApplicationClassInfo::loadClass)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            if (!subClasses.isEmpty()) {
+                listenerSubClasses.put(listenerClass, subClasses);
+            }
+        }
+        return listenerSubClasses;
+    }
+
+    private static Component getComponent(Class<?> clazz) {
+        return AnnotationUtil.getSynthesizedAnnotation(clazz, Component.class);
+    }
+
+    /**
+     * 获取注册到父类和接口时使用的名字
+     *
+     * @param classInfo 类信息
+     * @param beanName  指定的名字
+     * @return 没有指定名字的使用类名(首字母小写的驼峰格式)
+     */
+    private static String getRegisterName(ApplicationClassInfo classInfo, String beanName) {
+        return StringUtils.isBlank(beanName) ? StringUtils.toLowerCaseCamel(classInfo.getSimpleName()) : beanName;
+    }
+
+    /**
+     * 加载所有父类
+     *
+     * @param classInfo 类信息
+     * @return 父类列表,从直接父类开始
+     */
+    private static List<Class<?>> loadSuperclasses(ApplicationClassInfo classInfo) {
+        ClassLoader classLoader = classInfo.loadClass().getClassLoader();
+        return classInfo.getSuperclassNames().stream()
+                .<Class<?>>map(superclassName -> loadClass(superclassName, classLoader))
+                .toList();
+    }
+
+    /**
+     * 加载类,不会初始化
+     *
+     * @param className   类名
+     * @param classLoader 类加载器
+     * @return 类
+     */
+    private static Class<?> loadClass(String className, ClassLoader classLoader) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new ApplicationClassLoadException("加载应用类失败,类名:" + className, e);
+        }
+    }
+
+    /**
+     * 组件定义
+     *
+     * @param classInfo    类信息
+     * @param definition   类定义
+     * @param registerName 注册到父类时使用的名字
+     * @param superclasses 所有父类
+     */
+    public record ComponentDefinition(ApplicationClassInfo classInfo, BeanClassDefinition definition,
+                                      String registerName, List<Class<?>> superclasses) {
+    }
+
+    /**
+     * 接口实现定义
+     *
+     * @param interfaceInfo  接口信息
+     * @param classInfo      实现类信息
+     * @param interfaceClass 接口
+     * @param definition     实现类定义,同一个实现类的多个接口共用
+     */
+    public record InterfaceDefinition(ApplicationClassInfo interfaceInfo, ApplicationClassInfo classInfo,
+                                      Class<?> interfaceClass, BeanClassDefinition definition) {
+    }
+
+    /**
+     * guice provider定义
+     *
+     * @param classInfo     provider类信息
+     * @param providedClass 提供的类
+     * @param definition    provider定义
+     */
+    public record ProviderDefinition(ApplicationClassInfo classInfo, Class<?> providedClass,
+                                     ProviderClassDefinition definition) {
+    }
+
+    /**
+     * 配置类定义
+     *
+     * @param classInfo          配置类信息
+     * @param configurationClass 配置类
+     * @param beanMethods        @Bean方法
+     */
+    public record ConfigurationDefinition(ApplicationClassInfo classInfo, Class<?> configurationClass,
+                                          List<BeanMethodDefinition> beanMethods) {
+
+        /**
+         * @return 所有@Bean方法的定义
+         */
+        public List<ConfigurationBeanClassDefinition> getBeanClassDefinitions() {
+            return beanMethods.stream().map(BeanMethodDefinition::definition).toList();
+        }
+
+        /**
+         * 返回的类不在范围内的去掉继承和接口关系
+         *
+         * @param classInfoFilter 类过滤器
+         * @return 配置类定义
+         */
+        private ConfigurationDefinition filter(Predicate<ApplicationClassInfo> classInfoFilter) {
+            List<BeanMethodDefinition> filterBeanMethods = beanMethods.stream()
+                    .map(beanMethod -> beanMethod.resultClassInfo() == null
+                            || classInfoFilter.test(beanMethod.resultClassInfo()) ? beanMethod :
+                            new BeanMethodDefinition(beanMethod.definition(), null, null, List.of(), List.of()))
+                    .toList();
+            return new ConfigurationDefinition(classInfo, configurationClass, filterBeanMethods);
+        }
+    }
+
+    /**
+     * 配置类中@Bean方法定义
+     *
+     * @param definition      类定义
+     * @param resultClassInfo 返回的类信息,不在扫描范围内的为null
+     * @param registerName    注册到父类和接口时使用的名字
+     * @param superclasses    返回类的所有父类
+     * @param interfaces      返回类的所有接口
+     */
+    public record BeanMethodDefinition(ConfigurationBeanClassDefinition definition,
+                                       ApplicationClassInfo resultClassInfo, String registerName,
+                                       List<Class<?>> superclasses, List<Class<?>> interfaces) {
+    }
+
+    /**
+     * 类成员(字段或者方法)定义
+     *
+     * @param classInfo   类信息
+     * @param clazz       类
+     * @param definitions 成员定义
+     * @param <T>         定义类型
+     */
+    public record MemberDefinition<T extends BeanClassDefinition>(ApplicationClassInfo classInfo, Class<?> clazz,
+                                                                  List<T> definitions) {
+    }
+
+    /**
+     * 配置绑定类定义
+     *
+     * @param classInfo  类信息
+     * @param prefix     配置前缀
+     * @param definition 类定义
+     */
+    public record ConfigPropertiesDefinition(ApplicationClassInfo classInfo, String prefix,
+                                             BeanClassDefinition definition) {
+    }
+
+    /**
+     * 事件监听器定义
+     *
+     * @param classInfo  类信息
+     * @param definition 监听器定义
+     */
+    public record EventListenerDefinition(ApplicationClassInfo classInfo, EventListenerBeanClassDefinition definition) {
+    }
+
+    /**
+     * 分类过程中的结果
+     */
+    private static class Classification {
+
+        private final List<ComponentDefinition> components = new ArrayList<>();
+
+        /**
+         * k:接口名 v:实现类
+         */
+        private final Map<String, List<InterfaceDefinition>> interfaceImplementationMap = new TreeMap<>();
+
+        private final List<ProviderDefinition> providers = new ArrayList<>();
+
+        private final List<ConfigurationDefinition> configurations = new ArrayList<>();
+
+        private final List<MemberDefinition<ValueConfigBindBeanClassDefinition>> valueFields = new ArrayList<>();
+
+        private final List<MemberDefinition<BeanClassDefinition>> postConstructMethods = new ArrayList<>();
+
+        private final List<ConfigPropertiesDefinition> configProperties = new ArrayList<>();
+
+        private final List<ApplicationClassInfo> eventMulticasters = new ArrayList<>();
+
+        private final List<EventListenerDefinition> annotationEventListeners = new ArrayList<>();
+
+        private final List<EventListenerDefinition> interfaceEventListeners = new ArrayList<>();
+
+        /**
+         * 分类一个类
+         *
+         * @param classIndex      类索引
+         * @param classInfoFilter 类过滤器
+         * @param classInfo       类信息
+         */
+        private void add(ApplicationClassIndex classIndex, Predicate<ApplicationClassInfo> classInfoFilter,
+                         ApplicationClassInfo classInfo) {
+            if (classInfo.hasAnnotation(Configuration.class) && !classInfo.isAbstract()) {
+                configurations.add(classifyConfiguration(classIndex, classInfoFilter, classInfo));
+            }
+            if (!classInfo.hasAnnotation(Component.class)) {
+                return;
+            }
+            boolean isClass = !classInfo.isInterface() && !classInfo.isAnnotation();
+            boolean isConcrete = isClass && !classInfo.isAbstract();
+
+            if (isConcrete && !classInfo.isEnum() && !classInfo.hasAnnotation(ConfigurationProperties.class)) {
+                components.add(classifyComponent(classInfo));
+            }
+            if (isClass) {
+                classifyInterfaceImplementations(classIndex, classInfoFilter, classInfo, interfaceImplementationMap);
+            }
+            if (isConcrete && classInfo.implementsInterface(Provider.class.getName())) {
+                providers.addAll(classifyProviders(classInfo));
+            }
+            if (!classInfo.isAbstract() && classInfo.hasFieldAnnotation(Value.class)) {
+                valueFields.add(classifyValueFields(classInfo));
+            }
+            if (!classInfo.isAbstract() && classInfo.hasMethodAnnotation(PostConstruct.class)) {
+                postConstructMethods.add(classifyPostConstructMethods(classInfo));
+            }
+            if (!classInfo.isAbstract() && classInfo.hasAnnotation(ConfigurationProperties.class)) {
+                configProperties.add(classifyConfigProperties(classInfo));
+            }
+            if (isConcrete && classInfo.implementsInterface(ApplicationEventMulticaster.class.getName())
+                    && GameApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME.equals(
+                    getComponent(classInfo.loadClass()).value())) {
+                eventMulticasters.add(classInfo);
+            }
+            if (isConcrete && classInfo.hasMethodAnnotation(EventListener.class)) {
+                annotationEventListeners.addAll(classifyAnnotationEventListeners(classIndex, classInfo));
+            }
+            if (isConcrete && classInfo.implementsInterface(ApplicationListener.class.getName())) {
+                EventListenerDefinition eventListener = classifyInterfaceEventListener(classIndex, classInfo);
+                if (eventListener != null) {
+                    interfaceEventListeners.add(eventListener);
+                }
+            }
+        }
+
+        /**
+         * 合并后面的类的分类结果
+         *
+         * @param other 分类结果
+         */
+        private void merge(Classification other) {
+            components.addAll(other.components);
+            other.interfaceImplementationMap.forEach((interfaceName, implementations) ->
+                    interfaceImplementationMap.computeIfAbsent(interfaceName, k -> new ArrayList<>())
+                            .addAll(implementations));
+            providers.addAll(other.providers);
+            configurations.addAll(other.configurations);
+            valueFields.addAll(other.valueFields);
+            postConstructMethods.addAll(other.postConstructMethods);
+            configProperties.addAll(other.configProperties);
+            eventMulticasters.addAll(other.eventMulticasters);
+            annotationEventListeners.addAll(other.annotationEventListeners);
+            interfaceEventListeners.addAll(other.interfaceEventListeners);
+        }
+
+        private ApplicationDefinitionTable toTable() {
+            List<InterfaceDefinition> interfaceImplementations = new ArrayList<>();
+            interfaceImplementationMap.values().forEach(interfaceImplementations::addAll);
+            List<EventListenerDefinition> eventListeners = new ArrayList<>(annotationEventListeners);
+            eventListeners.addAll(interfaceEventListeners);
+            return new ApplicationDefinitionTable(components, interfaceImplementations, providers, configurations,
+                    valueFields, postConstructMethods, configProperties, eventMulticasters, eventListeners);
+        }
+    }
+}
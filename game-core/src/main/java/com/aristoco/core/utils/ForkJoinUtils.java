@@ -0,0 +1,92 @@
+package com.aristoco.core.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/27
+ * @description fork-join并行工具类
+ * <p> 结果和异常都按输入的顺序处理,和串行执行的结果一致
+ **/
+public class ForkJoinUtils {
+
+    /**
+     * 创建线程池
+     *
+     * @param parallelism 并行数
+     * @param threadName  线程名前缀
+     * @param classLoader 线程上下文类加载器
+     * @return 线程池
+     */
+    public static ForkJoinPool createPool(int parallelism, String threadName, ClassLoader classLoader) {
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(threadName + "-" + thread.getPoolIndex());
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * 并行处理,结果按输入的顺序返回
+     * <p> 所有元素都会处理完,有异常的抛出顺序最靠前的异常,其他的异常作为被抑制的异常附加上
+     *
+     * @param pool   线程池,为null的在当前线程串行处理
+     * @param items  需要处理的元素
+     * @param mapper 处理方法
+     * @param <T>    元素类型
+     * @param <R>    结果类型
+     * @return 结果列表
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, R> List<R> invokeAll(ForkJoinPool pool, List<T> items, Function<? super T, ? extends R> mapper) {
+        int size = items.size();
+        Object[] results = new Object[size];
+        Throwable[] failures = new Throwable[size];
+        IntStream indexes = IntStream.range(0, size);
+        if (pool == null) {
+            indexes.forEach(i -> apply(items, mapper, results, failures, i));
+        } else {
+            //在指定的线程池中执行并行流
+            pool.submit(() -> indexes.parallel().forEach(i -> apply(items, mapper, results, failures, i))).join();
+        }
+
+        Throwable failure = null;
+        for (Throwable throwable : failures) {
+            if (throwable == null) {
+                continue;
+            }
+            if (failure == null) {
+                failure = throwable;
+            } else {
+                failure.addSuppressed(throwable);
+            }
+        }
+        if (failure instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+
+        List<R> resultList = new ArrayList<>(size);
+        for (Object result : results) {
+            resultList.add((R) result);
+        }
+        return resultList;
+    }
+
+    private static <T, R> void apply(List<T> items, Function<? super T, ? extends R> mapper,
+                                     Object[] results, Throwable[] failures, int index) {
+        try {
+            results[index] = mapper.apply(items.get(index));
+        } catch (Throwable e) {
+            failures[index] = e;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.aristoco.core.el.JsonObjectPropertyHandler;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import org.mvel2.MVEL;
+import org.mvel2.ParserConfiguration;
 import org.mvel2.ParserContext;
 import org.mvel2.integration.PropertyHandler;
 import org.mvel2.integration.PropertyHandlerFactory;
@@ -88,6 +89,19 @@ public class MvelUtils {
         return MVEL.executeExpression(compileExpression(expressionStr), parserContext, params, returnType);
     }
 
+    /**
+     * 创建编译使用的上下文
+     * <p> 编译时会修改上下文,并行编译的每个任务使用自己的上下文,不需要加锁
+     * <p> 导入和拦截器从共用的上下文复制
+     *
+     * @return 编译上下文
+     */
+    public static ParserContext createParserContext() {
+        ParserConfiguration configuration = parserContext.getParserConfiguration();
+        return new ParserContext(new ParserConfiguration(configuration.getImports(),
+                configuration.getPackageImports(), configuration.getInterceptors()));
+    }
+
     /**
      * 预编译表达式
      *
@@ -95,7 +109,18 @@ public class MvelUtils {
      * @return 编译后表达式
      */
     public static Serializable compileExpression(String expressionStr) {
-        return MVEL.compileExpression(formatExpressionStr(expressionStr), parserContext);
+        return compileExpression(expressionStr, createParserContext());
+    }
+
+    /**
+     * 使用指定的上下文预编译表达式
+     *
+     * @param expressionStr 表达式字符串
+     * @param context       编译上下文,不能在多个线程中同时使用
+     * @return 编译后表达式
+     */
+    public static Serializable compileExpression(String expressionStr, ParserContext context) {
+        return MVEL.compileExpression(formatExpressionStr(expressionStr), context);
     }
 
     /**
@@ -2,6 +2,7 @@ package com.aristoco.core.vertx.verticle;
 
 import com.aristoco.core.BootstrapVerticle;
 import com.aristoco.core.GameApplicationContext;
+import com.aristoco.core.annotation.DeployVerticle;
 import com.aristoco.core.event.BootstrapVerticleStopEvent;
 import com.aristoco.core.event.VerticleStopEvent;
 import com.aristoco.core.utils.StringUtils;
@@ -46,6 +47,11 @@ public abstract class BaseVerticle extends AbstractVerticle {
      */
     public static final String EVENT_SOURCE_FLAG = "EVENT_SOURCE_FLAG";
 
+    /**
+     * 预热标志,部署配置中的预热开关
+     */
+    public static final String EAGER_WARMUP_FLAG = "EAGER_WARMUP_FLAG";
+
     /**
      * 当前Verticle的类型
      */
@@ -102,6 +108,8 @@ public abstract class BaseVerticle extends AbstractVerticle {
         context.put(VERTICLE_CLASS_NAME, this.getClass().getName());
         //注册上下文名
         context.put(VERTICLE_APPLICATION_CONTEXT_DISPLAY_NAME, applicationContext.getDisplayName());
+        //保存verticle的上下文
+        applicationContext.setVertxContext(context);
         //上下文预刷新
         applicationContext.prepareRefresh();
     }
@@ -110,8 +118,8 @@ public abstract class BaseVerticle extends AbstractVerticle {
     public final void start(Promise<Void> startPromise) throws Exception {
         //上下文刷新
         applicationContext.onRefresh();
-        //优先执行异步启服逻辑，在执行同步
-        open().onSuccess(ignore -> {
+        //开启预热的先预热,再优先执行异步启服逻辑，在执行同步
+        startWarmup().compose(ignore -> open()).onSuccess(ignore -> {
                     try {
                         super.start(startPromise);
                         //注册停服处理
@@ -125,6 +133,39 @@ public abstract class BaseVerticle extends AbstractVerticle {
                 .onFailure(startPromise::fail);
     }
 
+    /**
+     * 预热逻辑,开启预热时在异步启服逻辑前执行
+     * 此时所有单例都已经创建,可以在这里加载缓存、建立连接
+     * 不需要处理直接返回成功的future
+     *
+     * @return 预热结果,失败时verticle部署失败
+     * @see DeployVerticle#eagerWarmup()
+     */
+    public Future<Void> warmup() {
+        return Future.succeededFuture();
+    }
+
+    /**
+     * 执行预热
+     * 部署配置中的预热开关优先于注解
+     *
+     * @return 预热结果,没有开启预热直接返回成功的future
+     */
+    private Future<Void> startWarmup() {
+        if (!config().getBoolean(EAGER_WARMUP_FLAG, applicationContext.isEagerWarmup())) {
+            return Future.succeededFuture();
+        }
+        long startTime = System.currentTimeMillis();
+        int singletonCount;
+        try {
+            singletonCount = applicationContext.warmupSingletons();
+        } catch (Exception e) {
+            return Future.failedFuture(e);
+        }
+        return warmup().onSuccess(ignore -> log.info("预热完成,Verticle: {},单例数：{},耗时：{} ms",
+                this.getClass().getSimpleName(), singletonCount, System.currentTimeMillis() - startTime));
+    }
+
     /**
      * 同步启服逻辑
      */
@@ -0,0 +1,289 @@
+package com.aristoco.core.event;
+
+import com.aristoco.core.GameApplicationContext;
+import com.aristoco.core.bean.definition.EventListenerBeanClassDefinition;
+import com.aristoco.core.config.ApplicationEventExecutorConfig;
+import com.aristoco.core.event.codec.ApplicationEventMessageCodec;
+import com.google.inject.Guice;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/29
+ * @description 批量事件发布测试
+ **/
+class EventBatchTest {
+
+    private Vertx vertx;
+
+    private BatchListener listener;
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx();
+        listener = new BatchListener();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void codecRoundTripsBatch() {
+        ApplicationEventMessageCodec codec = new ApplicationEventMessageCodec();
+        BatchApplicationEvent batchEvent = new BatchApplicationEvent(List.of(new TestEvent(1), new TestEvent(2)));
+        Buffer buffer = Buffer.buffer();
+        codec.encodeToWire(buffer, batchEvent);
+        assertEquals(List.of(1, 2), getIds(codec.decodeFromWire(0, buffer)));
+
+        //payload事件批量
+        BatchApplicationEvent payloadBatchEvent = new BatchApplicationEvent(List.of(
+                new PayloadApplicationEvent<>(new TestPayload(3)), new PayloadApplicationEvent<>(new TestPayload(4))));
+        Buffer payloadBuffer = Buffer.buffer();
+        codec.encodeToWire(payloadBuffer, payloadBatchEvent);
+        BatchApplicationEvent decoded = (BatchApplicationEvent) codec.decodeFromWire(0, payloadBuffer);
+        assertEquals(List.of(3, 4), decoded.getEvents().stream()
+                .map(event -> ((TestPayload) ((PayloadApplicationEvent<?>) event).getPayload()).getId())
+                .toList());
+
+        //本地投递复制每个事件
+        BatchApplicationEvent copied = (BatchApplicationEvent) codec.transform(batchEvent);
+        assertEquals(List.of(1, 2), getIds(copied));
+        assertNotSame(batchEvent.getEvents().get(0), copied.getEvents().get(0));
+    }
+
+    @Test
+    void sendsWhenMaxSizeReached() throws Exception {
+        EventBusApplicationEventMulticaster multicaster = createMulticaster(null, 3, 10_000);
+        CountDownLatch latch = listener.expect(1, 3);
+        multicaster.multicastEvents(List.of(new TestEvent(1), new TestEvent(2), new TestEvent(3)), false);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        //List<T>监听一次收到整批,普通监听按顺序逐个收到
+        assertEquals(List.of(List.of(1, 2, 3)), listener.batches);
+        assertEquals(List.of(1, 2, 3), listener.events);
+
+        //没有达到数量的等待定时发送
+        CountDownLatch waiting = listener.expect(1, 1);
+        multicaster.multicastEvents(List.of(new TestEvent(4)), false);
+        assertFalse(waiting.await(200, TimeUnit.MILLISECONDS));
+        assertEquals(1, listener.batches.size());
+    }
+
+    @Test
+    void sendsAfterMaxDelay() throws Exception {
+        EventBusApplicationEventMulticaster multicaster = createMulticaster(null, 100, 100);
+        CountDownLatch latch = listener.expect(1, 3);
+        long startTime = System.nanoTime();
+        multicaster.multicastEvents(List.of(new TestEvent(1), new TestEvent(2)), false);
+        multicaster.multicastEvents(List.of(new TestEvent(3)), false);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) >= 100);
+        //多次发布的合并为一条消息
+        assertEquals(List.of(List.of(1, 2, 3)), listener.batches);
+    }
+
+    @Test
+    void splitsBatchLargerThanMaxSize() throws Exception {
+        //不等待,只合并同一次发布的事件
+        EventBusApplicationEventMulticaster multicaster = createMulticaster(null, 2, 0);
+        CountDownLatch latch = listener.expect(3, 5);
+        multicaster.multicastEvents(List.of(new TestEvent(1), new TestEvent(2), new TestEvent(3),
+                new TestEvent(4), new TestEvent(5)), false);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        //单个事件发送时List<T>监听收到只有一个事件的列表
+        assertEquals(List.of(List.of(1, 2), List.of(3, 4), List.of(5)), listener.batches);
+        assertEquals(List.of(1, 2, 3, 4, 5), listener.events);
+    }
+
+    @Test
+    void sendsPendingBatchOnClose() throws Exception {
+        ContextVerticle verticle = new ContextVerticle();
+        String deploymentId = vertx.deployVerticle(verticle).toCompletionStage().toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        EventBusApplicationEventMulticaster multicaster = createMulticaster(verticle.getVerticleContext(), 100,
+                60_000);
+        CountDownLatch latch = listener.expect(1, 2);
+        multicaster.multicastEvents(List.of(new TestEvent(1), new TestEvent(2)), false);
+        assertFalse(latch.await(200, TimeUnit.MILLISECONDS));
+
+        //卸载时发送等待中的批量
+        vertx.undeploy(deploymentId).toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of(List.of(1, 2)), listener.batches);
+
+        //关闭后不再等待
+        CountDownLatch closed = listener.expect(1, 1);
+        multicaster.multicastEvents(List.of(new TestEvent(3)), false);
+        assertTrue(closed.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of(3), listener.batches.get(1));
+    }
+
+    /**
+     * 创建多播器,注册批量监听和普通监听
+     *
+     * @param vertxContext verticle的上下文,为null时使用当前上下文
+     * @param maxSize      单条消息最多合并的事件数
+     * @param maxDelay     最多等待合并的时间
+     * @return 多播器
+     */
+    private EventBusApplicationEventMulticaster createMulticaster(Context vertxContext, int maxSize, long maxDelay)
+            throws Exception {
+        GameApplicationContext context = new GameApplicationContext();
+        context.setVertx(vertx);
+        context.setVertxContext(vertxContext);
+        context.setInjector(Guice.createInjector(binder -> binder.bind(BatchListener.class).toInstance(listener)));
+        context.getEventListeners().add(createDefinition(BatchListener.class.getMethod("onBatch", List.class), true));
+        context.getEventListeners().add(createDefinition(
+                BatchListener.class.getMethod("onEvent", TestEvent.class), false));
+        ApplicationEventExecutorConfig config = new ApplicationEventExecutorConfig();
+        config.getBatch().setMaxSize(maxSize);
+        config.getBatch().setMaxDelay(maxDelay);
+        EventBusApplicationEventMulticaster multicaster = new EventBusApplicationEventMulticaster(context, vertx,
+                vertx.eventBus(), config);
+        multicaster.init();
+        multicaster.whenConsumersRegistered().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        return multicaster;
+    }
+
+    /**
+     * 创建监听方法的类定义
+     *
+     * @param method 监听方法
+     * @param batch  是否是批量监听
+     * @return 类定义
+     */
+    private static EventListenerBeanClassDefinition createDefinition(Method method, boolean batch) {
+        EventListenerBeanClassDefinition.ParameterBeanClassDefinition parameterDefinition =
+                new EventListenerBeanClassDefinition.ParameterBeanClassDefinition();
+        parameterDefinition.setParameterClass(TestEvent.class);
+        parameterDefinition.setParameterName("event");
+        parameterDefinition.setBatch(batch);
+        EventListenerBeanClassDefinition beanClassDefinition = new EventListenerBeanClassDefinition();
+        beanClassDefinition.setClazz(BatchListener.class);
+        beanClassDefinition.setMethod(method);
+        beanClassDefinition.setListenerClasses(Set.of(TestEvent.class));
+        beanClassDefinition.setListenerSubClasses(Map.of());
+        beanClassDefinition.setParameterBeanClassDefinitions(List.of(parameterDefinition));
+        beanClassDefinition.setBatch(batch);
+        beanClassDefinition.setEventSources(Set.of());
+        return beanClassDefinition;
+    }
+
+    private static List<Integer> getIds(ApplicationEvent event) {
+        return ((BatchApplicationEvent) event).getEvents().stream()
+                .map(e -> ((TestEvent) e).getId())
+                .toList();
+    }
+
+    /**
+     * 获取上下文的verticle
+     */
+    private static class ContextVerticle extends AbstractVerticle {
+
+        private Context getVerticleContext() {
+            return context;
+        }
+    }
+
+    /**
+     * 批量监听和普通监听,记录收到的事件编号
+     */
+    public static class BatchListener {
+
+        private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+        private final List<Integer> events = new CopyOnWriteArrayList<>();
+
+        private volatile CountDownLatch latch = new CountDownLatch(0);
+
+        /**
+         * 等待收到的批量和事件
+         *
+         * @param batchCount 批量监听的执行次数
+         * @param eventCount 普通监听的执行次数
+         * @return 全部收到时完成
+         */
+        private CountDownLatch expect(int batchCount, int eventCount) {
+            latch = new CountDownLatch(batchCount + eventCount);
+            return latch;
+        }
+
+        public Future<Void> onBatch(List<TestEvent> events) {
+            List<Integer> ids = new ArrayList<>();
+            events.forEach(event -> ids.add(event.getId()));
+            batches.add(ids);
+            latch.countDown();
+            return Future.succeededFuture();
+        }
+
+        public void onEvent(TestEvent event) {
+            events.add(event.getId());
+            latch.countDown();
+        }
+    }
+
+    /**
+     * 测试事件
+     */
+    public static class TestEvent extends ApplicationEvent {
+
+        private int id;
+
+        public TestEvent() {
+        }
+
+        private TestEvent(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * 测试payload
+     */
+    public static class TestPayload {
+
+        private int id;
+
+        public TestPayload() {
+        }
+
+        private TestPayload(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.aristoco.core.event;
+
+import com.aristoco.core.GameApplicationContext;
+import com.aristoco.core.config.ApplicationEventExecutorConfig;
+import com.aristoco.core.utils.ClassUtils;
+import com.google.inject.Guice;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/29
+ * @description 运行时添加和移除事件监听器测试
+ **/
+class EventListenerRegistrationTest {
+
+    /**
+     * 测试事件的监听地址
+     */
+    private static final String LISTEN_ADDRESS = ClassUtils.getClassLowerCaseCamel(
+            EventBusApplicationEventMulticaster.class) + ".eventbus.event." + TestEvent.class.getName();
+
+    private Vertx vertx;
+
+    private EventBusApplicationEventMulticaster multicaster;
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx();
+        GameApplicationContext context = new GameApplicationContext();
+        context.setVertx(vertx);
+        context.setInjector(Guice.createInjector());
+        multicaster = new EventBusApplicationEventMulticaster(context, vertx, vertx.eventBus(),
+                new ApplicationEventExecutorConfig());
+        multicaster.init();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void unregistersShareConsumerWithLastListener() throws Exception {
+        RecordingListener first = new RecordingListener(false);
+        RecordingListener second = new RecordingListener(false);
+        addListener(first);
+        addListener(second);
+        multicaster.multicastEvent(new TestEvent(1), false);
+        assertEquals(1, first.take());
+        assertEquals(1, second.take());
+
+        //还有监听器时保留消费者
+        multicaster.removeApplicationListener(first);
+        multicaster.multicastEvent(new TestEvent(2), false);
+        assertEquals(2, second.take());
+        assertNull(first.poll());
+
+        //最后一个监听器移除后注销消费者
+        multicaster.removeApplicationListener(second);
+        assertNoHandlers();
+        multicaster.multicastEvent(new TestEvent(3), false);
+        assertNull(second.poll());
+    }
+
+    @Test
+    void unregistersAloneConsumer() throws Exception {
+        RecordingListener shared = new RecordingListener(false);
+        RecordingListener alone = new RecordingListener(true);
+        addListener(shared);
+        addListener(alone);
+        multicaster.multicastEvent(new TestEvent(1), false);
+        assertEquals(1, shared.take());
+        assertEquals(1, alone.take());
+
+        multicaster.removeApplicationListener(alone);
+        multicaster.multicastEvent(new TestEvent(2), false);
+        assertEquals(2, shared.take());
+        assertNull(alone.poll());
+
+        //独立监听器的消费者也一起注销
+        multicaster.removeAllListeners();
+        assertNoHandlers();
+
+        //移除后可以再次添加
+        addListener(alone);
+        multicaster.multicastEvent(new TestEvent(3), false);
+        assertEquals(3, alone.take());
+    }
+
+    @Test
+    void dispatchUsesListenerSnapshot() throws Exception {
+        RecordingListener removed = new RecordingListener(false);
+        RecordingListener remover = new RecordingListener(false) {
+            @Override
+            public void onApplicationEvent(TestEvent event) {
+                //执行中移除其他监听器,不影响当前正在分发的事件
+                multicaster.removeApplicationListener(removed);
+                super.onApplicationEvent(event);
+            }
+        };
+        addListener(remover);
+        addListener(removed);
+        multicaster.multicastEvent(new TestEvent(1), false);
+        assertEquals(1, remover.take());
+        assertEquals(1, removed.take());
+
+        multicaster.multicastEvent(new TestEvent(2), false);
+        assertEquals(2, remover.take());
+        assertNull(removed.poll());
+    }
+
+    /**
+     * 添加监听器并等待消费者注册完成
+     *
+     * @param listener 监听器
+     */
+    private void addListener(RecordingListener listener) throws Exception {
+        multicaster.addApplicationListener(TestEvent.class, listener);
+        multicaster.whenConsumersRegistered().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 校验监听地址上已经没有消费者
+     */
+    private void assertNoHandlers() {
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> vertx.eventBus()
+                .request(LISTEN_ADDRESS, "ping").toCompletionStage().toCompletableFuture()
+                .get(10, TimeUnit.SECONDS));
+        ReplyException replyException = assertInstanceOf(ReplyException.class, exception.getCause());
+        assertEquals(ReplyFailure.NO_HANDLERS, replyException.failureType());
+    }
+
+    /**
+     * 记录收到的事件编号
+     */
+    private static class RecordingListener implements ApplicationListener<TestEvent> {
+
+        private final BlockingQueue<Integer> received = new LinkedBlockingQueue<>();
+
+        private final boolean alone;
+
+        private RecordingListener(boolean alone) {
+            this.alone = alone;
+        }
+
+        @Override
+        public void onApplicationEvent(TestEvent event) {
+            received.add(event.getId());
+        }
+
+        @Override
+        public boolean isAlone() {
+            return alone;
+        }
+
+        private Integer take() throws InterruptedException {
+            return received.poll(10, TimeUnit.SECONDS);
+        }
+
+        private Integer poll() throws InterruptedException {
+            return received.poll(200, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 测试事件
+     */
+    public static class TestEvent extends ApplicationEvent {
+
+        private int id;
+
+        public TestEvent() {
+        }
+
+        private TestEvent(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+    }
+}
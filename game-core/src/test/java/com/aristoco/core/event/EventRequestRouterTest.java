@@ -0,0 +1,73 @@
+package com.aristoco.core.event;
+
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/29
+ * @description 请求事件路由测试
+ **/
+class EventRequestRouterTest {
+
+    private static final String ADDRESS = "test.event";
+
+    private Vertx vertx;
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void selectsOnlyReplyingListener() {
+        EventRequestRouter.EventRequestTarget voidTarget = register("void", null);
+        assertNull(EventRequestRouter.select(vertx, ADDRESS));
+
+        EventRequestRouter.EventRequestTarget replyTarget = register("reply", "ReplyListener#onEvent");
+        //没有返回值的实例负载再小也不选择
+        replyTarget.acquire();
+        assertSame(replyTarget, EventRequestRouter.select(vertx, ADDRESS));
+        assertNotSame(voidTarget, EventRequestRouter.select(vertx, ADDRESS));
+    }
+
+    @Test
+    void selectsLeastLoadedInstanceOfSameListener() {
+        EventRequestRouter.EventRequestTarget first = register("first", "ReplyListener#onEvent");
+        EventRequestRouter.EventRequestTarget other = register("other", "OtherListener#onEvent");
+        EventRequestRouter.EventRequestTarget second = register("second", "ReplyListener#onEvent");
+        first.acquire();
+        first.acquire();
+        //其他监听器负载最小也不选择,固定在最早注册的监听器的实例中选择
+        assertSame(second, EventRequestRouter.select(vertx, ADDRESS));
+
+        second.acquire();
+        second.acquire();
+        second.acquire();
+        assertSame(first, EventRequestRouter.select(vertx, ADDRESS));
+        assertNotSame(other, EventRequestRouter.select(vertx, ADDRESS));
+
+        //监听器变化后不再有返回值
+        first.setReplyListener(null);
+        second.setReplyListener(null);
+        assertSame(other, EventRequestRouter.select(vertx, ADDRESS));
+    }
+
+    private EventRequestRouter.EventRequestTarget register(String name, String replyListener) {
+        EventRequestRouter.EventRequestTarget target = new EventRequestRouter.EventRequestTarget(
+                ADDRESS + ".request." + name, null, replyListener);
+        EventRequestRouter.register(vertx, ADDRESS, target);
+        return target;
+    }
+}
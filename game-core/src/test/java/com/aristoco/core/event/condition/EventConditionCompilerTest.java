@@ -0,0 +1,170 @@
+package com.aristoco.core.event.condition;
+
+import com.aristoco.core.event.ApplicationEvent;
+import org.junit.jupiter.api.Test;
+import org.mvel2.MVEL;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/29
+ * @description 事件监听条件编译测试,编译的结果和mvel执行的结果一致
+ **/
+class EventConditionCompilerTest {
+
+    private static final Map<String, Function<ApplicationEvent, Object>> VARIABLES = Map.of("event", e -> e);
+
+    private static final Map<String, Class<?>> VARIABLE_TYPES = Map.of("event", TestEvent.class);
+
+    @Test
+    void compareWithLiteral() {
+        TestEvent event = new TestEvent(10, "player", true);
+        assertMatchesMvel("event.level == 10", event);
+        assertMatchesMvel("event.level != 10", event);
+        assertMatchesMvel("event.level > 5 && event.level <= 10", event);
+        assertMatchesMvel("event.level >= 10.5 || event.name == 'player'", event);
+        assertMatchesMvel("event.name < 'q'", event);
+        assertMatchesMvel("event.level > 5 and event.name == \"player\"", event);
+    }
+
+    @Test
+    void compareNumberWithString() {
+        TestEvent event = new TestEvent(10, "10", true);
+        assertMatchesMvel("event.level == '10'", event);
+        assertMatchesMvel("'10' == event.level", event);
+        assertMatchesMvel("event.level == event.name", event);
+        assertMatchesMvel("event.level == 'abc'", event);
+        assertMatchesMvel("event.level != 'abc'", event);
+        assertMatchesMvel("event.level > '5'", event);
+        assertMatchesMvel("event.level > '50'", event);
+        assertMatchesMvel("'5' < event.level", event);
+        assertMatchesMvel("event.level > '9.5'", event);
+
+        //无法转换为数字的大小比较和mvel一样抛出异常
+        Predicate<ApplicationEvent> predicate = compile("event.level > 'abc'");
+        assertThrows(RuntimeException.class, () -> predicate.test(event));
+    }
+
+    @Test
+    void compareEnumAndNull() {
+        TestEvent event = new TestEvent(10, null, true);
+        event.setUnit(TimeUnit.SECONDS);
+        assertMatchesMvel("event.unit == 'SECONDS'", event);
+        assertMatchesMvel("event.name == null", event);
+        assertMatchesMvel("event.name != null", event);
+        assertMatchesMvel("event.name > 'a'", event);
+        assertMatchesMvel("event.child == null", event);
+
+        //中间为null的属性结果为null,不抛出异常
+        assertFalse(compile("event.child.level == 1").test(event));
+        assertTrue(compile("event.child.name == null").test(event));
+    }
+
+    @Test
+    void negateBindsToOperand() {
+        TestEvent event = new TestEvent(10, "player", true);
+        assertMatchesMvel("!event.online == false", event);
+        assertMatchesMvel("!event.online == true", event);
+        assertMatchesMvel("!(event.level == 10)", event);
+        assertMatchesMvel("!event.online || event.level == 10", event);
+        assertMatchesMvel("!!event.online", event);
+        assertMatchesMvel("event.online == !event.online", event);
+
+        //和mvel一样只能对布尔值取反
+        Predicate<ApplicationEvent> predicate = compile("!event.level == 10");
+        assertThrows(IllegalArgumentException.class, () -> predicate.test(event));
+        Predicate<ApplicationEvent> nullPredicate = compile("!event.name");
+        assertThrows(IllegalArgumentException.class, () -> nullPredicate.test(new TestEvent(1, null, false)));
+    }
+
+    @Test
+    void missingPropertyFallsBack() {
+        //声明类型上没有的属性可能只有子类有,交给mvel在运行时解析
+        assertNull(compile("event.levle == 10"));
+        assertNull(compile("event.child.nmae == 'a'"));
+        //没有声明类型的运行时才能确定
+        assertNotNull(EventConditionCompiler.compile("event.levle == 10", VARIABLES));
+    }
+
+    @Test
+    void unsupportedExpressionFallsBack() {
+        assertNull(compile("event.getLevel() == 10"));
+        assertNull(compile("event.level == 10L"));
+        assertNull(compile("event.level + 1 == 11"));
+        assertNull(compile("event.level == 10 ? true : false"));
+        assertNull(compile("${game.level} == 10"));
+        assertNull(compile("unknown.level == 10"));
+    }
+
+    /**
+     * 编译的条件和mvel执行的结果一致
+     *
+     * @param condition 条件
+     * @param event     事件
+     */
+    private static void assertMatchesMvel(String condition, TestEvent event) {
+        Predicate<ApplicationEvent> predicate = compile(condition);
+        assertNotNull(predicate, condition);
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("event", event);
+        Object expected = MVEL.eval(condition, variables);
+        assertEquals(expected, predicate.test(event), condition);
+    }
+
+    private static Predicate<ApplicationEvent> compile(String condition) {
+        return EventConditionCompiler.compile(condition, VARIABLES, VARIABLE_TYPES);
+    }
+
+    /**
+     * 测试事件
+     */
+    public static class TestEvent extends ApplicationEvent {
+
+        private final int level;
+
+        private final String name;
+
+        private final boolean online;
+
+        private TimeUnit unit;
+
+        private TestEvent child;
+
+        public TestEvent(int level, String name, boolean online) {
+            this.level = level;
+            this.name = name;
+            this.online = online;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isOnline() {
+            return online;
+        }
+
+        public TimeUnit getUnit() {
+            return unit;
+        }
+
+        public void setUnit(TimeUnit unit) {
+            this.unit = unit;
+        }
+
+        public TestEvent getChild() {
+            return child;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.aristoco.core.event.executor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/29
+ * @description 事件合并器测试
+ **/
+class EventCoalescerTest {
+
+    private final EventCoalescer coalescer = new EventCoalescer("test");
+
+    /**
+     * 执行过的事件
+     */
+    private final List<String> executed = new ArrayList<>();
+
+    @Test
+    void newestWinsForSameKey() {
+        AtomicInteger firstSkipped = new AtomicInteger();
+        AtomicInteger secondSkipped = new AtomicInteger();
+        EventCoalescer.CoalescedTask task = coalescer.offer("key", record("first"), firstSkipped::incrementAndGet);
+        assertNotNull(task);
+        //同一个key等待中的只替换内容
+        assertNull(coalescer.offer("key", record("second"), secondSkipped::incrementAndGet));
+        assertEquals(1, firstSkipped.get());
+        assertEquals(1, coalescer.getCoalescedCount());
+        assertEquals(1, coalescer.getPendingCount());
+
+        //不同的key和没有key的单独提交
+        assertNotNull(coalescer.offer("other", record("other"), () -> {
+        }));
+        assertNotNull(coalescer.offer(null, record("none"), () -> {
+        }));
+        assertEquals(3, coalescer.getPendingCount());
+
+        task.execute();
+        assertEquals(List.of("second"), executed);
+        assertEquals(0, secondSkipped.get());
+        assertEquals(2, coalescer.getPendingCount());
+    }
+
+    @Test
+    void submitsNewTaskAfterPendingStarted() {
+        EventCoalescer.CoalescedTask[] offeredWhileRunning = new EventCoalescer.CoalescedTask[1];
+        EventCoalescer.CoalescedTask task = coalescer.offer("key", EventTask.of(() -> {
+            executed.add("first");
+            //执行中到达的事件不能合并到已经开始的任务
+            offeredWhileRunning[0] = coalescer.offer("key", record("second"), () -> {
+            });
+        }), () -> {
+        });
+        task.execute();
+        assertNotNull(offeredWhileRunning[0]);
+        assertNotSame(task, offeredWhileRunning[0]);
+        assertEquals(0, coalescer.getCoalescedCount());
+
+        //已经执行过的任务不再执行
+        task.execute();
+        assertEquals(List.of("first"), executed);
+        offeredWhileRunning[0].execute();
+        assertEquals(List.of("first", "second"), executed);
+        assertEquals(0, coalescer.getPendingCount());
+    }
+
+    @Test
+    void cancelRunsSkippedOnce() {
+        AtomicInteger firstSkipped = new AtomicInteger();
+        AtomicInteger secondSkipped = new AtomicInteger();
+        EventCoalescer.CoalescedTask task = coalescer.offer("key", record("first"), firstSkipped::incrementAndGet);
+        coalescer.offer("key", record("second"), secondSkipped::incrementAndGet);
+
+        //丢弃时只有最新的事件执行回调
+        task.cancel();
+        task.cancel();
+        assertEquals(1, firstSkipped.get());
+        assertEquals(1, secondSkipped.get());
+        assertEquals(0, coalescer.getPendingCount());
+
+        //丢弃后不再执行,之后的事件提交新的任务
+        task.execute();
+        assertTrue(executed.isEmpty());
+        assertNotNull(coalescer.offer("key", record("third"), () -> {
+        }));
+
+        //已经开始执行的任务不能丢弃
+        EventCoalescer.CoalescedTask started = coalescer.offer("started", record("started"),
+                secondSkipped::incrementAndGet);
+        started.execute();
+        started.cancel();
+        assertEquals(1, secondSkipped.get());
+    }
+
+    /**
+     * 记录执行的任务
+     *
+     * @param name 事件名
+     * @return 事件任务
+     */
+    private EventTask record(String name) {
+        return EventTask.of(() -> executed.add(name));
+    }
+}
@@ -0,0 +1,156 @@
+package com.aristoco.core.event.executor;
+
+import com.aristoco.core.event.metrics.EventQueueMetrics;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/29
+ * @description 事件待执行队列测试
+ **/
+class EventPendingQueueTest {
+
+    private Vertx vertx;
+
+    /**
+     * 提交执行的任务,测试中手动执行
+     */
+    private BlockingQueue<EventTask> submitted;
+
+    private AtomicInteger droppedMetrics;
+
+    private AtomicInteger rejectedMetrics;
+
+    private EventQueueMetrics queueMetrics;
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx();
+        submitted = new LinkedBlockingQueue<>();
+        droppedMetrics = new AtomicInteger();
+        rejectedMetrics = new AtomicInteger();
+        queueMetrics = new EventQueueMetrics() {
+            @Override
+            public void recordPendingDropped() {
+                droppedMetrics.incrementAndGet();
+            }
+
+            @Override
+            public void recordPendingRejected() {
+                rejectedMetrics.incrementAndGet();
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void rejectsWhenFull() {
+        EventPendingQueue queue = createQueue(2, EventOverflowPolicy.REJECT);
+        List<Integer> executed = new ArrayList<>();
+        assertTrue(queue.offer(EventTask.of(() -> executed.add(1)), null, submitted::add));
+        assertTrue(queue.offer(EventTask.of(() -> executed.add(2)), null, submitted::add));
+        assertFalse(queue.offer(EventTask.of(() -> executed.add(3)), null, submitted::add));
+        assertEquals(2, queue.getDepth());
+        assertEquals(1, queue.getRejectedCount());
+        assertEquals(1, rejectedMetrics.get());
+
+        //开始执行后空出位置
+        submitted.poll().execute();
+        assertEquals(1, queue.getDepth());
+        assertTrue(queue.offer(EventTask.of(() -> executed.add(4)), null, submitted::add));
+        submitted.forEach(EventTask::execute);
+        assertEquals(List.of(1, 2, 4), executed);
+        assertEquals(0, queue.getDepth());
+    }
+
+    @Test
+    void dropsOldestWhenFull() {
+        EventPendingQueue queue = createQueue(1, EventOverflowPolicy.DROP_OLDEST);
+        List<Integer> executed = new ArrayList<>();
+        AtomicInteger dropped = new AtomicInteger();
+        assertTrue(queue.offer(EventTask.of(() -> executed.add(1)), dropped::incrementAndGet, submitted::add));
+        assertTrue(queue.offer(EventTask.of(() -> executed.add(2)), dropped::incrementAndGet, submitted::add));
+        assertEquals(1, dropped.get());
+        assertEquals(1, queue.getDroppedCount());
+        assertEquals(1, droppedMetrics.get());
+        assertEquals(1, queue.getDepth());
+
+        //被丢弃的任务已经提交到线程池,执行时直接跳过
+        submitted.forEach(EventTask::execute);
+        assertEquals(List.of(2), executed);
+        assertEquals(0, queue.getDepth());
+    }
+
+    @Test
+    void cancelReleasesSlot() {
+        EventPendingQueue queue = createQueue(1, EventOverflowPolicy.REJECT);
+        assertTrue(queue.offer(EventTask.of(() -> fail("取消的任务不能执行")), null, submitted::add));
+        EventTask task = submitted.poll();
+        queue.cancel(task);
+        assertEquals(0, queue.getDepth());
+        task.execute();
+        assertTrue(queue.offer(Future::succeededFuture, null, submitted::add));
+    }
+
+    @Test
+    void blockHoldsTasksUntilSlotIsFree() throws InterruptedException {
+        EventPendingQueue queue = createQueue(1, EventOverflowPolicy.BLOCK);
+        List<Integer> executed = new ArrayList<>();
+        assertTrue(queue.offer(EventTask.of(() -> executed.add(1)), null, submitted::add));
+        assertTrue(queue.offer(EventTask.of(() -> executed.add(2)), null, submitted::add));
+        assertTrue(queue.offer(EventTask.of(() -> executed.add(3)), null, submitted::add));
+        //超过容量的暂存在队列中,没有提交执行
+        assertEquals(1, submitted.size());
+        assertEquals(3, queue.getDepth());
+
+        for (int i = 0; i < 3; i++) {
+            EventTask task = submitted.poll(10, TimeUnit.SECONDS);
+            assertNotNull(task);
+            //提交执行的任务不超过容量
+            assertTrue(submitted.isEmpty());
+            task.execute();
+        }
+        assertEquals(List.of(1, 2, 3), executed);
+        assertEquals(0, queue.getDepth());
+    }
+
+    @Test
+    void wakesOneWaiterPerSlot() {
+        EventPendingQueue queue = createQueue(2, EventOverflowPolicy.BLOCK);
+        assertTrue(queue.offer(Future::succeededFuture, null, submitted::add));
+        assertTrue(queue.offer(Future::succeededFuture, null, submitted::add));
+        Future<Void> first = queue.whenWritable();
+        Future<Void> second = queue.whenWritable();
+        assertFalse(first.isComplete());
+
+        submitted.poll().execute();
+        assertTrue(first.isComplete());
+        assertFalse(second.isComplete());
+
+        //队列空了之后不会再有空位通知,全部唤醒
+        submitted.poll().execute();
+        assertTrue(second.isComplete());
+        assertTrue(queue.whenWritable().isComplete());
+    }
+
+    private EventPendingQueue createQueue(int capacity, EventOverflowPolicy overflowPolicy) {
+        return new EventPendingQueue("test", capacity, overflowPolicy, vertx.getOrCreateContext(), queueMetrics);
+    }
+}
@@ -0,0 +1,64 @@
+package com.aristoco.core.event.executor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/29
+ * @description 按优先级分队列的事件执行器测试
+ **/
+class PriorityEventExecutorTest {
+
+    @Test
+    void rejectsWhenLaneIsFull() {
+        //不执行的执行器,执行者提交后任务一直排队
+        List<Runnable> scheduled = new ArrayList<>();
+        PriorityEventExecutor priorityExecutor = new PriorityEventExecutor(scheduled::add, 1, 2, null);
+        List<Integer> executed = new ArrayList<>();
+        priorityExecutor.execute(EventPriority.LOW, () -> executed.add(1));
+        priorityExecutor.execute(EventPriority.LOW, () -> executed.add(2));
+        assertThrows(RejectedExecutionException.class,
+                () -> priorityExecutor.execute(EventPriority.LOW, () -> executed.add(3)));
+        assertEquals(2, priorityExecutor.getQueueDepth(EventPriority.LOW));
+        //其他优先级不受影响
+        priorityExecutor.execute(EventPriority.HIGH, () -> executed.add(4));
+        assertEquals(1, priorityExecutor.getQueueDepth(EventPriority.HIGH));
+
+        new ArrayList<>(scheduled).forEach(Runnable::run);
+        assertEquals(3, executed.size());
+        assertFalse(executed.contains(3));
+        assertEquals(0, priorityExecutor.getQueueDepth(EventPriority.LOW));
+    }
+
+    @Test
+    void rollsBackWhenSubmitFails() {
+        AtomicBoolean closed = new AtomicBoolean(true);
+        List<Runnable> scheduled = new ArrayList<>();
+        PriorityEventExecutor priorityExecutor = new PriorityEventExecutor(task -> {
+            if (closed.get()) {
+                //例如verticle的WorkerExecutor已经关闭
+                throw new IllegalStateException("executor closed");
+            }
+            scheduled.add(task);
+        }, 1, 16, null);
+        List<Integer> executed = new ArrayList<>();
+        assertThrows(RejectedExecutionException.class,
+                () -> priorityExecutor.execute(EventPriority.NORMAL, () -> executed.add(1)));
+        //提交失败的任务被移除,不会在之后执行
+        assertEquals(0, priorityExecutor.getQueueDepth(EventPriority.NORMAL));
+
+        //执行位置已经回退,可以继续提交
+        closed.set(false);
+        priorityExecutor.execute(EventPriority.NORMAL, () -> executed.add(2));
+        assertEquals(1, scheduled.size());
+        scheduled.get(0).run();
+        assertEquals(List.of(2), executed);
+    }
+}
@@ -0,0 +1,115 @@
+package com.aristoco.core.event.executor;
+
+import io.vertx.core.Promise;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/29
+ * @description 按key分片的有序事件执行器测试
+ **/
+class StripedEventExecutorTest {
+
+    private ExecutorService executorService;
+
+    @BeforeEach
+    void setUp() {
+        executorService = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void keepsOrderPerKey() throws InterruptedException {
+        int keyCount = 16;
+        int taskCount = 500;
+        StripedEventExecutor stripedExecutor = new StripedEventExecutor(executorService, 4, keyCount * taskCount);
+        Map<Integer, List<Integer>> executed = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(keyCount * taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            for (int key = 0; key < keyCount; key++) {
+                int sequence = i;
+                Integer routingKey = key;
+                stripedExecutor.execute(routingKey, () -> {
+                    executed.computeIfAbsent(routingKey, k -> new CopyOnWriteArrayList<>()).add(sequence);
+                    latch.countDown();
+                });
+            }
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        for (int key = 0; key < keyCount; key++) {
+            List<Integer> sequences = executed.get(key);
+            assertEquals(taskCount, sequences.size());
+            for (int i = 0; i < taskCount; i++) {
+                assertEquals(i, (int) sequences.get(i), "key:" + key + "的任务没有按提交顺序执行");
+            }
+        }
+        assertEquals(0, stripedExecutor.getQueueDepth());
+    }
+
+    @Test
+    void holdsStripeUntilAsyncTaskCompletes() throws InterruptedException {
+        StripedEventExecutor stripedExecutor = new StripedEventExecutor(executorService, 1, 16);
+        Promise<Void> promise = Promise.promise();
+        List<Integer> executed = new CopyOnWriteArrayList<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        stripedExecutor.execute(0, () -> {
+            executed.add(1);
+            started.countDown();
+            return promise.future();
+        });
+        stripedExecutor.execute(0, () -> {
+            executed.add(2);
+            finished.countDown();
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        //前一个异步任务没有完成,同一个分片的后续任务不执行
+        assertFalse(finished.await(200, TimeUnit.MILLISECONDS));
+        assertEquals(List.of(1), executed);
+
+        promise.complete();
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2), executed);
+    }
+
+    @Test
+    void rejectsWhenStripeIsFull() {
+        //不执行的执行器,分片提交后任务一直排队
+        List<Runnable> scheduled = new ArrayList<>();
+        StripedEventExecutor stripedExecutor = new StripedEventExecutor(scheduled::add, 2, 2);
+        List<Integer> executed = new ArrayList<>();
+        stripedExecutor.execute(0, () -> executed.add(1));
+        stripedExecutor.execute(0, () -> executed.add(2));
+        assertThrows(RejectedExecutionException.class, () -> stripedExecutor.execute(0, () -> executed.add(3)));
+        assertEquals(2, stripedExecutor.getQueueDepth());
+        //其他分片不受影响
+        stripedExecutor.execute(1, () -> executed.add(4));
+        assertEquals(3, stripedExecutor.getQueueDepth());
+
+        //分片执行完后可以继续提交
+        new ArrayList<>(scheduled).forEach(Runnable::run);
+        assertEquals(List.of(1, 2, 4), executed);
+        assertEquals(0, stripedExecutor.getQueueDepth());
+        stripedExecutor.execute(0, () -> executed.add(5));
+        assertEquals(1, stripedExecutor.getQueueDepth());
+    }
+}
@@ -0,0 +1,47 @@
+package com.aristoco.core.event.executor;
+
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/29
+ * @description 虚拟线程事件执行器测试
+ **/
+class VirtualThreadEventExecutorTest {
+
+    @Test
+    void sharesExecutorWithSameConfig() throws Exception {
+        Vertx vertx = Vertx.vertx();
+        try {
+            VirtualThreadEventExecutor executor = VirtualThreadEventExecutor.getSharedExecutor(vertx, "event", 8);
+            assertSame(executor, VirtualThreadEventExecutor.getSharedExecutor(vertx, "event", 8));
+            assertThrows(IllegalArgumentException.class,
+                    () -> VirtualThreadEventExecutor.getSharedExecutor(vertx, "event", 16));
+            //不限制并发的配置视为相同
+            VirtualThreadEventExecutor unlimited = VirtualThreadEventExecutor.getSharedExecutor(vertx, "unlimited", 0);
+            assertSame(unlimited, VirtualThreadEventExecutor.getSharedExecutor(vertx, "unlimited", -1));
+        } finally {
+            vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void shutsDownWhenVertxClosed() throws Exception {
+        Vertx vertx = Vertx.vertx();
+        VirtualThreadEventExecutor executor = VirtualThreadEventExecutor.getSharedExecutor(vertx, "event", 2);
+        CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(latch::countDown);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+        vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+        }));
+    }
+}
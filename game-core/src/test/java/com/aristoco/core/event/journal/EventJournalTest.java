@@ -0,0 +1,273 @@
+package com.aristoco.core.event.journal;
+
+import cn.hutool.core.io.FileUtil;
+import com.aristoco.core.GameApplicationContext;
+import com.aristoco.core.config.ApplicationEventExecutorConfig;
+import com.aristoco.core.event.ApplicationEvent;
+import com.aristoco.core.event.EventBusApplicationEventMulticaster;
+import com.aristoco.core.event.annotation.JournaledEvent;
+import com.google.inject.Guice;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/29
+ * @description 事件日志测试
+ **/
+class EventJournalTest {
+
+    /**
+     * 段大小,只能放下几条记录
+     */
+    private static final int SEGMENT_SIZE = 512;
+
+    private Path directory;
+
+    private EventJournal journal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("event-journal");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (journal != null) {
+            await(journal.close());
+        }
+        FileUtil.del(directory.toFile());
+    }
+
+    @Test
+    void readsAcrossSegmentBoundary() throws Exception {
+        journal = new EventJournal(directory, SEGMENT_SIZE, 10);
+        List<Long> offsets = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            offsets.add(await(journal.append(new JournalTestEvent(i), false)));
+        }
+        assertTrue(listSegments().size() > 1);
+
+        List<EventJournalRecord> records = new ArrayList<>();
+        assertEquals(journal.getEndOffset(), journal.read(0, records::add));
+        assertEquals(rangeIds(1, 20), getIds(records));
+        assertEquals(offsets, records.stream().map(EventJournalRecord::offset).toList());
+        //新的段从上一段的结尾开始,记录的位置是连续的
+        for (int i = 1; i < records.size(); i++) {
+            assertEquals(records.get(i - 1).nextOffset(), records.get(i).offset());
+        }
+
+        //从中间的记录开始读取
+        List<EventJournalRecord> tail = new ArrayList<>();
+        assertEquals(journal.getEndOffset(), journal.read(offsets.get(10), tail::add));
+        assertEquals(rangeIds(11, 20), getIds(tail));
+    }
+
+    @Test
+    void reopensAfterTornTail() throws Exception {
+        journal = new EventJournal(directory, SEGMENT_SIZE, 10);
+        for (int i = 1; i <= 3; i++) {
+            await(journal.append(new JournalTestEvent(i), false));
+        }
+        long endOffset = journal.getEndOffset();
+        await(journal.close());
+
+        //结尾写了一半的记录:记录头已经写入,内容没有写完
+        Path lastSegment = listSegments().get(listSegments().size() - 1);
+        int position = (int) (endOffset - getBaseOffset(lastSegment));
+        try (FileChannel channel = FileChannel.open(lastSegment, StandardOpenOption.WRITE)) {
+            ByteBuffer torn = ByteBuffer.allocate(12).putInt(16).putInt(0x12345678).putInt(0x01010101).flip();
+            channel.write(torn, position);
+        }
+
+        journal = new EventJournal(directory, SEGMENT_SIZE, 10);
+        assertEquals(endOffset, journal.getEndOffset());
+        assertEquals(rangeIds(1, 3), getIds(readAll(0)));
+        //从最后一条完整的记录之后继续追加
+        assertEquals(endOffset, await(journal.append(new JournalTestEvent(4), false)));
+        assertEquals(rangeIds(1, 4), getIds(readAll(0)));
+    }
+
+    @Test
+    void reopensAfterTruncatedTail() throws Exception {
+        journal = new EventJournal(directory, SEGMENT_SIZE, 10);
+        List<Long> offsets = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            offsets.add(await(journal.append(new JournalTestEvent(i), false)));
+        }
+        await(journal.close());
+
+        //最后一条记录只有一部分落盘
+        Path lastSegment = listSegments().get(listSegments().size() - 1);
+        long lastOffset = offsets.get(2);
+        try (FileChannel channel = FileChannel.open(lastSegment, StandardOpenOption.WRITE)) {
+            channel.truncate(lastOffset - getBaseOffset(lastSegment) + 10);
+        }
+
+        journal = new EventJournal(directory, SEGMENT_SIZE, 10);
+        assertEquals(lastOffset, journal.getEndOffset());
+        assertEquals(rangeIds(1, 2), getIds(readAll(0)));
+        assertEquals(lastOffset, await(journal.append(new JournalTestEvent(3), false)));
+        assertEquals(rangeIds(1, 3), getIds(readAll(0)));
+    }
+
+    @Test
+    void replayMarksReplayingThread() throws Exception {
+        journal = new EventJournal(directory, SEGMENT_SIZE, 10);
+        await(journal.append(new JournalTestEvent(1), false));
+        long secondOffset = await(journal.append(new JournalTestEvent(2), false));
+        await(journal.append(new JournalTestEvent(3), true));
+
+        List<Integer> ids = new ArrayList<>();
+        List<Boolean> directs = new ArrayList<>();
+        List<Boolean> replaying = new ArrayList<>();
+        long nextOffset = journal.replay(secondOffset, (event, direct) -> {
+            ids.add(((JournalTestEvent) event).getId());
+            directs.add(direct);
+            replaying.add(EventJournal.isReplaying());
+        });
+        assertEquals(journal.getEndOffset(), nextOffset);
+        assertEquals(List.of(2, 3), ids);
+        assertEquals(List.of(false, true), directs);
+        assertEquals(List.of(true, true), replaying);
+        assertFalse(EventJournal.isReplaying());
+
+        //发布失败也要清理重放标识
+        assertThrows(IllegalStateException.class, () -> journal.replay(0, (event, direct) -> {
+            throw new IllegalStateException();
+        }));
+        assertFalse(EventJournal.isReplaying());
+    }
+
+    @Test
+    void multicasterSkipsReplayedEvents() throws Exception {
+        Vertx vertx = Vertx.vertx();
+        try {
+            GameApplicationContext context = new GameApplicationContext();
+            context.setVertx(vertx);
+            context.setInjector(Guice.createInjector());
+            ApplicationEventExecutorConfig config = new ApplicationEventExecutorConfig();
+            config.getJournal().setEnable(true);
+            config.getJournal().setDirectory(directory.toString());
+            config.getJournal().setSegmentSize(SEGMENT_SIZE);
+            EventBusApplicationEventMulticaster multicaster = new EventBusApplicationEventMulticaster(context, vertx,
+                    vertx.eventBus(), config);
+            multicaster.init();
+            EventJournal sharedJournal = multicaster.getEventJournal();
+
+            multicaster.multicastEvent(new JournalTestEvent(1), false);
+            assertEquals(List.of(1), getIds(awaitRecords(sharedJournal, 1)));
+
+            //重放发布的事件不再记录,之后正常发布的事件继续记录
+            sharedJournal.replay(0, (event, direct) -> multicaster.multicastEvent((ApplicationEvent) event, direct));
+            multicaster.multicastEvent(new JournalTestEvent(2), false);
+            assertEquals(List.of(1, 2), getIds(awaitRecords(sharedJournal, 2)));
+        } finally {
+            //verticle上下文关闭时释放事件日志
+            await(vertx.close());
+        }
+    }
+
+    /**
+     * 读取指定位置之后的所有记录
+     *
+     * @param fromOffset 开始位置
+     * @return 记录
+     */
+    private List<EventJournalRecord> readAll(long fromOffset) {
+        List<EventJournalRecord> records = new ArrayList<>();
+        journal.read(fromOffset, records::add);
+        return records;
+    }
+
+    /**
+     * 等待写线程写入指定数量的记录
+     *
+     * @param eventJournal 事件日志
+     * @param count        记录数
+     * @return 所有记录
+     */
+    private static List<EventJournalRecord> awaitRecords(EventJournal eventJournal, int count)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            List<EventJournalRecord> records = new ArrayList<>();
+            eventJournal.read(0, records::add);
+            if (records.size() >= count || System.currentTimeMillis() > deadline) {
+                return records;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(path -> path.getFileName().toString().endsWith(".log"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long getBaseOffset(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - ".log".length()));
+    }
+
+    private static List<Integer> getIds(List<EventJournalRecord> records) {
+        return records.stream()
+                .map(record -> ((JournalTestEvent) record.event()).getId())
+                .toList();
+    }
+
+    private static List<Integer> rangeIds(int from, int to) {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            ids.add(i);
+        }
+        return ids;
+    }
+
+    private static <T> T await(Future<T> future) throws Exception {
+        return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 记录到事件日志的测试事件
+     */
+    @JournaledEvent
+    public static class JournalTestEvent extends ApplicationEvent {
+
+        private int id;
+
+        public JournalTestEvent() {
+        }
+
+        private JournalTestEvent(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+    }
+}
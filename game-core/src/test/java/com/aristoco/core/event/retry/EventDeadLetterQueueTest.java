@@ -0,0 +1,185 @@
+package com.aristoco.core.event.retry;
+
+import com.aristoco.core.GameApplicationContext;
+import com.aristoco.core.config.ApplicationEventExecutorConfig;
+import com.aristoco.core.event.ApplicationEvent;
+import com.aristoco.core.event.ApplicationListener;
+import com.aristoco.core.event.EventBusApplicationEventMulticaster;
+import com.aristoco.core.event.PayloadApplicationEvent;
+import com.aristoco.core.event.annotation.EventRetry;
+import com.google.inject.Guice;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/29
+ * @description 事件死信队列测试
+ **/
+class EventDeadLetterQueueTest {
+
+    @Test
+    void keepsLatestDeadLettersAfterWrap() {
+        EventDeadLetterQueue queue = new EventDeadLetterQueue(3, null);
+        for (int i = 1; i <= 5; i++) {
+            queue.add(createDeadLetter(new RetryTestEvent(i)));
+        }
+        //覆盖最早的,按从早到晚返回
+        assertEquals(List.of(3, 4, 5), getIds(queue.getDeadLetters()));
+        assertEquals(5, queue.getDeadLetterCount());
+
+        queue.clear();
+        assertTrue(queue.getDeadLetters().isEmpty());
+        queue.add(createDeadLetter(new RetryTestEvent(6)));
+        assertEquals(List.of(6), getIds(queue.getDeadLetters()));
+        assertEquals(6, queue.getDeadLetterCount());
+    }
+
+    @Test
+    void writesPayloadTypeToFile() throws Exception {
+        Path directory = Files.createTempDirectory("event-dead-letter");
+        Path file = directory.resolve("dead-letter.log");
+        try {
+            EventDeadLetterQueue queue = new EventDeadLetterQueue(8, file);
+            queue.add(createDeadLetter(new PayloadApplicationEvent<>(new RetryTestPayload(1))));
+            queue.add(createDeadLetter(new RetryTestEvent(2)));
+            Promise<Void> closed = Promise.promise();
+            queue.close(closed);
+            closed.future().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+            List<JsonObject> lines = Files.readAllLines(file, StandardCharsets.UTF_8).stream()
+                    .map(JsonObject::new)
+                    .toList();
+            assertEquals(2, lines.size());
+            //payload事件记录payload的类型
+            assertEquals(RetryTestPayload.class.getName(), lines.get(0).getString("eventType"));
+            assertEquals(RetryTestEvent.class.getName(), lines.get(1).getString("eventType"));
+            assertEquals("listener", lines.get(1).getString("listener"));
+            assertEquals(3, lines.get(1).getInteger("attempts"));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test
+    void addsDeadLetterAfterMaxRetries() throws Exception {
+        Vertx vertx = Vertx.vertx();
+        try {
+            GameApplicationContext context = new GameApplicationContext();
+            context.setVertx(vertx);
+            context.setInjector(Guice.createInjector());
+            EventBusApplicationEventMulticaster multicaster = new EventBusApplicationEventMulticaster(context, vertx,
+                    vertx.eventBus(), new ApplicationEventExecutorConfig());
+            multicaster.init();
+            FailingListener listener = new FailingListener();
+            multicaster.addApplicationListener(RetryTestEvent.class, listener);
+            multicaster.whenConsumersRegistered().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+            multicaster.multicastEvent(new RetryTestEvent(1), false);
+            EventDeadLetterQueue queue = multicaster.getDeadLetterQueue();
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (queue.getDeadLetterCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            //第一次执行加上两次重试
+            assertEquals(3, listener.invocations.get());
+            List<DeadLetterEvent> deadLetters = queue.getDeadLetters();
+            assertEquals(1, deadLetters.size());
+            DeadLetterEvent deadLetter = deadLetters.get(0);
+            assertEquals(3, deadLetter.attempts());
+            assertEquals(FailingListener.class.getName(), deadLetter.listenerName());
+            assertEquals(1, ((RetryTestEvent) deadLetter.event()).getId());
+            assertEquals("failed 3", deadLetter.cause().getMessage());
+
+            //进入死信后不再重试
+            Thread.sleep(200);
+            assertEquals(3, listener.invocations.get());
+        } finally {
+            vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static DeadLetterEvent createDeadLetter(ApplicationEvent event) {
+        return new DeadLetterEvent("listener", "address", event, new IllegalStateException("failed"), 3,
+                System.currentTimeMillis());
+    }
+
+    private static List<Integer> getIds(List<DeadLetterEvent> deadLetters) {
+        return deadLetters.stream()
+                .map(deadLetter -> ((RetryTestEvent) deadLetter.event()).getId())
+                .toList();
+    }
+
+    /**
+     * 一直失败的监听器
+     */
+    @EventRetry(maxRetries = 2, delay = 10L, maxDelay = 100L)
+    private static class FailingListener implements ApplicationListener<RetryTestEvent> {
+
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        @Override
+        public void onApplicationEvent(RetryTestEvent event) {
+            throw new IllegalStateException("failed " + invocations.incrementAndGet());
+        }
+    }
+
+    /**
+     * 测试事件
+     */
+    public static class RetryTestEvent extends ApplicationEvent {
+
+        private int id;
+
+        public RetryTestEvent() {
+        }
+
+        private RetryTestEvent(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * 测试payload
+     */
+    public static class RetryTestPayload {
+
+        private int id;
+
+        public RetryTestPayload() {
+        }
+
+        private RetryTestPayload(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+    }
+}
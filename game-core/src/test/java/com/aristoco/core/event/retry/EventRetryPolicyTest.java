@@ -0,0 +1,42 @@
+package com.aristoco.core.event.retry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/29
+ * @description 事件重试策略测试
+ **/
+class EventRetryPolicyTest {
+
+    @Test
+    void backoffGrowsUntilMaxDelay() {
+        EventRetryPolicy retryPolicy = new EventRetryPolicy(5, 100L, 2.0, 500L);
+        List<Long> delays = new ArrayList<>();
+        for (int attempt = 0; retryPolicy.canRetry(attempt); attempt++) {
+            delays.add(retryPolicy.getDelay(attempt));
+        }
+        assertEquals(List.of(100L, 200L, 400L, 500L, 500L), delays);
+    }
+
+    @Test
+    void stopsAfterMaxRetries() {
+        EventRetryPolicy retryPolicy = new EventRetryPolicy(2, 100L, 2.0, 500L);
+        assertTrue(retryPolicy.canRetry(0));
+        assertTrue(retryPolicy.canRetry(1));
+        assertFalse(retryPolicy.canRetry(2));
+        assertFalse(EventRetryPolicy.NONE.canRetry(0));
+    }
+
+    @Test
+    void delayIsAtLeastOneMillisecond() {
+        EventRetryPolicy retryPolicy = new EventRetryPolicy(3, 0L, 2.0, 500L);
+        assertEquals(1L, retryPolicy.getDelay(0));
+        assertEquals(1L, new EventRetryPolicy(3, 10L, 0.5, 500L).getDelay(10));
+    }
+}
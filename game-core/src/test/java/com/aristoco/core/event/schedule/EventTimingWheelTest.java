@@ -0,0 +1,177 @@
+package com.aristoco.core.event.schedule;
+
+import com.aristoco.core.event.ApplicationEvent;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author chenguowei
+ * @date 2024/8/29
+ * @description 延迟事件时间轮测试
+ **/
+class EventTimingWheelTest {
+
+    private Vertx vertx;
+
+    /**
+     * 发布的事件,按发布顺序
+     */
+    private List<TestEvent> expired;
+
+    /**
+     * 事件发布时距离加入的毫秒数
+     */
+    private Map<TestEvent, Long> elapsedMap;
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx();
+        expired = new CopyOnWriteArrayList<>();
+        elapsedMap = new ConcurrentHashMap<>();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void cascadesAcrossLevels() throws InterruptedException {
+        //每层4个槽,各层分别覆盖4,16,64,256个tick
+        CountDownLatch latch = new CountDownLatch(4);
+        EventTimingWheel wheel = createWheel(vertx.getOrCreateContext(), 4, latch);
+        TestEvent top = schedule(wheel, 150);
+        TestEvent second = schedule(wheel, 40);
+        TestEvent first = schedule(wheel, 10);
+        TestEvent zero = schedule(wheel, 2);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of(zero, first, second, top), expired);
+        assertNotEarly(zero, first, second, top);
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    @Test
+    void cancelsPendingEvent() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        EventTimingWheel wheel = createWheel(vertx.getOrCreateContext(), 4, latch);
+        TestEvent cancelled = new TestEvent(30);
+        ScheduledEventHandle handle = wheel.schedule(cancelled, false, cancelled.delay);
+        TestEvent kept = schedule(wheel, 60);
+        assertTrue(handle.cancel());
+        assertTrue(handle.isCancelled());
+        assertFalse(handle.cancel());
+        assertEquals(1, wheel.getPendingCount());
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of(kept), expired);
+        assertFalse(handle.isExpired());
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    @Test
+    void schedulesBeyondTopLevel() throws InterruptedException {
+        //每层2个槽,最上层一圈只有16个tick,更长的延迟需要在最上层循环降级
+        CountDownLatch latch = new CountDownLatch(2);
+        EventTimingWheel wheel = createWheel(vertx.getOrCreateContext(), 2, latch);
+        TestEvent far = schedule(wheel, 100);
+        TestEvent near = schedule(wheel, 5);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of(near, far), expired);
+        assertNotEarly(near, far);
+    }
+
+    @Test
+    void runsScheduledTaskInsteadOfPublishing() throws InterruptedException {
+        CountDownLatch published = new CountDownLatch(1);
+        EventTimingWheel wheel = createWheel(vertx.getOrCreateContext(), 4, published);
+        CountDownLatch executed = new CountDownLatch(1);
+        TestEvent event = new TestEvent(20);
+        ScheduledEventHandle handle = wheel.schedule(event, event.delay, executed::countDown);
+        assertTrue(executed.await(10, TimeUnit.SECONDS));
+        assertTrue(handle.isExpired());
+        assertFalse(published.await(50, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void stopsWhenContextClosed() throws Exception {
+        ContextVerticle verticle = new ContextVerticle();
+        String deploymentId = vertx.deployVerticle(verticle).toCompletionStage().toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        CountDownLatch latch = new CountDownLatch(1);
+        EventTimingWheel wheel = createWheel(verticle.getVerticleContext(), 4, latch);
+        ScheduledEventHandle handle = wheel.schedule(new TestEvent(10_000), false, 10_000);
+        assertEquals(1, wheel.getPendingCount());
+
+        vertx.undeploy(deploymentId).toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        //卸载后等待的事件被丢弃,不能再添加
+        assertTrue(handle.isCancelled());
+        assertEquals(0, wheel.getPendingCount());
+        assertThrows(IllegalStateException.class, () -> wheel.schedule(new TestEvent(0), false, 0));
+        assertFalse(latch.await(100, TimeUnit.MILLISECONDS));
+    }
+
+    private EventTimingWheel createWheel(Context context, int wheelSize, CountDownLatch latch) {
+        return new EventTimingWheel(vertx, context, 1, wheelSize, (event, direct) -> {
+            TestEvent testEvent = (TestEvent) event;
+            elapsedMap.put(testEvent, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - testEvent.scheduleNanos));
+            expired.add(testEvent);
+            latch.countDown();
+        });
+    }
+
+    private static TestEvent schedule(EventTimingWheel wheel, long delay) {
+        TestEvent event = new TestEvent(delay);
+        wheel.schedule(event, false, delay);
+        return event;
+    }
+
+    private void assertNotEarly(TestEvent... events) {
+        for (TestEvent event : events) {
+            assertTrue(elapsedMap.get(event) >= event.delay,
+                    "延迟" + event.delay + "ms的事件提前发布,实际延迟:" + elapsedMap.get(event) + "ms");
+        }
+    }
+
+    /**
+     * 获取上下文的verticle
+     */
+    private static class ContextVerticle extends AbstractVerticle {
+
+        private Context getVerticleContext() {
+            return context;
+        }
+    }
+
+    /**
+     * 测试事件
+     */
+    private static class TestEvent extends ApplicationEvent {
+
+        /**
+         * 延迟(毫秒)
+         */
+        private final long delay;
+
+        /**
+         * 加入的时间
+         */
+        private final long scheduleNanos = System.nanoTime();
+
+        private TestEvent(long delay) {
+            this.delay = delay;
+        }
+    }
+}